@@ -149,6 +149,7 @@
             </table>
             <div class="form-group">
                 <button class="btn btn-info" onclick="resolve('init')">Init</button>
+                <button class="btn btn-info" onclick="resolve('init-projections')">Init with projections</button>
                 <button class="btn btn-info" onclick="resolve('reset')">Reset</button>
                 <button class="btn btn-info" onclick="resolve('fast-rewind')">&lt;&lt;</button>
                 <button class="btn btn-info" onclick="resolve('rewind')">&lt;</button>
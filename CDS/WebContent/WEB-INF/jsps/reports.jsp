@@ -56,6 +56,24 @@
                     </table>
                 </div>
             </div>
+
+            <div class="card">
+                <div class="card-header">
+                    <h3 class="card-title">Statistics</h3>
+                </div>
+                <div class="card-body p-0">
+                    <table id="stats-table" class="table table-sm table-hover table-striped">
+                        <thead></thead>
+                        <tbody>
+                            <tr>
+                                <td>
+                                    <div class="spinner-border"></div>
+                                </td>
+                            </tr>
+                        </tbody>
+                    </table>
+                </div>
+            </div>
         </div>
     </div>
 </div>
@@ -92,6 +110,15 @@
             	console.log("Error loading problems: " + result);
             }
         });
+        $.ajax({
+            url: '<%= apiRoot %>/report/stats',
+            success: function (result) {
+                fillTable('#stats-table', result);
+            },
+            failure: function (result) {
+            	console.log("Error loading statistics: " + result);
+            }
+        });
     });
 
     function fillTable(table, result) {
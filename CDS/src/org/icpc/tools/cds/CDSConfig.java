@@ -19,6 +19,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.icpc.tools.cds.service.ExecutorListener;
+import org.icpc.tools.cds.util.AccountIndex;
 import org.icpc.tools.cds.video.VideoAggregator;
 import org.icpc.tools.cds.video.VideoAggregator.ConnectionMode;
 import org.icpc.tools.cds.video.VideoStream.StreamType;
@@ -125,6 +126,7 @@ public class CDSConfig {
 	private File file;
 	private long lastModified;
 	private List<IAccount> userAccounts = new ArrayList<IAccount>();
+	private volatile AccountIndex accountIndex = new AccountIndex(userAccounts);
 
 	private CDSConfig(File file) {
 		this.file = file;
@@ -140,6 +142,7 @@ public class CDSConfig {
 		} catch (Exception e) {
 			Trace.trace(Trace.ERROR, "Could not load accounts", e);
 		}
+		accountIndex = new AccountIndex(userAccounts);
 
 		contests = new ConfiguredContest[0];
 		contestHashes = new long[0];
@@ -356,17 +359,7 @@ public class CDSConfig {
 	}
 
 	public IAccount getAccount(String username) {
-		if (username == null || userAccounts == null)
-			return null;
-
-		// find matching account
-		for (IAccount account : userAccounts) {
-			if (username.equals(account.getUsername())) {
-				return account;
-			}
-		}
-
-		return null;
+		return accountIndex.getAccount(username);
 	}
 
 	public Domain[] getDomains() {
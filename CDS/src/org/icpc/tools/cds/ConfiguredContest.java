@@ -9,9 +9,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.icpc.tools.cds.service.ExecutorListener;
+import org.icpc.tools.cds.util.AccountIndex;
 import org.icpc.tools.cds.util.PlaybackContest;
 import org.icpc.tools.cds.video.VideoAggregator;
 import org.icpc.tools.cds.video.VideoAggregator.ConnectionMode;
@@ -21,6 +23,8 @@ import org.icpc.tools.contest.model.ContestUtil;
 import org.icpc.tools.contest.model.IAccount;
 import org.icpc.tools.contest.model.IClarification;
 import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestBatchListener;
+import org.icpc.tools.contest.model.IContestListener.Delta;
 import org.icpc.tools.contest.model.IContestObject;
 import org.icpc.tools.contest.model.IGroup;
 import org.icpc.tools.contest.model.IJudgement;
@@ -74,7 +78,12 @@ public class ConfiguredContest {
 
 	private Contest contest;
 
-	private Map<String, Contest> accountContests = new HashMap<>();
+	// role contests, looked up without a lock on every request
+	private Map<String, Contest> accountContests = new ConcurrentHashMap<>();
+
+	// username index of the contest accounts, rebuilt when the accounts change
+	private volatile IAccount[] indexedAccounts;
+	private volatile AccountIndex accountIndex;
 
 	private Map<Object, String> clients = new HashMap<>();
 	private long[] metrics = new long[11]; // REST, feed, ws, web, download, scoreboard, XML,
@@ -503,7 +512,7 @@ public class ConfiguredContest {
 		return contest;
 	}
 
-	private static String getKey(IAccount account) {
+	protected static String getKey(IAccount account) {
 		if (IAccount.TEAM.equals(account.getAccountType()))
 			return IAccount.TEAM + account.getTeamId();
 
@@ -514,16 +523,9 @@ public class ConfiguredContest {
 		if (contest == null)
 			loadContest();
 
-		IAccount account = PUBLIC_ACCOUNT;
-		String user = request.getRemoteUser();
-		if (user != null) {
-			List<IAccount> accounts = CDSConfig.getInstance().getAccounts();
-			for (IAccount acc : accounts) {
-				if (user.equals(acc.getUsername())) {
-					account = acc;
-				}
-			}
-		}
+		IAccount account = CDSConfig.getInstance().getAccount(request.getRemoteUser());
+		if (account == null)
+			account = PUBLIC_ACCOUNT;
 
 		return getContestForAccount(account);
 	}
@@ -539,22 +541,31 @@ public class ConfiguredContest {
 		if (ac != null)
 			return ac;
 
-		// first login - create a new contest for the account type, populate the existing contest
-		// data, and cache it
+		// first login - create a new contest for the account type and replay the existing contest
+		// data into it. the replay is done outside the lock so that it doesn't hold up changes to
+		// the contest, and the listener then keeps the account contest up to date without gaps or
+		// duplicates
+		Contest ac2 = AccountHelper.createAccountContest(account);
+		ac2.setHashCode(contest.hashCode());
+
+		IContestBatchListener listener = new IContestBatchListener() {
+			@Override
+			public void contestChanged(IContest contest2, List<IContestObject> objs, List<Delta> deltas) {
+				for (IContestObject obj : objs)
+					ac2.add(obj);
+			}
+		};
+		contest.addListenerFromStart(listener);
+
+		// cache it, unless another thread got there first
 		synchronized (accountContests) {
 			ac = accountContests.get(key);
-			if (ac != null)
-				return ac;
-
-			ac = AccountHelper.createAccountContest(account);
-			ac.setHashCode(contest.hashCode());
-
-			IContestObject[] objs = contest.getObjects();
-			for (IContestObject co : objs)
-				ac.add(co);
-
-			accountContests.put(key, ac);
+			if (ac == null) {
+				accountContests.put(key, ac2);
+				return ac2;
+			}
 		}
+		contest.removeListener(listener);
 		return ac;
 	}
 
@@ -659,35 +670,37 @@ public class ConfiguredContest {
 
 			State[] currentState = new State[1];
 			currentState[0] = new State();
-			contest.addListenerFromStart((contest2, obj, d) -> {
-				synchronized (accountContests) {
-					for (Contest ac : accountContests.values()) {
-						ac.add(obj);
-					}
+			contest.addListenerFromStart(new IContestBatchListener() {
+				@Override
+				public void contestChanged(IContest contest2, List<IContestObject> objs, List<Delta> deltas) {
+					for (IContestObject obj : objs)
+						objectChanged(obj);
 				}
 
-				if (obj instanceof ITeam) {
-					ITeam team = (ITeam) obj;
-					if (videos != null && streamMap.get(team.getId()) == null && isTeamOrSpare(contest, team)) {
-						setupTeamStreams(team.getId());
+				private void objectChanged(IContestObject obj) {
+					if (obj instanceof ITeam) {
+						ITeam team = (ITeam) obj;
+						if (videos != null && streamMap.get(team.getId()) == null && isTeamOrSpare(contest, team)) {
+							setupTeamStreams(team.getId());
+						}
 					}
-				}
 
-				if (obj instanceof State) {
-					State state2 = (State) obj;
-					if (!Objects.equals(currentState[0].getStarted(), state2.getStarted()))
-						Trace.trace(Trace.USER, "Contest started: " + id);
-					if (!Objects.equals(currentState[0].getFrozen(), state2.getFrozen()))
-						Trace.trace(Trace.USER, "Contest frozen: " + id);
-					if (!Objects.equals(currentState[0].getThawed(), state2.getThawed()))
-						Trace.trace(Trace.USER, "Contest thawed: " + id);
-					if (!Objects.equals(currentState[0].getEnded(), state2.getEnded()))
-						Trace.trace(Trace.USER, "Contest ended: " + id);
-					if (!Objects.equals(currentState[0].getFinalized(), state2.getFinalized()))
-						Trace.trace(Trace.USER, "Contest finalized: " + id);
-					if (!Objects.equals(currentState[0].getEndOfUpdates(), state2.getEndOfUpdates()))
-						Trace.trace(Trace.USER, "Contest end of updates: " + id);
-					currentState[0] = state2;
+					if (obj instanceof State) {
+						State state2 = (State) obj;
+						if (!Objects.equals(currentState[0].getStarted(), state2.getStarted()))
+							Trace.trace(Trace.USER, "Contest started: " + id);
+						if (!Objects.equals(currentState[0].getFrozen(), state2.getFrozen()))
+							Trace.trace(Trace.USER, "Contest frozen: " + id);
+						if (!Objects.equals(currentState[0].getThawed(), state2.getThawed()))
+							Trace.trace(Trace.USER, "Contest thawed: " + id);
+						if (!Objects.equals(currentState[0].getEnded(), state2.getEnded()))
+							Trace.trace(Trace.USER, "Contest ended: " + id);
+						if (!Objects.equals(currentState[0].getFinalized(), state2.getFinalized()))
+							Trace.trace(Trace.USER, "Contest finalized: " + id);
+						if (!Objects.equals(currentState[0].getEndOfUpdates(), state2.getEndOfUpdates()))
+							Trace.trace(Trace.USER, "Contest end of updates: " + id);
+						currentState[0] = state2;
+					}
 				}
 			});
 
@@ -844,18 +857,19 @@ public class ConfiguredContest {
 		if (username == null)
 			return null;
 
+		// the contest returns the same array until accounts change, so use that to know when
+		// to rebuild the index
 		IAccount[] accounts = contest.getAccounts();
-		if (accounts.length == 0)
-			return null;
-
-		// find matching account
-		for (IAccount account : accounts) {
-			if (username.equals(account.getUsername())) {
-				return account;
+		if (accounts != indexedAccounts) {
+			synchronized (accountContests) {
+				if (accounts != indexedAccounts) {
+					accountIndex = new AccountIndex(accounts);
+					indexedAccounts = accounts;
+				}
 			}
 		}
 
-		return null;
+		return accountIndex.getAccount(username);
 	}
 
 	public boolean isAdmin(HttpServletRequest request) {
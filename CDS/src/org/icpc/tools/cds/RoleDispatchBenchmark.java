@@ -0,0 +1,115 @@
+package org.icpc.tools.cds;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.icpc.tools.cds.util.AccountIndex;
+import org.icpc.tools.contest.model.IAccount;
+import org.icpc.tools.contest.model.internal.Account;
+import org.icpc.tools.contest.model.internal.Contest;
+
+/**
+ * Measures the per-request part of ConfiguredContest.getContestByRole(): resolving the request's
+ * username to an account, and the account to its role contest. The linear scan over all accounts
+ * that the username index replaced is measured the same way, for comparison.
+ *
+ * Usage: RoleDispatchBenchmark [accounts] [requests]
+ */
+public class RoleDispatchBenchmark {
+	private static final int DEFAULT_ACCOUNTS = 5000;
+	private static final int DEFAULT_REQUESTS = 20000;
+	private static final int ROUNDS = 5;
+
+	private static IAccount createAccount(String id, String type, String username, String teamId) {
+		Account a = new Account();
+		a.add("id", id);
+		a.add("type", type);
+		a.add("username", username);
+		if (teamId != null)
+			a.add("team_id", teamId);
+		return a;
+	}
+
+	/**
+	 * The lookup done by getContestByRole() before the index: scan every account, and keep going
+	 * after a match.
+	 */
+	private static IAccount scan(List<IAccount> accounts, String username) {
+		IAccount account = null;
+		for (IAccount acc : accounts) {
+			if (username.equals(acc.getUsername()))
+				account = acc;
+		}
+		return account;
+	}
+
+	private static long run(List<IAccount> accounts, AccountIndex index, Map<String, Contest> contests,
+			String[] requests, boolean indexed) {
+		IAccount publicAccount = createAccount("public", "public", "public", null);
+		long hits = 0;
+		for (String user : requests) {
+			IAccount account = indexed ? index.getAccount(user) : scan(accounts, user);
+			if (account == null)
+				account = publicAccount;
+			if (contests.get(ConfiguredContest.getKey(account)) != null)
+				hits++;
+		}
+		return hits;
+	}
+
+	private static void measure(String name, List<IAccount> accounts, AccountIndex index,
+			Map<String, Contest> contests, String[] requests, boolean indexed) {
+		// warm up, then take the best round
+		run(accounts, index, contests, requests, indexed);
+		long best = Long.MAX_VALUE;
+		long hits = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			long time = System.nanoTime();
+			hits += run(accounts, index, contests, requests, indexed);
+			best = Math.min(best, System.nanoTime() - time);
+		}
+
+		double nsPerOp = (double) best / requests.length;
+		System.out.println(String.format("%-8s %12.1f ns/op %14.0f ops/s  (%d hits)", name, nsPerOp,
+				1e9 / nsPerOp, hits / ROUNDS));
+	}
+
+	public static void main(String[] args) {
+		int numAccounts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ACCOUNTS;
+		int numRequests = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REQUESTS;
+
+		// team accounts and a few staff accounts, and a role contest for each
+		List<IAccount> accounts = new ArrayList<>();
+		for (int i = 0; i < numAccounts; i++)
+			accounts.add(createAccount("t" + i, IAccount.TEAM, "team" + i, "" + i));
+		accounts.add(createAccount("admin", IAccount.ADMIN, "admin", null));
+		accounts.add(createAccount("staff", IAccount.STAFF, "staff", null));
+		accounts.add(createAccount("judge", IAccount.JUDGE, "judge", null));
+
+		Map<String, Contest> contests = new HashMap<>();
+		contests.put("public", new Contest(false));
+		for (IAccount account : accounts)
+			contests.put(ConfiguredContest.getKey(account), new Contest(false));
+
+		// mostly team requests, with some staff and unknown users
+		Random r = new Random(27);
+		String[] requests = new String[numRequests];
+		for (int i = 0; i < numRequests; i++) {
+			int n = r.nextInt(100);
+			if (n < 90)
+				requests[i] = "team" + r.nextInt(numAccounts);
+			else if (n < 95)
+				requests[i] = "staff";
+			else
+				requests[i] = "unknown" + i;
+		}
+
+		System.out.println(numAccounts + " accounts, " + numRequests + " requests");
+		AccountIndex index = new AccountIndex(accounts);
+		measure("scan", accounts, index, contests, requests, false);
+		measure("index", accounts, index, contests, requests, true);
+	}
+}
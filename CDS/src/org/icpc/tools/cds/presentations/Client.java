@@ -8,7 +8,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Properties;
@@ -34,6 +36,9 @@ public class Client {
 	private static final String FPS = "fps";
 	private static final String PRESENTATION = "presentation";
 
+	// binary frame type for thumbnails, must match the presentation client
+	protected static final byte FRAME_THUMBNAIL = 1;
+
 	protected enum Type {
 		PING, // ping, used to guage client response time and sync client time
 		INFO, // information about the client sent back to admins
@@ -42,7 +47,9 @@ public class Client {
 		SNAPSHOT, // request for client to send snapshot + response message
 		COMMAND, // client command to stop, restart, request a log, or request a snapshot
 		CLIENTS, // client list, sent to admins
-		PRES_LIST // list of available presentations, sent to admin clients
+		PRES_LIST, // list of available presentations, sent to admin clients
+		SUBSCRIBE, // list of clients an admin wants to receive thumbnails from
+		THUMBNAIL // binary thumbnail frame, relayed from clients to admins
 	}
 
 	interface AddAttrs {
@@ -74,6 +81,7 @@ public class Client {
 
 	class Message {
 		String message;
+		byte[] data;
 		int source;
 		Type type;
 		// flag is currently overloaded for two purposes: 1) to indicate info messages that only
@@ -96,6 +104,9 @@ public class Client {
 	private String clientType;
 	private String version;
 	private boolean hasTimeSynced;
+	// written by this client's session and read when relaying to admins
+	private volatile byte[] thumbnail;
+	private volatile int[] thumbnailSubscription;
 
 	public Client(Session session, String user, int uid, String name, boolean isAdmin) {
 		this.session = session;
@@ -158,8 +169,12 @@ public class Client {
 	}
 
 	private void queueIt(Type type, int source, String message, boolean flag) {
+		queueIt(type, source, message, null, flag);
+	}
+
+	private void queueIt(Type type, int source, String message, byte[] data, boolean flag) {
 		synchronized (queue) {
-			if (type == Type.INFO && flag) {
+			if ((type == Type.INFO && flag) || type == Type.THUMBNAIL) {
 				Message remove = null;
 				for (Message m : queue) {
 					if (m.type == type && m.source == source) {
@@ -176,6 +191,7 @@ public class Client {
 			m.type = type;
 			m.source = source;
 			m.message = message;
+			m.data = data;
 			m.flag = flag;
 			queue.add(m);
 		}
@@ -197,6 +213,17 @@ public class Client {
 					timeSync.add(new TimeSync());
 				}
 			}
+			if (message.data != null) {
+				if (PresentationServer.TRACE_ALL)
+					PresentationServer.trace("> " + message.type + " (" + message.data.length + " bytes)", uid);
+
+				session.getBasicRemote().sendBinary(ByteBuffer.wrap(message.data));
+				synchronized (queue) {
+					message = queue.poll();
+				}
+				continue;
+			}
+
 			if ((message.type != Type.PING && message.type != Type.INFO) || PresentationServer.TRACE_ALL)
 				PresentationServer.trace("> " + message.message, uid);
 
@@ -319,6 +346,8 @@ public class Client {
 		JSONEncoder je = new JSONEncoder(new PrintWriter(sw));
 		je.open();
 		je.encode("type", Type.PING.name().toLowerCase());
+		// let clients know that thumbnails can be sent as binary frames
+		je.encode("binary", true);
 		Long pingDelta = getPingTime();
 		if (pingDelta != null) {
 			long delta = getTimeDelta();
@@ -467,6 +496,72 @@ public class Client {
 		queueIt(Type.INFO, source, message, flag);
 	}
 
+	protected byte[] getThumbnail() {
+		return thumbnail;
+	}
+
+	protected void setThumbnail(byte[] frame) {
+		thumbnail = frame;
+	}
+
+	/**
+	 * Set the clients this admin wants thumbnails from.
+	 *
+	 * @param uids the client uids
+	 * @return the uids that were not already subscribed to
+	 */
+	protected int[] setThumbnailSubscription(int[] uids) {
+		int[] old = thumbnailSubscription;
+		thumbnailSubscription = uids;
+
+		int count = 0;
+		int[] newUIDs = new int[uids.length];
+		for (int id : uids) {
+			if (!contains(old, id))
+				newUIDs[count++] = id;
+		}
+		int[] result = new int[count];
+		System.arraycopy(newUIDs, 0, result, 0, count);
+		return result;
+	}
+
+	private static boolean contains(int[] uids, int uid) {
+		if (uids == null)
+			return false;
+
+		for (int id : uids) {
+			if (id == uid)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Send a thumbnail frame to this admin. Admins that have subscribed to thumbnails receive the
+	 * binary frame if they're interested in the source client, older admins receive the thumbnail
+	 * in a base64 encoded info message.
+	 *
+	 * @param source the client the thumbnail is from
+	 * @param frame the binary thumbnail frame
+	 */
+	protected void writeThumbnail(int source, byte[] frame) {
+		int[] sub = thumbnailSubscription;
+		if (sub != null) {
+			if (contains(sub, source))
+				queueIt(Type.THUMBNAIL, source, null, frame, false);
+			return;
+		}
+
+		StringWriter sw = new StringWriter();
+		JSONEncoder je = new JSONEncoder(new PrintWriter(sw));
+		je.open();
+		je.encode("type", Type.INFO.name().toLowerCase());
+		je.encode("source", Integer.toHexString(source));
+		je.encode("image", Base64.getEncoder().encodeToString(Arrays.copyOfRange(frame, 5, frame.length)));
+		je.close();
+		queueIt(Type.INFO, source, sw.toString(), true);
+	}
+
 	protected void writeProperties(Properties p) throws IOException {
 		createJSON(Type.PROPERTIES, je -> {
 			je.openChild("props");
@@ -2,6 +2,7 @@ package org.icpc.tools.cds.presentations;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -104,7 +105,7 @@ public class PresentationServer {
 		Trace.trace(Trace.INFO, Integer.toHexString(uid) + " " + s);
 	}
 
-	protected void onMessage(Session s, String message) throws IOException {
+	protected Client getClient(Session s) throws IOException {
 		Client[] cl = clients.toArray(new Client[0]);
 
 		Client c = null;
@@ -116,6 +117,21 @@ public class PresentationServer {
 
 		if (c == null)
 			throw new IOException("Client " + s.getId() + " does not exist");
+		return c;
+	}
+
+	protected void onMessage(Session s, ByteBuffer message) throws IOException {
+		Client c = getClient(s);
+		if (message.remaining() < 6 || message.get(message.position()) != Client.FRAME_THUMBNAIL) {
+			Trace.trace(Trace.WARNING, "Unknown binary message from " + c);
+			return;
+		}
+
+		handleThumbnail(c, message);
+	}
+
+	protected void onMessage(Session s, String message) throws IOException {
+		Client c = getClient(s);
 
 		int sourceUID = c.getUID();
 
@@ -145,6 +161,10 @@ public class PresentationServer {
 					handlePresentationList(sourceUID);
 					break;
 				}
+				case SUBSCRIBE: {
+					handleSubscribe(c, obj);
+					return;
+				}
 				case COMMAND: {
 					handleCommand(obj);
 					return;
@@ -212,7 +232,16 @@ public class PresentationServer {
 							admClients.add(cl);
 					}
 
-					forClient(c, cl -> cl.writeClients(admClients, admClients));
+					forClient(c, cl -> {
+						cl.writeClients(admClients, admClients);
+
+						// catch up the admin with the last thumbnail from each client
+						for (Client cli : admClients) {
+							byte[] b = cli.getThumbnail();
+							if (b != null)
+								cl.writeThumbnail(cli.getUID(), b);
+						}
+					});
 					adminMap.put(c, admClients);
 
 					// set each client's admin
@@ -682,6 +711,37 @@ public class PresentationServer {
 		}
 	}
 
+	protected void handleThumbnail(Client c, ByteBuffer message) {
+		// copy the frame and make sure the source is the client it actually came from
+		byte[] b = new byte[message.remaining()];
+		message.get(b);
+		ByteBuffer.wrap(b).putInt(1, c.getUID());
+		c.setThumbnail(b);
+
+		synchronized (adminMap) {
+			List<Client> admins = adminMap.get(c);
+			forEachClient(admins, cl -> cl.writeThumbnail(c.getUID(), b));
+		}
+	}
+
+	protected void handleSubscribe(Client admin, JsonObject obj) {
+		if (!admin.isAdmin())
+			return;
+
+		int[] uids = readClients(obj);
+		List<Client> newClients = getClients(admin.setThumbnailSubscription(uids));
+
+		// catch up newly visible clients with the last thumbnail they sent, since clients don't send
+		// another one until it changes
+		forClient(admin, cl -> {
+			for (Client c : newClients) {
+				byte[] b = c.getThumbnail();
+				if (b != null)
+					cl.writeThumbnail(c.getUID(), b);
+			}
+		});
+	}
+
 	protected void handlePresentationList(int sourceUID) {
 		Trace.trace(Trace.USER, "Sending presentation lists");
 
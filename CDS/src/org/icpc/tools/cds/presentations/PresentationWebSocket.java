@@ -1,5 +1,6 @@
 package org.icpc.tools.cds.presentations;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.icpc.tools.contest.Trace;
@@ -28,6 +29,7 @@ public class PresentationWebSocket {
 	public void onOpen(Session session, EndpointConfig config) {
 		// set buffer to 500k. thumbnails are usually under 20k, but snapshots can be much bigger
 		session.setMaxTextMessageBufferSize(500 * 1024);
+		session.setMaxBinaryMessageBufferSize(500 * 1024);
 		session.setMaxIdleTimeout(60000);
 		session.getContainer().setAsyncSendTimeout(15000);
 
@@ -134,6 +136,15 @@ public class PresentationWebSocket {
 		}
 	}
 
+	@OnMessage
+	public void onMessage(ByteBuffer message, Session session) {
+		try {
+			PresentationServer.getInstance().onMessage(session, message);
+		} catch (Throwable t) {
+			Trace.trace(Trace.ERROR, "Request error", t);
+		}
+	}
+
 	@OnClose
 	public void onClose(Session session) {
 		PresentationServer.getInstance().remove(session);
@@ -421,6 +421,10 @@ public class ContestWebService extends HttpServlet {
 			} else if (segments[1].startsWith("balloon") && isStaff) {
 				BalloonPDFService.generate(request, response, cc);
 				return;
+			} else if (segments[1].equals("resolver") && segments.length == 3 && segments[2].equals("plan")
+					&& isStaff) {
+				ResolverService.doGetPlan(request, response, cc);
+				return;
 			} else if (segments[1].equals("resolver") && isAdmin) {
 				ResolverService.doGet(response, cc);
 				return;
@@ -6,6 +6,8 @@ import java.util.Map;
 
 import org.icpc.tools.contest.model.IContestObject;
 import org.icpc.tools.contest.model.IContestObjectFilter;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.PropertyView;
 
 public class PropertyFilter implements IContestObjectFilter {
 	protected List<PFilter> filters = new ArrayList<>();
@@ -35,6 +37,18 @@ public class PropertyFilter implements IContestObjectFilter {
 		if (filters == null)
 			return co;
 
+		if (co instanceof ContestObject) {
+			// look up each property directly instead of building a map
+			PropertyView view = ((ContestObject) co).getPropertyView();
+			for (PFilter pf : filters) {
+				// filter values are strings, so never match a number
+				int slot = view.getSchema().getSlot(pf.name);
+				if (!view.has(slot) || view.isNumber(slot) || !view.get(slot).equals(pf.value))
+					return null;
+			}
+			return co;
+		}
+
 		Map<String, Object> props = co.getProperties();
 		for (PFilter pf : filters) {
 			boolean found = false;
@@ -7,17 +7,19 @@ import java.util.List;
 import java.util.Map;
 
 import org.icpc.tools.contest.model.IContest;
-import org.icpc.tools.contest.model.IJudgement;
 import org.icpc.tools.contest.model.IJudgementType;
 import org.icpc.tools.contest.model.ILanguage;
 import org.icpc.tools.contest.model.IProblem;
 import org.icpc.tools.contest.model.IRun;
-import org.icpc.tools.contest.model.ISubmission;
 import org.icpc.tools.contest.model.feed.JSONEncoder;
+import org.icpc.tools.contest.model.util.StatisticsGenerator;
+import org.icpc.tools.contest.model.util.StatisticsGenerator.Statistic;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
 
 public class ReportGenerator {
 	public enum ReportType {
-		LANGS, RUNS, PROBLEMS
+		LANGS, RUNS, PROBLEMS, STATS
 	}
 
 	private static final String ID = "id";
@@ -25,6 +27,7 @@ public class ReportGenerator {
 	private static final String FAILED = "failed";
 	private static final String SOLVED = "solved";
 	private static final String TOTAL = "total";
+	private static final String TEXT = "text";
 
 	public static void report(PrintWriter pw, IContest contest, String reportType) {
 		if (reportType == null)
@@ -45,6 +48,8 @@ public class ReportGenerator {
 			runsReport(contest, en);
 		else if (report == ReportType.PROBLEMS)
 			problemsReport(contest, en);
+		else if (report == ReportType.STATS)
+			statsReport(contest, en);
 	}
 
 	public ReportGenerator() {
@@ -75,39 +80,9 @@ public class ReportGenerator {
 		map2.put(TOTAL, "Total");
 		list.add(map2);
 
-		for (IProblem p : contest.getProblems()) {
-			String id = p.getId();
-			String name = p.getName();
-			Map<String, Object> map = new LinkedHashMap<>();
-			map.put(ID, id);
-			map.put(NAME, name);
-			for (IJudgementType jt : jts)
-				map.put(jt.getId(), 0);
-			map.put(SOLVED, 0);
-			map.put(FAILED, 0);
-			map.put(TOTAL, 0);
-			list.add(map);
-		}
-
-		for (ISubmission s : contest.getSubmissions()) {
-			String id = s.getProblemId();
-			Map<String, Object> map = null;
-			for (Map<String, Object> m : list) {
-				if (id.equals(m.get(ID)))
-					map = m;
-			}
-
-			if (map != null) {
-				IJudgement[] j = contest.getJudgementsBySubmissionId(s.getId());
-				if (j != null) {
-					String jtId = j[j.length - 1].getJudgementTypeId();
-					increment(map, jtId);
-					updateForJudgement(contest, map, jtId);
-				}
-
-				increment(map, TOTAL);
-			}
-		}
+		SubmissionAggregates sa = SubmissionAggregates.getInstance(contest, SubmissionAggregates.DEFAULT_INTERVAL);
+		for (IProblem p : contest.getProblems())
+			list.add(createMap(p.getId(), p.getName(), jts, sa.getProblem(p.getId())));
 
 		writeList(en, list);
 	}
@@ -126,54 +101,49 @@ public class ReportGenerator {
 		map2.put(TOTAL, "Total");
 		list.add(map2);
 
-		for (ILanguage l : contest.getLanguages()) {
-			String id = l.getId();
-			String name = l.getName();
-			Map<String, Object> map = new LinkedHashMap<>();
-			map.put(ID, id);
-			map.put(NAME, name);
-			for (IJudgementType jt : jts)
-				map.put(jt.getId(), 0);
-			map.put(SOLVED, 0);
-			map.put(FAILED, 0);
-			map.put(TOTAL, 0);
-			list.add(map);
-		}
+		SubmissionAggregates sa = SubmissionAggregates.getInstance(contest, SubmissionAggregates.DEFAULT_INTERVAL);
+		for (ILanguage l : contest.getLanguages())
+			list.add(createMap(l.getId(), l.getName(), jts, sa.getLanguage(l.getId())));
 
-		for (ISubmission s : contest.getSubmissions()) {
-			String id = s.getLanguageId();
-			Map<String, Object> map = null;
-			for (Map<String, Object> m : list) {
-				if (id.equals(m.get(ID)))
-					map = m;
-			}
-			if (map != null) {
-				IJudgement[] j = contest.getJudgementsBySubmissionId(s.getId());
-				if (j != null) {
-					String jtId = j[j.length - 1].getJudgementTypeId();
-					increment(map, jtId);
-					updateForJudgement(contest, map, jtId);
-				}
+		writeList(en, list);
+	}
 
-				increment(map, TOTAL);
-			}
+	// { {"id":"teamsSolved", "text":"42 teams have solved a problem"}, ... }
+	public static void statsReport(IContest contest, JSONEncoder en) {
+		List<Map<String, Object>> list = new ArrayList<>();
+		Map<String, Object> map2 = new LinkedHashMap<>();
+		map2.put(ID, "ID");
+		map2.put(TEXT, "Statistic");
+		list.add(map2);
+
+		for (Statistic st : StatisticsGenerator.getInstance(contest).getStatistics()) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put(ID, st.id);
+			map.put(TEXT, st.text);
+			list.add(map);
 		}
 
 		writeList(en, list);
 	}
 
-	protected static void updateForJudgement(IContest contest, Map<String, Object> map, String jtId) {
-		if (map == null || jtId == null)
-			return;
-
-		IJudgementType jt = contest.getJudgementTypeById(jtId);
-		if (jt == null)
-			return;
-
-		if (jt.isSolved())
-			increment(map, SOLVED);
-		else if (jt.isPenalty())
-			increment(map, FAILED);
+	protected static Map<String, Object> createMap(String id, String name, IJudgementType[] jts, Counters c) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put(ID, id);
+		map.put(NAME, name);
+		int solved = 0;
+		int failed = 0;
+		for (IJudgementType jt : jts) {
+			int count = c.getNumJudgements(jt.getId());
+			map.put(jt.getId(), count);
+			if (jt.isSolved())
+				solved += count;
+			else if (jt.isPenalty())
+				failed += count;
+		}
+		map.put(SOLVED, solved);
+		map.put(FAILED, failed);
+		map.put(TOTAL, c.getNumSubmissions());
+		return map;
 	}
 
 	public static void runsReport(IContest contest, JSONEncoder en) {
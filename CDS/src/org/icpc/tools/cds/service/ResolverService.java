@@ -1,9 +1,12 @@
 package org.icpc.tools.cds.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.icpc.tools.cds.ConfiguredContest;
@@ -27,10 +30,13 @@ import org.icpc.tools.contest.model.resolver.ResolutionUtil.ResolutionStep;
 import org.icpc.tools.contest.model.resolver.ResolutionUtil.SubmissionSelectionStep;
 import org.icpc.tools.contest.model.resolver.ResolverLogic;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public class ResolverService {
 	protected static List<ResolutionStep> steps;
+	// resolution plans, by contest id and judge queue option
+	protected static Map<String, byte[]> plans = new ConcurrentHashMap<>();
 	protected static ResolutionControl control;
 	protected static ScheduledExecutorService executor;
 	protected static boolean localControl;
@@ -57,6 +63,44 @@ public class ResolverService {
 		pw.writeObject(obj);
 	}
 
+	private static String getPlanKey(ConfiguredContest cc, boolean judgeQueue) {
+		return judgeQueue ? cc.getId() + "/judgeQueue" : cc.getId();
+	}
+
+	protected static void doGetPlan(HttpServletRequest request, HttpServletResponse response, ConfiguredContest cc)
+			throws IOException {
+		boolean judgeQueue = "true".equals(request.getParameter("judgeQueue"));
+		byte[] b = plans.get(getPlanKey(cc, judgeQueue));
+		if (b == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND, "Resolver not initialized");
+			return;
+		}
+
+		String etag = "\"" + Integer.toHexString(Arrays.hashCode(b)) + "\"";
+		response.setHeader("ETag", etag);
+		if (etag.equals(request.getHeader("If-None-Match"))) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		response.setContentType("application/octet-stream");
+		response.setContentLength(b.length);
+		response.getOutputStream().write(b);
+	}
+
+	private static void putPlan(ConfiguredContest cc, ResolverLogic resolver, boolean judgeQueue) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			resolver.writePlan(out);
+			byte[] plan = out.toByteArray();
+			plans.put(getPlanKey(cc, judgeQueue), plan);
+			Trace.trace(Trace.INFO, "Resolution plan created (" + plan.length / 1024 + "kb, judge queue: "
+					+ judgeQueue + ")");
+		} catch (Exception e) {
+			Trace.trace(Trace.ERROR, "Could not create resolution plan", e);
+		}
+	}
+
 	protected static void doPut(HttpServletResponse response, String command, ConfiguredContest cc) throws IOException {
 		IContest contest = cc.getContest();
 		if (contest.getState().isRunning()) {
@@ -70,10 +114,13 @@ public class ResolverService {
 			if ("reset".equals(command) && control == null) {
 				ResolveInfo resolveInfo = new ResolveInfo();
 				c.add(resolveInfo);
-			} else if ("init".equals(command)) {
+			} else if ("init".equals(command) || "init-projections".equals(command)) {
 				if (steps != null)
 					return;
 
+				plans.remove(getPlanKey(cc, false));
+				plans.remove(getPlanKey(cc, true));
+
 				if (executor == null)
 					executor = ExecutorListener.getExecutor();
 
@@ -90,8 +137,26 @@ public class ResolverService {
 				}
 				Trace.trace(Trace.USER, "Auto-resolved " + count + " judgements");
 
-				ResolverLogic resolver = new ResolverLogic(c, false);
+				// keep the plan so that resolver clients can use it instead of resolving themselves.
+				// Projections are expensive and only needed by clients that show them, so they're
+				// only calculated when asked for. Clients that start with the judge queue need a
+				// different plan, which is resolved in the background from the same starting contest
+				boolean projections = "init-projections".equals(command);
+				ResolverLogic resolver = new ResolverLogic(c, projections);
+				ResolverLogic judgeQueueResolver = new ResolverLogic(c, projections);
 				steps = resolver.resolveFrom(false);
+				putPlan(cc, resolver, false);
+				executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							judgeQueueResolver.resolveFrom(true);
+							putPlan(cc, judgeQueueResolver, true);
+						} catch (Exception e) {
+							Trace.trace(Trace.ERROR, "Could not create judge queue resolution plan", e);
+						}
+					}
+				});
 				control = new ResolutionControl(steps);
 				control.addListener(new IResolutionListener() {
 					protected List<IJudgement> judgements;
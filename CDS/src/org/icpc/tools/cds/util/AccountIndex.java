@@ -0,0 +1,35 @@
+package org.icpc.tools.cds.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IAccount;
+
+/**
+ * An immutable username index over a list of accounts. If more than one account has the same
+ * username, the first one wins.
+ */
+public class AccountIndex {
+	private final Map<String, IAccount> accounts;
+
+	public AccountIndex(IAccount[] accounts) {
+		this(Arrays.asList(accounts));
+	}
+
+	public AccountIndex(List<IAccount> list) {
+		accounts = new HashMap<>(list.size() * 2);
+		for (IAccount account : list) {
+			if (account.getUsername() != null)
+				accounts.putIfAbsent(account.getUsername(), account);
+		}
+	}
+
+	public IAccount getAccount(String username) {
+		if (username == null)
+			return null;
+
+		return accounts.get(username);
+	}
+}
@@ -0,0 +1,71 @@
+package org.icpc.tools.cds.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IAccount;
+import org.icpc.tools.contest.model.internal.Account;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class AccountIndexTest {
+	private static final int NUM_ACCOUNTS = 5000;
+
+	private static IAccount createAccount(String id, String username) {
+		Account a = new Account();
+		a.add("id", id);
+		a.add("type", "team");
+		if (username != null)
+			a.add("username", username);
+		return a;
+	}
+
+	/**
+	 * The linear scan that the index replaces.
+	 */
+	private static IAccount scan(List<IAccount> accounts, String username) {
+		for (IAccount account : accounts) {
+			if (username.equals(account.getUsername()))
+				return account;
+		}
+		return null;
+	}
+
+	private static List<IAccount> createAccounts() {
+		List<IAccount> list = new ArrayList<>();
+		for (int i = 0; i < NUM_ACCOUNTS; i++)
+			list.add(createAccount("a" + i, "team" + i));
+
+		// accounts without a username, and a duplicate username
+		list.add(createAccount("none", null));
+		list.add(createAccount("dup", "team42"));
+		return list;
+	}
+
+	@Test
+	public void testLookup() throws Exception {
+		List<IAccount> list = createAccounts();
+		AccountIndex index = new AccountIndex(list);
+		for (int i = 0; i < NUM_ACCOUNTS + 10; i++) {
+			String username = "team" + i;
+			assertThat(index.getAccount(username)).isSameInstanceAs(scan(list, username));
+		}
+		assertThat(index.getAccount("team42").getId()).isEqualTo("a42");
+		assertThat(index.getAccount(null)).isNull();
+		assertThat(index.getAccount("unknown")).isNull();
+	}
+
+	@Test
+	public void testArray() throws Exception {
+		List<IAccount> list = createAccounts();
+		AccountIndex index = new AccountIndex(list.toArray(new IAccount[0]));
+		for (IAccount account : list) {
+			if (account.getUsername() != null)
+				assertThat(index.getAccount(account.getUsername())).isSameInstanceAs(scan(list, account.getUsername()));
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package org.icpc.tools.contest.model;
 
+import java.util.BitSet;
+
+import org.icpc.tools.contest.model.internal.Contest;
+
 /**
  * Freeze filter. All judgements and runs that occur for submissions that come in after the contest
  * freeze are blocked.
@@ -7,31 +11,72 @@ package org.icpc.tools.contest.model;
 public class FreezeFilter implements IContestObjectFilter {
 	protected IContest contest;
 	protected long freezeTime;
+	protected boolean hasFreeze;
+
+	// submissions (by index) that come in after the freeze, and the submissions it was built from
+	private BitSet afterFreeze;
+	private ISubmission[] submissions;
 
 	public FreezeFilter(IContest contest) {
 		this.contest = contest;
-		if (contest.getFreezeDuration() != null)
+		if (contest.getFreezeDuration() != null) {
 			freezeTime = contest.getDuration() - contest.getFreezeDuration();
+			hasFreeze = true;
+		}
 	}
 
 	@Override
 	public IContestObject filter(IContestObject obj) {
-		if (contest.getFreezeDuration() == null)
+		if (!hasFreeze)
 			return obj;
 
 		if (obj instanceof IJudgement) {
 			IJudgement j = (IJudgement) obj;
-			ISubmission s = contest.getSubmissionById(j.getSubmissionId());
-			if (s == null || s.getContestTime() >= freezeTime)
+			if (isAfterFreeze(j.getSubmissionId()))
 				return null;
 		} else if (obj instanceof IRun) {
 			IRun r = (IRun) obj;
 			IJudgement j = contest.getJudgementById(r.getJudgementId());
-			ISubmission s = contest.getSubmissionById(j.getSubmissionId());
-			if (s == null || s.getContestTime() >= freezeTime)
+			if (j == null || isAfterFreeze(j.getSubmissionId()))
 				return null;
 		}
 
 		return obj;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns true if the submission is missing or came in after the freeze.
+	 */
+	private boolean isAfterFreeze(String submissionId) {
+		if (contest instanceof Contest) {
+			Contest c = (Contest) contest;
+			int index = c.getSubmissionIndex(submissionId);
+			if (index < 0)
+				return true;
+
+			return getAfterFreeze(c).get(index);
+		}
+
+		ISubmission s = contest.getSubmissionById(submissionId);
+		return s == null || s.getContestTime() >= freezeTime;
+	}
+
+	/**
+	 * Returns the submissions that come in after the freeze by submission index, rebuilding it if
+	 * the submissions have changed.
+	 */
+	private BitSet getAfterFreeze(Contest c) {
+		ISubmission[] subs = c.getSubmissions();
+		if (subs == submissions)
+			return afterFreeze;
+
+		BitSet bs = new BitSet(subs.length);
+		for (int i = 0; i < subs.length; i++) {
+			if (subs[i].getContestTime() >= freezeTime)
+				bs.set(i);
+		}
+		afterFreeze = bs;
+		submissions = subs;
+		return bs;
+	}
+}
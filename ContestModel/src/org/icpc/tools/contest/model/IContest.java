@@ -186,6 +186,23 @@ public interface IContest {
 	 */
 	int getNumObjects();
 
+	/**
+	 * Returns all objects of the given type.
+	 *
+	 * @param type the type
+	 * @return the objects
+	 */
+	IContestObject[] getObjects(IContestObject.ContestType type);
+
+	/**
+	 * Returns the object with the given type and id, or null if there isn't one.
+	 *
+	 * @param type the type
+	 * @param id the id
+	 * @return the object
+	 */
+	IContestObject getObjectByTypeAndId(IContestObject.ContestType type, String id);
+
 	/**
 	 * Elapsed contest time, in ms. A lower bound - based on the contest time of the most recent
 	 * event!
@@ -0,0 +1,25 @@
+package org.icpc.tools.contest.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A contest listener that can receive several changes at once. Contests that apply changes in bulk
+ * (see Contest.addAll()) notify these listeners once per batch instead of once per object; single
+ * changes are delivered as a batch of one.
+ */
+public interface IContestBatchListener extends IContestListener {
+	/**
+	 * Called after a batch of objects has been added to the contest.
+	 *
+	 * @param contest the contest
+	 * @param objs the objects that changed, in order
+	 * @param deltas the change for each object
+	 */
+	void contestChanged(IContest contest, List<IContestObject> objs, List<Delta> deltas);
+
+	@Override
+	default void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+		contestChanged(contest, Collections.singletonList(obj), Collections.singletonList(delta));
+	}
+}
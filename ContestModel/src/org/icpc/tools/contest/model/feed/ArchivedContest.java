@@ -0,0 +1,1243 @@
+package org.icpc.tools.contest.model.feed;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IAccount;
+import org.icpc.tools.contest.model.IAward;
+import org.icpc.tools.contest.model.IClarification;
+import org.icpc.tools.contest.model.ICommentary;
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IGroup;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.ILanguage;
+import org.icpc.tools.contest.model.IMapInfo;
+import org.icpc.tools.contest.model.IOrganization;
+import org.icpc.tools.contest.model.IPause;
+import org.icpc.tools.contest.model.IPerson;
+import org.icpc.tools.contest.model.IProblem;
+import org.icpc.tools.contest.model.IProblemSummary;
+import org.icpc.tools.contest.model.IResolveInfo;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.IRun;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.IStartStatus;
+import org.icpc.tools.contest.model.IState;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.feed.JSONParser.JsonObject;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Standing;
+import org.icpc.tools.contest.model.internal.StringPool;
+
+/**
+ * A read-only contest backed by a memory-mapped archive file, for working with large finished
+ * contests (or many of them at once) without loading every object into the heap.
+ *
+ * The archive contains the current version of every contest object, stored as JSON and indexed by
+ * type, along with everything that would otherwise need all submissions and judgements to work
+ * out: the judgement type of each submission, the final scoreboard, and which judgements and runs
+ * belong to each submission and judgement. Small configuration types (teams, problems, etc.) are
+ * read the first time they are used and kept; submissions, judgements, runs, clarifications, and
+ * commentary are read on access and only the most recently used ones are kept.
+ *
+ * Use write() to create an archive from a loaded contest and open() to read it.
+ */
+public class ArchivedContest implements IContest {
+	private static final int MAGIC = 0x49434341; // ICCA
+	private static final int VERSION = 1;
+
+	private static final ContestType[] TYPES = ContestType.values();
+
+	// types that can be large, and are read on access instead of being kept
+	private static final boolean[] LARGE = new boolean[TYPES.length];
+
+	static {
+		LARGE[ContestType.SUBMISSION.ordinal()] = true;
+		LARGE[ContestType.JUDGEMENT.ordinal()] = true;
+		LARGE[ContestType.RUN.ordinal()] = true;
+		LARGE[ContestType.CLARIFICATION.ordinal()] = true;
+		LARGE[ContestType.COMMENTARY.ordinal()] = true;
+	}
+
+	private static final byte JUDGED = 1;
+	private static final byte SOLVED = 2;
+	private static final byte FIRST_TO_SOLVE = 4;
+
+	private static final int CACHE_SIZE = 10000;
+
+	private static class ArchivedResult implements IResult {
+		private final Status status;
+		private final int numPending;
+		private final int numJudged;
+		private final long time;
+		private final long penalty;
+		private final double score;
+		private final boolean isFTS;
+
+		protected ArchivedResult(Status status, int numPending, int numJudged, long time, long penalty, double score,
+				boolean isFTS) {
+			this.status = status;
+			this.numPending = numPending;
+			this.numJudged = numJudged;
+			this.time = time;
+			this.penalty = penalty;
+			this.score = score;
+			this.isFTS = isFTS;
+		}
+
+		@Override
+		public int getNumSubmissions() {
+			return numPending + numJudged;
+		}
+
+		@Override
+		public int getNumPending() {
+			return numPending;
+		}
+
+		@Override
+		public int getNumJudged() {
+			return numJudged;
+		}
+
+		@Override
+		public boolean isFirstToSolve() {
+			return isFTS;
+		}
+
+		@Override
+		public long getContestTime() {
+			return time;
+		}
+
+		@Override
+		public long getPenaltyTime() {
+			return penalty;
+		}
+
+		@Override
+		public double getScore() {
+			return score;
+		}
+
+		@Override
+		public Status getStatus() {
+			return status;
+		}
+
+		@Override
+		public String toString() {
+			return "Result [" + getStatus() + ", " + getNumSubmissions() + ", " + getContestTime() + "]";
+		}
+	}
+
+	private static class ArchivedProblemSummary implements IProblemSummary {
+		private final int numPending;
+		private final long pendingTime;
+		private final int numFailed;
+		private final long failedTime;
+		private final int numSolved;
+		private final long solvedTime;
+		private final int numSubmissions;
+
+		protected ArchivedProblemSummary(int numPending, long pendingTime, int numFailed, long failedTime,
+				int numSolved, long solvedTime, int numSubmissions) {
+			this.numPending = numPending;
+			this.pendingTime = pendingTime;
+			this.numFailed = numFailed;
+			this.failedTime = failedTime;
+			this.numSolved = numSolved;
+			this.solvedTime = solvedTime;
+			this.numSubmissions = numSubmissions;
+		}
+
+		@Override
+		public int getNumPending() {
+			return numPending;
+		}
+
+		@Override
+		public long getPendingContestTime() {
+			return pendingTime;
+		}
+
+		@Override
+		public int getNumFailed() {
+			return numFailed;
+		}
+
+		@Override
+		public long getFailedContestTime() {
+			return failedTime;
+		}
+
+		@Override
+		public int getNumSolved() {
+			return numSolved;
+		}
+
+		@Override
+		public long getSolvedContestTime() {
+			return solvedTime;
+		}
+
+		@Override
+		public int getNumSubmissions() {
+			return numSubmissions;
+		}
+	}
+
+	private final ByteBuffer buf;
+	private final StringPool pool = new StringPool();
+
+	// record offsets for each type
+	private final int[][] offsets = new int[TYPES.length][];
+
+	// map of ids to index for each type, built on first lookup
+	private final Map<String, Integer>[] idMaps;
+
+	// objects of the small types, read on first use
+	private final IContestObject[][] objects = new IContestObject[TYPES.length][];
+
+	// recently used objects of the large types, by type and index
+	private final Map<Long, IContestObject> cache = new LinkedHashMap<Long, IContestObject>(256, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, IContestObject> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final byte[] submissionFlags;
+	private final short[] submissionJudgementTypes;
+	private final int[] judgementsStart;
+	private final int[] judgementsBySubmission;
+	private final int[] runsStart;
+	private final int[] runsByJudgement;
+
+	private final boolean[] hiddenTeams;
+	private final int[] order;
+	private final IStanding[] standings;
+	private final IResult[][] results;
+	private final IProblemSummary[] summaries;
+
+	private final int numObjects;
+	private final long lastEventTime;
+	private final int lastTimedEventIndex;
+	private final int lastTimedType;
+	private final int lastTimedIndex;
+
+	private final Info info;
+	private final IState state;
+
+	@SuppressWarnings("unchecked")
+	private ArchivedContest(ByteBuffer buf) throws IOException {
+		this.buf = buf;
+		idMaps = (Map<String, Integer>[]) new Map<?, ?>[TYPES.length];
+
+		if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION)
+			throw new IOException("Not a contest archive");
+
+		ByteBuffer b = buf.duplicate();
+		b.position(buf.limit() - 8);
+		b.position((int) b.getLong());
+
+		int numTypes = b.getInt();
+		for (int i = 0; i < numTypes; i++) {
+			int[] offs = new int[b.getInt()];
+			for (int j = 0; j < offs.length; j++)
+				offs[j] = b.getInt();
+			if (i < TYPES.length)
+				offsets[i] = offs;
+		}
+		for (int i = numTypes; i < TYPES.length; i++)
+			offsets[i] = new int[0];
+
+		int numSubmissions = b.getInt();
+		submissionFlags = new byte[numSubmissions];
+		submissionJudgementTypes = new short[numSubmissions];
+		for (int i = 0; i < numSubmissions; i++) {
+			submissionFlags[i] = b.get();
+			submissionJudgementTypes[i] = b.getShort();
+		}
+		judgementsStart = readInts(b);
+		judgementsBySubmission = readInts(b);
+		runsStart = readInts(b);
+		runsByJudgement = readInts(b);
+
+		int numTeams = b.getInt();
+		int numProblems = b.getInt();
+		hiddenTeams = new boolean[numTeams];
+		for (int i = 0; i < numTeams; i++)
+			hiddenTeams[i] = b.get() != 0;
+		order = readInts(b);
+		standings = new IStanding[numTeams];
+		for (int i = 0; i < numTeams; i++) {
+			Standing s = new Standing();
+			String rank = readString(b);
+			s.init(b.getInt(), b.getLong(), b.getDouble(), b.getLong());
+			s.setRank(rank);
+			standings[i] = s;
+		}
+		results = new IResult[numTeams][numProblems];
+		for (int i = 0; i < numTeams; i++) {
+			for (int j = 0; j < numProblems; j++)
+				results[i][j] = new ArchivedResult(Status.values()[b.get()], b.getInt(), b.getInt(), b.getLong(),
+						b.getLong(), b.getDouble(), b.get() != 0);
+		}
+		summaries = new IProblemSummary[numProblems];
+		for (int j = 0; j < numProblems; j++)
+			summaries[j] = new ArchivedProblemSummary(b.getInt(), b.getLong(), b.getInt(), b.getLong(), b.getInt(),
+					b.getLong(), b.getInt());
+
+		numObjects = b.getInt();
+		lastEventTime = b.getLong();
+		lastTimedEventIndex = b.getInt();
+		lastTimedType = b.getInt();
+		lastTimedIndex = b.getInt();
+
+		IContestObject[] infos = getObjects(ContestType.CONTEST);
+		if (infos.length > 0)
+			info = (Info) infos[infos.length - 1];
+		else
+			info = new Info();
+		IContestObject[] states = getObjects(ContestType.STATE);
+		if (states.length > 0)
+			state = (IState) states[states.length - 1];
+		else
+			state = null;
+	}
+
+	/**
+	 * Open a contest archive.
+	 *
+	 * @param file an archive created by write()
+	 * @return the archived contest
+	 * @throws IOException if the file could not be read or is not an archive
+	 */
+	public static ArchivedContest open(File file) throws IOException {
+		try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (fc.size() > Integer.MAX_VALUE)
+				throw new IOException("Contest archive is too large: " + file);
+
+			MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+			return new ArchivedContest(mbb);
+		}
+	}
+
+	/**
+	 * Returns true if the given file is a contest archive.
+	 */
+	public static boolean isArchive(File file) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Write a contest to an archive.
+	 *
+	 * @param contest a contest that has finished loading
+	 * @param file the file to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public static void write(Contest contest, File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			write(contest, out);
+		}
+	}
+
+	private static void write(Contest contest, DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		// objects
+		StringWriter sw = new StringWriter();
+		PrintWriter pw = new PrintWriter(sw);
+		JSONEncoder je = new JSONEncoder(pw);
+		int[][] offs = new int[TYPES.length][];
+		for (ContestType type : TYPES) {
+			IContestObject[] objs = contest.getObjects(type);
+			int[] offs2 = new int[objs.length];
+			for (int i = 0; i < objs.length; i++) {
+				offs2[i] = out.size();
+				if (out.size() < 0)
+					throw new IOException("Contest is too large to archive");
+
+				sw.getBuffer().setLength(0);
+				je.reset();
+				je.open();
+				((ContestObject) objs[i]).writeBody(je);
+				je.close();
+				pw.flush();
+
+				out.writeUTF(objs[i].getId());
+				byte[] b = sw.toString().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(b.length);
+				out.write(b);
+			}
+			offs[type.ordinal()] = offs2;
+		}
+
+		// index
+		int indexOffset = out.size();
+		out.writeInt(TYPES.length);
+		for (int[] offs2 : offs)
+			writeInts(out, offs2);
+
+		// judgement types of each submission, and judgements and runs by submission and judgement
+		ISubmission[] submissions = contest.getSubmissions();
+		IJudgementType[] jts = contest.getJudgementTypes();
+		out.writeInt(submissions.length);
+		for (ISubmission s : submissions) {
+			byte flags = 0;
+			if (contest.isJudged(s))
+				flags |= JUDGED;
+			if (contest.isSolved(s))
+				flags |= SOLVED;
+			if (contest.isFirstToSolve(s))
+				flags |= FIRST_TO_SOLVE;
+			out.writeByte(flags);
+			out.writeShort(Arrays.asList(jts).indexOf(contest.getJudgementType(s)));
+		}
+
+		IJudgement[] judgements = contest.getJudgements();
+		int[] judgementSubmission = new int[judgements.length];
+		for (int i = 0; i < judgements.length; i++)
+			judgementSubmission[i] = contest.getSubmissionIndex(judgements[i].getSubmissionId());
+		writeGroups(out, judgementSubmission, submissions.length);
+
+		Map<String, Integer> judgementIndexes = new HashMap<>();
+		for (int i = 0; i < judgements.length; i++)
+			judgementIndexes.put(judgements[i].getId(), i);
+		IRun[] runs = contest.getRuns();
+		int[] runJudgement = new int[runs.length];
+		for (int i = 0; i < runs.length; i++) {
+			Integer in = judgementIndexes.get(runs[i].getJudgementId());
+			runJudgement[i] = in == null ? -1 : in;
+		}
+		writeGroups(out, runJudgement, judgements.length);
+
+		// scoreboard
+		ITeam[] teams = contest.getTeams();
+		int numProblems = contest.getNumProblems();
+		out.writeInt(teams.length);
+		out.writeInt(numProblems);
+		for (ITeam team : teams)
+			out.writeBoolean(contest.isTeamHidden(team));
+		writeInts(out, contest.getOrder());
+		for (int i = 0; i < teams.length; i++) {
+			IStanding s = contest.getStanding(i);
+			writeString(out, s.getRank());
+			out.writeInt(s.getNumSolved());
+			out.writeLong(s.getTime());
+			out.writeDouble(s.getScore());
+			out.writeLong(s.getLastSolutionTime());
+		}
+		for (int i = 0; i < teams.length; i++) {
+			for (int j = 0; j < numProblems; j++) {
+				IResult r = contest.getResult(i, j);
+				out.writeByte(r.getStatus().ordinal());
+				out.writeInt(r.getNumPending());
+				out.writeInt(r.getNumJudged());
+				out.writeLong(r.getContestTime());
+				out.writeLong(r.getPenaltyTime());
+				out.writeDouble(r.getScore());
+				out.writeBoolean(r.isFirstToSolve());
+			}
+		}
+		for (int j = 0; j < numProblems; j++) {
+			IProblemSummary ps = contest.getProblemSummary(j);
+			out.writeInt(ps.getNumPending());
+			out.writeLong(ps.getPendingContestTime());
+			out.writeInt(ps.getNumFailed());
+			out.writeLong(ps.getFailedContestTime());
+			out.writeInt(ps.getNumSolved());
+			out.writeLong(ps.getSolvedContestTime());
+			out.writeInt(ps.getNumSubmissions());
+		}
+
+		// last event
+		out.writeInt(contest.getNumObjects());
+		out.writeLong(contest.getContestTimeOfLastEvent());
+		out.writeInt(contest.getLastTimedObjectEventIndex());
+		IContestObject last = contest.getLastTimedObject();
+		int lastType = -1;
+		int lastIndex = -1;
+		if (last != null) {
+			IContestObject[] objs = contest.getObjects(last.getType());
+			for (int i = 0; i < objs.length; i++) {
+				if (objs[i] == last) {
+					lastType = last.getType().ordinal();
+					lastIndex = i;
+				}
+			}
+		}
+		out.writeInt(lastType);
+		out.writeInt(lastIndex);
+
+		out.writeLong(indexOffset);
+	}
+
+	private static void writeInts(DataOutputStream out, int[] a) throws IOException {
+		out.writeInt(a.length);
+		for (int i : a)
+			out.writeInt(i);
+	}
+
+	private static int[] readInts(ByteBuffer b) {
+		int[] a = new int[b.getInt()];
+		for (int i = 0; i < a.length; i++)
+			a[i] = b.getInt();
+		return a;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(b.length);
+		out.write(b);
+	}
+
+	private static String readString(ByteBuffer b) {
+		int len = b.getInt();
+		if (len < 0)
+			return null;
+
+		byte[] bytes = new byte[len];
+		b.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Write the indexes of items grouped by their parent (e.g. judgements by submission), as the
+	 * start of each parent's group followed by the grouped indexes.
+	 */
+	private static void writeGroups(DataOutputStream out, int[] parent, int numParents) throws IOException {
+		int[] start = new int[numParents + 1];
+		for (int p : parent) {
+			if (p >= 0)
+				start[p + 1]++;
+		}
+		for (int i = 0; i < numParents; i++)
+			start[i + 1] += start[i];
+
+		int[] next = Arrays.copyOf(start, numParents);
+		int[] items = new int[start[numParents]];
+		for (int i = 0; i < parent.length; i++) {
+			if (parent[i] >= 0)
+				items[next[parent[i]]++] = i;
+		}
+		writeInts(out, start);
+		writeInts(out, items);
+	}
+
+	private IContestObject read(int type, int index) {
+		ByteBuffer b = buf.duplicate();
+		b.position(offsets[type][index]);
+		b.position(b.position() + 2 + (b.getShort() & 0xFFFF));
+		byte[] bytes = new byte[b.getInt()];
+		b.get(bytes);
+
+		ContestObject co = (ContestObject) IContestObject.createByType(TYPES[type]);
+		JsonObject obj = new JSONParser(new String(bytes, StandardCharsets.UTF_8), pool).readObject();
+		for (String key : obj.props.keySet())
+			co.add(key, obj.props.get(key));
+		return co;
+	}
+
+	private String readId(int type, int index) {
+		ByteBuffer b = buf.duplicate();
+		b.position(offsets[type][index]);
+		byte[] bytes = new byte[b.getShort() & 0xFFFF];
+		b.get(bytes);
+		return pool.intern(new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	private IContestObject get(ContestType type, int index) {
+		int t = type.ordinal();
+		if (index < 0 || index >= offsets[t].length)
+			return null;
+
+		if (!LARGE[t])
+			return getObjects(type)[index];
+
+		Long key = ((long) t << 32) | index;
+		synchronized (cache) {
+			IContestObject co = cache.get(key);
+			if (co != null)
+				return co;
+		}
+
+		IContestObject co = read(t, index);
+		synchronized (cache) {
+			cache.put(key, co);
+		}
+		return co;
+	}
+
+	private int getIndex(ContestType type, String id) {
+		if (id == null)
+			return -1;
+
+		int t = type.ordinal();
+		Map<String, Integer> map = idMaps[t];
+		if (map == null) {
+			synchronized (idMaps) {
+				map = idMaps[t];
+				if (map == null) {
+					int n = offsets[t].length;
+					map = new HashMap<>(n * 4 / 3 + 1);
+					for (int i = 0; i < n; i++)
+						map.put(readId(t, i), i);
+					idMaps[t] = map;
+				}
+			}
+		}
+		Integer in = map.get(id);
+		if (in == null)
+			return -1;
+		return in;
+	}
+
+	private IContestObject getById(ContestType type, String id) {
+		return get(type, getIndex(type, id));
+	}
+
+	@Override
+	public IContestObject getObjectByTypeAndId(ContestType type, String id) {
+		if (id == null && IContestObject.isSingleton(type)) {
+			IContestObject[] objs = getObjects(type);
+			return objs.length == 0 ? null : objs[objs.length - 1];
+		}
+		return getById(type, id);
+	}
+
+	/**
+	 * Returns all objects of a type. Objects of the small types are shared; objects of the large
+	 * types are read each time, so callers that only need a few should look them up by id.
+	 */
+	@Override
+	public IContestObject[] getObjects(ContestType type) {
+		int t = type.ordinal();
+		if (!LARGE[t]) {
+			IContestObject[] objs = objects[t];
+			if (objs != null)
+				return objs;
+
+			synchronized (objects) {
+				if (objects[t] != null)
+					return objects[t];
+
+				objs = new IContestObject[offsets[t].length];
+				for (int i = 0; i < objs.length; i++)
+					objs[i] = read(t, i);
+				objects[t] = objs;
+				return objs;
+			}
+		}
+
+		IContestObject[] objs = new IContestObject[offsets[t].length];
+		for (int i = 0; i < objs.length; i++)
+			objs[i] = get(type, i);
+		return objs;
+	}
+
+	private <T> T[] getByType(ContestType type, T[] a) {
+		IContestObject[] objs = getObjects(type);
+		T[] a2 = Arrays.copyOf(a, objs.length);
+		System.arraycopy(objs, 0, a2, 0, objs.length);
+		return a2;
+	}
+
+	private int getCount(ContestType type) {
+		return offsets[type.ordinal()].length;
+	}
+
+	@Override
+	public void addListener(IContestListener listener) {
+		// the contest never changes
+	}
+
+	@Override
+	public void removeListener(IContestListener listener) {
+		// the contest never changes
+	}
+
+	@Override
+	public String getId() {
+		return info.getId();
+	}
+
+	@Override
+	public String getName() {
+		return info.getName();
+	}
+
+	@Override
+	public String getFormalName() {
+		return info.getFormalName();
+	}
+
+	@Override
+	public String getActualFormalName() {
+		return info.getActualFormalName();
+	}
+
+	@Override
+	public String getRGB() {
+		return info.getRGB();
+	}
+
+	@Override
+	public Color getColorVal() {
+		return info.getColorVal();
+	}
+
+	@Override
+	public Long getStartTime() {
+		return info.getStartTime();
+	}
+
+	@Override
+	public Long getCountdownPauseTime() {
+		return info.getCountdownPauseTime();
+	}
+
+	@Override
+	public long getDuration() {
+		return info.getDuration();
+	}
+
+	@Override
+	public Long getFreezeDuration() {
+		return info.getFreezeDuration();
+	}
+
+	@Override
+	public Long getThawTime() {
+		return info.getThawTime();
+	}
+
+	@Override
+	public Long getPenaltyTime() {
+		return info.getPenaltyTime();
+	}
+
+	@Override
+	public double getTimeMultiplier() {
+		return info.getTimeMultiplier();
+	}
+
+	@Override
+	public double getLatitude() {
+		return info.getLatitude();
+	}
+
+	@Override
+	public double getLongitude() {
+		return info.getLongitude();
+	}
+
+	@Override
+	public ScoreboardType getScoreboardType() {
+		return info.getScoreboardType();
+	}
+
+	@Override
+	public File getLogo(int width, int height, boolean force) {
+		return info.getLogo(width, height, force);
+	}
+
+	@Override
+	public BufferedImage getLogoImage(int width, int height, boolean forceLoad, boolean resizeToFit) {
+		return info.getLogoImage(width, height, forceLoad, resizeToFit);
+	}
+
+	@Override
+	public File getBanner(int width, int height, boolean force) {
+		return info.getBanner(width, height, force);
+	}
+
+	@Override
+	public BufferedImage getBannerImage(int width, int height, boolean forceLoad, boolean resizeToFit) {
+		return info.getBannerImage(width, height, forceLoad, resizeToFit);
+	}
+
+	@Override
+	public IState getState() {
+		return state;
+	}
+
+	@Override
+	public int getNumObjects() {
+		return numObjects;
+	}
+
+	@Override
+	public long getContestTimeOfLastEvent() {
+		return lastEventTime;
+	}
+
+	@Override
+	public IContestObject getLastTimedObject() {
+		if (lastTimedType < 0)
+			return null;
+		return get(TYPES[lastTimedType], lastTimedIndex);
+	}
+
+	@Override
+	public int getLastTimedObjectEventIndex() {
+		return lastTimedEventIndex;
+	}
+
+	@Override
+	public IStartStatus[] getStartStatuses() {
+		return getByType(ContestType.START_STATUS, new IStartStatus[0]);
+	}
+
+	@Override
+	public IStartStatus getStartStatusById(String id) {
+		return (IStartStatus) getById(ContestType.START_STATUS, id);
+	}
+
+	@Override
+	public Long getStartStatus() {
+		Long startTime = info.getStartTime();
+		if (startTime != null)
+			return startTime;
+
+		Long pause = info.getCountdownPauseTime();
+		if (pause == null)
+			return null;
+
+		return -pause;
+	}
+
+	@Override
+	public IPause[] getPauses() {
+		return getByType(ContestType.PAUSE, new IPause[0]);
+	}
+
+	@Override
+	public ILanguage[] getLanguages() {
+		return getByType(ContestType.LANGUAGE, new ILanguage[0]);
+	}
+
+	@Override
+	public ILanguage getLanguageById(String id) {
+		return (ILanguage) getById(ContestType.LANGUAGE, id);
+	}
+
+	@Override
+	public IJudgementType[] getJudgementTypes() {
+		return getByType(ContestType.JUDGEMENT_TYPE, new IJudgementType[0]);
+	}
+
+	@Override
+	public IJudgementType getJudgementTypeById(String id) {
+		return (IJudgementType) getById(ContestType.JUDGEMENT_TYPE, id);
+	}
+
+	@Override
+	public IJudgementType getJudgementType(ISubmission submission) {
+		int index = getSubmissionIndex(submission);
+		if (index < 0 || submissionJudgementTypes[index] < 0)
+			return null;
+
+		return (IJudgementType) get(ContestType.JUDGEMENT_TYPE, submissionJudgementTypes[index]);
+	}
+
+	@Override
+	public IGroup[] getGroups() {
+		return getByType(ContestType.GROUP, new IGroup[0]);
+	}
+
+	@Override
+	public IGroup getGroupById(String id) {
+		return (IGroup) getById(ContestType.GROUP, id);
+	}
+
+	@Override
+	public IGroup[] getGroupsByIds(String[] ids) {
+		if (ids == null || ids.length == 0)
+			return null;
+
+		IGroup[] g = new IGroup[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			g[i] = getGroupById(ids[i]);
+		return g;
+	}
+
+	@Override
+	public int getNumProblems() {
+		return getCount(ContestType.PROBLEM);
+	}
+
+	@Override
+	public IProblem[] getProblems() {
+		return getByType(ContestType.PROBLEM, new IProblem[0]);
+	}
+
+	@Override
+	public IProblem getProblemById(String id) {
+		return (IProblem) getById(ContestType.PROBLEM, id);
+	}
+
+	@Override
+	public int getProblemIndex(String problemId) {
+		return getIndex(ContestType.PROBLEM, problemId);
+	}
+
+	@Override
+	public int getNumOrganizations() {
+		return getCount(ContestType.ORGANIZATION);
+	}
+
+	@Override
+	public IOrganization[] getOrganizations() {
+		return getByType(ContestType.ORGANIZATION, new IOrganization[0]);
+	}
+
+	@Override
+	public IOrganization getOrganizationById(String id) {
+		return (IOrganization) getById(ContestType.ORGANIZATION, id);
+	}
+
+	@Override
+	public int getNumTeams() {
+		return getCount(ContestType.TEAM);
+	}
+
+	@Override
+	public ITeam[] getTeams() {
+		return getByType(ContestType.TEAM, new ITeam[0]);
+	}
+
+	@Override
+	public ITeam getTeamById(String id) {
+		return (ITeam) getById(ContestType.TEAM, id);
+	}
+
+	@Override
+	public boolean isTeamHidden(ITeam team) {
+		if (team == null)
+			return true;
+
+		int index = getIndex(ContestType.TEAM, team.getId());
+		return index < 0 || hiddenTeams[index];
+	}
+
+	@Override
+	public IStanding getStanding(ITeam team) {
+		if (team == null)
+			return null;
+
+		int index = getIndex(ContestType.TEAM, team.getId());
+		if (index < 0)
+			return null;
+		return standings[index];
+	}
+
+	@Override
+	public ITeam[] getOrderedTeams() {
+		ITeam[] teams = getTeams();
+		ITeam[] ordered = new ITeam[order.length];
+		for (int i = 0; i < order.length; i++)
+			ordered[i] = teams[order[i]];
+		return ordered;
+	}
+
+	@Override
+	public int getOrderOf(ITeam team) {
+		if (team == null)
+			return -1;
+
+		int index = getIndex(ContestType.TEAM, team.getId());
+		for (int i = 0; i < order.length; i++) {
+			if (order[i] == index)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public int getNumPersons() {
+		return getCount(ContestType.PERSON);
+	}
+
+	@Override
+	public IPerson[] getPersons() {
+		return getByType(ContestType.PERSON, new IPerson[0]);
+	}
+
+	@Override
+	public IPerson getPersonById(String id) {
+		return (IPerson) getById(ContestType.PERSON, id);
+	}
+
+	@Override
+	public IPerson[] getPersonsByTeamId(String id) {
+		List<IPerson> list = new ArrayList<>();
+		for (IPerson p : getPersons()) {
+			if (id.equals(p.getTeamId()))
+				list.add(p);
+		}
+		if (list.isEmpty())
+			return null;
+
+		return list.toArray(new IPerson[0]);
+	}
+
+	@Override
+	public int getNumSubmissions() {
+		return getCount(ContestType.SUBMISSION);
+	}
+
+	@Override
+	public ISubmission getSubmissionById(String id) {
+		return (ISubmission) getById(ContestType.SUBMISSION, id);
+	}
+
+	@Override
+	public ISubmission[] getSubmissions() {
+		return getByType(ContestType.SUBMISSION, new ISubmission[0]);
+	}
+
+	private int getSubmissionIndex(ISubmission submission) {
+		if (submission == null)
+			return -1;
+		return getIndex(ContestType.SUBMISSION, submission.getId());
+	}
+
+	@Override
+	public int getNumJudgements() {
+		return getCount(ContestType.JUDGEMENT);
+	}
+
+	@Override
+	public IJudgement getJudgementById(String id) {
+		return (IJudgement) getById(ContestType.JUDGEMENT, id);
+	}
+
+	@Override
+	public IJudgement[] getJudgementsBySubmissionId(String id) {
+		int index = getIndex(ContestType.SUBMISSION, id);
+		if (index < 0 || judgementsStart[index] == judgementsStart[index + 1])
+			return null;
+
+		IJudgement[] js = new IJudgement[judgementsStart[index + 1] - judgementsStart[index]];
+		for (int i = 0; i < js.length; i++)
+			js[i] = (IJudgement) get(ContestType.JUDGEMENT, judgementsBySubmission[judgementsStart[index] + i]);
+		return js;
+	}
+
+	@Override
+	public IJudgement[] getJudgements() {
+		return getByType(ContestType.JUDGEMENT, new IJudgement[0]);
+	}
+
+	@Override
+	public int getNumClarifications() {
+		return getCount(ContestType.CLARIFICATION);
+	}
+
+	@Override
+	public IClarification[] getClarifications() {
+		return getByType(ContestType.CLARIFICATION, new IClarification[0]);
+	}
+
+	@Override
+	public IClarification getClarificationById(String id) {
+		return (IClarification) getById(ContestType.CLARIFICATION, id);
+	}
+
+	@Override
+	public ICommentary[] getCommentary() {
+		return getByType(ContestType.COMMENTARY, new ICommentary[0]);
+	}
+
+	@Override
+	public ICommentary getCommentaryById(String id) {
+		return (ICommentary) getById(ContestType.COMMENTARY, id);
+	}
+
+	@Override
+	public int getNumRuns() {
+		return getCount(ContestType.RUN);
+	}
+
+	@Override
+	public IRun[] getRuns() {
+		return getByType(ContestType.RUN, new IRun[0]);
+	}
+
+	@Override
+	public IRun getRunById(String id) {
+		return (IRun) getById(ContestType.RUN, id);
+	}
+
+	@Override
+	public IRun[] getRunsByJudgementId(String id) {
+		int index = getIndex(ContestType.JUDGEMENT, id);
+		if (index < 0 || runsStart[index] == runsStart[index + 1])
+			return null;
+
+		IRun[] runs = new IRun[runsStart[index + 1] - runsStart[index]];
+		for (int i = 0; i < runs.length; i++)
+			runs[i] = (IRun) get(ContestType.RUN, runsByJudgement[runsStart[index] + i]);
+		return runs;
+	}
+
+	@Override
+	public Status getStatus(ISubmission submission) {
+		if (submission == null)
+			return null;
+
+		IJudgementType jt = getJudgementType(submission);
+		if (jt == null)
+			return Status.SUBMITTED;
+
+		if (jt.isSolved())
+			return Status.SOLVED;
+
+		return Status.FAILED;
+	}
+
+	@Override
+	public boolean isSolved(ISubmission submission) {
+		int index = getSubmissionIndex(submission);
+		return index >= 0 && (submissionFlags[index] & SOLVED) != 0;
+	}
+
+	@Override
+	public boolean isJudged(ISubmission submission) {
+		int index = getSubmissionIndex(submission);
+		return index >= 0 && (submissionFlags[index] & JUDGED) != 0;
+	}
+
+	@Override
+	public boolean isFirstToSolve(ISubmission submission) {
+		int index = getSubmissionIndex(submission);
+		return index >= 0 && (submissionFlags[index] & FIRST_TO_SOLVE) != 0;
+	}
+
+	@Override
+	public IResult getResult(int teamIndex, int problemIndex) {
+		return results[teamIndex][problemIndex];
+	}
+
+	@Override
+	public IResult getResult(ITeam team, int problemIndex) {
+		return getResult(getIndex(ContestType.TEAM, team.getId()), problemIndex);
+	}
+
+	@Override
+	public IProblemSummary getProblemSummary(int problemIndex) {
+		return summaries[problemIndex];
+	}
+
+	@Override
+	public boolean isBeforeFreeze(ISubmission s) {
+		if (s == null)
+			return false;
+
+		return s.getContestTime() < (info.getDuration() - info.getFreezeDuration());
+	}
+
+	@Override
+	public IAccount[] getAccounts() {
+		return getByType(ContestType.ACCOUNT, new IAccount[0]);
+	}
+
+	@Override
+	public IAccount getAccountById(String id) {
+		return (IAccount) getById(ContestType.ACCOUNT, id);
+	}
+
+	@Override
+	public IAward[] getAwards() {
+		return getByType(ContestType.AWARD, new IAward[0]);
+	}
+
+	@Override
+	public IAward getAwardById(String id) {
+		return (IAward) getById(ContestType.AWARD, id);
+	}
+
+	@Override
+	public IMapInfo getMapInfo() {
+		IContestObject[] objs = getObjects(ContestType.MAP_INFO);
+		if (objs.length == 0)
+			return null;
+		return (IMapInfo) objs[objs.length - 1];
+	}
+
+	@Override
+	public IResolveInfo getResolveInfo() {
+		IContestObject[] objs = getObjects(ContestType.RESOLVE_INFO);
+		if (objs.length == 0)
+			return null;
+		return (IResolveInfo) objs[objs.length - 1];
+	}
+
+	@Override
+	public List<String> validate() {
+		List<String> errors = new ArrayList<>();
+		for (ContestType type : TYPES) {
+			int n = getCount(type);
+			for (int i = 0; i < n; i++) {
+				IContestObject co = get(type, i);
+				List<String> list = co.validate(this);
+				if (list != null) {
+					for (String s : list)
+						errors.add("Invalid " + IContestObject.getTypeName(type) + " (" + co.getId() + "): " + s);
+				}
+			}
+		}
+
+		if (errors.isEmpty())
+			return null;
+		return errors;
+	}
+
+	@Override
+	public String toString() {
+		return "Archived contest [" + getId() + "]";
+	}
+}
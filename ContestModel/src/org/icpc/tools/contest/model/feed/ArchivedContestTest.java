@@ -0,0 +1,222 @@
+package org.icpc.tools.contest.model.feed;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.internal.Clarification;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Language;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.Run;
+import org.icpc.tools.contest.model.internal.State;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.icpc.tools.contest.model.util.ContestComparator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class ArchivedContestTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 20;
+	private static final int NUM_PROBLEMS = 6;
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	/**
+	 * A finished contest with submissions in the freeze, rejudges, runs, clarifications, a hidden
+	 * team, a pending submission, and an invalid clarification.
+	 */
+	private static Contest createContest() {
+		Random r = new Random(40);
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "start_time", Timestamp.format(START), "duration", "5:00:00",
+				"scoreboard_freeze_duration", "1:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		c.add(create(new Language(), "id", "java", "name", "Java"));
+		for (int i = 0; i < NUM_PROBLEMS; i++)
+			c.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i, "test_data_count", 3));
+		for (int i = 0; i < NUM_TEAMS; i++) {
+			Team t = create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i);
+			if (i == NUM_TEAMS - 1)
+				t.add("hidden", "true");
+			c.add(t);
+		}
+
+		for (int n = 0; n < 400; n++) {
+			long time = n * 45000L + r.nextInt(30000);
+			String id = "s" + n;
+			c.add(create(new Submission(), "id", id, "team_id", "" + (r.nextInt(NUM_TEAMS) + 1), "problem_id",
+					"p" + r.nextInt(NUM_PROBLEMS), "language_id", "java", "contest_time", RelativeTime.format(time),
+					"time", Timestamp.format(START + time)));
+			if (n == 399)
+				break; // pending
+
+			int numJudgements = r.nextInt(10) == 0 ? 2 : 1;
+			for (int k = 0; k < numJudgements; k++) {
+				String jId = "j" + id + "-" + k;
+				String type = r.nextInt(3) == 0 ? "AC" : "WA";
+				c.add(create(new Judgement(), "id", jId, "submission_id", id, "judgement_type_id", type,
+						"start_contest_time", RelativeTime.format(time + 1000), "start_time",
+						Timestamp.format(START + time + 1000), "end_contest_time", RelativeTime.format(time + 5000),
+						"end_time", Timestamp.format(START + time + 5000)));
+				for (int o = 1; o <= 3; o++)
+					c.add(create(new Run(), "id", jId + "-" + o, "judgement_id", jId, "ordinal", o, "judgement_type_id",
+							type, "contest_time", RelativeTime.format(time + 1000 + o * 1000), "time",
+							Timestamp.format(START + time + 1000 + o * 1000)));
+			}
+
+			if (n % 50 == 0)
+				c.add(create(new Clarification(), "id", "c" + n, "from_team_id", "" + (r.nextInt(NUM_TEAMS) + 1),
+						"text", "Question " + n, "contest_time", RelativeTime.format(time), "time",
+						Timestamp.format(START + time)));
+		}
+		// and one invalid object
+		c.add(create(new Clarification(), "id", "c-invalid", "from_team_id", "99", "text", "Question",
+				"contest_time", "1:00:00", "time", Timestamp.format(START + 3600000)));
+		c.add(create(new State(), "started", "2020-01-01T10:00:00Z", "ended", "2020-01-01T15:00:00Z"));
+		return c;
+	}
+
+	private static String describe(IContestObject obj) {
+		Map<String, Object> props = obj.getProperties();
+		List<String> list = new ArrayList<>();
+		for (String key : props.keySet()) {
+			Object value = props.get(key);
+			if (value instanceof Object[])
+				value = Arrays.toString((Object[]) value);
+			list.add(key + "=" + value);
+		}
+		list.sort(null);
+		return obj.getType() + list.toString();
+	}
+
+	private static String getIds(IContestObject[] objs) {
+		if (objs == null)
+			return "-";
+
+		List<String> list = new ArrayList<>();
+		for (IContestObject obj : objs)
+			list.add(obj.getId());
+		return list.toString();
+	}
+
+	/**
+	 * A description of everything the archive is expected to answer the same as the loaded
+	 * contest: objects, scoreboard, results, and the judgement of each submission.
+	 */
+	private static List<String> describe(IContest c) {
+		List<String> list = new ArrayList<>();
+		for (ContestType type : ContestType.values()) {
+			IContestObject[] objs = c instanceof ArchivedContest ? ((ArchivedContest) c).getObjects(type)
+					: ((Contest) c).getObjects(type);
+			for (IContestObject obj : objs)
+				list.add(describe(obj));
+		}
+
+		for (ITeam t : c.getOrderedTeams()) {
+			StringBuilder sb = new StringBuilder(t.getId() + " " + c.getStanding(t) + " " + c.isTeamHidden(t));
+			for (int i = 0; i < c.getNumProblems(); i++) {
+				IResult r = c.getResult(t, i);
+				sb.append(" ").append(r).append(r.isFirstToSolve() ? "*" : "");
+			}
+			list.add(sb.toString());
+		}
+		for (int i = 0; i < c.getNumProblems(); i++) {
+			list.add(i + " " + c.getProblemSummary(i).getNumSolved() + " " + c.getProblemSummary(i).getNumPending()
+					+ " " + c.getProblemSummary(i).getNumSubmissions());
+		}
+
+		for (ISubmission s : c.getSubmissions()) {
+			list.add(s.getId() + " " + c.getJudgementType(s) + " " + c.getStatus(s) + " " + c.isJudged(s) + " "
+					+ c.isSolved(s) + " " + c.isFirstToSolve(s) + " " + c.isBeforeFreeze(s) + " "
+					+ getIds(c.getJudgementsBySubmissionId(s.getId())));
+		}
+		for (IJudgement j : c.getJudgements())
+			list.add(j.getId() + " " + getIds(c.getRunsByJudgementId(j.getId())));
+		return list;
+	}
+
+	private static File writeArchive(Contest contest) throws IOException {
+		File f = File.createTempFile("contest", ".archive");
+		f.deleteOnExit();
+		ArchivedContest.write(contest, f);
+		return f;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Contest contest = createContest();
+		File f = writeArchive(contest);
+		assertThat(ArchivedContest.isArchive(f)).isTrue();
+
+		ArchivedContest archive = ArchivedContest.open(f);
+		assertThat(describe(archive)).containsExactlyElementsIn(describe(contest)).inOrder();
+		// the same errors, by type instead of in contest order
+		assertThat(contest.validate()).isNotEmpty();
+		assertThat(archive.validate()).containsExactlyElementsIn(contest.validate());
+		assertThat(archive.getNumSubmissions()).isEqualTo(400);
+		assertThat(archive.getSubmissionById("s10").getTeamId())
+				.isEqualTo(contest.getSubmissionById("s10").getTeamId());
+		assertThat(archive.getSubmissionById("missing")).isNull();
+	}
+
+	@Test
+	public void testCompare() throws Exception {
+		Contest contest = createContest();
+		ArchivedContest archive = ArchivedContest.open(writeArchive(contest));
+		assertThat(ContestComparator.compareContests(contest, archive).print(true)).isTrue();
+
+		assertThat(archive.getObjectByTypeAndId(ContestType.SUBMISSION, "s10"))
+				.isEqualTo(archive.getSubmissionById("s10"));
+		assertThat(archive.getObjectByTypeAndId(ContestType.STATE, null)).isNotNull();
+
+		Contest changed = createContest();
+		changed.add(create(new Language(), "id", "new", "name", "New"));
+		assertThat(ContestComparator.compareContests(changed, archive).print(true)).isFalse();
+	}
+
+	@Test
+	public void testNotAnArchive() throws Exception {
+		File f = File.createTempFile("contest", ".json");
+		f.deleteOnExit();
+		try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+			raf.write("{\"type\":\"contest\"}\n".getBytes("UTF-8"));
+		}
+		assertThat(ArchivedContest.isArchive(f)).isFalse();
+
+		try {
+			ArchivedContest.open(f);
+			fail("Event feed should not open as an archive");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().isEqualTo("Not a contest archive");
+		}
+	}
+}
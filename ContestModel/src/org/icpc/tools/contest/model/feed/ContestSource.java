@@ -13,6 +13,7 @@ import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.IContestListener;
 import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.internal.BufferedContest;
 import org.icpc.tools.contest.model.internal.Contest;
 import org.icpc.tools.contest.model.internal.FileReference;
 
@@ -241,7 +242,8 @@ public abstract class ContestSource {
 	}
 
 	public void close() throws Exception {
-		// do nothing
+		if (contest instanceof BufferedContest)
+			((BufferedContest) contest).close();
 	}
 
 	/**
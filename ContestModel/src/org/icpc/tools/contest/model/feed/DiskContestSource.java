@@ -1040,6 +1040,7 @@ public class DiskContestSource extends ContestSource {
 
 	@Override
 	public void close() throws Exception {
+		super.close();
 		if (parser != null)
 			parser.close();
 	}
@@ -1260,7 +1261,7 @@ public class DiskContestSource extends ContestSource {
 			return;
 
 		try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-			JSONParser parser2 = new JSONParser(new FileInputStream(f));
+			JSONParser parser2 = new JSONParser(new FileInputStream(f), contest.getStringPool());
 			Object[] arr = parser2.readArray();
 			for (Object obj : arr) {
 				JsonObject data = (JsonObject) obj;
@@ -1283,7 +1284,7 @@ public class DiskContestSource extends ContestSource {
 			return;
 
 		try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-			JSONParser parser2 = new JSONParser(new FileInputStream(f));
+			JSONParser parser2 = new JSONParser(new FileInputStream(f), contest.getStringPool());
 			JsonObject data = parser2.readObject();
 			String id = data.getString("id");
 			if (type == IContestObject.ContestType.CONTEST)
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.icpc.tools.contest.model.internal.SimpleMap;
+import org.icpc.tools.contest.model.internal.StringPool;
 
 public class JSONParser {
 	protected static final char[] TOKENS = new char[] { '"', ':', ',', '[', ']', '{', '}' };
@@ -23,6 +24,9 @@ public class JSONParser {
 	private String s;
 	private int ind;
 
+	// pool to share repeated keys and values through, or null
+	private StringPool pool;
+
 	public static class JsonObject {
 		public Map<String, Object> props = new SimpleMap();
 
@@ -127,6 +131,20 @@ public class JSONParser {
 		this.s = s;
 	}
 
+	/**
+	 * Create a parser that shares repeated keys and short values through the given pool, e.g. the
+	 * string pool of the contest being read into.
+	 */
+	public JSONParser(String s, StringPool pool) {
+		this(s);
+		this.pool = pool;
+	}
+
+	public JSONParser(InputStream in, StringPool pool) throws IOException {
+		this(in);
+		this.pool = pool;
+	}
+
 	public JSONParser(File f) throws IOException {
 		InputStream in = new FileInputStream(f);
 		BufferedReader br = new BufferedReader(new InputStreamReader(in));
@@ -248,7 +266,7 @@ public class JSONParser {
 		if (t != Token.QUOTE)
 			throw new IllegalArgumentException("Unexpected " + t);
 
-		String key = readValueBody();
+		String key = intern(readValueBody());
 
 		t = nextToken();
 		if (t != Token.COLON)
@@ -256,24 +274,41 @@ public class JSONParser {
 
 		t = nextToken();
 
+		// references to other objects repeat throughout a feed, so share them
+		boolean isRef = pool != null && (key.endsWith("_id") || key.endsWith("_ids"));
+
 		Object value = null;
 		if (t == Token.QUOTE) {
 			// quoted value
 			value = readValueBody();
+			if (isRef)
+				value = pool.intern((String) value);
 		} else if (t == Token.OBJECT_START) {
 			ind--;
 			value = readObject();
 		} else if (t == Token.ARRAY_START) {
 			ind--;
-			value = readArray();
+			value = readArray(isRef);
 		} else { // simple value
 			value = readUntilNextToken();
+			if (isRef)
+				value = pool.intern(value);
 		}
 		obj.props.put(key, value);
 		return false;
 	}
 
+	private String intern(String value) {
+		if (pool == null)
+			return value;
+		return pool.intern(value);
+	}
+
 	public Object[] readArray() {
+		return readArray(false);
+	}
+
+	private Object[] readArray(boolean isRef) {
 		List<Object> list = new ArrayList<>();
 
 		Token t = nextToken();
@@ -287,14 +322,18 @@ public class JSONParser {
 			if (t == Token.QUOTE) {
 				// quoted value
 				value = readValueBody();
+				if (isRef)
+					value = pool.intern((String) value);
 			} else if (t == Token.OBJECT_START) {
 				ind--;
 				value = readObject();
 			} else if (t == Token.ARRAY_START) {
 				ind--;
-				value = readArray();
+				value = readArray(isRef);
 			} else { // simple value
 				value = readUntilNextToken();
+				if (isRef)
+					value = pool.intern(value);
 			}
 			list.add(value);
 			t = nextToken();
@@ -58,7 +58,7 @@ public class NDJSONFeedParser implements Closeable {
 				}
 
 				try {
-					JSONParser rdr = new JSONParser(s);
+					JSONParser rdr = new JSONParser(s, contest.getStringPool());
 					JsonObject obj = rdr.readObject();
 					String op = obj.getString("op");
 					if (op != null)
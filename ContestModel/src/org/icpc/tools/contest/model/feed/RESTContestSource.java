@@ -275,6 +275,23 @@ public class RESTContestSource extends DiskContestSource {
 		return downloadIfNecessary(ref, file);
 	}
 
+	/**
+	 * Download a file from the server into the local cache, if it has changed.
+	 *
+	 * @param href the location of the file, either absolute or relative to the server
+	 * @param path the path of the file in the local cache
+	 * @return the local file, or null if it does not exist on the server
+	 * @throws IOException
+	 */
+	public File downloadFile(String href, String path) throws IOException {
+		File localFile = super.getFile(path);
+		downloadIfNecessary(href, localFile);
+		if (!localFile.exists())
+			return null;
+
+		return localFile;
+	}
+
 	private URL getResolvedURL(String href) throws MalformedURLException {
 		if (href.startsWith("http"))
 			return new URL(href);
@@ -67,6 +67,7 @@ public class Award extends ContestObject implements IAward {
 	}
 
 	public void setTeamIds(String[] teamIds) {
+		propertiesChanged();
 		this.teamIds = teamIds;
 	}
 
@@ -85,14 +86,17 @@ public class Award extends ContestObject implements IAward {
 	}
 
 	public void setCitation(String citation) {
+		propertiesChanged();
 		this.citation = citation;
 	}
 
 	public void setParameter(String parameter, String value) {
+		propertiesChanged();
 		this.parameters.put(parameter, value);
 	}
 
 	public void clearParameter(String parameter) {
+		propertiesChanged();
 		this.parameters.remove(parameter);
 	}
 
@@ -109,6 +113,7 @@ public class Award extends ContestObject implements IAward {
 	}
 
 	public void setDisplayMode(DisplayMode s) {
+		propertiesChanged();
 		this.mode = s;
 	}
 
@@ -2,62 +2,175 @@ package org.icpc.tools.contest.model.internal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.IContestObject;
 
+/**
+ * A contest that buffers incoming objects and applies them in batches on a single applier thread,
+ * so that the thread reading the feed is never blocked by listeners. A batch is applied once it
+ * reaches the maximum batch size, or the maximum latency has passed since the first object in the
+ * batch arrived. Batches are applied with addAll(), so IContestBatchListeners are notified once per
+ * batch. The applier thread is started by the first add() and stopped by close().
+ */
 public class BufferedContest extends Contest {
-	private List<IContestObject> buffer = new ArrayList<>();
+	private static final int DEFAULT_MAX_BATCH_SIZE = 2000;
+	private static final long DEFAULT_MAX_LATENCY_MS = 200;
 
-	private Thread t;
-	private boolean more;
+	private final Queue<IContestObject> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queueSize = new AtomicInteger();
+
+	// held while taking objects off the queue and applying them, so that objects are applied in
+	// queue order even when the applier and callers of add() or close() drain at the same time
+	private final Object applyLock = new Object();
+	private final int maxBatchSize;
+	private final long maxLatencyNs;
+
+	private volatile Thread applier;
+	private volatile boolean applying;
+	private volatile boolean closed;
+
+	public BufferedContest() {
+		this(DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_LATENCY_MS);
+	}
+
+	/**
+	 * Create a buffered contest.
+	 *
+	 * @param maxBatchSize the maximum number of objects to apply at once
+	 * @param maxLatencyMs the maximum time to wait for a batch to fill
+	 */
+	public BufferedContest(int maxBatchSize, long maxLatencyMs) {
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.maxLatencyNs = Math.max(0, maxLatencyMs) * 1_000_000L;
+	}
 
 	@Override
 	public void add(IContestObject obj) {
-		synchronized (buffer) {
-			buffer.add(obj);
+		if (obj == null)
+			return;
+
+		queue.add(obj);
+		int size = queueSize.incrementAndGet();
+
+		// once closed, apply everything buffered so far (including this object) in order
+		if (closed) {
+			applyRemaining();
+			return;
 		}
 
-		if (t != null) {
-			more = true;
+		Thread t = applier;
+		if (t == null)
+			t = startApplier();
+
+		// closed while this object was being added
+		if (closed) {
+			applyRemaining();
 			return;
 		}
 
-		t = new Thread("Buffered contest") {
+		// only wake the applier when a batch starts or fills
+		if (size == 1 || size == maxBatchSize)
+			LockSupport.unpark(t);
+	}
+
+	public boolean isBuffering() {
+		return queueSize.get() > 0 || applying;
+	}
+
+	/**
+	 * Stop the applier thread and wait for it to apply the objects that are already buffered.
+	 * Objects added after this are applied immediately on the calling thread, after anything that
+	 * is still buffered.
+	 */
+	public void close() {
+		Thread t;
+		synchronized (this) {
+			closed = true;
+			t = applier;
+		}
+
+		if (t != null && t != Thread.currentThread()) {
+			LockSupport.unpark(t);
+			try {
+				t.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		applyRemaining();
+	}
+
+	private void applyRemaining() {
+		synchronized (applyLock) {
+			IContestObject obj = null;
+			while ((obj = queue.poll()) != null) {
+				queueSize.decrementAndGet();
+				super.add(obj);
+			}
+		}
+	}
+
+	private synchronized Thread startApplier() {
+		if (applier != null || closed)
+			return applier;
+
+		Thread t = new Thread("Buffered contest") {
 			@Override
 			public void run() {
-				int loop = 0;
-				// wait for 200ms. loop again if there are more objects still coming in, but no more
-				// than 2000 objects or 800ms
-				while (loop == 0 || (more && loop < 4 && buffer.size() < 2000)) {
-					more = false;
-					loop++;
+				while (!closed || queueSize.get() > 0) {
 					try {
-						Thread.sleep(200);
-					} catch (Exception e) {
-						// ignore
+						applyNextBatch();
+					} catch (Throwable e) {
+						applying = false;
+						Trace.trace(Trace.ERROR, "Error applying contest batch", e);
 					}
 				}
-				if (loop > 1)
-					Trace.trace(Trace.INFO, "Contest buffering: " + loop + "." + buffer.size());
-				flush();
+				Trace.trace(Trace.INFO, "Contest buffering stopped");
 			}
 		};
 		t.setDaemon(true);
+		applier = t;
 		t.start();
+		return t;
 	}
 
-	public boolean isBuffering() {
-		return buffer.size() > 0 || t != null;
-	}
+	private void applyNextBatch() {
+		while (queueSize.get() == 0) {
+			if (closed)
+				return;
+			LockSupport.park(this);
+		}
+
+		// give the batch a chance to fill
+		long end = System.nanoTime() + maxLatencyNs;
+		long now = System.nanoTime();
+		while (queueSize.get() < maxBatchSize && now < end && !closed) {
+			LockSupport.parkNanos(this, end - now);
+			now = System.nanoTime();
+		}
+
+		synchronized (applyLock) {
+			applying = true;
+			List<IContestObject> batch = new ArrayList<>(Math.min(Math.max(queueSize.get(), 1), maxBatchSize));
+			IContestObject obj = null;
+			while (batch.size() < maxBatchSize && (obj = queue.poll()) != null)
+				batch.add(obj);
+			queueSize.addAndGet(-batch.size());
+
+			if (batch.size() == maxBatchSize)
+				Trace.trace(Trace.INFO, "Contest buffering: full batch of " + batch.size());
 
-	private void flush() {
-		t = null;
-		synchronized (buffer) {
-			for (IContestObject co : buffer) {
-				super.add(co);
+			try {
+				if (!batch.isEmpty())
+					addAll(batch);
+			} finally {
+				applying = false;
 			}
-			buffer.clear();
 		}
 	}
-}
\ No newline at end of file
+}
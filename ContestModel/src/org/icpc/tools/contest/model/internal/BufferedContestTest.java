@@ -0,0 +1,90 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class BufferedContestTest {
+	private static Language createLanguage(String id) {
+		Language l = new Language();
+		l.add("id", id);
+		l.add("name", "Language " + id);
+		return l;
+	}
+
+	private static Thread getApplier() {
+		for (Thread t : Thread.getAllStackTraces().keySet()) {
+			if ("Buffered contest".equals(t.getName()) && t.isAlive())
+				return t;
+		}
+		return null;
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		// a long latency, so that close() has to apply a partial batch
+		BufferedContest contest = new BufferedContest(100, 60000);
+		for (int i = 0; i < 250; i++)
+			contest.add(createLanguage("l" + i));
+
+		Thread t = getApplier();
+		assertThat(t).isNotNull();
+		assertThat(t.isDaemon()).isTrue();
+
+		contest.close();
+		assertThat(t.isAlive()).isFalse();
+		assertThat(contest.isBuffering()).isFalse();
+		assertThat(contest.getLanguages()).hasLength(250);
+
+		// objects added after closing are applied right away
+		contest.add(createLanguage("late"));
+		assertThat(contest.getLanguageById("late")).isNotNull();
+		assertThat(getApplier()).isNull();
+	}
+
+	@Test
+	public void testCloseUnused() throws Exception {
+		BufferedContest contest = new BufferedContest();
+		contest.close();
+		contest.add(createLanguage("l1"));
+		assertThat(contest.getLanguageById("l1")).isNotNull();
+		assertThat(getApplier()).isNull();
+	}
+
+	@Test
+	public void testCloseWhileAdding() throws Exception {
+		for (int n = 0; n < 20; n++) {
+			BufferedContest contest = new BufferedContest(50, 5);
+			int num = 5000;
+			Thread t = new Thread(() -> {
+				for (int i = 0; i < num; i++)
+					contest.add(createLanguage("l" + i));
+			});
+			t.start();
+
+			// close part way through, while the applier and the adding thread are both busy
+			while (contest.getNumObjects() < n * 100 && t.isAlive())
+				Thread.yield();
+			contest.close();
+			t.join();
+
+			// every object is applied once, in the order it was added
+			List<String> ids = new ArrayList<>();
+			for (IContestObject obj : contest.getObjects()) {
+				if (obj instanceof Language)
+					ids.add(obj.getId());
+			}
+			List<String> expected = new ArrayList<>();
+			for (int i = 0; i < num; i++)
+				expected.add("l" + i);
+			assertThat(ids).containsExactlyElementsIn(expected).inOrder();
+		}
+	}
+}
@@ -6,6 +6,8 @@ import java.io.File;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -19,6 +21,7 @@ import org.icpc.tools.contest.model.IAward;
 import org.icpc.tools.contest.model.IClarification;
 import org.icpc.tools.contest.model.ICommentary;
 import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestBatchListener;
 import org.icpc.tools.contest.model.IContestListener;
 import org.icpc.tools.contest.model.IContestListener.Delta;
 import org.icpc.tools.contest.model.IContestObject;
@@ -48,9 +51,17 @@ import org.icpc.tools.contest.model.util.AwardUtil;
 public class Contest implements IContest {
 	private static final Collator collator = Collator.getInstance(Locale.US);
 
-	private final ContestData data;
-	private final List<IContestListener> listeners = new ArrayList<>();
-	private final List<IContestModifier> modifiers = new ArrayList<>();
+	// number of objects replayed to a new listener at a time
+	private static final int REPLAY_CHUNK = 1000;
+
+	// only replaced by copySharedData(), when a view stops sharing the data of another contest
+	private ContestData data;
+
+	// copy-on-write listener and modifier arrays, replaced (under the registry lock) when changed
+	// so that notification never has to lock or copy
+	private final Object registryLock = new Object();
+	private volatile IContestListener[] listeners = new IContestListener[0];
+	private volatile IContestModifier[] modifiers = new IContestModifier[0];
 
 	private Info info = new Info();
 	private IState state = new State();
@@ -82,6 +93,10 @@ public class Contest implements IContest {
 	private Recent[] recentActivity;
 	private IJudgement[] submissionJudgements;
 	private IJudgementType[] submissionJudgementTypes;
+
+	// hidden teams by team index (copy-on-write), and the indexes of the visible teams
+	private BitSet hiddenTeams;
+	private int[] visibleTeams;
 	private long lastEventTime;
 	private IContestObject lastTimedEvent;
 	private int lastTimedEventIndex;
@@ -90,6 +105,12 @@ public class Contest implements IContest {
 	@SuppressWarnings("unchecked")
 	protected Set<String>[] allKnownProperties = new Set[ContestType.values().length];
 
+	// property schema slots already in the known properties, for each contest type
+	private BitSet[] knownSlots = new BitSet[ContestType.values().length];
+
+	// shared instances of the strings read into this contest
+	private StringPool stringPool = new StringPool();
+
 	public Contest() {
 		this(true);
 	}
@@ -99,23 +120,75 @@ public class Contest implements IContest {
 		data.add(state);
 	}
 
+	/**
+	 * Create a view that shares the data of the given contest, which must no longer change. Used by
+	 * subclasses that replace the scoreboard or judgements of an existing contest without copying
+	 * it. The view must call copySharedData() before it is changed.
+	 */
+	protected Contest(Contest contest) {
+		data = contest.data;
+		info = contest.info;
+		state = contest.state;
+		mapInfo = contest.mapInfo;
+		resolveInfo = contest.resolveInfo;
+		lastEventTime = contest.lastEventTime;
+		allKnownProperties = contest.allKnownProperties;
+		knownSlots = contest.knownSlots;
+		stringPool = contest.stringPool;
+	}
+
+	/**
+	 * Stop sharing data with the contest this view was created from by taking a copy of it, so
+	 * that the view can be changed without affecting the original. Must be called by subclasses
+	 * created with Contest(Contest) before they add anything.
+	 */
+	protected void copySharedData() {
+		synchronized (data) {
+			ContestData data2 = new ContestData(data.isKeepHistory());
+			data2.clone(data);
+
+			@SuppressWarnings("unchecked")
+			Set<String>[] known = (Set<String>[]) new Set<?>[allKnownProperties.length];
+			BitSet[] slots = new BitSet[knownSlots.length];
+			for (int j = 0; j < allKnownProperties.length; j++) {
+				Set<String> props = allKnownProperties[j];
+				if (props != null) {
+					Set<String> props2 = new SimpleSet();
+					for (String name : props)
+						props2.add(name);
+					known[j] = props2;
+				}
+				if (knownSlots[j] != null)
+					slots[j] = (BitSet) knownSlots[j].clone();
+			}
+			allKnownProperties = known;
+			knownSlots = slots;
+			data = data2;
+		}
+	}
+
 	@Override
 	public void addListener(IContestListener listener) {
-		synchronized (listeners) {
-			listeners.add(listener);
+		synchronized (registryLock) {
+			listeners = add(listeners, listener);
 		}
 	}
 
 	@Override
 	public void removeListener(IContestListener listener) {
-		synchronized (listeners) {
-			listeners.remove(listener);
+		synchronized (registryLock) {
+			IContestListener l = listener;
+			for (IContestListener l2 : listeners) {
+				if (l2 instanceof ReplayListener && ((ReplayListener) l2).listener == listener)
+					l = l2;
+			}
+			listeners = remove(listeners, l);
 		}
 	}
 
 	public void addModifier(IContestModifier modifier) {
-		synchronized (modifiers) {
-			modifiers.add(modifier);
+		synchronized (registryLock) {
+			modifiers = add(modifiers, modifier);
 		}
 
 		// make sure to modify all existing data
@@ -128,9 +201,26 @@ public class Contest implements IContest {
 	}
 
 	public void removeModifier(IContestModifier modifier) {
-		synchronized (modifiers) {
-			modifiers.remove(modifier);
+		synchronized (registryLock) {
+			modifiers = remove(modifiers, modifier);
+		}
+	}
+
+	private static <T> T[] add(T[] array, T t) {
+		T[] array2 = Arrays.copyOf(array, array.length + 1);
+		array2[array.length] = t;
+		return array2;
+	}
+
+	private static <T> T[] remove(T[] array, T t) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] == t) {
+				T[] array2 = Arrays.copyOf(array, array.length - 1);
+				System.arraycopy(array, i + 1, array2, i, array.length - i - 1);
+				return array2;
+			}
 		}
+		return array;
 	}
 
 	public void add(IContestObject obj) {
@@ -144,15 +234,17 @@ public class Contest implements IContest {
 		notifyModifiers(obj);
 
 		Delta delta = null;
+		int size = 0;
 		synchronized (data) {
 			delta = data.add(obj);
 			if (delta == Delta.NOOP)
 				return;
 
 			clearCaches(obj, delta);
+			size = data.size();
 		}
 
-		notifyListeners(obj, delta);
+		notifyListeners(obj, delta, size);
 
 		if (obj instanceof ISubmission || obj instanceof IRun || obj instanceof IJudgement
 				|| obj instanceof IClarification) {
@@ -162,7 +254,115 @@ public class Contest implements IContest {
 		}
 
 		// update known properties
-		addKnownProperty(obj.getType(), obj.getProperties());
+		addKnownProperties(obj);
+	}
+
+	/**
+	 * Add several objects at once. This is the bulk equivalent of addDirect(): all objects are
+	 * added under one lock, caches are cleared once per batch, and listeners are notified after
+	 * the whole batch has been applied - once per batch for IContestBatchListeners, and once per
+	 * object for all others. Like addDirect(), this bypasses any filtering done in add().
+	 *
+	 * If there are modifiers, each object is passed to them just before it is added (so that they
+	 * can look up earlier objects from the same batch) and caches are cleared per object, exactly
+	 * as addDirect() does; only listener notification is batched. The whole batch is still added
+	 * under one lock.
+	 *
+	 * @param objs the objects to add, in order
+	 */
+	public void addAll(List<IContestObject> objs) {
+		if (objs == null || objs.isEmpty())
+			return;
+
+		int numTypes = ContestType.values().length;
+		IContestObject[] lastObj = new IContestObject[numTypes];
+		Delta[] lastDelta = new Delta[numTypes];
+		int[] count = new int[numTypes];
+
+		List<IContestObject> added = new ArrayList<>(objs.size());
+		List<Delta> deltas = new ArrayList<>(objs.size());
+		int size = 0;
+		if (modifiers.length == 0) {
+			synchronized (data) {
+				for (IContestObject obj : objs) {
+					Delta delta = addToBatch(obj, added, deltas);
+					if (delta == null)
+						continue;
+
+					int ord = obj.getType().ordinal();
+					lastObj[ord] = obj;
+					lastDelta[ord] = delta;
+					count[ord]++;
+				}
+
+				// clear caches once per type. the submission judgement cache can only be patched one
+				// object at a time, so when a type changed more than once treat it as a delete to drop it
+				for (int i = 0; i < numTypes; i++) {
+					if (count[i] > 0)
+						clearCaches(lastObj[i], count[i] == 1 ? lastDelta[i] : Delta.DELETE);
+				}
+				size = data.size();
+			}
+		} else {
+			// modifiers are called under the lock too, so that no other objects are added in the
+			// middle of the batch and listeners see it at the right position
+			synchronized (data) {
+				for (IContestObject obj : objs) {
+					if (obj == null)
+						continue;
+
+					notifyModifiers(obj);
+					Delta delta = addToBatch(obj, added, deltas);
+					if (delta != null)
+						clearCaches(obj, delta);
+				}
+				size = data.size();
+			}
+		}
+
+		if (added.isEmpty())
+			return;
+
+		notifyListeners(added, deltas, size);
+
+		for (IContestObject obj : added) {
+			if (obj instanceof ISubmission || obj instanceof IRun || obj instanceof IJudgement
+					|| obj instanceof IClarification)
+				updateTime(ContestObject.getContestTime(obj));
+
+			// update known properties
+			addKnownProperties(obj);
+		}
+	}
+
+	private void addKnownProperties(IContestObject obj) {
+		if (!(obj instanceof ContestObject)) {
+			addKnownProperty(obj.getType(), obj.getProperties());
+			return;
+		}
+
+		PropertyView view = ((ContestObject) obj).getPropertyView();
+		int ord = obj.getType().ordinal();
+		BitSet known = knownSlots[ord];
+		if (known == null) {
+			known = new BitSet();
+			knownSlots[ord] = known;
+		}
+
+		int n = view.getNumSlots();
+		for (int i = 0; i < n; i++) {
+			if (view.has(i) && !known.get(i)) {
+				known.set(i);
+				Set<String> knownProps = allKnownProperties[ord];
+				if (knownProps == null) {
+					knownProps = new SimpleSet();
+					allKnownProperties[ord] = knownProps;
+				}
+				String name = view.getSchema().getName(i);
+				if (!knownProps.contains(name))
+					knownProps.add(name);
+			}
+		}
 	}
 
 	public void addKnownProperty(IContestObject.ContestType type, Map<String, Object> props) {
@@ -239,6 +439,8 @@ public class Contest implements IContest {
 			submissionJudgementTypes = null;
 			recentActivity = null;
 			fts = null;
+			hiddenTeams = null;
+			visibleTeams = null;
 		} else if (type == ContestType.CONTEST) {
 			info = (Info) obj;
 		} else if (type == ContestType.STATE) {
@@ -259,6 +461,17 @@ public class Contest implements IContest {
 			languages = null;
 		} else if (type == ContestType.GROUP) {
 			groups = null;
+
+			// groups can hide teams, which changes first to solve and the order
+			hiddenTeams = null;
+			visibleTeams = null;
+			order = null;
+			orderedTeams = null;
+			results = null;
+			resultSummary = null;
+			standings = null;
+			recentActivity = null;
+			fts = null;
 		} else if (type == ContestType.ORGANIZATION) {
 			organizations = null;
 		} else if (type == ContestType.JUDGEMENT_TYPE) {
@@ -315,6 +528,19 @@ public class Contest implements IContest {
 		} else if (type == ContestType.TEAM) {
 			teams = null;
 
+			// update the visibility of this team only, unless teams have moved
+			BitSet tempHidden = hiddenTeams;
+			if (tempHidden != null) {
+				int index = getTeamIndex(obj.getId());
+				if (index >= 0 && (delta == Delta.ADD || delta == Delta.UPDATE)) {
+					tempHidden = (BitSet) tempHidden.clone();
+					tempHidden.set(index, isTeamHiddenImpl((ITeam) obj));
+					hiddenTeams = tempHidden;
+				} else
+					hiddenTeams = null;
+			}
+			visibleTeams = null;
+
 			order = null;
 			orderedTeams = null;
 			results = null;
@@ -371,6 +597,7 @@ public class Contest implements IContest {
 			data.removeSince(num);
 
 			clearCaches(null, Delta.DELETE);
+			historyTruncated();
 		}
 	}
 
@@ -387,6 +614,7 @@ public class Contest implements IContest {
 			data.removeFromHistory(obj);
 
 			clearCaches(obj, Delta.DELETE);
+			historyTruncated();
 		}
 	}
 
@@ -403,6 +631,19 @@ public class Contest implements IContest {
 
 			for (IContestObject obj : objs)
 				clearCaches(obj, Delta.DELETE);
+			historyTruncated();
+		}
+	}
+
+	/**
+	 * Tell listeners that are being replayed that objects were removed from the history, so that
+	 * they know where live changes start. Must be called from within a synchronized block.
+	 */
+	private void historyTruncated() {
+		int size = data.size();
+		for (IContestListener listener : listeners) {
+			if (listener instanceof ReplayListener)
+				((ReplayListener) listener).truncated(size);
 		}
 	}
 
@@ -445,13 +686,85 @@ public class Contest implements IContest {
 		return c;
 	}
 
-	private void notifyListeners(IContestObject co, Delta delta) {
-		IContestListener[] list = null;
-		synchronized (listeners) {
-			list = listeners.toArray(new IContestListener[0]);
+	/**
+	 * Clone the contest through a filter that only blocks objects, e.g. a FreezeFilter. Unlike
+	 * clone(filter) the remaining objects are not re-added one at a time: the object list and type
+	 * caches are copied from this contest without the blocked objects. Falls back to clone(filter)
+	 * if the filter changes any object.
+	 *
+	 * @param filter a filter that returns either the object or null
+	 * @return the filtered contest
+	 */
+	public Contest cloneView(IContestObjectFilter filter) {
+		Contest c = new Contest(true);
+
+		synchronized (data) {
+			BitSet removed = new BitSet(data.size());
+			int i = 0;
+			for (IContestObject o : data) {
+				IContestObject co = filter.filter(o);
+				if (co == null)
+					removed.set(i);
+				else if (co != o)
+					return clone(true, filter);
+				i++;
+			}
+
+			c.data.cloneWithout(data, removed);
+			Info info2 = c.info;
+			c.clearCaches(null, Delta.UPDATE);
+			if (c.info == null)
+				c.info = info2;
+
+			MapInfo[] maps = c.data.getByType(MapInfo.class, ContestType.MAP_INFO);
+			if (maps.length > 0)
+				c.mapInfo = maps[maps.length - 1];
+			ResolveInfo[] resolves = c.data.getByType(ResolveInfo.class, ContestType.RESOLVE_INFO);
+			if (resolves.length > 0)
+				c.resolveInfo = resolves[resolves.length - 1];
+
+			i = 0;
+			for (IContestObject obj : c.data) {
+				i++;
+				if (obj instanceof ISubmission || obj instanceof IRun || obj instanceof IJudgement
+						|| obj instanceof IClarification) {
+					c.updateTime(ContestObject.getContestTime(obj));
+					c.lastTimedEvent = obj;
+					c.lastTimedEventIndex = i;
+				}
+			}
+
+			for (int j = 0; j < allKnownProperties.length; j++) {
+				Set<String> props = allKnownProperties[j];
+				if (props != null) {
+					Set<String> props2 = new SimpleSet();
+					for (String name : props)
+						props2.add(name);
+					c.allKnownProperties[j] = props2;
+				}
+				if (knownSlots[j] != null)
+					c.knownSlots[j] = (BitSet) knownSlots[j].clone();
+			}
 		}
 
+		return c;
+	}
+
+	/**
+	 * Notify listeners of one change.
+	 *
+	 * @param co the object that changed
+	 * @param delta the change
+	 * @param size the number of objects in the contest after the change
+	 */
+	private void notifyListeners(IContestObject co, Delta delta, int size) {
+		IContestListener[] list = listeners;
 		for (IContestListener listener : list) {
+			if (listener instanceof ReplayListener) {
+				((ReplayListener) listener).contestChanged(Collections.singletonList(co),
+						Collections.singletonList(delta), size);
+				continue;
+			}
 			try {
 				listener.contestChanged(this, co, delta);
 			} catch (Throwable t) {
@@ -460,12 +773,156 @@ public class Contest implements IContest {
 		}
 	}
 
-	private void notifyModifiers(IContestObject co) {
-		IContestModifier[] list = null;
-		synchronized (modifiers) {
-			list = modifiers.toArray(new IContestModifier[0]);
+	/**
+	 * Notify listeners of a batch of changes.
+	 *
+	 * @param objs the objects that changed, in order
+	 * @param deltas the change for each object
+	 * @param size the number of objects in the contest after the batch
+	 */
+	private void notifyListeners(List<IContestObject> objs, List<Delta> deltas, int size) {
+		IContestListener[] list = listeners;
+		if (list.length == 0)
+			return;
+
+		List<IContestObject> objs2 = Collections.unmodifiableList(objs);
+		List<Delta> deltas2 = Collections.unmodifiableList(deltas);
+		for (IContestListener listener : list) {
+			if (listener instanceof ReplayListener)
+				((ReplayListener) listener).contestChanged(objs2, deltas2, size);
+			else
+				notifyListener(listener, objs2, deltas2);
+		}
+	}
+
+	private void notifyListener(IContestListener listener, List<IContestObject> objs, List<Delta> deltas) {
+		if (listener instanceof IContestBatchListener) {
+			try {
+				((IContestBatchListener) listener).contestChanged(this, objs, deltas);
+			} catch (Throwable t) {
+				Trace.trace(Trace.ERROR, "Error notifying listener", t);
+			}
+		} else {
+			int size = objs.size();
+			for (int i = 0; i < size; i++) {
+				try {
+					listener.contestChanged(this, objs.get(i), deltas.get(i));
+				} catch (Throwable t) {
+					Trace.trace(Trace.ERROR, "Error notifying listener", t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A listener that is being replayed the contest history. Changes that are already part of the
+	 * replay are dropped, and newer changes are queued until the replay has caught up.
+	 */
+	private class ReplayListener implements IContestListener {
+		protected final IContestListener listener;
+
+		// number of objects in the contest when the replay started, or after the history was last
+		// truncated. changes after this are live
+		private volatile int start;
+
+		private List<IContestObject> queuedObjs = new ArrayList<>();
+		private List<Delta> queuedDeltas = new ArrayList<>();
+		private boolean replaying = true;
+
+		protected ReplayListener(IContestListener listener, int start) {
+			this.listener = listener;
+			this.start = start;
+		}
+
+		@Override
+		public void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+			// live changes are delivered with their position in the contest
+		}
+
+		protected void contestChanged(List<IContestObject> objs, List<Delta> deltas, int size) {
+			if (size <= start)
+				return;
+
+			int first = size - objs.size();
+			List<IContestObject> objs2 = objs;
+			List<Delta> deltas2 = deltas;
+			if (first < start) {
+				objs2 = objs.subList(start - first, objs.size());
+				deltas2 = deltas.subList(start - first, deltas.size());
+			}
+
+			synchronized (this) {
+				if (replaying) {
+					queuedObjs.addAll(objs2);
+					queuedDeltas.addAll(deltas2);
+					return;
+				}
+			}
+			notifyListener(listener, objs2, deltas2);
+		}
+
+		/**
+		 * Called when objects have been removed from the contest history during the replay. The
+		 * replay stops at the new end of the history, and later changes are live.
+		 */
+		protected void truncated(int size) {
+			if (size < start)
+				start = size;
+		}
+
+		protected int getStart() {
+			return start;
+		}
+
+		/**
+		 * Deliver the changes queued during the replay, and switch to live changes once the queue is
+		 * empty.
+		 */
+		protected void catchUp() {
+			while (true) {
+				List<IContestObject> objs = null;
+				List<Delta> deltas = null;
+				synchronized (this) {
+					if (queuedObjs.isEmpty()) {
+						replaying = false;
+						return;
+					}
+					objs = queuedObjs;
+					deltas = queuedDeltas;
+					queuedObjs = new ArrayList<>();
+					queuedDeltas = new ArrayList<>();
+				}
+				notifyListener(listener, Collections.unmodifiableList(objs), Collections.unmodifiableList(deltas));
+			}
+		}
+	}
+
+	/**
+	 * Add one object of a batch. Must be called from within a synchronized block.
+	 *
+	 * @return the change, or null if the object didn't change the contest
+	 */
+	private Delta addToBatch(IContestObject obj, List<IContestObject> added, List<Delta> deltas) {
+		if (obj == null)
+			return null;
+
+		Delta delta = data.add(obj);
+		if (delta == Delta.NOOP)
+			return null;
+
+		added.add(obj);
+		deltas.add(delta);
+
+		if (obj instanceof ISubmission || obj instanceof IRun || obj instanceof IJudgement
+				|| obj instanceof IClarification) {
+			lastTimedEvent = obj;
+			lastTimedEventIndex = data.size();
 		}
+		return delta;
+	}
 
+	private void notifyModifiers(IContestObject co) {
+		IContestModifier[] list = modifiers;
 		for (IContestModifier modifier : list) {
 			try {
 				modifier.notify(this, co);
@@ -481,17 +938,70 @@ public class Contest implements IContest {
 		}
 	}
 
+	@Override
 	public IContestObject[] getObjects(ContestType type) {
 		synchronized (data) {
 			return data.toArray(type);
 		}
 	}
 
+	/**
+	 * Add a listener and replay the full contest history to it before any new changes.
+	 *
+	 * When the contest keeps history the replay only holds the lock long enough to copy each chunk
+	 * of objects, so that it doesn't block changes to the contest. Changes made during the replay
+	 * are delivered after it, without gaps or duplicates. If objects are removed from the history
+	 * during the replay, it stops at the new end of the history. The replay runs on the calling
+	 * thread and is complete when this method returns.
+	 *
+	 * @param listener the listener
+	 */
 	public void addListenerFromStart(IContestListener listener) {
+		ReplayListener rl = null;
 		synchronized (data) {
-			data.iterate(this, listener);
-			addListener(listener);
+			if (!data.isKeepHistory()) {
+				// objects can be updated in place or removed, so replay under the lock
+				data.iterate(this, listener);
+				addListener(listener);
+				return;
+			}
+
+			rl = new ReplayListener(listener, data.size());
+			addListener(rl);
 		}
+
+		// always switch to live changes, even if the replay fails part way
+		try {
+			int i = 0;
+			while (true) {
+				IContestObject[] objs = null;
+				Delta[] deltas = null;
+				synchronized (data) {
+					// the end can move back if the history is truncated during the replay
+					int end = Math.min(rl.getStart(), data.size());
+					if (i >= end)
+						break;
+
+					int n = Math.min(REPLAY_CHUNK, end - i);
+					objs = new IContestObject[n];
+					deltas = new Delta[n];
+					data.copy(i, objs, deltas);
+					i += n;
+				}
+				notifyListener(listener, Collections.unmodifiableList(Arrays.asList(objs)),
+						Collections.unmodifiableList(Arrays.asList(deltas)));
+			}
+		} finally {
+			rl.catchUp();
+		}
+	}
+
+	/**
+	 * Returns the pool that strings read into this contest (property names and references to other
+	 * objects) should be shared through.
+	 */
+	public StringPool getStringPool() {
+		return stringPool;
 	}
 
 	public Set<String>[] getKnownProperties() {
@@ -503,6 +1013,7 @@ public class Contest implements IContest {
 		return data.size();
 	}
 
+	@Override
 	public IContestObject getObjectByTypeAndId(ContestType type, String id) {
 		if (id == null && IContestObject.isSingleton(type))
 			return data.getById(ContestObject.SINGLETON_ID, type);
@@ -1003,6 +1514,7 @@ public class Contest implements IContest {
 			// sb.append((System.currentTimeMillis() - scoreTime) + "ms ");
 
 			String[] tempFTS = new String[numProblems];
+			BitSet hidden = getHiddenTeams();
 			long duration = getDuration();
 			for (ISubmission s : sortedSubs) {
 				long time = s.getContestTime();
@@ -1016,7 +1528,7 @@ public class Contest implements IContest {
 						tempResults[teamIndex][problemIndex].addSubmission(this, s, j, jt);
 
 						// calculate FTS
-						if (tempFTS[problemIndex] == null && !isTeamHidden(teams[teamIndex])) {
+						if (tempFTS[problemIndex] == null && !hidden.get(teamIndex)) {
 							if (isSolved(s)) {
 								tempFTS[problemIndex] = s.getId();
 								tempResults[teamIndex][problemIndex].setFTS();
@@ -1029,35 +1541,8 @@ public class Contest implements IContest {
 			}
 			// sb.append((System.currentTimeMillis() - scoreTime) + "ms ");
 
-			for (int i = 0; i < numTeams; i++) {
-				int numSolved = 0;
-				long penalty = 0;
-				long lastSolution = -1;
-				double score = 0;
-				for (int j = 0; j < numProblems; j++) {
-					penalty += tempResults[i][j].getPenaltyTime();
-					if (tempResults[i][j].getStatus() == Status.SOLVED) {
-						long time = ContestUtil.getTimeInMin(tempResults[i][j].getContestTime());
-						penalty += time * (60 * 1000L);
-						numSolved++;
-						score += tempResults[i][j].getScore();
-						if (time > lastSolution)
-							lastSolution = time;
-					} else if (tempResults[i][j].getStatus() == Status.SUBMITTED) {
-						// For scoring contests any problem that has a score should influence the
-						// total score and the time of last submission
-						double scoreForThisProblem = tempResults[i][j].getScore();
-						if (scoreForThisProblem > 0) {
-							score += scoreForThisProblem;
-							long time = ContestUtil.getTimeInMin(tempResults[i][j].getContestTime()) * 60 * 1000L;
-							if (time > lastSolution)
-								lastSolution = time;
-						}
-					}
-				}
-
-				tempStandings[i].init(numSolved, penalty, score, lastSolution);
-			}
+			for (int i = 0; i < numTeams; i++)
+				initStanding(tempStandings[i], tempResults[i]);
 
 			for (int i = 0; i < numTeams; i++) {
 				for (int j = 0; j < numProblems; j++)
@@ -1065,19 +1550,9 @@ public class Contest implements IContest {
 						tempResultSummary[j].addResult(tempResults[i][j]);
 			}
 
-			int[] tempOrder = new int[numTeams];
-			int visibleTeams = 0;
-			for (int i = 0; i < numTeams; i++) {
-				if (!isTeamHidden(teams[i]))
-					tempOrder[visibleTeams++] = i;
-			}
-
-			// remove hidden teams
-			if (visibleTeams != numTeams) {
-				int[] tempOrder2 = new int[visibleTeams];
-				System.arraycopy(tempOrder, 0, tempOrder2, 0, visibleTeams);
-				tempOrder = tempOrder2;
-			}
+			// rank the visible teams only
+			int[] visible = getVisibleTeamIndexes();
+			int[] tempOrder = Arrays.copyOf(visible, visible.length);
 
 			Ranking.rankIt(this, teams, tempStandings, tempOrder);
 
@@ -1092,11 +1567,145 @@ public class Contest implements IContest {
 		}
 	}
 
+	private static void initStanding(Standing standing, Result[] row) {
+		int numSolved = 0;
+		long penalty = 0;
+		long lastSolution = -1;
+		double score = 0;
+		for (Result r : row) {
+			penalty += r.getPenaltyTime();
+			if (r.getStatus() == Status.SOLVED) {
+				long time = ContestUtil.getTimeInMin(r.getContestTime());
+				penalty += time * (60 * 1000L);
+				numSolved++;
+				score += r.getScore();
+				if (time > lastSolution)
+					lastSolution = time;
+			} else if (r.getStatus() == Status.SUBMITTED) {
+				// For scoring contests any problem that has a score should influence the
+				// total score and the time of last submission
+				double scoreForThisProblem = r.getScore();
+				if (scoreForThisProblem > 0) {
+					score += scoreForThisProblem;
+					long time = ContestUtil.getTimeInMin(r.getContestTime()) * 60 * 1000L;
+					if (time > lastSolution)
+						lastSolution = time;
+				}
+			}
+		}
+
+		standing.init(numSolved, penalty, score, lastSolution);
+	}
+
+	/**
+	 * Calculates the standing a team would have with the given submissions and judgements, using
+	 * the same rules as the scoreboard but without changing the contest. The standing is not ranked.
+	 *
+	 * @param subs the team's submissions, sorted by contest time
+	 * @param sjs the judgement of each submission, or null
+	 * @param jts the judgement type of each submission, or null if it is pending
+	 * @return the unranked standing
+	 */
+	public Standing calculateStanding(ISubmission[] subs, IJudgement[] sjs, IJudgementType[] jts) {
+		int numProblems = getNumProblems();
+		Result[] row = new Result[numProblems];
+		for (int j = 0; j < numProblems; j++)
+			row[j] = new Result();
+
+		long duration = getDuration();
+		for (int i = 0; i < subs.length; i++) {
+			ISubmission s = subs[i];
+			long time = s.getContestTime();
+			if (time >= 0 && time < duration) {
+				int problemIndex = getProblemIndex(s.getProblemId());
+				if (problemIndex >= 0)
+					row[problemIndex].addSubmission(this, s, sjs[i], jts[i]);
+			}
+		}
+
+		Standing standing = new Standing();
+		initStanding(standing, row);
+		return standing;
+	}
+
 	@Override
 	public boolean isTeamHidden(ITeam team) {
 		if (team == null)
 			return true;
 
+		// use the cache if this is the team in the contest, otherwise check it directly
+		int index = getTeamIndex(team.getId());
+		if (index >= 0) {
+			ITeam[] temp = getTeams();
+			if (index < temp.length && temp[index] == team)
+				return getHiddenTeams().get(index);
+		}
+
+		return isTeamHiddenImpl(team);
+	}
+
+	/**
+	 * Returns true if the team at the given index is hidden.
+	 *
+	 * @param teamIndex a team index
+	 * @return true if the team is hidden or the index is invalid
+	 */
+	public boolean isTeamHidden(int teamIndex) {
+		if (teamIndex < 0 || teamIndex >= getNumTeams())
+			return true;
+
+		return getHiddenTeams().get(teamIndex);
+	}
+
+	/**
+	 * Returns the indexes of all teams that are not hidden, in team order. The returned array must
+	 * not be modified.
+	 *
+	 * @return the visible team indexes
+	 */
+	public int[] getVisibleTeamIndexes() {
+		int[] temp = visibleTeams;
+		if (temp != null)
+			return temp;
+
+		synchronized (data) {
+			if (visibleTeams != null)
+				return visibleTeams;
+
+			BitSet hidden = getHiddenTeams();
+			int numTeams = getNumTeams();
+			int[] tempVisible = new int[numTeams - hidden.cardinality()];
+			int n = 0;
+			for (int i = 0; i < numTeams; i++) {
+				if (!hidden.get(i))
+					tempVisible[n++] = i;
+			}
+			visibleTeams = tempVisible;
+			return visibleTeams;
+		}
+	}
+
+	private BitSet getHiddenTeams() {
+		BitSet temp = hiddenTeams;
+		if (temp != null)
+			return temp;
+
+		synchronized (data) {
+			if (hiddenTeams != null)
+				return hiddenTeams;
+
+			ITeam[] tempTeams = getTeams();
+			BitSet tempHidden = new BitSet(tempTeams.length);
+			for (int i = 0; i < tempTeams.length; i++) {
+				if (isTeamHiddenImpl(tempTeams[i]))
+					tempHidden.set(i);
+			}
+			hiddenTeams = tempHidden;
+			return hiddenTeams;
+		}
+	}
+
+	private boolean isTeamHiddenImpl(ITeam team) {
 		if (team.isHidden())
 			return true;
 
@@ -1185,7 +1794,7 @@ public class Contest implements IContest {
 		return -1;
 	}
 
-	private int getTeamIndex(String teamId) {
+	protected int getTeamIndex(String teamId) {
 		return data.getIndexById(teamId, ContestType.TEAM);
 	}
 
@@ -1501,8 +2110,7 @@ public class Contest implements IContest {
 		IJudgement[] tempJudgements = new IJudgement[getNumSubmissions() + 100];
 		IJudgementType[] tempJudgementTypes = new IJudgementType[getNumSubmissions() + 100];
 
-		getJudgements();
-		for (IJudgement sj : judgements) {
+		for (IJudgement sj : getJudgements()) {
 			IJudgementType jt = getJudgementTypeById(sj.getJudgementTypeId());
 			if (jt != null) {
 				int sInd2 = getSubmissionIndex(sj.getSubmissionId());
@@ -0,0 +1,104 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.util.TeamDisplay;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class ContestAddAllTest {
+	private static Organization createOrganization(String id, String name) {
+		Organization org = new Organization();
+		org.add("id", id);
+		org.add("name", name);
+		return org;
+	}
+
+	private static Team createTeam(String id, String orgId) {
+		Team team = new Team();
+		team.add("id", id);
+		team.add("name", "Team " + id);
+		team.add("organization_id", orgId);
+		return team;
+	}
+
+	@Test
+	public void testModifierSeesEarlierObjects() throws Exception {
+		Contest contest = new Contest();
+		TeamDisplay.overrideDisplayName(contest, "{team.name} ({org.name})");
+
+		contest.addAll(Arrays.asList(createOrganization("o1", "Org One"), createTeam("t1", "o1")));
+
+		assertThat(contest.getTeamById("t1").getActualDisplayName()).isEqualTo("Team t1 (Org One)");
+	}
+
+	@Test
+	public void testSameAsAdd() throws Exception {
+		List<IContestObject> objs = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			objs.add(createOrganization("o" + i, "Org " + i));
+		for (int i = 0; i < 50; i++)
+			objs.add(createTeam("t" + i, "o" + i));
+
+		Contest contest = new Contest();
+		List<String> ids = new ArrayList<>();
+		contest.addListener((c, obj, d) -> ids.add(obj.getId()));
+		for (IContestObject obj : objs)
+			contest.add(obj);
+
+		Contest contest2 = new Contest();
+		TeamDisplay.overrideDisplayName(contest2, "{org.name}");
+		List<String> ids2 = new ArrayList<>();
+		contest2.addListener((c, obj, d) -> ids2.add(obj.getId()));
+		contest2.addAll(objs);
+
+		assertThat(ids2).containsExactlyElementsIn(ids).inOrder();
+		assertThat(contest2.getTeams().length).isEqualTo(50);
+		assertThat(contest2.getTeamById("t7").getActualDisplayName()).isEqualTo("Org 7");
+	}
+
+	@Test
+	public void testModifierWithConcurrentAdd() throws Exception {
+		for (int n = 0; n < 20; n++) {
+			Contest contest = new Contest();
+			contest.addModifier((c, obj) -> Thread.yield());
+
+			// one thread adds batches while another adds single objects
+			Thread t = new Thread(() -> {
+				for (int i = 0; i < 200; i++) {
+					List<IContestObject> batch = new ArrayList<>();
+					for (int j = 0; j < 10; j++)
+						batch.add(createOrganization("b" + i + "-" + j, "Org"));
+					contest.addAll(batch);
+				}
+			});
+			Thread t2 = new Thread(() -> {
+				for (int i = 0; i < 2000; i++)
+					contest.add(createOrganization("s" + i, "Org"));
+			});
+			t.start();
+			t2.start();
+
+			// a listener added part way through sees every object once
+			while (contest.getNumObjects() < n * 100)
+				Thread.yield();
+			List<String> ids = Collections.synchronizedList(new ArrayList<>());
+			contest.addListenerFromStart((c, obj, d) -> ids.add(obj.getId()));
+			t.join();
+			t2.join();
+
+			List<String> expected = new ArrayList<>();
+			for (IContestObject obj : contest.getObjects())
+				expected.add(obj.getId());
+			assertThat(ids).containsExactlyElementsIn(expected);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.FreezeFilter;
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class ContestCloneViewTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 15;
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	private static Judgement createJudgement(String id, String submissionId, String typeId, long time) {
+		return create(new Judgement(), "id", id, "submission_id", submissionId, "judgement_type_id", typeId,
+				"start_contest_time", RelativeTime.format(time), "start_time", Timestamp.format(START + time));
+	}
+
+	private static Run createRun(String id, String judgementId, long time) {
+		return create(new Run(), "id", id, "judgement_id", judgementId, "ordinal", 1, "judgement_type_id", "AC",
+				"contest_time", RelativeTime.format(time), "time", Timestamp.format(START + time));
+	}
+
+	/**
+	 * A finished contest with judgements and runs before and after the freeze, deletions of both,
+	 * and a run whose judgement is missing.
+	 */
+	private static Contest createContest() {
+		Random r = new Random(36);
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00", "scoreboard_freeze_duration",
+				"1:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		for (int i = 0; i < 4; i++)
+			c.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i));
+		for (int i = 0; i < NUM_TEAMS; i++)
+			c.add(create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i));
+
+		for (int n = 0; n < 200; n++) {
+			long time = n * 90000L;
+			String id = "s" + n;
+			c.add(create(new Submission(), "id", id, "team_id", "" + (r.nextInt(NUM_TEAMS) + 1), "problem_id",
+					"p" + r.nextInt(4), "language_id", "java", "contest_time", RelativeTime.format(time)));
+			c.add(createJudgement("j" + id, id, r.nextInt(3) == 0 ? "AC" : "WA", time + 1000));
+			c.add(createRun("r" + id, "j" + id, time + 2000));
+			if (n % 40 == 0)
+				c.add(create(new Clarification(), "id", "c" + n, "text", "Clarification " + n, "contest_time",
+						RelativeTime.format(time), "time", Timestamp.format(START + time)));
+		}
+
+		// delete one judgement before and one after the freeze, and add a run with no judgement
+		c.add(new Deletion("js10", ContestType.JUDGEMENT));
+		c.add(new Deletion("js190", ContestType.JUDGEMENT));
+		c.add(createRun("r-missing", "j-missing", 3600000));
+		c.add(create(new State(), "started", "2020-01-01T10:00:00Z", "ended", "2020-01-01T15:00:00Z"));
+		return c;
+	}
+
+	private static String describe(IContestObject obj) {
+		Map<String, Object> props = obj.getProperties();
+		List<String> list = new ArrayList<>();
+		for (String key : props.keySet())
+			list.add(key + "=" + props.get(key));
+		list.sort(null);
+		return obj.getType() + list.toString();
+	}
+
+	/**
+	 * A description of the objects, scoreboard, and judgements of the contest.
+	 */
+	private static List<String> describe(Contest c) {
+		List<String> list = new ArrayList<>();
+		for (IContestObject obj : c.getObjects())
+			list.add(describe(obj));
+		for (ContestType type : ContestType.values()) {
+			for (IContestObject obj : c.getObjects(type))
+				list.add(type + " " + obj.getId());
+		}
+
+		for (ITeam t : c.getOrderedTeams()) {
+			StringBuilder sb = new StringBuilder(t.getId() + " " + c.getStanding(t));
+			for (int i = 0; i < c.getNumProblems(); i++) {
+				IResult r = c.getResult(t, i);
+				sb.append(" ").append(r).append(r.isFirstToSolve() ? "*" : "");
+			}
+			list.add(sb.toString());
+		}
+		for (ISubmission s : c.getSubmissions())
+			list.add(s.getId() + " " + c.getJudgementType(s) + " " + c.isJudged(s));
+		list.add(c.getContestTimeOfLastEvent() + " " + c.getNumObjects());
+		return list;
+	}
+
+	@Test
+	public void testFreezeView() throws Exception {
+		Contest contest = createContest();
+		Contest view = contest.cloneView(new FreezeFilter(contest));
+		Contest clone = contest.clone(true, new FreezeFilter(contest));
+		assertThat(describe(view)).containsExactlyElementsIn(describe(clone)).inOrder();
+
+		// nothing after the freeze, and the run with no judgement is blocked
+		long freeze = 4 * 3600000L;
+		int numJudged = 0;
+		for (ISubmission s : view.getSubmissions()) {
+			if (s.getContestTime() >= freeze)
+				assertThat(view.getJudgementsBySubmissionId(s.getId())).isNull();
+			else if (view.isJudged(s))
+				numJudged++;
+		}
+		assertThat(numJudged).isGreaterThan(100);
+		assertThat(view.getRunById("r-missing")).isNull();
+		assertThat(view.getRunById("rs20")).isNotNull();
+		assertThat(view.getRunById("rs190")).isNull();
+
+		// the view is independent of the contest
+		view.add(createJudgement("j-new", "s199", "AC", 5 * 3600000L - 1000));
+		assertThat(contest.getJudgementById("j-new")).isNull();
+		assertThat(view.isJudged(view.getSubmissionById("s199"))).isTrue();
+	}
+
+	@Test
+	public void testFilterTracksSubmissions() throws Exception {
+		Contest contest = createContest();
+		FreezeFilter filter = new FreezeFilter(contest);
+		Judgement before = createJudgement("j-before", "s-before", "AC", 3600000);
+		Judgement after = createJudgement("j-after", "s-after", "AC", 4 * 3600000L + 1000);
+		assertThat(filter.filter(contest.getJudgementById("js20"))).isNotNull();
+		assertThat(filter.filter(before)).isNull();
+
+		// submissions added after the filter was first used are seen
+		contest.add(create(new Submission(), "id", "s-before", "team_id", "1", "problem_id", "p0", "language_id",
+				"java", "contest_time", "1:00:00"));
+		contest.add(create(new Submission(), "id", "s-after", "team_id", "1", "problem_id", "p0", "language_id",
+				"java", "contest_time", "4:00:00"));
+		assertThat(filter.filter(before)).isSameInstanceAs(before);
+		assertThat(filter.filter(after)).isNull();
+	}
+}
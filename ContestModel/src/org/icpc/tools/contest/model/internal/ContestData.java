@@ -2,6 +2,8 @@ package org.icpc.tools.contest.model.internal;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -74,6 +76,10 @@ public class ContestData implements Iterable<IContestObject> {
 		return totalSize;
 	}
 
+	public boolean isKeepHistory() {
+		return keepHistory;
+	}
+
 	public boolean isEmpty() {
 		return totalSize == 0;
 	}
@@ -141,25 +147,32 @@ public class ContestData implements Iterable<IContestObject> {
 		Delta d = Delta.ADD;
 		if (current != null) {
 			// check if anything has changed
-			Map<String, Object> oldP = current.getProperties();
-			Map<String, Object> newP = obj.getProperties();
-
-			if (oldP.size() == newP.size()) {
-				boolean changed = false;
-				for (String oldK : oldP.keySet()) {
-					if (!"time".equals(oldK)) {
-						if ((oldP.get(oldK) == null && newP.get(oldK) == null)
-								|| (oldP.get(oldK) != null && oldP.get(oldK).equals(newP.get(oldK)))) {
-							// found match
-							continue;
+			if (current instanceof ContestObject && obj instanceof ContestObject) {
+				PropertyView oldV = ((ContestObject) current).getPropertyView();
+				PropertyView newV = ((ContestObject) obj).getPropertyView();
+				if (oldV.equals(newV, "time"))
+					return Delta.NOOP;
+			} else {
+				Map<String, Object> oldP = current.getProperties();
+				Map<String, Object> newP = obj.getProperties();
+
+				if (oldP.size() == newP.size()) {
+					boolean changed = false;
+					for (String oldK : oldP.keySet()) {
+						if (!"time".equals(oldK)) {
+							if ((oldP.get(oldK) == null && newP.get(oldK) == null)
+									|| (oldP.get(oldK) != null && oldP.get(oldK).equals(newP.get(oldK)))) {
+								// found match
+								continue;
+							}
+							changed = true;
+							break;
 						}
-						changed = true;
-						break;
 					}
-				}
 
-				if (!changed)
-					return Delta.NOOP;
+					if (!changed)
+						return Delta.NOOP;
+				}
 			}
 
 			if (!keepHistory(obj)) {
@@ -584,6 +597,116 @@ public class ContestData implements Iterable<IContestObject> {
 		}
 	}
 
+	/**
+	 * Replace the contents of this list with the contents of another list, leaving out the objects
+	 * at the given positions. As if the remaining objects were added one at a time, deletes of
+	 * objects that were left out are dropped and the first remaining version of an object becomes
+	 * an add. Type caches for types with nothing removed are copied instead of being rebuilt.
+	 *
+	 * @param list the list to copy
+	 * @param removed positions in the list to leave out
+	 */
+	public void cloneWithout(ContestData list, BitSet removed) {
+		keepHistory = list.keepHistory;
+		toArray = null;
+		objs = new IContestObject[NUM_ARRAYS][];
+		deltas = new Delta[NUM_ARRAYS][];
+		totalSize = 0;
+
+		// find the types that lose objects, these type caches are rebuilt as we go
+		boolean[] rebuild = new boolean[NUM_TYPES];
+		for (int i = removed.nextSetBit(0); i >= 0 && i < list.totalSize; i = removed.nextSetBit(i + 1))
+			rebuild[list.get(i).getType().ordinal()] = true;
+
+		for (int i = 0; i < NUM_TYPES; i++)
+			typeCache[i] = new TypeCache();
+
+		int[] newPos = new int[list.totalSize];
+		for (int i = 0; i < list.totalSize; i++) {
+			newPos[i] = -1;
+			if (removed.get(i))
+				continue;
+
+			int arr = i % ARRAY_SIZE;
+			int num = i / ARRAY_SIZE;
+			IContestObject obj = list.objs[num][arr];
+			Delta d = list.deltas[num][arr];
+			int type = obj.getType().ordinal();
+			TypeCache tc = typeCache[type];
+			if (rebuild[type]) {
+				Integer in = tc.idMap.get(obj.getId());
+				if (obj instanceof IDelete) {
+					// can't delete an object that isn't there
+					if (in == null)
+						continue;
+				} else if (in == null)
+					d = Delta.ADD;
+			}
+
+			int arr2 = totalSize % ARRAY_SIZE;
+			int num2 = totalSize / ARRAY_SIZE;
+			if (objs[num2] == null) {
+				objs[num2] = new IContestObject[ARRAY_SIZE];
+				deltas[num2] = new Delta[ARRAY_SIZE];
+			}
+			objs[num2][arr2] = obj;
+			deltas[num2][arr2] = d;
+			newPos[i] = totalSize;
+			totalSize++;
+
+			if (rebuild[type]) {
+				if (obj instanceof IDelete)
+					removeFromCache((Deletion) obj);
+				else {
+					Integer in = tc.idMap.get(obj.getId());
+					addOrUpdateCache(tc, obj, totalSize - 1, in == null ? -1 : in);
+				}
+			}
+		}
+
+		// copy the type caches that didn't change, pointing them at the new positions
+		for (int i = 0; i < NUM_TYPES; i++) {
+			if (rebuild[i])
+				continue;
+
+			TypeCache tc = typeCache[i];
+			TypeCache ltc = list.typeCache[i];
+			tc.size = ltc.size;
+			if (ltc.cache != null)
+				tc.cache = Arrays.copyOf(ltc.cache, Math.max(tc.size, 20));
+			if (ltc.index != null) {
+				tc.index = new int[tc.cache.length];
+				for (int j = 0; j < tc.size; j++)
+					tc.index[j] = newPos[ltc.index[j]];
+			}
+			if (ltc.idMap != null)
+				tc.idMap = new HashMap<>(ltc.idMap);
+		}
+	}
+
+	/**
+	 * Copy a range of the object list and the matching deltas.
+	 *
+	 * @param start the index of the first object to copy
+	 * @param objs2 the array to copy objects into, which also sets the number of objects to copy
+	 * @param deltas2 the array to copy deltas into
+	 */
+	public void copy(int start, IContestObject[] objs2, Delta[] deltas2) {
+		int len = objs2.length;
+		if (start < 0 || start + len > totalSize)
+			throw new IllegalArgumentException("Out of range");
+
+		int i = 0;
+		while (i < len) {
+			int arr = (start + i) % ARRAY_SIZE;
+			int num = (start + i) / ARRAY_SIZE;
+			int n = Math.min(len - i, ARRAY_SIZE - arr);
+			System.arraycopy(objs[num], arr, objs2, i, n);
+			System.arraycopy(deltas[num], arr, deltas2, i, n);
+			i += n;
+		}
+	}
+
 	public void iterate(IContest contest, IContestListener listener) {
 		for (int i = 0; i < totalSize; i++) {
 			int arr = i % ARRAY_SIZE;
@@ -0,0 +1,123 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+
+/**
+ * Measures the cost of notifying contest listeners, which happens for every object added to a
+ * contest. Listener dispatch from a copy-on-write array (as Contest does) is compared with
+ * copying a synchronized list on every notification (as it did before), with one and several
+ * adding threads.
+ *
+ * Usage: ContestListenerBenchmark [objects]
+ */
+public class ContestListenerBenchmark {
+	private static final int DEFAULT_OBJECTS = 200000;
+	private static final int[] NUM_LISTENERS = new int[] { 0, 10, 200 };
+	private static final int[] NUM_THREADS = new int[] { 1, 4 };
+	private static final int ROUNDS = 5;
+
+	// listeners are called from every thread, so they don't write anything that the threads would
+	// contend on
+	private static class CountingListener implements IContestListener {
+		protected long count;
+
+		@Override
+		public void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+			if (obj == null)
+				count++;
+		}
+	}
+
+	private interface Dispatcher {
+		void notify(IContestObject obj);
+	}
+
+	/**
+	 * The old registry: a list that is copied under its lock on every notification.
+	 */
+	private static Dispatcher createLocked(int numListeners) {
+		List<IContestListener> listeners = new ArrayList<>();
+		for (int i = 0; i < numListeners; i++)
+			listeners.add(new CountingListener());
+
+		return obj -> {
+			IContestListener[] list = null;
+			synchronized (listeners) {
+				list = listeners.toArray(new IContestListener[0]);
+			}
+			for (IContestListener listener : list)
+				listener.contestChanged(null, obj, IContestListener.Delta.ADD);
+		};
+	}
+
+	/**
+	 * The current registry: an array that is replaced when it changes, and read without a lock.
+	 */
+	private static Dispatcher createCopyOnWrite(int numListeners) {
+		IContestListener[] listeners = new IContestListener[numListeners];
+		for (int i = 0; i < numListeners; i++)
+			listeners[i] = new CountingListener();
+
+		IContestListener[][] registry = new IContestListener[][] { listeners };
+		return obj -> {
+			IContestListener[] list = registry[0];
+			for (IContestListener listener : list)
+				listener.contestChanged(null, obj, IContestListener.Delta.ADD);
+		};
+	}
+
+	/**
+	 * Runs the dispatcher from several threads at once, and returns the elapsed time in ns.
+	 */
+	private static long run(Dispatcher d, IContestObject obj, int numThreads, int numObjects) throws Exception {
+		Thread[] threads = new Thread[numThreads];
+		int perThread = numObjects / numThreads;
+		for (int i = 0; i < numThreads; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < perThread; j++)
+					d.notify(obj);
+			});
+		}
+
+		long time = System.nanoTime();
+		for (Thread t : threads)
+			t.start();
+		for (Thread t : threads)
+			t.join();
+		return System.nanoTime() - time;
+	}
+
+	private static void report(String name, long bestNs, int numObjects) {
+		double nsPerOp = (double) bestNs / numObjects;
+		System.out.println(String.format("%-28s %10.1f ns/op %14.0f ops/s", name, nsPerOp, 1e9 / nsPerOp));
+	}
+
+	private static void measureDispatch(int numObjects) throws Exception {
+		Language obj = new Language();
+		obj.add("id", "java");
+		for (int numListeners : NUM_LISTENERS) {
+			for (int numThreads : NUM_THREADS) {
+				Dispatcher[] ds = new Dispatcher[] { createLocked(numListeners), createCopyOnWrite(numListeners) };
+				String[] names = new String[] { "locked", "copy-on-write" };
+				for (int i = 0; i < ds.length; i++) {
+					run(ds[i], obj, numThreads, numObjects);
+					long best = Long.MAX_VALUE;
+					for (int j = 0; j < ROUNDS; j++)
+						best = Math.min(best, run(ds[i], obj, numThreads, numObjects));
+					report(names[i] + " " + numListeners + "L " + numThreads + "T", best, numObjects);
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int numObjects = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OBJECTS;
+		System.out.println(numObjects + " objects, best of " + ROUNDS + " rounds");
+		measureDispatch(numObjects);
+	}
+}
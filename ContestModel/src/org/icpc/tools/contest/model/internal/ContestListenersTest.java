@@ -0,0 +1,142 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class ContestListenersTest {
+	private static final int NUM_OBJECTS = 1000;
+
+	private static Language createLanguage(String id) {
+		Language l = new Language();
+		l.add("id", id);
+		l.add("name", "Language " + id);
+		return l;
+	}
+
+	private static class CountingListener implements IContestListener {
+		protected final List<String> ids = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+			ids.add(obj.getId());
+		}
+	}
+
+	@Test
+	public void testListeners() throws Exception {
+		for (int n : new int[] { 0, 10, 200 }) {
+			Contest contest = new Contest();
+			List<CountingListener> listeners = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				CountingListener l = new CountingListener();
+				contest.addListener(l);
+				listeners.add(l);
+			}
+
+			List<String> ids = new ArrayList<>();
+			for (int i = 0; i < NUM_OBJECTS; i++) {
+				contest.add(createLanguage("l" + i));
+				ids.add("l" + i);
+			}
+
+			// every listener sees every object, in order
+			for (CountingListener l : listeners)
+				assertThat(l.ids).containsExactlyElementsIn(ids).inOrder();
+		}
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		Contest contest = new Contest();
+		CountingListener a = new CountingListener();
+		CountingListener b = new CountingListener();
+		contest.addListener(a);
+		contest.addListener(b);
+		contest.addListener(a);
+
+		contest.add(createLanguage("l1"));
+		assertThat(a.ids).containsExactly("l1", "l1");
+
+		// removes one registration at a time
+		contest.removeListener(a);
+		contest.add(createLanguage("l2"));
+		assertThat(a.ids).containsExactly("l1", "l1", "l2");
+
+		contest.removeListener(a);
+		contest.removeListener(a);
+		contest.add(createLanguage("l3"));
+		assertThat(a.ids).containsExactly("l1", "l1", "l2");
+		assertThat(b.ids).containsExactly("l1", "l2", "l3").inOrder();
+	}
+
+	@Test
+	public void testRemoveDuringNotification() throws Exception {
+		Contest contest = new Contest();
+		List<String> ids = new ArrayList<>();
+		IContestListener once = new IContestListener() {
+			@Override
+			public void contestChanged(IContest c, IContestObject obj, Delta delta) {
+				ids.add(obj.getId());
+				contest.removeListener(this);
+			}
+		};
+		CountingListener after = new CountingListener();
+		contest.addListener(once);
+		contest.addListener(after);
+
+		// the listener after it is still notified of the same change
+		contest.add(createLanguage("l1"));
+		contest.add(createLanguage("l2"));
+		assertThat(ids).containsExactly("l1");
+		assertThat(after.ids).containsExactly("l1", "l2").inOrder();
+	}
+
+	@Test
+	public void testConcurrentRegistration() throws Exception {
+		Contest contest = new Contest();
+		CountingListener l = new CountingListener();
+		contest.addListener(l);
+
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < NUM_OBJECTS; i++) {
+				CountingListener l2 = new CountingListener();
+				contest.addListener(l2);
+				contest.removeListener(l2);
+			}
+		});
+		t.start();
+		for (int i = 0; i < NUM_OBJECTS; i++)
+			contest.add(createLanguage("l" + i));
+		t.join();
+
+		assertThat(l.ids).hasSize(NUM_OBJECTS);
+	}
+
+	@Test
+	public void testModifiers() throws Exception {
+		Contest contest = new Contest();
+		contest.add(createLanguage("l0"));
+
+		List<String> ids = new ArrayList<>();
+		IContestModifier modifier = (c, obj) -> ids.add(obj.getId());
+		contest.addModifier(modifier);
+		assertThat(ids).contains("l0");
+
+		contest.add(createLanguage("l1"));
+		contest.removeModifier(modifier);
+		contest.add(createLanguage("l2"));
+		assertThat(ids).contains("l1");
+		assertThat(ids).doesNotContain("l2");
+	}
+}
@@ -34,6 +34,9 @@ public abstract class ContestObject implements IContestObject {
 	protected String id;
 	protected static List<String> ignoredProps = new ArrayList<>();
 
+	// built on first use, and cleared whenever a property changes
+	private volatile PropertyView propertyView;
+
 	interface Properties {
 		public void addString(String key, String value);
 
@@ -70,6 +73,49 @@ public abstract class ContestObject implements IContestObject {
 		}
 	}
 
+	/**
+	 * An SVG image that hasn't been rendered yet. The document is only parsed when a size that
+	 * isn't in the disk cache is needed.
+	 */
+	private static class SVGImage {
+		private final File file;
+		private final String hash;
+		private SVGDocument svg;
+		private boolean invalid;
+
+		protected SVGImage(File file) {
+			this.file = file;
+			this.hash = SVGRasterCache.hash(file);
+		}
+
+		protected BufferedImage getImage(int width, int height) {
+			SVGRasterCache cache = SVGRasterCache.getInstance();
+			BufferedImage img = cache.get(hash, width, height);
+			if (img != null)
+				return img;
+
+			SVGDocument doc = getDocument();
+			if (doc == null)
+				return null;
+
+			img = resizeSVG(doc, width, height);
+			cache.put(hash, width, height, img);
+			return img;
+		}
+
+		private synchronized SVGDocument getDocument() {
+			if (svg == null && !invalid) {
+				try {
+					svg = loadSVG(file);
+				} catch (Exception e) {
+					Trace.trace(Trace.ERROR, "Invalid SVG: " + file, e);
+					invalid = true;
+				}
+			}
+			return svg;
+		}
+	}
+
 	public ContestObject() {
 		// default constructor
 	}
@@ -87,6 +133,15 @@ public abstract class ContestObject implements IContestObject {
 
 	protected void setId(String id) {
 		this.id = id;
+		propertiesChanged();
+	}
+
+	/**
+	 * Clears the cached property view. Must be called by any method other than add() that changes
+	 * a property.
+	 */
+	protected final void propertiesChanged() {
+		propertyView = null;
 	}
 
 	public boolean isSingleton() {
@@ -206,6 +261,7 @@ public abstract class ContestObject implements IContestObject {
 	}
 
 	public final void add(String name, Object value) {
+		propertyView = null;
 		try {
 			if (ID.equals(name)) {
 				id = (String) value;
@@ -284,6 +340,73 @@ public abstract class ContestObject implements IContestObject {
 		return props;
 	}
 
+	/**
+	 * Returns a read-only view of the current properties, with values by slot in the type's
+	 * PropertySchema. The same view is returned until a property is changed through add() or a
+	 * setter. Nested values that are changed in place (e.g. a map info's aisles) are not tracked.
+	 */
+	public final PropertyView getPropertyView() {
+		PropertyView view = propertyView;
+		if (view != null)
+			return view;
+
+		view = createPropertyView();
+		propertyView = view;
+		return view;
+	}
+
+	private PropertyView createPropertyView() {
+		PropertyView view = new PropertyView(PropertySchema.getSchema(getType()));
+		getProperties(new Properties() {
+			@Override
+			public void addString(String key, String value) {
+				if (value != null)
+					view.put(key, value);
+			}
+
+			@Override
+			public void addLiteralString(String key, String value) {
+				if (value != null)
+					view.put(key, value);
+			}
+
+			@Override
+			public void addInt(String key, int value) {
+				view.putInt(key, value);
+			}
+
+			@Override
+			public void addDouble(String key, double value) {
+				view.putDouble(key, value);
+			}
+
+			@Override
+			public void add(String key, Object value) {
+				if (value != null)
+					view.put(key, value);
+			}
+
+			@Override
+			public void addFileRef(String key, FileReferenceList value) {
+				if (value != null)
+					view.put(key, value);
+			}
+
+			@Override
+			public void addFileRefSubs(String key, FileReferenceList value) {
+				if (value != null)
+					view.put(key, value);
+			}
+
+			@Override
+			public void addArray(String key, String[] value) {
+				if (value != null)
+					view.put(key, value);
+			}
+		});
+		return view;
+	}
+
 	public final void writeBody(final JSONEncoder je) {
 		getProperties(new Properties() {
 			@Override
@@ -477,13 +600,13 @@ public abstract class ContestObject implements IContestObject {
 		if (resizeToFit) {
 			if (data instanceof BufferedImage)
 				return ImageScaler.scaleImage((BufferedImage) data, width, height);
-			// else if (data instanceof SVGDocument)
-			return resizeSVG((SVGDocument) data, width, height);
+			// else if (data instanceof SVGImage)
+			return ((SVGImage) data).getImage(width, height);
 		}
 		if (data instanceof BufferedImage)
 			return (BufferedImage) data;
-		// else if (data instanceof SVGDocument)
-		return resizeSVG((SVGDocument) data, width, height);
+		// else if (data instanceof SVGImage)
+		return ((SVGImage) data).getImage(width, height);
 	}
 
 	private static Object loadImage(File f) {
@@ -492,7 +615,7 @@ public abstract class ContestObject implements IContestObject {
 
 		try {
 			if (f.getName().endsWith(".svg"))
-				return loadSVG(f);
+				return new SVGImage(f);
 			return ImageIO.read(f);
 		} catch (Exception e) {
 			return null;
@@ -0,0 +1,99 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class ContestReplayTest {
+	private static Language createLanguage(String id) {
+		Language l = new Language();
+		l.add("id", id);
+		l.add("name", "Language " + id);
+		return l;
+	}
+
+	private static List<String> getIds(IContestObject[] objs) {
+		List<String> ids = new ArrayList<>();
+		for (IContestObject obj : objs)
+			ids.add(obj.getId());
+		return ids;
+	}
+
+	@Test
+	public void testReplay() throws Exception {
+		Contest contest = new Contest();
+		for (int i = 0; i < 2500; i++)
+			contest.add(createLanguage("l" + i));
+
+		List<String> ids = Collections.synchronizedList(new ArrayList<>());
+		contest.addListenerFromStart((c, obj, d) -> ids.add(obj.getId()));
+		assertThat(ids).containsExactlyElementsIn(getIds(contest.getObjects())).inOrder();
+
+		contest.add(createLanguage("live"));
+		assertThat(ids).contains("live");
+	}
+
+	@Test
+	public void testReplayWhileAdding() throws Exception {
+		Contest contest = new Contest();
+		for (int i = 0; i < 5000; i++)
+			contest.add(createLanguage("l" + i));
+
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < 5000; i++)
+				contest.add(createLanguage("m" + i));
+		});
+
+		List<String> ids = Collections.synchronizedList(new ArrayList<>());
+		t.start();
+		contest.addListenerFromStart((c, obj, d) -> ids.add(obj.getId()));
+		t.join();
+
+		// every object exactly once, in contest order
+		assertThat(ids).containsExactlyElementsIn(getIds(contest.getObjects())).inOrder();
+	}
+
+	@Test
+	public void testTruncateDuringReplay() throws Exception {
+		Contest contest = new Contest();
+		List<IContestObject> remove = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			Language l = createLanguage("l" + i);
+			contest.add(l);
+			if (i >= 1000)
+				remove.add(l);
+		}
+
+		List<String> ids = new ArrayList<>();
+		IContestListener listener = new IContestListener() {
+			private boolean removed;
+
+			@Override
+			public void contestChanged(org.icpc.tools.contest.model.IContest c, IContestObject obj, Delta d) {
+				ids.add(obj.getId());
+				if (!removed) {
+					// e.g. a reconnecting source removing events after the replay has started
+					removed = true;
+					contest.removeFromHistory(remove);
+				}
+			}
+		};
+
+		contest.addListenerFromStart(listener);
+		assertThat(ids).doesNotContain("l2999");
+
+		// the listener must be live after the replay
+		contest.add(createLanguage("live"));
+		assertThat(ids).contains("live");
+		assertThat(ids.get(ids.size() - 1)).isEqualTo("live");
+	}
+}
@@ -77,6 +77,7 @@ public class Group extends ContestObject implements IGroup {
 	}
 
 	public void setLogo(FileReferenceList list) {
+		propertiesChanged();
 		logo = list;
 	}
 
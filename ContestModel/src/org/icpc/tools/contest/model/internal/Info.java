@@ -115,6 +115,7 @@ public class Info extends ContestObject implements IInfo {
 	}
 
 	public void setStartStatus(Long start) {
+		propertiesChanged();
 		if (start == null) {
 			pauseTime = null;
 			startTime = null;
@@ -159,10 +160,12 @@ public class Info extends ContestObject implements IInfo {
 	}
 
 	public void setTimeMultiplier(double multiplier) {
+		propertiesChanged();
 		timeMultiplier = multiplier;
 	}
 
 	public void setCountdownPauseTime(Long time) {
+		propertiesChanged();
 		supportsPauseTime = true;
 		pauseTime = time;
 	}
@@ -180,6 +183,7 @@ public class Info extends ContestObject implements IInfo {
 	}
 
 	public void setLocation(Location loc) {
+		propertiesChanged();
 		location = loc;
 	}
 
@@ -188,6 +192,7 @@ public class Info extends ContestObject implements IInfo {
 	}
 
 	public void setLogo(FileReferenceList list) {
+		propertiesChanged();
 		logo = list;
 	}
 
@@ -204,6 +209,7 @@ public class Info extends ContestObject implements IInfo {
 	}
 
 	public void setBanner(FileReferenceList list) {
+		propertiesChanged();
 		banner = list;
 	}
 
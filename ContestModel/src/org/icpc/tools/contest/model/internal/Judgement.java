@@ -60,6 +60,7 @@ public class Judgement extends ContestObject implements IJudgement {
 	}
 
 	public void setJudgementTypeId(String id) {
+		propertiesChanged();
 		judgementTypeId = id;
 	}
 
@@ -197,14 +197,17 @@ public class MapInfo extends ContestObject implements IMapInfo {
 	}
 
 	public void addAisle(Aisle a) {
+		propertiesChanged();
 		aisles.add(a);
 	}
 
 	public void setPrinter(Printer p) {
+		propertiesChanged();
 		printer = p;
 	}
 
 	public void addSpareTeam(ITeam t) {
+		propertiesChanged();
 		spareTeams.add(t);
 	}
 
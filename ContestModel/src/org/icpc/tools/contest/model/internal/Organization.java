@@ -117,6 +117,7 @@ public class Organization extends ContestObject implements IOrganization {
 	}
 
 	public void setLogo(FileReferenceList list) {
+		propertiesChanged();
 		logo = list;
 	}
 
@@ -136,6 +137,7 @@ public class Organization extends ContestObject implements IOrganization {
 	}
 
 	public void setCountryFlag(FileReferenceList list) {
+		propertiesChanged();
 		countryFlag = list;
 	}
 
@@ -156,6 +158,7 @@ public class Organization extends ContestObject implements IOrganization {
 	}
 
 	public void setCountrySubdivisionFlag(FileReferenceList list) {
+		propertiesChanged();
 		countrySubdivisionFlag = list;
 	}
 
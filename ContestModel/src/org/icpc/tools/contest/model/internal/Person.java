@@ -118,6 +118,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setPhoto(FileReferenceList list) {
+		propertiesChanged();
 		photo = list;
 	}
 
@@ -231,6 +232,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setDesktop(FileReferenceList list) {
+		propertiesChanged();
 		desktop = list;
 	}
 
@@ -254,6 +256,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setWebcam(FileReferenceList list) {
+		propertiesChanged();
 		webcam = list;
 	}
 
@@ -270,6 +273,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setAudio(FileReferenceList list) {
+		propertiesChanged();
 		audio = list;
 	}
 
@@ -283,6 +287,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setBackup(FileReferenceList list) {
+		propertiesChanged();
 		backup = list;
 	}
 
@@ -296,6 +301,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setKeyLog(FileReferenceList list) {
+		propertiesChanged();
 		keylog = list;
 	}
 
@@ -309,6 +315,7 @@ public class Person extends ContestObject implements IPerson {
 	}
 
 	public void setToolData(FileReferenceList list) {
+		propertiesChanged();
 		tooldata = list;
 	}
 
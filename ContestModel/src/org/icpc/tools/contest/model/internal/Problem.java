@@ -125,6 +125,7 @@ public class Problem extends ContestObject implements IProblem {
 	}
 
 	public void setLocation(double x, double y) {
+		propertiesChanged();
 		this.x = x;
 		this.y = y;
 	}
@@ -135,6 +136,7 @@ public class Problem extends ContestObject implements IProblem {
 	}
 
 	public void clearTestDataCount() {
+		propertiesChanged();
 		testDataCount = Integer.MIN_VALUE;
 	}
 
@@ -149,6 +151,7 @@ public class Problem extends ContestObject implements IProblem {
 	}
 
 	public void setPackage(FileReferenceList list) {
+		propertiesChanged();
 		package_ = list;
 	}
 
@@ -162,6 +165,7 @@ public class Problem extends ContestObject implements IProblem {
 	}
 
 	public void setStatement(FileReferenceList list) {
+		propertiesChanged();
 		statement = list;
 	}
 
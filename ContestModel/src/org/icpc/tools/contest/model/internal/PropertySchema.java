@@ -0,0 +1,92 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+
+/**
+ * The properties of one contest object type. Each property name is given a stable slot index the
+ * first time any object of the type reports it, so that property values can be kept in arrays
+ * instead of maps (see PropertyView).
+ */
+public class PropertySchema {
+	private static final PropertySchema[] SCHEMAS = new PropertySchema[ContestType.values().length];
+
+	static {
+		for (ContestType type : ContestType.values())
+			SCHEMAS[type.ordinal()] = new PropertySchema(type);
+	}
+
+	private final ContestType type;
+
+	// copy-on-write, so that lookups don't need to lock
+	private volatile Map<String, Integer> slots = new HashMap<>();
+	private volatile String[] names = new String[0];
+
+	private PropertySchema(ContestType type) {
+		this.type = type;
+	}
+
+	public static PropertySchema getSchema(ContestType type) {
+		return SCHEMAS[type.ordinal()];
+	}
+
+	public ContestType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the number of slots.
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the property name in the given slot.
+	 */
+	public String getName(int slot) {
+		return names[slot];
+	}
+
+	/**
+	 * Returns the slot for the given property name, or -1 if no object of this type has had it.
+	 */
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		if (slot == null)
+			return -1;
+		return slot;
+	}
+
+	/**
+	 * Returns the slot for the given property name, adding one if necessary.
+	 */
+	protected int getOrAddSlot(String name) {
+		Integer slot = slots.get(name);
+		if (slot != null)
+			return slot;
+
+		synchronized (this) {
+			slot = slots.get(name);
+			if (slot != null)
+				return slot;
+
+			int n = names.length;
+			String[] names2 = Arrays.copyOf(names, n + 1);
+			names2[n] = name;
+			Map<String, Integer> slots2 = new HashMap<>(slots);
+			slots2.put(name, n);
+			names = names2;
+			slots = slots2;
+			return n;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Property schema [" + type + ": " + Arrays.toString(names) + "]";
+	}
+}
@@ -0,0 +1,174 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.Arrays;
+
+/**
+ * A read-only view of the properties of a contest object, with values kept by slot in the
+ * object type's PropertySchema. Lookups by name are a single hash lookup and lookups by slot are an
+ * array access, and unlike getProperties() no map is built. Int and double properties are kept
+ * unboxed; use isNumber(), getInt() and getDouble() to read them without boxing.
+ */
+public class PropertyView {
+	// markers for number slots, whose values are in the numbers array
+	private static final Object INT = new Object();
+	private static final Object DOUBLE = new Object();
+
+	private final PropertySchema schema;
+	private Object[] values;
+	private double[] numbers;
+	private int count;
+
+	protected PropertyView(PropertySchema schema) {
+		this.schema = schema;
+		values = new Object[Math.max(schema.size(), 4)];
+	}
+
+	private int getOrAddSlot(String name) {
+		int slot = schema.getOrAddSlot(name);
+		if (slot >= values.length)
+			values = Arrays.copyOf(values, Math.max(slot + 1, values.length * 3 / 2));
+		if (values[slot] == null)
+			count++;
+		return slot;
+	}
+
+	protected void put(String name, Object value) {
+		int slot = getOrAddSlot(name);
+		values[slot] = value;
+	}
+
+	private void putNumber(String name, Object type, double value) {
+		int slot = getOrAddSlot(name);
+		values[slot] = type;
+		if (numbers == null)
+			numbers = new double[values.length];
+		else if (slot >= numbers.length)
+			numbers = Arrays.copyOf(numbers, values.length);
+		numbers[slot] = value;
+	}
+
+	protected void putInt(String name, int value) {
+		putNumber(name, INT, value);
+	}
+
+	protected void putDouble(String name, double value) {
+		putNumber(name, DOUBLE, value);
+	}
+
+	public PropertySchema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Returns the number of properties that have a value.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of slots in this view, which may be less than the size of the schema.
+	 */
+	public int getNumSlots() {
+		return values.length;
+	}
+
+	private Object getRaw(int slot) {
+		if (slot < 0 || slot >= values.length)
+			return null;
+		return values[slot];
+	}
+
+	/**
+	 * Returns true if there is a value in the given slot.
+	 */
+	public boolean has(int slot) {
+		return getRaw(slot) != null;
+	}
+
+	/**
+	 * Returns true if the value in the given slot is an int or double.
+	 */
+	public boolean isNumber(int slot) {
+		Object v = getRaw(slot);
+		return v == INT || v == DOUBLE;
+	}
+
+	/**
+	 * Returns the int or double value in the given slot as an int, or 0 if it isn't a number.
+	 */
+	public int getInt(int slot) {
+		return (int) getDouble(slot);
+	}
+
+	/**
+	 * Returns the int or double value in the given slot, or 0 if it isn't a number.
+	 */
+	public double getDouble(int slot) {
+		if (!isNumber(slot))
+			return 0;
+		return numbers[slot];
+	}
+
+	/**
+	 * Returns the value in the given slot, or null if there isn't one. Numbers are boxed.
+	 */
+	public Object get(int slot) {
+		Object v = getRaw(slot);
+		if (v == INT)
+			return (int) numbers[slot];
+		if (v == DOUBLE)
+			return numbers[slot];
+		return v;
+	}
+
+	/**
+	 * Returns the value of the given property, or null if there isn't one. Numbers are boxed.
+	 */
+	public Object get(String name) {
+		return get(schema.getSlot(name));
+	}
+
+	/**
+	 * Returns true if this view has the same properties and values as another view of the same
+	 * type, ignoring the value (but not the presence) of the given property.
+	 *
+	 * @param view the view to compare to
+	 * @param ignore a property name whose value is ignored, or null
+	 */
+	public boolean equals(PropertyView view, String ignore) {
+		if (view == null || view.schema != schema)
+			return false;
+
+		int ignoreSlot = ignore == null ? -1 : schema.getSlot(ignore);
+		int n = Math.max(values.length, view.values.length);
+		for (int i = 0; i < n; i++) {
+			Object v = getRaw(i);
+			Object v2 = view.getRaw(i);
+			if (i == ignoreSlot) {
+				if ((v == null) != (v2 == null))
+					return false;
+				continue;
+			}
+
+			if (v == INT || v == DOUBLE) {
+				// same type and value, with the same NaN and -0 handling as Double.equals()
+				if (v != v2 || Double.doubleToLongBits(numbers[i]) != Double.doubleToLongBits(view.numbers[i]))
+					return false;
+			} else if (v == null ? v2 != null : !v.equals(v2))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Property view [");
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null)
+				sb.append(" " + schema.getName(i) + "=" + get(i));
+		}
+		sb.append(" ]");
+		return sb.toString();
+	}
+}
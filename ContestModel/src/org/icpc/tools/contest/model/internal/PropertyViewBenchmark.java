@@ -0,0 +1,165 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+
+/**
+ * Measures update detection, which runs every time an object that is already in the contest is
+ * added again: comparing the two objects' property views, as ContestData does, against comparing
+ * their property maps, as it did before. Each incoming object is a fresh copy, the same as an
+ * object that was just parsed from a feed. Re-adding the whole feed to a contest is also timed.
+ *
+ * Usage: PropertyViewBenchmark [submissions]
+ */
+public class PropertyViewBenchmark {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int DEFAULT_SUBMISSIONS = 20000;
+	private static final int ROUNDS = 5;
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	private static List<ContestObject> createFeed(int numSubmissions) {
+		Random r = new Random(38);
+		List<ContestObject> list = new ArrayList<>();
+		for (int i = 0; i < 12; i++)
+			list.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i, "test_data_count", r.nextInt(50)));
+		for (int i = 0; i < 300; i++)
+			list.add(create(new Team(), "id", "" + i, "label", "" + i, "name", "Team " + i, "group_ids",
+					new Object[] { "g" + r.nextInt(5) }));
+		for (int i = 0; i < numSubmissions; i++) {
+			long time = r.nextInt(5 * 3600000);
+			list.add(create(new Submission(), "id", "s" + i, "team_id", "" + r.nextInt(300), "problem_id",
+					"p" + r.nextInt(12), "language_id", "java", "contest_time", RelativeTime.format(time), "time",
+					Timestamp.format(START + time)));
+			list.add(create(new Judgement(), "id", "j" + i, "submission_id", "s" + i, "judgement_type_id",
+					r.nextBoolean() ? "AC" : "WA", "start_contest_time", RelativeTime.format(time), "start_time",
+					Timestamp.format(START + time)));
+		}
+		return list;
+	}
+
+	/**
+	 * The map based comparison that property views replaced.
+	 */
+	private static boolean mapEquals(IContestObject a, IContestObject b) {
+		Map<String, Object> p1 = a.getProperties();
+		Map<String, Object> p2 = b.getProperties();
+		if (p1.size() != p2.size())
+			return false;
+		for (String key : p1.keySet()) {
+			Object v1 = p1.get(key);
+			Object v2 = p2.get(key);
+			if (!p2.containsKey(key) || (!"time".equals(key) && !(v1 == null ? v2 == null : v1.equals(v2))))
+				return false;
+		}
+		return true;
+	}
+
+	private static List<ContestObject> copy(List<ContestObject> feed) {
+		List<ContestObject> list = new ArrayList<>(feed.size());
+		for (ContestObject obj : feed)
+			list.add((ContestObject) obj.clone());
+		return list;
+	}
+
+	private static long getAllocatedBytes(ThreadMXBean bean) {
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			try {
+				return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+			} catch (Exception e) {
+				// not supported
+			}
+		}
+		return -1;
+	}
+
+	private static void report(String name, long bestNs, long alloc, int numObjects) {
+		double nsPerOp = (double) bestNs / numObjects;
+		String s = String.format("%-12s %8.1f ns/op %12.0f ops/s", name, nsPerOp, 1e9 / nsPerOp);
+		if (alloc >= 0)
+			s += String.format(" %8.1f B/op", (double) alloc / numObjects);
+		System.out.println(s);
+	}
+
+	private static void measureCompare(List<ContestObject> feed, boolean views) {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		long best = Long.MAX_VALUE;
+		long alloc = 0;
+		int equal = 0;
+		for (int j = 0; j <= ROUNDS; j++) {
+			List<ContestObject> incoming = copy(feed);
+			long alloc2 = getAllocatedBytes(bean);
+			long time = System.nanoTime();
+			int size = feed.size();
+			for (int i = 0; i < size; i++) {
+				ContestObject a = feed.get(i);
+				ContestObject b = incoming.get(i);
+				if (views ? b.getPropertyView().equals(a.getPropertyView(), "time") : mapEquals(a, b))
+					equal++;
+			}
+			time = System.nanoTime() - time;
+			alloc2 = getAllocatedBytes(bean) - alloc2;
+
+			// the first round is warm-up
+			if (j > 0 && time < best) {
+				best = time;
+				alloc = alloc2;
+			}
+		}
+		if (equal != (ROUNDS + 1) * feed.size())
+			System.out.println("Unexpected difference in " + (views ? "views" : "maps"));
+		report(views ? "views" : "maps", best, alloc < 0 ? -1 : alloc, feed.size());
+	}
+
+	private static void measureReAdd(List<ContestObject> feed) {
+		Contest contest = new Contest(false);
+		for (ContestObject obj : feed)
+			contest.add(obj);
+		int numObjects = contest.getNumObjects();
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		long best = Long.MAX_VALUE;
+		long alloc = 0;
+		for (int j = 0; j <= ROUNDS; j++) {
+			List<ContestObject> incoming = copy(feed);
+			long alloc2 = getAllocatedBytes(bean);
+			long time = System.nanoTime();
+			for (ContestObject obj : incoming)
+				contest.add(obj);
+			time = System.nanoTime() - time;
+			alloc2 = getAllocatedBytes(bean) - alloc2;
+			if (j > 0 && time < best) {
+				best = time;
+				alloc = alloc2;
+			}
+		}
+		if (contest.getNumObjects() != numObjects)
+			System.out.println("Unexpected changes on re-add");
+		report("re-add", best, alloc < 0 ? -1 : alloc, feed.size());
+	}
+
+	public static void main(String[] args) {
+		int numSubmissions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SUBMISSIONS;
+		List<ContestObject> feed = createFeed(numSubmissions);
+		for (ContestObject obj : feed)
+			obj.getPropertyView();
+
+		System.out.println(feed.size() + " objects, best of " + ROUNDS + " rounds");
+		measureCompare(feed, false);
+		measureCompare(feed, true);
+		measureReAdd(feed);
+	}
+}
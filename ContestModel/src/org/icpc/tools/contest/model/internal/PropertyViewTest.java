@@ -0,0 +1,182 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class PropertyViewTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	/**
+	 * A synthetic feed with string, int, double, array and time properties, where optional
+	 * properties are only present on some objects.
+	 */
+	private static List<ContestObject> createFeed(Random r) {
+		List<ContestObject> list = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			Problem p = create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i);
+			if (r.nextBoolean())
+				p.add("test_data_count", r.nextInt(50));
+			if (r.nextBoolean())
+				p.add("max_score", "" + r.nextInt(4) * 25.5);
+			list.add(p);
+		}
+		for (int i = 0; i < 300; i++) {
+			Team t = create(new Team(), "id", "" + i, "label", "" + i, "name", "Team " + i);
+			if (r.nextBoolean())
+				t.add("group_ids", new Object[] { "g" + r.nextInt(5) });
+			if (r.nextBoolean())
+				t.add("display_name", "Display " + i);
+			list.add(t);
+		}
+		for (int i = 0; i < 3000; i++) {
+			long time = r.nextInt(5 * 3600000);
+			list.add(create(new Submission(), "id", "s" + i, "team_id", "" + r.nextInt(300), "problem_id",
+					"p" + r.nextInt(12), "language_id", "java", "contest_time", RelativeTime.format(time), "time",
+					Timestamp.format(START + time)));
+			Judgement j = create(new Judgement(), "id", "j" + i, "submission_id", "s" + i, "start_contest_time",
+					RelativeTime.format(time), "start_time", Timestamp.format(START + time));
+			if (r.nextInt(5) > 0)
+				j.add("judgement_type_id", r.nextBoolean() ? "AC" : "WA");
+			if (r.nextBoolean())
+				j.add("score", "" + r.nextInt(100));
+			list.add(j);
+		}
+		return list;
+	}
+
+	/**
+	 * The map based comparison that property views replaced.
+	 */
+	private static boolean mapEquals(IContestObject a, IContestObject b) {
+		Map<String, Object> p1 = a.getProperties();
+		Map<String, Object> p2 = b.getProperties();
+		if (p1.size() != p2.size())
+			return false;
+		for (String key : p1.keySet()) {
+			Object v1 = p1.get(key);
+			Object v2 = p2.get(key);
+			if (!p2.containsKey(key) || (!"time".equals(key) && !(v1 == null ? v2 == null : v1.equals(v2))))
+				return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void testUpdateDetection() throws Exception {
+		Random r = new Random(38);
+		List<ContestObject> feed = createFeed(r);
+		Contest contest = new Contest(false);
+		for (ContestObject obj : feed)
+			contest.add(obj);
+
+		List<IContestObject> changes = new ArrayList<>();
+		contest.addListener((c, obj, d) -> changes.add(obj));
+
+		// re-adding every object unchanged, or with only a new time, is a no-op
+		for (ContestObject obj : feed) {
+			ContestObject obj2 = (ContestObject) obj.clone();
+			if (obj2 instanceof Submission)
+				obj2.add("time", Timestamp.format(START + r.nextInt(1000)));
+			assertThat(obj2.getPropertyView().equals(obj.getPropertyView(), "time")).isTrue();
+			contest.add(obj2);
+		}
+		assertThat(changes).isEmpty();
+
+		// and views agree with the maps on the objects of a different feed
+		List<ContestObject> feed2 = createFeed(new Random(39));
+		int numChanged = 0;
+		for (int i = 0; i < feed.size(); i++) {
+			ContestObject a = feed.get(i);
+			ContestObject b = feed2.get(i);
+			boolean equal = a.getPropertyView().equals(b.getPropertyView(), "time");
+			assertThat(equal).isEqualTo(mapEquals(a, b));
+			if (!equal)
+				numChanged++;
+			contest.add(b);
+		}
+		assertThat(changes).hasSize(numChanged);
+	}
+
+	@Test
+	public void testKnownProperties() throws Exception {
+		List<ContestObject> feed = createFeed(new Random(38));
+		Contest contest = new Contest(false);
+		for (ContestObject obj : feed)
+			contest.add(obj);
+
+		Set<String>[] known = contest.getKnownProperties();
+		for (IContestObject.ContestType type : new IContestObject.ContestType[] { IContestObject.ContestType.PROBLEM,
+				IContestObject.ContestType.TEAM, IContestObject.ContestType.SUBMISSION,
+				IContestObject.ContestType.JUDGEMENT }) {
+			Set<String> names = new HashSet<>();
+			for (ContestObject obj : feed) {
+				if (obj.getType() == type)
+					names.addAll(obj.getProperties().keySet());
+			}
+			assertThat(new HashSet<>(known[type.ordinal()])).isEqualTo(names);
+		}
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		Team t = create(new Team(), "id", "1", "name", "Team 1");
+		PropertyView view = t.getPropertyView();
+		assertThat(t.getPropertyView()).isSameInstanceAs(view);
+
+		// a change through add() or a setter gives a new view
+		t.add("label", "1");
+		PropertyView view2 = t.getPropertyView();
+		assertThat(view2).isNotSameInstanceAs(view);
+		assertThat(view2.get("label")).isEqualTo("1");
+
+		t.setDisplayName("Display");
+		assertThat(t.getPropertyView().get("display_name")).isEqualTo("Display");
+		assertThat(view.get("display_name")).isNull();
+	}
+
+	@Test
+	public void testNumbers() throws Exception {
+		Problem p = create(new Problem(), "id", "p1", "label", "A", "ordinal", 3, "max_score", "25.5");
+		PropertyView view = p.getPropertyView();
+		int ordinal = view.getSchema().getSlot("ordinal");
+		int maxScore = view.getSchema().getSlot("max_score");
+		int label = view.getSchema().getSlot("label");
+
+		assertThat(view.isNumber(ordinal)).isTrue();
+		assertThat(view.getInt(ordinal)).isEqualTo(3);
+		assertThat(view.get(ordinal)).isEqualTo(3);
+		assertThat(view.isNumber(label)).isFalse();
+		assertThat(view.getInt(label)).isEqualTo(0);
+		assertThat(view.has(label)).isTrue();
+		assertThat(view.has(-1)).isFalse();
+
+		// max score is written as a rounded double object, the same in both views
+		Problem p2 = create(new Problem(), "id", "p1", "label", "A", "ordinal", 3, "max_score", "25.5");
+		assertThat(view.get(maxScore)).isEqualTo(p.getProperties().get("max_score"));
+		assertThat(p2.getPropertyView().equals(view, null)).isTrue();
+
+		p2.add("ordinal", 4);
+		assertThat(p2.getPropertyView().equals(view, null)).isFalse();
+	}
+}
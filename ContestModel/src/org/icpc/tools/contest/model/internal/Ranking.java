@@ -46,50 +46,48 @@ public class Ranking {
 		rank(contest, standings, teams, order, scoring, lastBronze);
 	}
 
+	/**
+	 * Compares two standings using the live ranking rules, without the tie-break on team name.
+	 * Standings that compare as equal share a rank.
+	 *
+	 * @param type the scoreboard type
+	 * @param s1 a standing
+	 * @param s2 another standing
+	 * @return a negative number if s1 is ranked ahead of s2, a positive number if s2 is ahead, or 0
+	 *         if they are tied
+	 */
+	public static int compare(ScoreboardType type, IStanding s1, IStanding s2) {
+		if (type == ScoreboardType.PASS_FAIL) {
+			if (s1.getNumSolved() != s2.getNumSolved())
+				return Integer.compare(s2.getNumSolved(), s1.getNumSolved());
+			if (s1.getTime() != s2.getTime())
+				return Long.compare(s1.getTime(), s2.getTime());
+			return Long.compare(s1.getLastSolutionTime(), s2.getLastSolutionTime());
+		}
+
+		if (s1.getScore() != s2.getScore())
+			return Double.compare(s2.getScore(), s1.getScore());
+		// Future: some contests also use penalty as a tiebreaker, but there's no way
+		// to know this from the Contest API (yet)
+		return Long.compare(s1.getLastSolutionTime(), s2.getLastSolutionTime());
+	}
+
 	/**
 	 * Sort the teams based on their current standing.
 	 */
 	private static void sort(IContest contest, ITeam[] teams, IStanding[] standings, int[] order) {
 		int numTeams = order.length;
 
-		boolean passFail = contest.getScoreboardType() == ScoreboardType.PASS_FAIL;
+		ScoreboardType type = contest.getScoreboardType();
 		for (int i = 0; i < numTeams - 1; i++) {
 			for (int j = i + 1; j < numTeams; j++) {
-				boolean swap = false;
-				IStanding si = standings[order[i]];
-				IStanding sj = standings[order[j]];
-				if (passFail) {
-					if (si.getNumSolved() < sj.getNumSolved())
-						swap = true;
-					else if (si.getNumSolved() == sj.getNumSolved()) {
-						if (si.getTime() > sj.getTime())
-							swap = true;
-						else if (si.getTime() == sj.getTime()) {
-							if (si.getLastSolutionTime() > sj.getLastSolutionTime())
-								swap = true;
-							else if (si.getLastSolutionTime() == sj.getLastSolutionTime()) {
-								String tin = teams[order[i]].getActualDisplayName();
-								String tjn = teams[order[j]].getActualDisplayName();
-								if (tin != null && tjn != null && collator.compare(tin, tjn) > 0)
-									swap = true;
-							}
-						}
-					}
-				} else {
-					if (si.getScore() < sj.getScore())
+				int c = compare(type, standings[order[i]], standings[order[j]]);
+				boolean swap = c > 0;
+				if (c == 0) {
+					String tin = teams[order[i]].getActualDisplayName();
+					String tjn = teams[order[j]].getActualDisplayName();
+					if (tin != null && tjn != null && collator.compare(tin, tjn) > 0)
 						swap = true;
-					else if (si.getScore() == sj.getScore()) {
-						if (si.getLastSolutionTime() > sj.getLastSolutionTime())
-							swap = true;
-						else if (si.getLastSolutionTime() == sj.getLastSolutionTime()) {
-							String tin = teams[order[i]].getActualDisplayName();
-							String tjn = teams[order[j]].getActualDisplayName();
-							if (tin != null && tjn != null && collator.compare(tin, tjn) > 0)
-								swap = true;
-						}
-					}
-					// Future: some contests also use penalty as a tiebreaker, but there's no way
-					// to know this from the Contest API (yet)
 				}
 
 				if (swap)
@@ -194,26 +194,32 @@ public class ResolveInfo extends ContestObject implements IResolveInfo {
 	}
 
 	public void setClicks(int clicks) {
+		propertiesChanged();
 		this.clicks = clicks;
 	}
 
 	public void setSpeedFactor(double speedFactor) {
+		propertiesChanged();
 		this.speedFactor = speedFactor;
 	}
 
 	public void setScrollSpeedFactor(double scrollSpeedFactor) {
+		propertiesChanged();
 		this.scrollSpeedFactor = scrollSpeedFactor;
 	}
 
 	public void setAnimationPause(boolean animPause) {
+		propertiesChanged();
 		this.animationPause = animPause;
 	}
 
 	public void setSingleStepRow(int singleStepRow) {
+		propertiesChanged();
 		this.singleStepRow = singleStepRow;
 	}
 
 	public void setRowOffset(int rowOffset) {
+		propertiesChanged();
 		this.rowOffset = rowOffset;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.imageio.ImageIO;
+
+import org.icpc.tools.contest.Trace;
+
+/**
+ * A disk cache of SVG images that have been rendered to a specific size, so that SVGs don't need
+ * to be transcoded again after a restart. Images are stored as PNGs named by the hash of the SVG
+ * and the size, so the same SVG is shared no matter where it was loaded from.
+ *
+ * The cache is kept under a maximum size by deleting the least recently used images.
+ */
+public class SVGRasterCache {
+	private static final String CACHE_DIR = "org.icpc.tools.cache.svg";
+	private static final long MAX_SIZE = 100L * 1024 * 1024;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static SVGRasterCache instance;
+
+	private final File folder;
+	private final long maxSize;
+	private long size = -1;
+
+	public static synchronized SVGRasterCache getInstance() {
+		if (instance == null)
+			instance = new SVGRasterCache(new File(System.getProperty("java.io.tmpdir"), CACHE_DIR), MAX_SIZE);
+		return instance;
+	}
+
+	public SVGRasterCache(File folder, long maxSize) {
+		this.folder = folder;
+		this.maxSize = maxSize;
+
+		if (!folder.exists() && !folder.mkdirs())
+			Trace.trace(Trace.WARNING, "Could not create SVG cache folder: " + folder);
+		else // keep the folder from being cleaned up with old contest caches
+			folder.setLastModified(System.currentTimeMillis());
+	}
+
+	private File getFile(String hash, int width, int height) {
+		return new File(folder, hash + "-" + width + "x" + height + ".png");
+	}
+
+	/**
+	 * Returns the cached image for the given SVG and size, or null if it isn't cached.
+	 *
+	 * @param hash the hash of the SVG's contents
+	 * @param width the width the SVG was rendered to fit
+	 * @param height the height the SVG was rendered to fit
+	 */
+	public BufferedImage get(String hash, int width, int height) {
+		if (hash == null)
+			return null;
+
+		File f = getFile(hash, width, height);
+		if (!f.exists())
+			return null;
+
+		try {
+			BufferedImage img = ImageIO.read(f);
+			if (img != null)
+				f.setLastModified(System.currentTimeMillis());
+			return img;
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not read cached SVG image " + f.getName(), e);
+			f.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Add a rendered image to the cache.
+	 *
+	 * @param hash the hash of the SVG's contents
+	 * @param width the width the SVG was rendered to fit
+	 * @param height the height the SVG was rendered to fit
+	 * @param img the rendered image
+	 */
+	public void put(String hash, int width, int height, BufferedImage img) {
+		if (hash == null || img == null || !folder.exists())
+			return;
+
+		File f = getFile(hash, width, height);
+		File temp = null;
+		try {
+			// write to a temp file first so that other clients never read a partial image
+			temp = File.createTempFile(hash, ".tmp", folder);
+			if (!ImageIO.write(img, "png", temp)) {
+				temp.delete();
+				return;
+			}
+			long len = temp.length();
+			Files.move(temp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			added(len);
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not cache SVG image " + f.getName(), e);
+			if (temp != null)
+				temp.delete();
+		}
+	}
+
+	private synchronized void added(long len) {
+		if (size < 0)
+			size = getFolderSize();
+		else
+			size += len;
+
+		if (size > maxSize)
+			evict();
+	}
+
+	private long getFolderSize() {
+		File[] files = folder.listFiles();
+		if (files == null)
+			return 0;
+
+		long total = 0;
+		for (File f : files)
+			total += f.length();
+		return total;
+	}
+
+	private void evict() {
+		File[] files = folder.listFiles((dir, name) -> name.endsWith(".png"));
+		if (files == null)
+			return;
+
+		long[] modified = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		for (int i = 0; i < files.length; i++) {
+			modified[i] = files[i].lastModified();
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> modified[i]));
+
+		// delete down to 90% so that we're not evicting on every put
+		long target = maxSize * 9 / 10;
+		int count = 0;
+		size = getFolderSize();
+		for (int i = 0; i < files.length && size > target; i++) {
+			File f = files[order[i]];
+			long len = f.length();
+			if (f.delete()) {
+				size -= len;
+				count++;
+			}
+		}
+		Trace.trace(Trace.INFO, "Evicted " + count + " images from SVG cache, " + (size / 1024) + "kB remaining");
+	}
+
+	/**
+	 * Returns a hash of the given file's contents, or null if it can't be read.
+	 */
+	public static String hash(File f) {
+		try {
+			return hash(Files.readAllBytes(f.toPath()));
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not hash " + f, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a hash of the given stream's contents, or null if it can't be read. The stream is
+	 * closed.
+	 */
+	public static String hash(InputStream in) {
+		if (in == null)
+			return null;
+
+		try (InputStream in2 = in) {
+			return hash(in2.readAllBytes());
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not hash SVG", e);
+			return null;
+		}
+	}
+
+	public static String hash(byte[] b) throws Exception {
+		MessageDigest md = MessageDigest.getInstance("SHA-256");
+		byte[] digest = md.digest(b);
+		char[] c = new char[digest.length * 2];
+		for (int i = 0; i < digest.length; i++) {
+			c[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+			c[i * 2 + 1] = HEX[digest[i] & 0xF];
+		}
+		return new String(c);
+	}
+}
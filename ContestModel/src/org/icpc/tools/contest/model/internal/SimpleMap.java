@@ -29,8 +29,8 @@ public class SimpleMap implements Map<String, Object> {
 		if (key == null)
 			return false;
 
-		for (String k : keys)
-			if (key.equals(k))
+		for (int i = 0; i < size; i++)
+			if (keys[i].equals(key))
 				return true;
 
 		return false;
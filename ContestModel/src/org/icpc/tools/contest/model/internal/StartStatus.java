@@ -40,6 +40,7 @@ public class StartStatus extends ContestObject implements IStartStatus {
 	}
 
 	public void setStatus(int status) {
+		propertiesChanged();
 		this.status = status;
 	}
 
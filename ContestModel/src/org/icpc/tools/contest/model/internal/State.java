@@ -63,26 +63,32 @@ public class State extends ContestObject implements IState {
 	}
 
 	public void setStarted(long time) {
+		propertiesChanged();
 		started = time;
 	}
 
 	public void setEnded(long time) {
+		propertiesChanged();
 		ended = time;
 	}
 
 	public void setFrozen(long time) {
+		propertiesChanged();
 		frozen = time;
 	}
 
 	public void setThawed(long time) {
+		propertiesChanged();
 		thawed = time;
 	}
 
 	public void setFinalized(long time) {
+		propertiesChanged();
 		finalized = time;
 	}
 
 	public void setEndOfUpdates(long time) {
+		propertiesChanged();
 		endOfUpdates = time;
 	}
 
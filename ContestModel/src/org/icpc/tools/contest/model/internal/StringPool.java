@@ -0,0 +1,58 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of the short strings that repeat throughout a contest feed: property names, and the ids
+ * that objects use to refer to each other (e.g. team_id or problem_id), so that every event that
+ * refers to the same team, problem, or language shares one instance. Other values, such as object
+ * ids and times, are not pooled. Long strings are never pooled, and once the pool is full strings
+ * are returned as-is.
+ */
+public class StringPool {
+	private static final int MAX_LENGTH = 64;
+	private static final int MAX_SIZE = 500000;
+
+	private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the pooled instance of the given string.
+	 *
+	 * @param s a string, may be null
+	 * @return an equal string, shared if possible
+	 */
+	public String intern(String s) {
+		if (s == null || s.length() > MAX_LENGTH)
+			return s;
+
+		String s2 = pool.get(s);
+		if (s2 != null)
+			return s2;
+
+		if (pool.size() >= MAX_SIZE)
+			return s;
+
+		s2 = pool.putIfAbsent(s, s);
+		if (s2 != null)
+			return s2;
+		return s;
+	}
+
+	/**
+	 * Returns the pooled instance of the given value if it is a string, or the value otherwise.
+	 */
+	public Object intern(Object value) {
+		if (value instanceof String)
+			return intern((String) value);
+		return value;
+	}
+
+	public int size() {
+		return pool.size();
+	}
+
+	@Override
+	public String toString() {
+		return "String pool [" + pool.size() + "]";
+	}
+}
@@ -0,0 +1,115 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.feed.NDJSONFeedParser;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+
+/**
+ * Measures the retained heap of a contest read from an event feed, with and without sharing
+ * strings through the contest's string pool. The heap is measured after a full GC, before and
+ * after reading the feed, so the difference is what the contest keeps.
+ *
+ * Usage: StringPoolBenchmark [event-feed.ndjson]
+ *
+ * Without a feed, a synthetic feed of 300 teams and 20000 submissions, each with a judgement and
+ * three runs, is used.
+ */
+public class StringPoolBenchmark {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 300;
+	private static final int NUM_PROBLEMS = 12;
+	private static final int NUM_SUBMISSIONS = 20000;
+	private static final int NUM_RUNS = 3;
+
+	/**
+	 * A contest that reads without a pool, the way contests were read before.
+	 */
+	private static class UnpooledContest extends Contest {
+		protected UnpooledContest() {
+			super(false);
+		}
+
+		@Override
+		public StringPool getStringPool() {
+			return null;
+		}
+	}
+
+	private static void addEvent(StringBuilder sb, String type, String id, String data) {
+		sb.append("{\"type\":\"" + type + "\",\"id\":\"" + id + "\",\"data\":{\"id\":\"" + id + "\"," + data + "}}\n");
+	}
+
+	private static byte[] createFeed() {
+		Random r = new Random(39);
+		StringBuilder sb = new StringBuilder();
+		addEvent(sb, "judgement-types", "AC", "\"name\":\"Accepted\",\"solved\":true,\"penalty\":false");
+		addEvent(sb, "judgement-types", "WA", "\"name\":\"Wrong Answer\",\"solved\":false,\"penalty\":true");
+		addEvent(sb, "languages", "java", "\"name\":\"Java\"");
+		for (int i = 0; i < NUM_PROBLEMS; i++)
+			addEvent(sb, "problems", "p" + i, "\"label\":\"" + (char) ('A' + i) + "\",\"name\":\"Problem " + i + "\"");
+		for (int i = 0; i < NUM_TEAMS; i++)
+			addEvent(sb, "teams", "" + i, "\"name\":\"Team " + i + "\"");
+
+		for (int i = 0; i < NUM_SUBMISSIONS; i++) {
+			long time = i * 800L;
+			String jt = r.nextBoolean() ? "AC" : "WA";
+			addEvent(sb, "submissions", "s" + i,
+					"\"team_id\":\"" + r.nextInt(NUM_TEAMS) + "\",\"problem_id\":\"p" + r.nextInt(NUM_PROBLEMS)
+							+ "\",\"language_id\":\"java\",\"contest_time\":\"" + RelativeTime.format(time)
+							+ "\",\"time\":\"" + Timestamp.format(START + time) + "\"");
+			addEvent(sb, "judgements", "j" + i,
+					"\"submission_id\":\"s" + i + "\",\"judgement_type_id\":\"" + jt + "\",\"start_contest_time\":\""
+							+ RelativeTime.format(time + 100) + "\",\"start_time\":\"" + Timestamp.format(START + time + 100)
+							+ "\"");
+			for (int j = 0; j < NUM_RUNS; j++)
+				addEvent(sb, "runs", "r" + i + "-" + j,
+						"\"judgement_id\":\"j" + i + "\",\"ordinal\":" + (j + 1) + ",\"judgement_type_id\":\"" + jt
+								+ "\",\"contest_time\":\"" + RelativeTime.format(time + 200 + j)
+								+ "\",\"time\":\"" + Timestamp.format(START + time + 200 + j) + "\"");
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static long getUsedHeap() throws InterruptedException {
+		MemoryMXBean bean = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return bean.getHeapMemoryUsage().getUsed();
+	}
+
+	private static void measure(String name, Contest contest, byte[] feed) throws Exception {
+		long before = getUsedHeap();
+		long time = System.nanoTime();
+		new NDJSONFeedParser().parse(contest, new ByteArrayInputStream(feed));
+		time = System.nanoTime() - time;
+		long after = getUsedHeap();
+
+		StringPool pool = contest.getStringPool();
+		System.out.println(String.format("%-10s %8.1f MB retained %8.0f ms to read %8d pooled strings", name,
+				(after - before) / 1024.0 / 1024.0, time / 1e6, pool == null ? 0 : pool.size()));
+
+		// keep the contest reachable until it has been measured
+		if (contest.getNumObjects() == 0)
+			System.out.println("No objects read");
+	}
+
+	public static void main(String[] args) throws Exception {
+		byte[] feed = args.length > 0 ? Files.readAllBytes(new File(args[0]).toPath()) : createFeed();
+		System.out.println(String.format("%.1f MB feed", feed.length / 1024.0 / 1024.0));
+
+		// read once to warm up, then measure each way
+		new NDJSONFeedParser().parse(new Contest(false), new ByteArrayInputStream(feed));
+		measure("unpooled", new UnpooledContest(), feed);
+		measure("pooled", new Contest(false), feed);
+	}
+}
@@ -0,0 +1,122 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.feed.JSONParser;
+import org.icpc.tools.contest.model.feed.NDJSONFeedParser;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class StringPoolTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 100;
+	private static final int NUM_PROBLEMS = 10;
+	private static final int NUM_SUBMISSIONS = 5000;
+
+	private static void addEvent(StringBuilder sb, String type, String id, String data) {
+		sb.append("{\"type\":\"" + type + "\",\"id\":\"" + id + "\",\"data\":{\"id\":\"" + id + "\"," + data + "}}\n");
+	}
+
+	/**
+	 * A recorded-style feed with a submission and judgement for each of the random submissions.
+	 */
+	private static List<String> createFeed() {
+		Random r = new Random(39);
+		StringBuilder sb = new StringBuilder();
+		addEvent(sb, "judgement-types", "AC", "\"name\":\"Accepted\",\"solved\":true,\"penalty\":false");
+		addEvent(sb, "judgement-types", "WA", "\"name\":\"Wrong Answer\",\"solved\":false,\"penalty\":true");
+		addEvent(sb, "languages", "java", "\"name\":\"Java\"");
+		for (int i = 0; i < NUM_PROBLEMS; i++)
+			addEvent(sb, "problems", "p" + i, "\"label\":\"" + (char) ('A' + i) + "\",\"name\":\"Problem " + i + "\"");
+		for (int i = 0; i < NUM_TEAMS; i++)
+			addEvent(sb, "teams", "" + i, "\"name\":\"Team " + i + "\"");
+
+		for (int i = 0; i < NUM_SUBMISSIONS; i++) {
+			long time = i * 3000L;
+			addEvent(sb, "submissions", "s" + i,
+					"\"team_id\":\"" + r.nextInt(NUM_TEAMS) + "\",\"problem_id\":\"p" + r.nextInt(NUM_PROBLEMS)
+							+ "\",\"language_id\":\"java\",\"contest_time\":\"" + RelativeTime.format(time)
+							+ "\",\"time\":\"" + Timestamp.format(START + time) + "\"");
+			addEvent(sb, "judgements", "j" + i,
+					"\"submission_id\":\"s" + i + "\",\"judgement_type_id\":\"" + (r.nextBoolean() ? "AC" : "WA")
+							+ "\",\"start_contest_time\":\"" + RelativeTime.format(time + 1000) + "\",\"start_time\":\""
+							+ Timestamp.format(START + time + 1000) + "\"");
+		}
+
+		List<String> list = new ArrayList<>();
+		Collections.addAll(list, sb.toString().split("\n"));
+		return list;
+	}
+
+	private static Set<Object> newIdentitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	@Test
+	public void testIntern() throws Exception {
+		StringPool pool = new StringPool();
+		String a = new String("team_id");
+		String b = new String("team_id");
+		assertThat(pool.intern(a)).isSameInstanceAs(a);
+		assertThat(pool.intern(b)).isSameInstanceAs(a);
+		assertThat(pool.intern((String) null)).isNull();
+		assertThat(pool.size()).isEqualTo(1);
+
+		// long strings and other values are returned as-is
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			sb.append("x");
+		String longS = sb.toString();
+		assertThat(pool.intern(new String(longS))).isNotSameInstanceAs(pool.intern(new String(longS)));
+		Integer n = 5;
+		assertThat(pool.intern((Object) n)).isSameInstanceAs(n);
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testFeed() throws Exception {
+		List<String> feed = createFeed();
+		Contest contest = new Contest(false);
+		byte[] b = String.join("\n", feed).getBytes(StandardCharsets.UTF_8);
+		new NDJSONFeedParser().parse(contest, new ByteArrayInputStream(b));
+		assertThat(contest.getSubmissions()).hasLength(NUM_SUBMISSIONS);
+
+		// every reference to the same object shares one string
+		Set<Object> refs = newIdentitySet();
+		for (ISubmission s : contest.getSubmissions()) {
+			refs.add(s.getTeamId());
+			refs.add(s.getProblemId());
+			refs.add(s.getLanguageId());
+		}
+		for (IJudgement j : contest.getJudgements())
+			refs.add(j.getJudgementTypeId());
+
+		// without a pool, there is one string per reference
+		Set<Object> unpooled = newIdentitySet();
+		for (String line : feed) {
+			JSONParser.JsonObject data = new JSONParser(line).readObject().getJsonObject("data");
+			for (String key : new String[] { "team_id", "problem_id", "language_id", "judgement_type_id" }) {
+				if (data.containsKey(key))
+					unpooled.add(data.getString(key));
+			}
+		}
+
+		assertThat(unpooled).hasSize(NUM_SUBMISSIONS * 4);
+		assertThat(refs.size()).isAtMost(NUM_TEAMS + NUM_PROBLEMS + 1 + 2);
+	}
+}
@@ -102,10 +102,12 @@ public class Submission extends TimedEvent implements ISubmission {
 	}
 
 	public void setFiles(FileReferenceList list) {
+		propertiesChanged();
 		files = list;
 	}
 
 	public void setReaction(FileReferenceList list) {
+		propertiesChanged();
 		reaction = list;
 	}
 
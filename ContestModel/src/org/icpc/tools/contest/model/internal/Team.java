@@ -87,6 +87,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setDisplayName(String name) {
+		propertiesChanged();
 		displayName = name;
 	}
 
@@ -108,6 +109,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setLocation(double x, double y, double rotation) {
+		propertiesChanged();
 		this.x = x;
 		this.y = y;
 		this.rotation = rotation;
@@ -134,6 +136,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setPhoto(FileReferenceList list) {
+		propertiesChanged();
 		photo = list;
 	}
 
@@ -173,6 +176,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setBackup(FileReferenceList list) {
+		propertiesChanged();
 		backup = list;
 	}
 
@@ -192,6 +196,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setKeyLog(FileReferenceList list) {
+		propertiesChanged();
 		keylog = list;
 	}
 
@@ -211,10 +216,12 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setToolData(FileReferenceList list) {
+		propertiesChanged();
 		tooldata = list;
 	}
 
 	public void setVideo(FileReferenceList list) {
+		propertiesChanged();
 		video = list;
 	}
 
@@ -239,6 +246,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setDesktop(FileReferenceList list) {
+		propertiesChanged();
 		desktop = list;
 	}
 
@@ -263,6 +271,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setWebcam(FileReferenceList list) {
+		propertiesChanged();
 		webcam = list;
 	}
 
@@ -287,6 +296,7 @@ public class Team extends ContestObject implements ITeam {
 	}
 
 	public void setAudio(FileReferenceList list) {
+		propertiesChanged();
 		audio = list;
 	}
 
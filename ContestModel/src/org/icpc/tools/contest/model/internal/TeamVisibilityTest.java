@@ -0,0 +1,167 @@
+package org.icpc.tools.contest.model.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class TeamVisibilityTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 20;
+	private static final int NUM_GROUPS = 4;
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	private static Team createTeam(int i, String groupId, boolean hidden) {
+		Team t = create(new Team(), "id", "" + i, "label", "" + i, "name", "Team " + i, "group_ids",
+				new Object[] { groupId });
+		if (hidden)
+			t.add("hidden", "true");
+		return t;
+	}
+
+	private static Group createGroup(int i, boolean hidden) {
+		Group g = create(new Group(), "id", "g" + i, "name", "Group " + i);
+		if (hidden)
+			g.add("hidden", "true");
+		return g;
+	}
+
+	private static Contest createContest(Random r) {
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		for (int i = 0; i < 3; i++)
+			c.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i));
+		for (int i = 0; i < NUM_GROUPS; i++)
+			c.add(createGroup(i, false));
+		for (int i = 0; i < NUM_TEAMS; i++)
+			c.add(createTeam(i, "g" + r.nextInt(NUM_GROUPS), false));
+
+		for (int n = 0; n < 100; n++) {
+			long time = n * 150000L;
+			String id = "s" + n;
+			c.add(create(new Submission(), "id", id, "team_id", "" + r.nextInt(NUM_TEAMS), "problem_id",
+					"p" + r.nextInt(3), "language_id", "java", "contest_time", RelativeTime.format(time)));
+			c.add(create(new Judgement(), "id", "j" + id, "submission_id", id, "judgement_type_id",
+					r.nextInt(3) == 0 ? "AC" : "WA", "start_contest_time", RelativeTime.format(time + 1000),
+					"start_time", Timestamp.format(START + time + 1000)));
+		}
+		return c;
+	}
+
+	/**
+	 * The visibility and scoreboard of the contest, including first to solve.
+	 */
+	private static List<String> describe(Contest c) {
+		List<String> list = new ArrayList<>();
+		for (ITeam t : c.getTeams())
+			list.add(t.getId() + " " + c.isTeamHidden(t));
+		for (ITeam t : c.getOrderedTeams()) {
+			StringBuilder sb = new StringBuilder(t.getId() + " " + c.getStanding(t));
+			for (int i = 0; i < c.getNumProblems(); i++) {
+				IResult r = c.getResult(t, i);
+				sb.append(" ").append(r).append(r.isFirstToSolve() ? "*" : "");
+			}
+			list.add(sb.toString());
+		}
+		return list;
+	}
+
+	private static Contest rebuild(Contest contest) {
+		Contest c = new Contest(false);
+		for (IContestObject obj : contest.getObjects())
+			c.add(obj);
+		return c;
+	}
+
+	private static int countVisible(Contest c) {
+		int count = 0;
+		for (ITeam t : c.getTeams()) {
+			if (!c.isTeamHidden(t))
+				count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testHideAndUnhide() throws Exception {
+		Random r = new Random(35);
+		Contest contest = createContest(r);
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS);
+
+		int nextTeam = NUM_TEAMS;
+		for (int i = 0; i < 200; i++) {
+			int op = r.nextInt(4);
+			if (op == 0)
+				contest.add(createGroup(r.nextInt(NUM_GROUPS), r.nextBoolean()));
+			else if (op == 1)
+				contest.add(createTeam(r.nextInt(nextTeam), "g" + r.nextInt(NUM_GROUPS), r.nextInt(4) == 0));
+			else if (op == 2)
+				contest.add(createTeam(nextTeam++, "g" + r.nextInt(NUM_GROUPS), r.nextInt(4) == 0));
+			else
+				contest.add(new Deletion("" + r.nextInt(nextTeam), ContestType.TEAM));
+
+			// the cached visibility and scoreboard match a contest built from scratch
+			assertThat(describe(contest)).containsExactlyElementsIn(describe(rebuild(contest))).inOrder();
+
+			int[] visible = contest.getVisibleTeamIndexes();
+			assertThat(visible).hasLength(countVisible(contest));
+			for (int index : visible)
+				assertThat(contest.isTeamHidden(index)).isFalse();
+			assertThat(contest.getOrderedTeams()).hasLength(visible.length);
+		}
+	}
+
+	@Test
+	public void testVisibleCounts() throws Exception {
+		Contest contest = createContest(new Random(35));
+		for (int i = 0; i < NUM_TEAMS; i++)
+			contest.add(createTeam(i, "g" + (i % NUM_GROUPS), false));
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS);
+
+		// a hidden group hides its teams
+		contest.add(createGroup(0, true));
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS - 5);
+
+		// as does the team hidden flag
+		contest.add(createTeam(1, "g1", true));
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS - 6);
+		assertThat(contest.isTeamHidden(contest.getTeamById("1"))).isTrue();
+
+		// new teams are visible unless their group is hidden
+		contest.add(createTeam(NUM_TEAMS, "g2", false));
+		contest.add(createTeam(NUM_TEAMS + 1, "g0", false));
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS - 5);
+
+		// unhiding the group shows everyone but the hidden team
+		contest.add(createGroup(0, false));
+		assertThat(contest.getVisibleTeamIndexes()).hasLength(NUM_TEAMS + 1);
+		assertThat(contest.getOrderedTeams()).hasLength(NUM_TEAMS + 1);
+
+		// a team that isn't in the contest is checked directly
+		Team t = createTeam(2, "g2", true);
+		assertThat(contest.isTeamHidden(t)).isTrue();
+		assertThat(contest.isTeamHidden(contest.getTeamById("2"))).isFalse();
+		assertThat(contest.isTeamHidden(-1)).isTrue();
+		assertThat(contest.isTeamHidden(NUM_TEAMS + 2)).isTrue();
+	}
+}
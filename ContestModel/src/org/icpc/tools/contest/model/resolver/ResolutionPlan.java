@@ -0,0 +1,727 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IAward;
+import org.icpc.tools.contest.model.IProblem;
+import org.icpc.tools.contest.model.IProblemSummary;
+import org.icpc.tools.contest.model.IResolveInfo.PredeterminedStep;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.Standing;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.AwardStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ContestStateStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.DelayStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.DelayType;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ListAwardStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.PauseStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.PresentationStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ResolutionStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ScrollStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ScrollTeamListStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.SubmissionSelectionStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.SubmissionSelectionStep2;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.TeamSelectionStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ToJudgeStep;
+
+/**
+ * A compact binary form of a full resolution, so that it can be computed once (e.g. on the CDS)
+ * and shared by every resolver client.
+ *
+ * The plan contains the teams and problems it was resolved with, the order that submissions were
+ * resolved in, and every step. Contest objects are referenced by id, and scoreboard states only
+ * contain the teams that changed since the previous state. All strings are written once to a table
+ * at the start of the plan and referenced by index.
+ */
+class ResolutionPlan {
+	private static final int MAGIC = 0x49435052; // ICPR
+	private static final int VERSION = 2;
+
+	private static final byte PRESENTATION = 0;
+	private static final byte PAUSE = 1;
+	private static final byte DELAY = 2;
+	private static final byte CONTEST_STATE = 3;
+	private static final byte TEAM_SELECTION = 4;
+	private static final byte SUBMISSION_SELECTION = 5;
+	private static final byte SUBMISSION_SELECTION2 = 6;
+	private static final byte TO_JUDGE = 7;
+	private static final byte AWARD = 8;
+	private static final byte LIST_AWARD = 9;
+	private static final byte SCROLL = 10;
+	private static final byte SCROLL_TEAM_LIST = 11;
+
+	private static final byte ROW_CHANGED = 1;
+	private static final byte STANDING_CHANGED = 2;
+
+	private static class PlanResult implements IResult {
+		private final Status status;
+		private final int numPending;
+		private final int numJudged;
+		private final long time;
+		private final long penalty;
+		private final double score;
+		private final boolean isFTS;
+
+		protected PlanResult(Status status, int numPending, int numJudged, long time, long penalty, double score,
+				boolean isFTS) {
+			this.status = status;
+			this.numPending = numPending;
+			this.numJudged = numJudged;
+			this.time = time;
+			this.penalty = penalty;
+			this.score = score;
+			this.isFTS = isFTS;
+		}
+
+		@Override
+		public int getNumSubmissions() {
+			return numPending + numJudged;
+		}
+
+		@Override
+		public int getNumPending() {
+			return numPending;
+		}
+
+		@Override
+		public int getNumJudged() {
+			return numJudged;
+		}
+
+		@Override
+		public boolean isFirstToSolve() {
+			return isFTS;
+		}
+
+		@Override
+		public long getContestTime() {
+			return time;
+		}
+
+		@Override
+		public long getPenaltyTime() {
+			return penalty;
+		}
+
+		@Override
+		public double getScore() {
+			return score;
+		}
+
+		@Override
+		public Status getStatus() {
+			return status;
+		}
+
+		@Override
+		public String toString() {
+			return "Result [" + getStatus() + ", " + getNumSubmissions() + ", " + getContestTime() + "]";
+		}
+	}
+
+	private static class PlanProblemSummary implements IProblemSummary {
+		private final int numPending;
+		private final long pendingTime;
+		private final int numFailed;
+		private final long failedTime;
+		private final int numSolved;
+		private final long solvedTime;
+		private final int numSubmissions;
+
+		protected PlanProblemSummary(int numPending, long pendingTime, int numFailed, long failedTime, int numSolved,
+				long solvedTime, int numSubmissions) {
+			this.numPending = numPending;
+			this.pendingTime = pendingTime;
+			this.numFailed = numFailed;
+			this.failedTime = failedTime;
+			this.numSolved = numSolved;
+			this.solvedTime = solvedTime;
+			this.numSubmissions = numSubmissions;
+		}
+
+		@Override
+		public int getNumPending() {
+			return numPending;
+		}
+
+		@Override
+		public long getPendingContestTime() {
+			return pendingTime;
+		}
+
+		@Override
+		public int getNumFailed() {
+			return numFailed;
+		}
+
+		@Override
+		public long getFailedContestTime() {
+			return failedTime;
+		}
+
+		@Override
+		public int getNumSolved() {
+			return numSolved;
+		}
+
+		@Override
+		public long getSolvedContestTime() {
+			return solvedTime;
+		}
+
+		@Override
+		public int getNumSubmissions() {
+			return numSubmissions;
+		}
+	}
+
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	private DataOutputStream out;
+	private ScoreboardState lastState;
+
+	private ByteBuffer in;
+	private String[] stringTable;
+	private Contest finalContest;
+	private ScoreboardState.Timeline timeline;
+
+	private ResolutionPlan() {
+		// use write() or read()
+	}
+
+	/**
+	 * Write the given resolution.
+	 *
+	 * @param os the output stream
+	 * @param steps the resolution steps
+	 * @param timeline the timeline the steps were resolved with
+	 * @param startWithJudgeQueue true if the resolution started with the judge queue
+	 * @param projections true if the steps include standings projections
+	 * @param singleStepRow the row single-stepping started on
+	 * @param predeterminedSteps the predetermined steps that were resolved first
+	 * @throws IOException
+	 */
+	protected static void write(OutputStream os, List<ResolutionStep> steps, ScoreboardState.Timeline timeline,
+			boolean startWithJudgeQueue, boolean projections, int singleStepRow,
+			List<PredeterminedStep> predeterminedSteps) throws IOException {
+		ResolutionPlan plan = new ResolutionPlan();
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		plan.out = new DataOutputStream(bout);
+		plan.writeBody(steps, timeline);
+		plan.out.flush();
+
+		DataOutputStream dout = new DataOutputStream(os);
+		dout.writeInt(MAGIC);
+		dout.writeInt(VERSION);
+		dout.writeBoolean(startWithJudgeQueue);
+		dout.writeBoolean(projections);
+		dout.writeInt(singleStepRow);
+		dout.writeInt(predeterminedSteps.size());
+		for (PredeterminedStep ps : predeterminedSteps) {
+			writeUTF8(dout, String.valueOf(ps.teamLabel));
+			writeUTF8(dout, String.valueOf(ps.problemLabel));
+		}
+		dout.writeInt(plan.strings.size());
+		for (String s : plan.strings)
+			writeUTF8(dout, s);
+		bout.writeTo(dout);
+		dout.flush();
+	}
+
+	/**
+	 * Read a resolution. The plan must have been resolved with the same teams and problems as the
+	 * given timeline, and with the same options.
+	 *
+	 * @param buf the plan
+	 * @param timeline the timeline to resolve with
+	 * @param finalContest the final contest
+	 * @param startWithJudgeQueue true if the resolution should start with the judge queue
+	 * @param projections true if standings projections are required
+	 * @param singleStepRow the row single-stepping should start on
+	 * @param predeterminedSteps the predetermined steps that should be resolved first
+	 * @return the resolution steps
+	 * @throws IOException if the plan is invalid or does not match
+	 */
+	protected static List<ResolutionStep> read(ByteBuffer buf, ScoreboardState.Timeline timeline,
+			Contest finalContest, boolean startWithJudgeQueue, boolean projections, int singleStepRow,
+			List<PredeterminedStep> predeterminedSteps) throws IOException {
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION)
+				throw new IOException("Not a resolution plan");
+
+			boolean planJudgeQueue = buf.get() != 0;
+			boolean planProjections = buf.get() != 0;
+			if (planJudgeQueue != startWithJudgeQueue)
+				throw new IOException("Resolution plan has different judge queue option");
+			if (projections && !planProjections)
+				throw new IOException("Resolution plan has no standings projections");
+			if (buf.getInt() != singleStepRow)
+				throw new IOException("Resolution plan has different single step row");
+
+			int numSteps = buf.getInt();
+			boolean sameSteps = numSteps == predeterminedSteps.size();
+			for (int i = 0; i < numSteps; i++) {
+				String teamLabel = readUTF8(buf);
+				String problemLabel = readUTF8(buf);
+				if (sameSteps) {
+					PredeterminedStep ps = predeterminedSteps.get(i);
+					sameSteps = teamLabel.equals(String.valueOf(ps.teamLabel))
+							&& problemLabel.equals(String.valueOf(ps.problemLabel));
+				}
+			}
+			if (!sameSteps)
+				throw new IOException("Resolution plan has different predetermined steps");
+
+			ResolutionPlan plan = new ResolutionPlan();
+			plan.in = buf;
+			plan.timeline = timeline;
+			plan.finalContest = finalContest;
+
+			int n = buf.getInt();
+			plan.stringTable = new String[n];
+			for (int i = 0; i < n; i++)
+				plan.stringTable[i] = readUTF8(buf);
+			return plan.readBody();
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+				| NegativeArraySizeException e) {
+			throw new IOException("Invalid resolution plan", e);
+		}
+	}
+
+	private static void writeUTF8(DataOutputStream dout, String s) throws IOException {
+		byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		dout.writeInt(b.length);
+		dout.write(b);
+	}
+
+	private static String readUTF8(ByteBuffer buf) {
+		byte[] b = new byte[buf.getInt()];
+		buf.get(b);
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private void writeString(String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		Integer index = stringIndexes.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.add(s);
+			stringIndexes.put(s, index);
+		}
+		out.writeInt(index);
+	}
+
+	private String readString() {
+		int index = in.getInt();
+		if (index < 0)
+			return null;
+		return stringTable[index];
+	}
+
+	private void writeStrings(String[] s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(s.length);
+		for (String ss : s)
+			writeString(ss);
+	}
+
+	private String[] readStrings() {
+		int n = in.getInt();
+		if (n < 0)
+			return null;
+
+		String[] s = new String[n];
+		for (int i = 0; i < n; i++)
+			s[i] = readString();
+		return s;
+	}
+
+	private ITeam readTeam() throws IOException {
+		String id = readString();
+		if (id == null)
+			return null;
+
+		ITeam team = finalContest.getTeamById(id);
+		if (team == null)
+			throw new IOException("Resolution plan refers to unknown team " + id);
+		return team;
+	}
+
+	private IAward readAward() throws IOException {
+		String id = readString();
+		IAward award = finalContest.getAwardById(id);
+		if (award == null)
+			throw new IOException("Resolution plan refers to unknown award " + id);
+		return award;
+	}
+
+	private void writeBody(List<ResolutionStep> steps, ScoreboardState.Timeline tl) throws IOException {
+		// the shape of the contest
+		Contest contest = tl.startContest;
+		ITeam[] teams = contest.getTeams();
+		out.writeInt(teams.length);
+		for (ITeam team : teams)
+			writeString(team.getId());
+
+		IProblem[] problems = contest.getProblems();
+		out.writeInt(problems.length);
+		for (IProblem problem : problems)
+			writeString(problem.getId());
+
+		// the order submissions were resolved in
+		String[] resolved = tl.getResolved();
+		out.writeInt(resolved.length);
+		for (String id : resolved)
+			writeString(id);
+
+		out.writeInt(steps.size());
+		for (ResolutionStep step : steps)
+			writeStep(step);
+	}
+
+	private List<ResolutionStep> readBody() throws IOException {
+		Contest contest = timeline.startContest;
+		ITeam[] teams = contest.getTeams();
+		int numTeams = in.getInt();
+		if (numTeams != teams.length)
+			throw new IOException("Resolution plan has different teams");
+		for (int i = 0; i < numTeams; i++) {
+			if (!teams[i].getId().equals(readString()))
+				throw new IOException("Resolution plan has different teams");
+		}
+
+		IProblem[] problems = contest.getProblems();
+		int numProblems = in.getInt();
+		if (numProblems != problems.length)
+			throw new IOException("Resolution plan has different problems");
+		for (int i = 0; i < numProblems; i++) {
+			if (!problems[i].getId().equals(readString()))
+				throw new IOException("Resolution plan has different problems");
+		}
+
+		int numResolved = in.getInt();
+		for (int i = 0; i < numResolved; i++) {
+			String id = readString();
+			ISubmission s = contest.getSubmissionById(id);
+			if (s == null || contest.isJudged(s))
+				throw new IOException("Resolution plan resolves unknown submission " + id);
+			timeline.resolve(id);
+		}
+
+		int n = in.getInt();
+		List<ResolutionStep> steps = new ArrayList<>(n);
+		for (int i = 0; i < n; i++)
+			steps.add(readStep(numTeams, numProblems));
+		return steps;
+	}
+
+	private void writeStep(ResolutionStep step) throws IOException {
+		if (step instanceof PresentationStep) {
+			out.writeByte(PRESENTATION);
+			out.writeByte(((PresentationStep) step).p.ordinal());
+		} else if (step instanceof PauseStep) {
+			out.writeByte(PAUSE);
+			out.writeInt(((PauseStep) step).num);
+		} else if (step instanceof DelayStep) {
+			out.writeByte(DELAY);
+			out.writeByte(((DelayStep) step).type.ordinal());
+		} else if (step instanceof ContestStateStep) {
+			out.writeByte(CONTEST_STATE);
+			writeState(((ContestStateStep) step).state);
+		} else if (step instanceof TeamSelectionStep) {
+			TeamSelectionStep tss = (TeamSelectionStep) step;
+			out.writeByte(TEAM_SELECTION);
+			out.writeByte(tss.type == null ? -1 : tss.type.ordinal());
+			if (tss.teams == null)
+				out.writeInt(-1);
+			else {
+				out.writeInt(tss.teams.size());
+				for (ITeam team : tss.teams)
+					writeString(team == null ? null : team.getId());
+			}
+		} else if (step instanceof SubmissionSelectionStep) {
+			out.writeByte(SUBMISSION_SELECTION);
+			writeSubmissionInfo(((SubmissionSelectionStep) step).subInfo);
+		} else if (step instanceof SubmissionSelectionStep2) {
+			out.writeByte(SUBMISSION_SELECTION2);
+			writeString(((SubmissionSelectionStep2) step).submissionId);
+		} else if (step instanceof ToJudgeStep) {
+			out.writeByte(TO_JUDGE);
+			writeStrings(((ToJudgeStep) step).submissionIds);
+		} else if (step instanceof AwardStep) {
+			AwardStep as = (AwardStep) step;
+			out.writeByte(AWARD);
+			writeString(as.teamId);
+			out.writeInt(as.awards.size());
+			for (IAward award : as.awards)
+				writeString(award.getId());
+		} else if (step instanceof ListAwardStep) {
+			ListAwardStep las = (ListAwardStep) step;
+			out.writeByte(LIST_AWARD);
+			writeString(las.award.getId());
+			out.writeInt(las.teams.length);
+			for (ITeam team : las.teams)
+				writeString(team == null ? null : team.getId());
+			out.writeInt(las.selections.size());
+			for (String teamId : las.selections.keySet()) {
+				writeString(teamId);
+				out.writeByte(las.selections.get(teamId).ordinal());
+			}
+			out.writeBoolean(las.photos);
+			out.writeBoolean(las.after);
+		} else if (step instanceof ScrollStep) {
+			out.writeByte(SCROLL);
+			out.writeInt(((ScrollStep) step).row);
+		} else if (step instanceof ScrollTeamListStep) {
+			out.writeByte(SCROLL_TEAM_LIST);
+			out.writeBoolean(((ScrollTeamListStep) step).top);
+		} else
+			throw new IOException("Unknown resolution step " + step);
+	}
+
+	private ResolutionStep readStep(int numTeams, int numProblems) throws IOException {
+		byte type = in.get();
+		switch (type) {
+			case PRESENTATION:
+				return new PresentationStep(PresentationStep.Presentations.values()[in.get()]);
+			case PAUSE: {
+				PauseStep ps = new PauseStep();
+				ps.num = in.getInt();
+				return ps;
+			}
+			case DELAY:
+				return new DelayStep(DelayType.values()[in.get()]);
+			case CONTEST_STATE:
+				return new ContestStateStep(readState(numTeams, numProblems));
+			case TEAM_SELECTION: {
+				TeamSelectionStep tss = new TeamSelectionStep();
+				byte st = in.get();
+				if (st >= 0)
+					tss.type = SelectType.values()[st];
+				int n = in.getInt();
+				if (n >= 0) {
+					tss.teams = new ArrayList<>(n);
+					for (int i = 0; i < n; i++)
+						tss.teams.add(readTeam());
+				}
+				return tss;
+			}
+			case SUBMISSION_SELECTION:
+				return new SubmissionSelectionStep(readSubmissionInfo());
+			case SUBMISSION_SELECTION2:
+				return new SubmissionSelectionStep2(readString());
+			case TO_JUDGE:
+				return new ToJudgeStep(readStrings());
+			case AWARD: {
+				String teamId = readString();
+				int n = in.getInt();
+				List<IAward> awards = new ArrayList<>(n);
+				for (int i = 0; i < n; i++)
+					awards.add(readAward());
+				return new AwardStep(teamId, awards);
+			}
+			case LIST_AWARD: {
+				IAward award = readAward();
+				ITeam[] teams = new ITeam[in.getInt()];
+				for (int i = 0; i < teams.length; i++)
+					teams[i] = readTeam();
+				int n = in.getInt();
+				Map<String, SelectType> selections = new HashMap<>();
+				for (int i = 0; i < n; i++) {
+					String teamId = readString();
+					selections.put(teamId, SelectType.values()[in.get()]);
+				}
+				boolean photos = in.get() != 0;
+				boolean after = in.get() != 0;
+				return new ListAwardStep(award, teams, selections, photos, after);
+			}
+			case SCROLL:
+				return new ScrollStep(in.getInt());
+			case SCROLL_TEAM_LIST:
+				return new ScrollTeamListStep(in.get() != 0);
+			default:
+				throw new IOException("Unknown resolution step type " + type);
+		}
+	}
+
+	private void writeState(ScoreboardState state) throws IOException {
+		ScoreboardState previous = lastState;
+		lastState = state;
+
+		out.writeInt(state.numResolved);
+		int numTeams = state.results.length;
+		for (int i = 0; i < numTeams; i++) {
+			byte changed = 0;
+			if (previous == null || previous.results[i] != state.results[i])
+				changed |= ROW_CHANGED;
+			if (previous == null || previous.standings[i] != state.standings[i])
+				changed |= STANDING_CHANGED;
+			out.writeByte(changed);
+
+			if ((changed & ROW_CHANGED) != 0) {
+				for (IResult r : state.results[i]) {
+					out.writeByte(r.getStatus().ordinal());
+					out.writeInt(r.getNumPending());
+					out.writeInt(r.getNumJudged());
+					out.writeLong(r.getContestTime());
+					out.writeLong(r.getPenaltyTime());
+					out.writeDouble(r.getScore());
+					out.writeBoolean(r.isFirstToSolve());
+				}
+			}
+			if ((changed & STANDING_CHANGED) != 0)
+				writeStanding(state.standings[i]);
+		}
+
+		for (IProblemSummary ps : state.summaries) {
+			out.writeInt(ps.getNumPending());
+			out.writeLong(ps.getPendingContestTime());
+			out.writeInt(ps.getNumFailed());
+			out.writeLong(ps.getFailedContestTime());
+			out.writeInt(ps.getNumSolved());
+			out.writeLong(ps.getSolvedContestTime());
+			out.writeInt(ps.getNumSubmissions());
+		}
+
+		boolean orderChanged = previous == null || previous.order != state.order;
+		out.writeBoolean(orderChanged);
+		if (orderChanged) {
+			for (int i : state.order)
+				out.writeInt(i);
+		}
+	}
+
+	private ScoreboardState readState(int numTeams, int numProblems) {
+		ScoreboardState previous = lastState;
+
+		int numResolved = in.getInt();
+		IResult[][] results = new IResult[numTeams][];
+		IStanding[] standings = new IStanding[numTeams];
+		for (int i = 0; i < numTeams; i++) {
+			byte changed = in.get();
+			if ((changed & ROW_CHANGED) != 0) {
+				IResult[] row = new IResult[numProblems];
+				for (int j = 0; j < numProblems; j++)
+					row[j] = new PlanResult(Status.values()[in.get()], in.getInt(), in.getInt(), in.getLong(), in.getLong(),
+							in.getDouble(), in.get() != 0);
+				results[i] = row;
+			} else
+				results[i] = previous.results[i];
+
+			if ((changed & STANDING_CHANGED) != 0)
+				standings[i] = readStanding();
+			else
+				standings[i] = previous.standings[i];
+		}
+
+		IProblemSummary[] summaries = new IProblemSummary[numProblems];
+		for (int j = 0; j < numProblems; j++)
+			summaries[j] = new PlanProblemSummary(in.getInt(), in.getLong(), in.getInt(), in.getLong(), in.getInt(),
+					in.getLong(), in.getInt());
+
+		int[] order;
+		if (in.get() != 0) {
+			order = new int[numTeams];
+			for (int i = 0; i < numTeams; i++)
+				order[i] = in.getInt();
+		} else
+			order = previous.order;
+
+		lastState = new ScoreboardState(timeline, numResolved, results, standings, summaries, order);
+		return lastState;
+	}
+
+	private void writeStanding(IStanding s) throws IOException {
+		out.writeInt(s.getNumSolved());
+		out.writeLong(s.getTime());
+		out.writeLong(s.getLastSolutionTime());
+		out.writeDouble(s.getScore());
+		writeString(s.getRank());
+	}
+
+	private IStanding readStanding() {
+		Standing s = new Standing();
+		int numSolved = in.getInt();
+		long penalty = in.getLong();
+		long lastSolution = in.getLong();
+		double score = in.getDouble();
+		s.init(numSolved, penalty, score, lastSolution);
+		s.setRank(readString());
+		return s;
+	}
+
+	private void writeStandings(IStanding[] standings) throws IOException {
+		if (standings == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(standings.length);
+		for (IStanding s : standings) {
+			out.writeBoolean(s != null);
+			if (s != null)
+				writeStanding(s);
+		}
+	}
+
+	private IStanding[] readStandings() {
+		int n = in.getInt();
+		if (n < 0)
+			return null;
+
+		IStanding[] standings = new IStanding[n];
+		for (int i = 0; i < n; i++) {
+			if (in.get() != 0)
+				standings[i] = readStanding();
+		}
+		return standings;
+	}
+
+	private void writeSubmissionInfo(SubmissionInfo info) throws IOException {
+		if (info == null) {
+			writeString(null);
+			return;
+		}
+
+		writeString(info.getTeam().getId());
+		out.writeInt(info.getProblemIndex());
+		writeStandings(info.getStandingIfSolved());
+		writeStandings(info.getStandingBestCase());
+		writeStandings(info.getStandingWorstCase());
+	}
+
+	private SubmissionInfo readSubmissionInfo() throws IOException {
+		ITeam team = readTeam();
+		if (team == null)
+			return null;
+
+		SubmissionInfo info = new SubmissionInfo(team, in.getInt());
+		IStanding[] ifSolved = readStandings();
+		IStanding[] bestCase = readStandings();
+		IStanding[] worstCase = readStandings();
+		info.setPossibleStandings(ifSolved, bestCase, worstCase);
+		return info;
+	}
+}
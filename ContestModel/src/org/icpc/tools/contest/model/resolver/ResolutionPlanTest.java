@@ -0,0 +1,217 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.ResolveInfo;
+import org.icpc.tools.contest.model.internal.State;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ContestStateStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ResolutionStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.SubmissionSelectionStep;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class ResolutionPlanTest {
+	private static final int NUM_TEAMS = 20;
+	private static final int NUM_PROBLEMS = 6;
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	/**
+	 * A finished contest with random submissions, some of them in the freeze.
+	 */
+	private static Contest createContest() {
+		Random r = new Random(34);
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00",
+				"scoreboard_freeze_duration", "1:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		for (int i = 0; i < NUM_PROBLEMS; i++)
+			c.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i));
+		for (int i = 0; i < NUM_TEAMS; i++)
+			c.add(create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i));
+
+		long[] times = new long[300];
+		for (int i = 0; i < times.length; i++)
+			times[i] = (long) (r.nextDouble() * 5 * 3600000L);
+		Arrays.sort(times);
+
+		boolean[][] solved = new boolean[NUM_TEAMS][NUM_PROBLEMS];
+		int n = 0;
+		for (long time : times) {
+			int t = r.nextInt(NUM_TEAMS);
+			int p = r.nextInt(NUM_PROBLEMS);
+			if (solved[t][p])
+				continue;
+
+			String id = "s" + n++;
+			c.add(create(new Submission(), "id", id, "team_id", "" + (t + 1), "problem_id", "p" + p, "language_id",
+					"java", "contest_time", RelativeTime.format(time)));
+			solved[t][p] = r.nextInt(3) == 0;
+			c.add(create(new Judgement(), "id", "j" + id, "submission_id", id, "judgement_type_id",
+					solved[t][p] ? "AC" : "WA", "start_contest_time", RelativeTime.format(time + 1000),
+					"start_time", Timestamp.format(START + time + 1000), "end_contest_time",
+					RelativeTime.format(time + 5000), "end_time", Timestamp.format(START + time + 5000)));
+		}
+		c.add(create(new State(), "started", "2020-01-01T10:00:00Z", "ended", "2020-01-01T15:00:00Z"));
+		return c;
+	}
+
+	private static void describe(StringBuilder sb, IStanding[] standings) {
+		if (standings == null) {
+			sb.append(" -");
+			return;
+		}
+		for (IStanding s : standings)
+			sb.append(" ").append(s);
+	}
+
+	/**
+	 * A description of the steps, including every scoreboard state and projection.
+	 */
+	private static List<String> describe(List<ResolutionStep> steps) {
+		List<String> list = new ArrayList<>();
+		for (ResolutionStep step : steps) {
+			StringBuilder sb = new StringBuilder(step.toString());
+			if (step instanceof ContestStateStep) {
+				Contest c = ((ContestStateStep) step).getContest();
+				for (ITeam t : c.getOrderedTeams()) {
+					sb.append(" ").append(t.getId()).append(c.getStanding(t));
+					for (int i = 0; i < c.getNumProblems(); i++) {
+						IResult r = c.getResult(t, i);
+						sb.append(r).append(r.isFirstToSolve() ? "*" : "");
+					}
+				}
+			} else if (step instanceof SubmissionSelectionStep) {
+				SubmissionInfo info = ((SubmissionSelectionStep) step).subInfo;
+				if (info != null) {
+					describe(sb, info.getStandingIfSolved());
+					describe(sb, info.getStandingBestCase());
+					describe(sb, info.getStandingWorstCase());
+				}
+			}
+			list.add(sb.toString());
+		}
+		return list;
+	}
+
+	private static byte[] writePlan(Contest contest, boolean projections) throws IOException {
+		ResolverLogic logic = new ResolverLogic(contest, projections);
+		logic.resolveFrom(false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		logic.writePlan(out);
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Contest contest = createContest();
+		ResolverLogic logic = new ResolverLogic(contest, true);
+		List<ResolutionStep> steps = logic.resolveFrom(false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		logic.writePlan(out);
+
+		List<ResolutionStep> steps2 = new ResolverLogic(contest, true)
+				.readPlan(ByteBuffer.wrap(out.toByteArray()), false);
+		assertThat(describe(steps2)).containsExactlyElementsIn(describe(steps)).inOrder();
+	}
+
+	@Test
+	public void testNoProjections() throws Exception {
+		Contest contest = createContest();
+		byte[] b = writePlan(contest, false);
+
+		// fine for clients that don't need projections
+		assertThat(new ResolverLogic(contest, false).readPlan(ByteBuffer.wrap(b), false)).isNotEmpty();
+
+		try {
+			new ResolverLogic(contest, true).readPlan(ByteBuffer.wrap(b), false);
+			fail("Plan without projections should be rejected");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().contains("projections");
+		}
+	}
+
+	@Test
+	public void testDifferentOptions() throws Exception {
+		Contest contest = createContest();
+		byte[] b = writePlan(contest, false);
+		try {
+			new ResolverLogic(contest, false).readPlan(ByteBuffer.wrap(b), true);
+			fail("Plan with different options should be rejected");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().contains("judge queue");
+		}
+	}
+
+	@Test
+	public void testDifferentSingleStepRow() throws Exception {
+		Contest contest = createContest();
+		byte[] b = writePlan(contest, false);
+
+		ResolveInfo resolveInfo = new ResolveInfo();
+		resolveInfo.setSingleStepRow(3);
+		contest.add(resolveInfo);
+		try {
+			new ResolverLogic(contest, false).readPlan(ByteBuffer.wrap(b), false);
+			fail("Plan with different single step row should be rejected");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().contains("single step");
+		}
+	}
+
+	@Test
+	public void testCorruptHeader() throws Exception {
+		Contest contest = createContest();
+		byte[] b = writePlan(contest, false);
+		b[0] ^= 0xFF;
+		try {
+			new ResolverLogic(contest, false).readPlan(ByteBuffer.wrap(b), false);
+			fail("Corrupt plan should be rejected");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().isEqualTo("Not a resolution plan");
+		}
+	}
+
+	@Test
+	public void testTruncated() throws Exception {
+		Contest contest = createContest();
+		byte[] b = writePlan(contest, false);
+		try {
+			new ResolverLogic(contest, false).readPlan(ByteBuffer.wrap(b, 0, b.length / 2), false);
+			fail("Truncated plan should be rejected");
+		} catch (IOException e) {
+			assertThat(e).hasMessageThat().isEqualTo("Invalid resolution plan");
+		}
+	}
+}
@@ -68,10 +68,17 @@ public class ResolutionUtil {
 	}
 
 	public static class ContestStateStep implements ResolutionStep {
-		public Contest contest;
+		public ScoreboardState state;
 
-		public ContestStateStep(Contest contest) {
-			this.contest = contest;
+		public ContestStateStep(ScoreboardState state) {
+			this.state = state;
+		}
+
+		/**
+		 * Returns a read-only contest showing the scoreboard at this step.
+		 */
+		public Contest getContest() {
+			return state.getContest();
 		}
 
 		@Override
@@ -1,9 +1,14 @@
 package org.icpc.tools.contest.model.resolver;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.FreezeFilter;
@@ -104,6 +109,7 @@ public class ResolverLogic {
 	// which row to start single-stepping on
 	private int singleStepStartRow = -1;
 	private boolean calculateProjections;
+	private boolean startWithJudgeQueue;
 
 	// map from all the teamIds getting an award to the list of awards they're getting
 	private Map<String, List<IAward>> awards = new HashMap<>();
@@ -114,6 +120,13 @@ public class ResolverLogic {
 	private Contest contest;
 	private Contest finalContest;
 
+	// the scoreboard at each step is captured as a compact state instead of a contest clone
+	private ScoreboardState.Timeline timeline;
+	private ScoreboardState lastState;
+
+	// standings projections running in the background
+	private List<ForkJoinTask<?>> projections = new ArrayList<>();
+
 	private List<PredeterminedStep> predeterminedSteps = new ArrayList<>();
 
 	public ResolverLogic(Contest contest, boolean calculateProjections) {
@@ -195,15 +208,14 @@ public class ResolverLogic {
 		}
 		Trace.trace(Trace.USER, contestAwards.length + " awards assigned");
 
-		// revert to start of the freeze
-		contest = finalContest.clone(new FreezeFilter(finalContest));
+		this.startWithJudgeQueue = startWithJudgeQueue;
+		createTimeline();
 
-		// clean up unjudged and non-penalty submissions in the last hour that don't matter and will
-		// mess with resolving
-		cleanOutlierSubmissions();
+		// resolve a single copy of the starting contest
+		contest = contest.clone(false);
 
 		// set the initial state
-		steps.add(new ContestStateStep(contest));
+		steps.add(createStateStep());
 		steps.add(new PresentationStep(PresentationStep.Presentations.SPLASH));
 		steps.add(new PauseStep());
 		steps.add(new TeamSelectionStep());
@@ -226,6 +238,7 @@ public class ResolverLogic {
 
 		// fourth click and beyond: start resolving!
 		resolveEverything(startWithJudgeQueue);
+		waitForProjections();
 
 		ResolutionUtil.numberThePauses(steps);
 
@@ -234,6 +247,57 @@ public class ResolverLogic {
 		return steps;
 	}
 
+	/**
+	 * Revert the contest to the start of the freeze and create the timeline of the resolution.
+	 */
+	private void createTimeline() {
+		// revert to start of the freeze
+		contest = finalContest.cloneView(new FreezeFilter(finalContest));
+
+		// clean up unjudged and non-penalty submissions in the last hour that don't matter and will
+		// mess with resolving
+		cleanOutlierSubmissions();
+
+		// keep the starting contest for the scoreboard states
+		timeline = new ScoreboardState.Timeline(contest, finalContest);
+	}
+
+	/**
+	 * Write the resolution in a compact binary form that can be shared with other resolvers. Must
+	 * be called after resolveFrom().
+	 *
+	 * @param out the output stream
+	 * @throws IOException
+	 */
+	public void writePlan(OutputStream out) throws IOException {
+		if (timeline == null)
+			throw new IllegalStateException("Not resolved");
+
+		ResolutionPlan.write(out, steps, timeline, startWithJudgeQueue, calculateProjections, singleStepStartRow,
+				predeterminedSteps);
+	}
+
+	/**
+	 * Load the resolution steps from a plan written by writePlan() instead of resolving. The plan
+	 * must have been created from the same contest and options.
+	 *
+	 * @param buf the plan
+	 * @param startWithJudgeQueue true to start with the judge queue
+	 * @return the full list of resolution steps
+	 * @throws IOException if the plan is invalid or does not match this contest
+	 */
+	public List<ResolutionStep> readPlan(ByteBuffer buf, boolean startWithJudgeQueue) throws IOException {
+		Trace.trace(Trace.INFO, "Loading resolution plan...");
+
+		this.startWithJudgeQueue = startWithJudgeQueue;
+		createTimeline();
+		steps = ResolutionPlan.read(buf, timeline, finalContest, startWithJudgeQueue, calculateProjections,
+				singleStepStartRow, predeterminedSteps);
+
+		Trace.trace(Trace.USER, "Loaded resolution plan with " + steps.size() + " steps");
+		return steps;
+	}
+
 	protected String getPlace(String place) {
 		try {
 			int n = Integer.parseInt(place);
@@ -286,6 +350,11 @@ public class ResolverLogic {
 		return count;
 	}
 
+	private ContestStateStep createStateStep() {
+		lastState = ScoreboardState.capture(timeline, contest, lastState);
+		return new ContestStateStep(lastState);
+	}
+
 	/**
 	 * Updates the status of the submission referenced by the given SubmissionInfo object to match
 	 * the status of that submission in the "finalContest" -- that is, "resolves" the submission.
@@ -312,10 +381,10 @@ public class ResolverLogic {
 			if (!contest.isJudged(submission) && submission.getTeamId().equals(team.getId())
 					&& submission.getProblemId().equals(contest.getProblems()[problemIndex].getId())) {
 				// we found it; update its status to match the correct (final contest) status
-				contest = contest.clone(false);
+				timeline.resolve(submission.getId());
 				contest.updateSubmissionTo(submission, finalContest);
 
-				steps.add(new ContestStateStep(contest));
+				steps.add(createStateStep());
 				steps.add(new SubmissionSelectionStep2(submission.getId()));
 				timing.onStep(steps, State.SELECT_SUBMISSION);
 
@@ -695,88 +764,28 @@ public class ResolverLogic {
 	 * the team). The analysis results are stored into arrays in the specified SubmissionInfo
 	 * object.
 	 *
+	 * The current scoreboard is captured and the projection runs in the fork-join pool while
+	 * resolving continues; all projections are complete before resolveFrom() returns.
+	 *
 	 * @param resolve The SubmissionInfo object identifying the Team and Problem to be resolved
 	 */
 	private void projectStandings(final SubmissionInfo resolve) {
 		if (!calculateProjections)
 			return;
 
-		projectStandingsImpl(contest.clone(false), resolve);
+		StandingsProjection projection = new StandingsProjection(contest, timeline.startContest, resolve);
+		projections.add(ForkJoinPool.commonPool().submit(() -> projection.project()));
 	}
 
-	private static void projectStandingsImpl(Contest contest, SubmissionInfo resolve) {
-		IStanding currentStanding = contest.getStanding(resolve.getTeam());
-		// what if they solve one?
-		String teamId = resolve.getTeam().getId();
-		ISubmission[] submissions = contest.getSubmissions();
-		int numPendingRuns = 0;
-		boolean otherProblemsPending = false;
-		for (ISubmission submission : submissions) {
-			if (submission.getTeamId().equals(teamId) && !contest.isJudged(submission)) {
-				if (submission.getProblemId().equals(contest.getProblems()[resolve.getProblemIndex()].getId()))
-					numPendingRuns++;
-				else
-					otherProblemsPending = true;
-			}
-		}
-
-		IStanding[] standingIfSolved = new IStanding[numPendingRuns];
-		IStanding[] standingBest = null;
-		if (otherProblemsPending)
-			standingBest = new IStanding[numPendingRuns];
-		IStanding[] standingWorst = new IStanding[numPendingRuns];
-
-		for (int i = 0; i < numPendingRuns; i++) {
-			Contest contestIfSolved = contest.clone(false);
-			submissions = contestIfSolved.getSubmissions();
-
-			int j = 0;
-			for (ISubmission submission : submissions) {
-				if (submission.getTeamId().equals(teamId)
-						&& submission.getProblemId().equals(contestIfSolved.getProblems()[resolve.getProblemIndex()].getId())
-						&& !contest.isJudged(submission)) {
-					if (j == i)
-						contestIfSolved.setSubmissionIsSolved(submission, true);
-					else
-						contestIfSolved.setSubmissionIsSolved(submission, false);
-					j++;
-				}
-			}
-
-			standingIfSolved[i] = contestIfSolved.getStanding(contestIfSolved.getTeamById(teamId));
-
-			// best possible case
-			if (otherProblemsPending) {
-				Contest contestBest = contestIfSolved.clone(false);
-				submissions = contestBest.getSubmissions();
-				for (ISubmission submission : submissions) {
-					if (!contest.isJudged(submission)) {
-						if (submission.getTeamId().equals(teamId))
-							contestBest.setSubmissionIsSolved(submission, true);
-					}
-				}
-
-				standingBest[i] = contestBest.getStanding(contestBest.getTeamById(teamId));
-			}
-
-			// what if they solve this problem but nothing else, and every other team solves all?
-			Contest contestWorst = contestIfSolved.clone(false);
-			submissions = contestWorst.getSubmissions();
-			for (ISubmission submission : submissions) {
-				if (!contest.isJudged(submission)) {
-					if (submission.getTeamId().equals(teamId))
-						contestWorst.setSubmissionIsSolved(submission, false);
-					else
-						contestWorst.setSubmissionIsSolved(submission, true);
-				}
+	private void waitForProjections() {
+		for (ForkJoinTask<?> task : projections) {
+			try {
+				task.join();
+			} catch (Exception e) {
+				Trace.trace(Trace.ERROR, "Error projecting standings", e);
 			}
-
-			IStanding standing = contestWorst.getStanding(contestWorst.getTeamById(teamId));
-			if (!standing.getRank().equals(currentStanding.getRank()))
-				standingWorst[i] = standing;
 		}
-
-		resolve.setPossibleStandings(standingIfSolved, standingBest, standingWorst);
+		projections.clear();
 	}
 
 	/**
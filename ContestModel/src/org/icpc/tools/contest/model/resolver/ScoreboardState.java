@@ -0,0 +1,165 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.icpc.tools.contest.model.IProblemSummary;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.internal.Contest;
+
+/**
+ * A compact snapshot of the scoreboard at one step of the resolution: results, standings, order,
+ * and which pending submissions have been resolved so far. The contest itself is shared between
+ * all steps, and results and standings are copy-on-write per team, so a step only holds the rows
+ * of the teams that changed since the previous step.
+ */
+public class ScoreboardState {
+	/**
+	 * The history shared by all snapshots of one resolution: the contest at the start of the
+	 * resolution, the final contest, and the order that submissions were resolved in.
+	 */
+	protected static class Timeline {
+		protected final Contest startContest;
+		protected final Contest finalContest;
+		private final Map<String, Integer> resolved = new HashMap<>();
+
+		protected Timeline(Contest startContest, Contest finalContest) {
+			this.startContest = startContest;
+			this.finalContest = finalContest;
+		}
+
+		protected void resolve(String submissionId) {
+			if (!resolved.containsKey(submissionId))
+				resolved.put(submissionId, resolved.size());
+		}
+
+		protected int getNumResolved() {
+			return resolved.size();
+		}
+
+		protected boolean isResolved(String submissionId, int numResolved) {
+			Integer in = resolved.get(submissionId);
+			return in != null && in < numResolved;
+		}
+
+		/**
+		 * Returns the ids of the resolved submissions, in the order they were resolved.
+		 */
+		protected String[] getResolved() {
+			String[] ids = new String[resolved.size()];
+			for (Map.Entry<String, Integer> entry : resolved.entrySet())
+				ids[entry.getValue()] = entry.getKey();
+			return ids;
+		}
+	}
+
+	protected final Timeline timeline;
+	protected final int numResolved;
+	protected final IResult[][] results;
+	protected final IStanding[] standings;
+	protected final IProblemSummary[] summaries;
+	protected final int[] order;
+
+	private Contest contest;
+
+	protected ScoreboardState(Timeline timeline, int numResolved, IResult[][] results, IStanding[] standings,
+			IProblemSummary[] summaries, int[] order) {
+		this.timeline = timeline;
+		this.numResolved = numResolved;
+		this.results = results;
+		this.standings = standings;
+		this.summaries = summaries;
+		this.order = order;
+	}
+
+	/**
+	 * Capture the current scoreboard of the given contest, sharing any team rows that have not
+	 * changed since the previous state.
+	 *
+	 * @param timeline the resolution timeline
+	 * @param contest the contest being resolved
+	 * @param previous the previous state, or null
+	 * @return the new state
+	 */
+	protected static ScoreboardState capture(Timeline timeline, Contest contest, ScoreboardState previous) {
+		int numTeams = contest.getNumTeams();
+		int numProblems = contest.getNumProblems();
+
+		IResult[][] results = new IResult[numTeams][];
+		IStanding[] standings = new IStanding[numTeams];
+		for (int i = 0; i < numTeams; i++) {
+			IResult[] row = new IResult[numProblems];
+			for (int j = 0; j < numProblems; j++)
+				row[j] = contest.getResult(i, j);
+
+			IStanding standing = contest.getStanding(i);
+			if (previous != null && i < previous.results.length) {
+				if (isSameRow(row, previous.results[i]))
+					row = previous.results[i];
+				if (isSameStanding(standing, previous.standings[i]))
+					standing = previous.standings[i];
+			}
+			results[i] = row;
+			standings[i] = standing;
+		}
+
+		IProblemSummary[] summaries = new IProblemSummary[numProblems];
+		for (int j = 0; j < numProblems; j++)
+			summaries[j] = contest.getProblemSummary(j);
+
+		int[] order = contest.getOrder();
+		if (previous != null && Arrays.equals(order, previous.order))
+			order = previous.order;
+
+		return new ScoreboardState(timeline, timeline.getNumResolved(), results, standings, summaries, order);
+	}
+
+	private static boolean isSameRow(IResult[] row, IResult[] row2) {
+		if (row2 == null || row.length != row2.length)
+			return false;
+
+		for (int j = 0; j < row.length; j++) {
+			IResult r = row[j];
+			IResult r2 = row2[j];
+			if (r.getStatus() != r2.getStatus() || r.getNumPending() != r2.getNumPending()
+					|| r.getNumJudged() != r2.getNumJudged() || r.getContestTime() != r2.getContestTime()
+					|| r.getPenaltyTime() != r2.getPenaltyTime() || r.getScore() != r2.getScore()
+					|| r.isFirstToSolve() != r2.isFirstToSolve())
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isSameStanding(IStanding s, IStanding s2) {
+		if (s2 == null)
+			return false;
+
+		return s.getNumSolved() == s2.getNumSolved() && s.getTime() == s2.getTime()
+				&& s.getLastSolutionTime() == s2.getLastSolutionTime() && s.getScore() == s2.getScore()
+				&& Objects.equals(s.getRank(), s2.getRank());
+	}
+
+	/**
+	 * Returns the number of pending submissions that have been resolved at this state.
+	 */
+	public int getNumResolved() {
+		return numResolved;
+	}
+
+	/**
+	 * Returns a read-only contest showing the scoreboard at this state.
+	 */
+	public synchronized Contest getContest() {
+		if (contest == null)
+			contest = new ScoreboardStateContest(this);
+		return contest;
+	}
+
+	@Override
+	public String toString() {
+		return "Scoreboard state [" + numResolved + " resolved]";
+	}
+}
@@ -0,0 +1,244 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.IProblemSummary;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.internal.Contest;
+
+/**
+ * A contest that shows one scoreboard state. All contest data is shared with the contest at the
+ * start of the resolution; results, standings, and order come from the state, and submissions that
+ * have been resolved by this state take their judgements from the final contest.
+ *
+ * The contest can still be changed. The first change copies the shared data and adds the
+ * judgements of the resolved submissions to it, and from then on this is a regular contest.
+ */
+public class ScoreboardStateContest extends Contest {
+	private final ScoreboardState state;
+	private IJudgement[] judgements;
+
+	// first-to-solve submission ids, by team and problem index
+	private Map<Integer, String> firstSolutions;
+
+	// true once the shared data has been copied and the state no longer applies
+	private volatile boolean detached;
+
+	protected ScoreboardStateContest(ScoreboardState state) {
+		super(state.timeline.startContest);
+		this.state = state;
+	}
+
+	public ScoreboardState getScoreboardState() {
+		return state;
+	}
+
+	private boolean isResolved(String submissionId) {
+		return state.timeline.isResolved(submissionId, state.numResolved);
+	}
+
+	/**
+	 * Copy the shared data and bring it up to this state by adding the final judgements of every
+	 * submission resolved so far, as the resolver did.
+	 */
+	private synchronized void detach() {
+		if (detached)
+			return;
+
+		copySharedData();
+		detached = true;
+		judgements = null;
+		firstSolutions = null;
+
+		String[] resolved = state.timeline.getResolved();
+		for (int i = 0; i < state.numResolved; i++)
+			updateSubmissionTo(getSubmissionById(resolved[i]), state.timeline.finalContest);
+	}
+
+	@Override
+	public void addDirect(IContestObject obj) {
+		detach();
+		super.addDirect(obj);
+	}
+
+	@Override
+	public void addAll(List<IContestObject> objs) {
+		detach();
+		super.addAll(objs);
+	}
+
+	@Override
+	public void remove(IContestObject obj) {
+		detach();
+		super.remove(obj);
+	}
+
+	@Override
+	public void removeSince(int num) {
+		detach();
+		super.removeSince(num);
+	}
+
+	@Override
+	public void removeFromHistory(IContestObject obj) {
+		detach();
+		super.removeFromHistory(obj);
+	}
+
+	@Override
+	public void removeFromHistory(List<IContestObject> objs) {
+		detach();
+		super.removeFromHistory(objs);
+	}
+
+	@Override
+	public IResult getResult(int teamIndex, int problemIndex) {
+		if (detached)
+			return super.getResult(teamIndex, problemIndex);
+
+		return state.results[teamIndex][problemIndex];
+	}
+
+	@Override
+	public IProblemSummary getProblemSummary(int problemIndex) {
+		if (detached)
+			return super.getProblemSummary(problemIndex);
+
+		return state.summaries[problemIndex];
+	}
+
+	@Override
+	public IStanding getStanding(int teamIndex) {
+		if (detached)
+			return super.getStanding(teamIndex);
+
+		if (teamIndex < 0)
+			return null;
+
+		return state.standings[teamIndex];
+	}
+
+	@Override
+	public int[] getOrder() {
+		if (detached)
+			return super.getOrder();
+
+		return state.order;
+	}
+
+	@Override
+	public boolean isFirstToSolve(ISubmission submission) {
+		if (detached)
+			return super.isFirstToSolve(submission);
+
+		if (submission == null)
+			return false;
+
+		int teamIndex = getTeamIndex(submission.getTeamId());
+		int problemIndex = getProblemIndex(submission.getProblemId());
+		if (teamIndex < 0 || problemIndex < 0 || !getResult(teamIndex, problemIndex).isFirstToSolve())
+			return false;
+
+		String id = getFirstSolutions().get(teamIndex * getNumProblems() + problemIndex);
+		return submission.getId().equals(id);
+	}
+
+	/**
+	 * Returns the first solution of each team and problem that is first to solve in this state.
+	 */
+	private synchronized Map<Integer, String> getFirstSolutions() {
+		if (firstSolutions != null)
+			return firstSolutions;
+
+		int numProblems = getNumProblems();
+		Map<Integer, ISubmission> first = new HashMap<>();
+		for (ISubmission s : getSubmissions()) {
+			int teamIndex = getTeamIndex(s.getTeamId());
+			int problemIndex = getProblemIndex(s.getProblemId());
+			if (teamIndex < 0 || problemIndex < 0 || !getResult(teamIndex, problemIndex).isFirstToSolve()
+					|| !isSolved(s))
+				continue;
+
+			Integer key = teamIndex * numProblems + problemIndex;
+			ISubmission s2 = first.get(key);
+			if (s2 == null || s.getContestTime() < s2.getContestTime())
+				first.put(key, s);
+		}
+
+		Map<Integer, String> map = new HashMap<>();
+		for (Map.Entry<Integer, ISubmission> entry : first.entrySet())
+			map.put(entry.getKey(), entry.getValue().getId());
+		firstSolutions = map;
+		return map;
+	}
+
+	@Override
+	public IJudgement[] getJudgements() {
+		if (detached)
+			return super.getJudgements();
+
+		IJudgement[] temp = judgements;
+		if (temp != null)
+			return temp;
+
+		List<IJudgement> list = new ArrayList<>(Arrays.asList(super.getJudgements()));
+		for (ISubmission s : getSubmissions()) {
+			if (isResolved(s.getId())) {
+				IJudgement[] sjs = state.timeline.finalContest.getJudgementsBySubmissionId(s.getId());
+				if (sjs != null)
+					list.addAll(Arrays.asList(sjs));
+			}
+		}
+		judgements = list.toArray(new IJudgement[0]);
+		return judgements;
+	}
+
+	@Override
+	public IJudgement getJudgementById(String id) {
+		if (detached)
+			return super.getJudgementById(id);
+
+		if (id == null)
+			return null;
+
+		for (IJudgement j : getJudgements()) {
+			if (id.equals(j.getId()))
+				return j;
+		}
+		return null;
+	}
+
+	@Override
+	public IJudgement[] getJudgementsBySubmissionId(String id) {
+		if (!detached && isResolved(id))
+			return state.timeline.finalContest.getJudgementsBySubmissionId(id);
+
+		return super.getJudgementsBySubmissionId(id);
+	}
+
+	@Override
+	public IJudgement getJudgement(ISubmission submission) {
+		if (!detached && submission != null && isResolved(submission.getId()))
+			return state.timeline.finalContest.getJudgement(submission);
+
+		return super.getJudgement(submission);
+	}
+
+	@Override
+	public IJudgementType getJudgementType(ISubmission submission) {
+		if (!detached && submission != null && isResolved(submission.getId()))
+			return state.timeline.finalContest.getJudgementType(submission);
+
+		return super.getJudgementType(submission);
+	}
+}
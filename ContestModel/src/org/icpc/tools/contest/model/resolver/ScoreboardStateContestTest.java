@@ -0,0 +1,162 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Language;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.State;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ContestStateStep;
+import org.icpc.tools.contest.model.resolver.ResolutionUtil.ResolutionStep;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class ScoreboardStateContestTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	/**
+	 * A finished contest with random submissions, including several solutions of the same problem
+	 * by one team.
+	 */
+	private static Contest createContest() {
+		Random r = new Random(31);
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00",
+				"scoreboard_freeze_duration", "1:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		for (int i = 0; i < 4; i++)
+			c.add(create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i));
+		for (int i = 0; i < 12; i++)
+			c.add(create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i));
+
+		for (int n = 0; n < 150; n++) {
+			long time = n * 120000L + r.nextInt(60000);
+			String id = "s" + n;
+			c.add(create(new Submission(), "id", id, "team_id", "" + (r.nextInt(12) + 1), "problem_id",
+					"p" + r.nextInt(4), "language_id", "java", "contest_time", RelativeTime.format(time)));
+			c.add(create(new Judgement(), "id", "j" + id, "submission_id", id, "judgement_type_id",
+					r.nextInt(3) == 0 ? "AC" : "WA", "start_contest_time", RelativeTime.format(time + 1000),
+					"start_time", Timestamp.format(START + time + 1000), "end_contest_time",
+					RelativeTime.format(time + 5000), "end_time", Timestamp.format(START + time + 5000)));
+		}
+		c.add(create(new State(), "started", "2020-01-01T10:00:00Z", "ended", "2020-01-01T15:00:00Z"));
+		return c;
+	}
+
+	private static List<Contest> getStateContests(Contest contest) {
+		List<ResolutionStep> steps = new ResolverLogic(contest, false).resolveFrom(false);
+		List<Contest> list = new ArrayList<>();
+		for (ResolutionStep step : steps) {
+			if (step instanceof ContestStateStep)
+				list.add(((ContestStateStep) step).getContest());
+		}
+		return list;
+	}
+
+	private static String describe(Contest c) {
+		StringBuilder sb = new StringBuilder();
+		for (ITeam t : c.getOrderedTeams()) {
+			sb.append(t.getId()).append(c.getStanding(t));
+			for (int i = 0; i < c.getNumProblems(); i++) {
+				IResult r = c.getResult(t, i);
+				sb.append(r).append(r.isFirstToSolve() ? "*" : "");
+			}
+			sb.append("\n");
+		}
+		for (ISubmission s : c.getSubmissions())
+			sb.append(s.getId()).append(c.getJudgementType(s)).append(c.isFirstToSolve(s) ? "*" : "").append(" ");
+		return sb.toString();
+	}
+
+	/**
+	 * The first to solve check from Contest, for the scoreboard in the state.
+	 */
+	private static boolean isFirstToSolve(Contest c, ISubmission submission) {
+		ITeam team = c.getTeamById(submission.getTeamId());
+		int problemIndex = c.getProblemIndex(submission.getProblemId());
+		if (!c.getResult(team, problemIndex).isFirstToSolve() || !c.isSolved(submission))
+			return false;
+
+		for (ISubmission s : c.getSubmissions()) {
+			if (s.getContestTime() < submission.getContestTime() && s.getTeamId().equals(submission.getTeamId())
+					&& s.getProblemId().equals(submission.getProblemId()) && c.isSolved(s))
+				return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void testFirstToSolve() throws Exception {
+		int count = 0;
+		for (Contest c : getStateContests(createContest())) {
+			for (ISubmission s : c.getSubmissions()) {
+				assertThat(c.isFirstToSolve(s)).isEqualTo(isFirstToSolve(c, s));
+				if (c.isFirstToSolve(s))
+					count++;
+			}
+		}
+		assertThat(count).isGreaterThan(0);
+	}
+
+	@Test
+	public void testAdd() throws Exception {
+		Contest contest = createContest();
+		List<Contest> states = getStateContests(contest);
+		assertThat(states.size()).isGreaterThan(2);
+
+		List<String> before = new ArrayList<>();
+		for (Contest c : states)
+			before.add(describe(c));
+
+		// changing one state must keep its scoreboard and not affect any other state
+		Contest c = states.get(states.size() / 2);
+		Language l = create(new Language(), "id", "new", "name", "New");
+		c.add(l);
+
+		assertThat(c.getLanguageById("new")).isSameInstanceAs(l);
+		for (int i = 0; i < states.size(); i++) {
+			assertThat(describe(states.get(i))).isEqualTo(before.get(i));
+			if (states.get(i) != c)
+				assertThat(states.get(i).getLanguageById("new")).isNull();
+		}
+	}
+
+	@Test
+	public void testAddJudgement() throws Exception {
+		List<Contest> states = getStateContests(createContest());
+		Contest c = states.get(0);
+		ISubmission[] subs = c.getSubmissions();
+		ISubmission s = subs[subs.length - 1];
+
+		c.add(create(new Judgement(), "id", "new", "submission_id", s.getId(), "judgement_type_id", "AC",
+				"start_contest_time", "5:00:00", "start_time", Timestamp.format(START + 5 * 3600000L)));
+		assertThat(c.getJudgementById("new")).isNotNull();
+		assertThat(c.isSolved(s)).isTrue();
+		assertThat(states.get(1).getJudgementById("new")).isNull();
+	}
+}
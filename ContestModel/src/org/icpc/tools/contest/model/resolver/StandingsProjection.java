@@ -0,0 +1,239 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.icpc.tools.contest.Trace;
+import org.icpc.tools.contest.model.IContest.ScoreboardType;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.Ranking;
+import org.icpc.tools.contest.model.internal.Standing;
+
+/**
+ * Projects the possible standings of a team for a pending submission: if the submission is solved,
+ * the best case (the team solves everything pending), and the worst case (the team fails
+ * everything pending and every other team solves everything pending).
+ *
+ * The scoreboard is captured when the projection is created, so that the projection can run on
+ * another thread while the contest continues to be resolved. Each scenario only recalculates the
+ * teams whose pending submissions change, and ranks them against the captured standings of
+ * everyone else.
+ */
+class StandingsProjection {
+	private static final String SOLVED = "AC";
+	private static final String FAILED = "WA";
+
+	private final Contest rules;
+	private final SubmissionInfo resolve;
+	private final int teamIndex;
+	private final int[] order;
+	private final ITeam[] teams;
+	private final IStanding[] standings;
+	private final ISubmission[][] subs;
+	private final IJudgement[][] sjs;
+	private final IJudgementType[][] jts;
+	private final boolean[] hasPending;
+
+	// pending submissions for the team and problem being resolved, in contest order
+	private final ISubmission[] pending;
+	private final boolean otherProblemsPending;
+
+	/**
+	 * Capture the current scoreboard of the contest.
+	 *
+	 * @param contest the contest being resolved
+	 * @param rules a contest with the same problems and rules that will not change
+	 * @param resolve the submission to project
+	 */
+	protected StandingsProjection(Contest contest, Contest rules, SubmissionInfo resolve) {
+		this.rules = rules;
+		this.resolve = resolve;
+
+		String teamId = resolve.getTeam().getId();
+		String problemId = contest.getProblems()[resolve.getProblemIndex()].getId();
+
+		teams = contest.getTeams();
+		order = contest.getOrder();
+		int numTeams = teams.length;
+		standings = new IStanding[numTeams];
+		Map<String, Integer> teamIndexes = new HashMap<>();
+		for (int i = 0; i < numTeams; i++) {
+			standings[i] = contest.getStanding(i);
+			teamIndexes.put(teams[i].getId(), i);
+		}
+		Integer ti = teamIndexes.get(teamId);
+		teamIndex = ti == null ? -1 : ti;
+
+		ISubmission[] submissions = contest.getSubmissions();
+		List<ISubmission> pendingList = new ArrayList<>();
+		boolean otherPending = false;
+		for (ISubmission s : submissions) {
+			if (s.getTeamId().equals(teamId) && !contest.isJudged(s)) {
+				if (s.getProblemId().equals(problemId))
+					pendingList.add(s);
+				else
+					otherPending = true;
+			}
+		}
+		pending = pendingList.toArray(new ISubmission[0]);
+		otherProblemsPending = otherPending;
+
+		// group each team's submissions in contest time order, as the scoreboard does
+		ISubmission[] sortedSubs = Arrays.copyOf(submissions, submissions.length);
+		Arrays.sort(sortedSubs, Comparator.comparingLong(ISubmission::getContestTime));
+
+		int[] count = new int[numTeams];
+		int[] teamOf = new int[sortedSubs.length];
+		for (int k = 0; k < sortedSubs.length; k++) {
+			Integer t = teamIndexes.get(sortedSubs[k].getTeamId());
+			teamOf[k] = t == null ? -1 : t;
+			if (t != null)
+				count[t]++;
+		}
+
+		subs = new ISubmission[numTeams][];
+		sjs = new IJudgement[numTeams][];
+		jts = new IJudgementType[numTeams][];
+		hasPending = new boolean[numTeams];
+		for (int i = 0; i < numTeams; i++) {
+			subs[i] = new ISubmission[count[i]];
+			sjs[i] = new IJudgement[count[i]];
+			jts[i] = new IJudgementType[count[i]];
+			count[i] = 0;
+		}
+		for (int k = 0; k < sortedSubs.length; k++) {
+			int t = teamOf[k];
+			if (t < 0)
+				continue;
+
+			ISubmission s = sortedSubs[k];
+			int n = count[t]++;
+			subs[t][n] = s;
+			sjs[t][n] = contest.getJudgement(s);
+			jts[t][n] = contest.getJudgementType(s);
+			if (jts[t][n] == null)
+				hasPending[t] = true;
+		}
+	}
+
+	/**
+	 * Calculate the possible standings and set them on the submission info.
+	 */
+	protected void project() {
+		if (teamIndex < 0)
+			return;
+
+		long time = System.currentTimeMillis();
+		int numPendingRuns = pending.length;
+		String problemId = pending.length > 0 ? pending[0].getProblemId() : null;
+		IStanding currentStanding = standings[teamIndex];
+
+		IStanding[] standingIfSolved = new IStanding[numPendingRuns];
+		IStanding[] standingBest = null;
+		if (otherProblemsPending)
+			standingBest = new IStanding[numPendingRuns];
+		IStanding[] standingWorst = new IStanding[numPendingRuns];
+
+		// the best and worst cases don't depend on which run is solved
+		Standing best = null;
+		Standing worst = null;
+		if (numPendingRuns > 0) {
+			if (otherProblemsPending)
+				best = project(teamIndex, s -> Boolean.TRUE, null);
+
+			Standing[] changed = new Standing[teams.length];
+			for (int i = 0; i < teams.length; i++) {
+				if (i != teamIndex && hasPending[i])
+					changed[i] = calculate(i, s -> Boolean.TRUE);
+			}
+			worst = project(teamIndex, s -> Boolean.FALSE, changed);
+			if (worst.getRank().equals(currentStanding.getRank()))
+				worst = null;
+		}
+
+		for (int i = 0; i < numPendingRuns; i++) {
+			ISubmission solved = pending[i];
+			standingIfSolved[i] = project(teamIndex, s -> {
+				if (!s.getProblemId().equals(problemId))
+					return null;
+				return s == solved;
+			}, null);
+
+			if (otherProblemsPending)
+				standingBest[i] = best;
+			standingWorst[i] = worst;
+		}
+
+		resolve.setPossibleStandings(standingIfSolved, standingBest, standingWorst);
+		Trace.trace(Trace.INFO, "Projected standings for " + resolve + " in " + (System.currentTimeMillis() - time) + "ms");
+	}
+
+	/**
+	 * Calculate and rank the standing of one team with its pending submissions judged by the given
+	 * function.
+	 *
+	 * @param team the team index
+	 * @param judge returns true (solved), false (failed), or null (still pending)
+	 * @param changed standings of other teams that are different from the captured scoreboard, or
+	 *           null
+	 * @return the ranked standing
+	 */
+	private Standing project(int team, Function<ISubmission, Boolean> judge, Standing[] changed) {
+		Standing standing = calculate(team, judge);
+		standing.setRank(getRank(team, standing, changed));
+		return standing;
+	}
+
+	private Standing calculate(int team, Function<ISubmission, Boolean> judge) {
+		ISubmission[] subs2 = subs[team];
+		int n = subs2.length;
+		IJudgement[] sjs2 = Arrays.copyOf(sjs[team], n);
+		IJudgementType[] jts2 = Arrays.copyOf(jts[team], n);
+		for (int k = 0; k < n; k++) {
+			if (jts2[k] != null)
+				continue;
+
+			Boolean b = judge.apply(subs2[k]);
+			if (b == null)
+				continue;
+
+			String typeId = b ? SOLVED : FAILED;
+			jts2[k] = rules.getJudgementTypeById(typeId);
+			if (sjs2[k] == null)
+				sjs2[k] = new Judgement(subs2[k].getId(), subs2[k], typeId);
+		}
+		return rules.calculateStanding(subs2, sjs2, jts2);
+	}
+
+	/**
+	 * Returns the rank the team would have, using the live ranking rules: one more than the number
+	 * of teams that are strictly ahead of it.
+	 */
+	private String getRank(int team, IStanding standing, Standing[] changed) {
+		ScoreboardType type = rules.getScoreboardType();
+		int ahead = 0;
+		for (int i : order) {
+			if (i == team)
+				continue;
+
+			IStanding s = standings[i];
+			if (changed != null && changed[i] != null)
+				s = changed[i];
+
+			if (Ranking.compare(type, s, standing) < 0)
+				ahead++;
+		}
+		return (ahead + 1) + "";
+	}
+}
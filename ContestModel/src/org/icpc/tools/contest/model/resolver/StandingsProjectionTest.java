@@ -0,0 +1,174 @@
+package org.icpc.tools.contest.model.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IStanding;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class StandingsProjectionTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 30;
+	private static final int NUM_PROBLEMS = 5;
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	/**
+	 * A contest where submissions in the last hour are pending, some with a judgement that has no
+	 * type yet, and teams often have several pending submissions on one problem.
+	 */
+	private static Contest createContest(long seed, boolean scoring) {
+		Random r = new Random(seed);
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00", "scoreboard_freeze_duration",
+				"1:00:00", "penalty_time", "20", "scoreboard_type", scoring ? "score" : "pass-fail"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		for (int i = 0; i < NUM_PROBLEMS; i++) {
+			Problem p = create(new Problem(), "id", "p" + i, "label", "" + (char) ('A' + i), "name", "Problem " + i,
+					"ordinal", i);
+			if (scoring)
+				p.add("max_score", "100");
+			c.add(p);
+		}
+		for (int i = 0; i < NUM_TEAMS; i++)
+			c.add(create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i));
+
+		for (int n = 0; n < 300; n++) {
+			long time = n * 60000L - r.nextInt(30000);
+			String id = "s" + n;
+			c.add(create(new Submission(), "id", id, "team_id", "" + (r.nextInt(NUM_TEAMS) + 1), "problem_id",
+					"p" + r.nextInt(NUM_PROBLEMS), "language_id", "java", "contest_time", RelativeTime.format(time)));
+
+			boolean pending = time >= 4 * 3600000L;
+			if (pending && r.nextBoolean())
+				continue;
+
+			Judgement j = create(new Judgement(), "id", "j" + id, "submission_id", id, "start_contest_time",
+					RelativeTime.format(time + 1000), "start_time", Timestamp.format(START + time + 1000));
+			if (!pending) {
+				j.add("judgement_type_id", r.nextInt(3) == 0 ? "AC" : "WA");
+				if (scoring)
+					j.add("score", "" + r.nextInt(5) * 25);
+			}
+			c.add(j);
+		}
+		return c;
+	}
+
+	/**
+	 * The possible standings calculated by judging clones of the whole contest, as the resolver did
+	 * before standings were projected. The clones are deep so that judging a pending judgement does
+	 * not change the contest.
+	 */
+	private static void projectByCloning(Contest contest, SubmissionInfo resolve) {
+		IStanding currentStanding = contest.getStanding(resolve.getTeam());
+		String teamId = resolve.getTeam().getId();
+		String problemId = contest.getProblems()[resolve.getProblemIndex()].getId();
+		int numPendingRuns = 0;
+		boolean otherProblemsPending = false;
+		for (ISubmission s : contest.getSubmissions()) {
+			if (s.getTeamId().equals(teamId) && !contest.isJudged(s)) {
+				if (s.getProblemId().equals(problemId))
+					numPendingRuns++;
+				else
+					otherProblemsPending = true;
+			}
+		}
+
+		IStanding[] standingIfSolved = new IStanding[numPendingRuns];
+		IStanding[] standingBest = otherProblemsPending ? new IStanding[numPendingRuns] : null;
+		IStanding[] standingWorst = new IStanding[numPendingRuns];
+		for (int i = 0; i < numPendingRuns; i++) {
+			Contest contestIfSolved = contest.clone(true);
+			int j = 0;
+			for (ISubmission s : contestIfSolved.getSubmissions()) {
+				if (s.getTeamId().equals(teamId) && s.getProblemId().equals(problemId) && !contest.isJudged(s)) {
+					contestIfSolved.setSubmissionIsSolved(s, j == i);
+					j++;
+				}
+			}
+			standingIfSolved[i] = contestIfSolved.getStanding(contestIfSolved.getTeamById(teamId));
+
+			if (otherProblemsPending) {
+				Contest contestBest = contestIfSolved.clone(true);
+				for (ISubmission s : contestBest.getSubmissions()) {
+					if (!contest.isJudged(s) && s.getTeamId().equals(teamId))
+						contestBest.setSubmissionIsSolved(s, true);
+				}
+				standingBest[i] = contestBest.getStanding(contestBest.getTeamById(teamId));
+			}
+
+			Contest contestWorst = contestIfSolved.clone(true);
+			for (ISubmission s : contestWorst.getSubmissions()) {
+				if (!contest.isJudged(s))
+					contestWorst.setSubmissionIsSolved(s, !s.getTeamId().equals(teamId));
+			}
+			IStanding standing = contestWorst.getStanding(contestWorst.getTeamById(teamId));
+			if (!standing.getRank().equals(currentStanding.getRank()))
+				standingWorst[i] = standing;
+		}
+
+		resolve.setPossibleStandings(standingIfSolved, standingBest, standingWorst);
+	}
+
+	private static String describe(SubmissionInfo info) {
+		return info + " " + Arrays.toString(info.getStandingIfSolved()) + " "
+				+ Arrays.toString(info.getStandingBestCase()) + " " + Arrays.toString(info.getStandingWorstCase());
+	}
+
+	private static void checkProjections(Contest contest) {
+		List<String> expected = new ArrayList<>();
+		List<String> actual = new ArrayList<>();
+		int numPending = 0;
+		for (ITeam team : contest.getTeams()) {
+			for (int i = 0; i < NUM_PROBLEMS; i++) {
+				SubmissionInfo info = new SubmissionInfo(team, i);
+				projectByCloning(contest, info);
+				expected.add(describe(info));
+				numPending += info.getStandingIfSolved().length;
+
+				SubmissionInfo info2 = new SubmissionInfo(team, i);
+				new StandingsProjection(contest, contest, info2).project();
+				actual.add(describe(info2));
+			}
+		}
+		assertThat(numPending).isGreaterThan(NUM_TEAMS);
+		assertThat(actual).containsExactlyElementsIn(expected).inOrder();
+	}
+
+	@Test
+	public void testPassFail() throws Exception {
+		for (long seed = 0; seed < 3; seed++)
+			checkProjections(createContest(seed, false));
+	}
+
+	@Test
+	public void testScoring() throws Exception {
+		for (long seed = 0; seed < 3; seed++)
+			checkProjections(createContest(seed, true));
+	}
+}
@@ -9,12 +9,13 @@ import java.util.Map;
 import java.util.Set;
 
 import org.icpc.tools.contest.Trace;
+import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.IContestObject;
 import org.icpc.tools.contest.model.feed.JSONEncoder;
-import org.icpc.tools.contest.model.internal.Contest;
 
 /**
- * Contest comparison utility. Provides summary info or full contest compare.
+ * Contest comparison utility. Provides summary info or full contest compare. Works with any
+ * contest, including contest archives.
  */
 public class ContestComparator {
 	public static class Difference {
@@ -374,7 +375,7 @@ public class ContestComparator {
 			type.different++;
 	}
 
-	public static ContestComparison compareContests(Contest... contests) {
+	public static ContestComparison compareContests(IContest... contests) {
 		ContestComparison cf = new ContestComparison();
 		cf.add(compareInfo(contests));
 		cf.add(compareGroups(contests));
@@ -390,67 +391,67 @@ public class ContestComparator {
 		return cf;
 	}
 
-	public static TypeComparison compareInfo(Contest... c) {
+	public static TypeComparison compareInfo(IContest... c) {
 		return compareTypes(IContestObject.ContestType.CONTEST, c);
 	}
 
-	public static TypeComparison compareGroups(Contest... c) {
+	public static TypeComparison compareGroups(IContest... c) {
 		return compareTypes(IContestObject.ContestType.GROUP, c);
 	}
 
-	public static TypeComparison compareOrganizations(Contest... c) {
+	public static TypeComparison compareOrganizations(IContest... c) {
 		return compareTypes(IContestObject.ContestType.ORGANIZATION, c);
 	}
 
-	public static TypeComparison compareTeams(Contest... c) {
+	public static TypeComparison compareTeams(IContest... c) {
 		return compareTypes(IContestObject.ContestType.TEAM, c);
 	}
 
-	public static TypeComparison compareLanguages(Contest... c) {
+	public static TypeComparison compareLanguages(IContest... c) {
 		return compareTypes(IContestObject.ContestType.LANGUAGE, c);
 	}
 
-	public static TypeComparison compareProblems(Contest... c) {
+	public static TypeComparison compareProblems(IContest... c) {
 		return compareTypes(IContestObject.ContestType.PROBLEM, c);
 	}
 
-	public static TypeComparison compareJudgementTypes(Contest... c) {
+	public static TypeComparison compareJudgementTypes(IContest... c) {
 		return compareTypes(IContestObject.ContestType.JUDGEMENT_TYPE, c);
 	}
 
-	public static TypeComparison compareSubmissions(Contest... c) {
+	public static TypeComparison compareSubmissions(IContest... c) {
 		return compareTypes(IContestObject.ContestType.SUBMISSION, c);
 	}
 
-	public static TypeComparison compareJudgements(Contest... c) {
+	public static TypeComparison compareJudgements(IContest... c) {
 		return compareTypes(IContestObject.ContestType.JUDGEMENT, c);
 	}
 
-	public static TypeComparison compareRuns(Contest... c) {
+	public static TypeComparison compareRuns(IContest... c) {
 		return compareTypes(IContestObject.ContestType.RUN, c);
 	}
 
-	public static TypeComparison comparePersons(Contest... c) {
+	public static TypeComparison comparePersons(IContest... c) {
 		return compareTypes(IContestObject.ContestType.PERSON, c);
 	}
 
-	public static TypeComparison compareAccounts(Contest... c) {
+	public static TypeComparison compareAccounts(IContest... c) {
 		return compareTypes(IContestObject.ContestType.ACCOUNT, c);
 	}
 
-	public static TypeComparison compareClarifications(Contest... c) {
+	public static TypeComparison compareClarifications(IContest... c) {
 		return compareTypes(IContestObject.ContestType.CLARIFICATION, c);
 	}
 
-	public static TypeComparison compareCommentary(Contest... c) {
+	public static TypeComparison compareCommentary(IContest... c) {
 		return compareTypes(IContestObject.ContestType.COMMENTARY, c);
 	}
 
-	public static TypeComparison compareAwards(Contest... c) {
+	public static TypeComparison compareAwards(IContest... c) {
 		return compareTypes(IContestObject.ContestType.AWARD, c);
 	}
 
-	private static TypeComparison compareTypes(IContestObject.ContestType type, Contest... c) {
+	private static TypeComparison compareTypes(IContestObject.ContestType type, IContest... c) {
 		int size = c.length;
 		TypeComparison ty = new TypeComparison();
 		ty.type = IContestObject.getTypeName(type);
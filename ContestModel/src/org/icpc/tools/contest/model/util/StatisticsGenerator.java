@@ -0,0 +1,681 @@
+package org.icpc.tools.contest.model.util;
+
+import java.lang.ref.WeakReference;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import org.icpc.tools.contest.Trace;
+import org.icpc.tools.contest.model.ContestUtil;
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContest.ScoreboardType;
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.ILanguage;
+import org.icpc.tools.contest.model.IProblem;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.internal.Contest;
+
+/**
+ * Interesting statistics about a contest (fastest solutions, most attempted problems, language
+ * use, etc.) as short sentences for tickers and reports.
+ *
+ * The generator listens to the contest and keeps a result for each team and problem from the
+ * submissions and judgements it has seen, so each change only updates the counters for one team
+ * and problem instead of the whole contest. Results follow the same rules as the contest's
+ * results, including scoring contests. The text is only regenerated when something has changed
+ * since the last snapshot.
+ */
+public class StatisticsGenerator implements IContestListener {
+	private static final List<StatisticsGenerator> instances = new ArrayList<>();
+	private static final Random rand = new Random(System.currentTimeMillis());
+
+	protected static final NumberFormat percentFormat = NumberFormat.getPercentInstance();
+	protected static final NumberFormat decimalFormat = NumberFormat.getNumberInstance();
+
+	static {
+		decimalFormat.setMaximumFractionDigits(1);
+		decimalFormat.setMinimumFractionDigits(1);
+	}
+
+	public static class Statistic {
+		public String id;
+		public String text;
+
+		public Statistic(String id, String text) {
+			this.id = id;
+			this.text = text;
+		}
+
+		@Override
+		public String toString() {
+			return text;
+		}
+	}
+
+	private static class Sub {
+		protected String teamId;
+		protected String problemId;
+		protected String languageId;
+		protected long time;
+		// all judgements of this submission, in contest order
+		protected final List<IJudgement> judgements = new ArrayList<>(1);
+	}
+
+	// the result of one team on one problem
+	private static class Cell {
+		protected final List<Sub> subs = new ArrayList<>(2);
+		protected boolean solved;
+		protected long time;
+		protected int numSubmissions;
+		protected int numPending;
+		protected int numFailed;
+
+		protected void copy(Cell c) {
+			solved = c.solved;
+			time = c.time;
+			numSubmissions = c.numSubmissions;
+			numPending = c.numPending;
+			numFailed = c.numFailed;
+		}
+
+		protected boolean isSame(Cell c) {
+			return solved == c.solved && time == c.time && numSubmissions == c.numSubmissions
+					&& numPending == c.numPending && numFailed == c.numFailed;
+		}
+	}
+
+	private static class TeamStats {
+		protected final Map<String, Cell> cells = new HashMap<>();
+		protected int solved;
+		// number of problems with a rejected submission
+		protected int rejected;
+	}
+
+	private static class ProblemStats {
+		protected int solved;
+		protected long fastest = -1;
+		protected String fastestTeamId;
+	}
+
+	private WeakReference<IContest> contestRef;
+
+	private final Map<String, Sub> subs = new HashMap<>();
+	// submission id of each judgement
+	private final Map<String, String> judgementSubs = new HashMap<>();
+	private final Map<String, TeamStats> teams = new HashMap<>();
+	private final Map<String, ProblemStats> problems = new HashMap<>();
+	private final Map<String, int[]> languages = new HashMap<>();
+	private final Cell oldCell = new Cell();
+
+	private int totalSubmissions;
+	private int totalSolved;
+	private long totalTime;
+	private int totalPending;
+	private int teamsSolved;
+	private int numLanguageSubmissions;
+	// number of teams without a rejected submission, by number of problems solved
+	private int[] perfectTeams = new int[8];
+
+	private int mostAttempts = -1;
+	private String mostAttemptsProblemId;
+	private long lastSolvedTime = -1;
+	private String lastSolvedProblemId;
+	// set when a result that one of the maximums or minimums came from has changed
+	private boolean rescan;
+
+	private boolean changed;
+	private Statistic[] stats = new Statistic[0];
+	private final Queue<String> recentStack = new LinkedList<>();
+
+	/**
+	 * Returns the shared statistics for the given contest, creating them and loading the contest so
+	 * far if necessary.
+	 *
+	 * @param contest a contest
+	 */
+	public static StatisticsGenerator getInstance(IContest contest) {
+		StatisticsGenerator sg = null;
+		synchronized (instances) {
+			Iterator<StatisticsGenerator> iter = instances.iterator();
+			while (iter.hasNext()) {
+				StatisticsGenerator sg2 = iter.next();
+				IContest c = sg2.contestRef.get();
+				if (c == null)
+					iter.remove();
+				else if (c == contest)
+					return sg2;
+			}
+
+			sg = new StatisticsGenerator(contest);
+			instances.add(sg);
+		}
+
+		if (contest instanceof Contest)
+			((Contest) contest).addListenerFromStart(sg);
+		else // other contests can't be replayed, so only changes from now on are counted
+			contest.addListener(sg);
+		return sg;
+	}
+
+	/**
+	 * Create statistics that are not shared. Add them as a listener to the contest to fill them.
+	 *
+	 * @param contest the contest, used for names when generating text
+	 */
+	public StatisticsGenerator(IContest contest) {
+		contestRef = new WeakReference<>(contest);
+	}
+
+	@Override
+	public synchronized void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+		ContestType type = obj.getType();
+		if (type == ContestType.SUBMISSION)
+			submissionChanged(contest, obj, delta);
+		else if (type == ContestType.JUDGEMENT)
+			judgementChanged(contest, obj, delta);
+		else if (type == ContestType.JUDGEMENT_TYPE || type == ContestType.CONTEST
+				|| type == ContestType.PROBLEM) {
+			// judgement types, the contest length and scoring, and problem max scores change every
+			// result
+			for (String teamId : teams.keySet()) {
+				TeamStats ts = teams.get(teamId);
+				for (String problemId : ts.cells.keySet())
+					updateCell(contest, teamId, problemId);
+			}
+			changed = true;
+		} else if (type == ContestType.TEAM || type == ContestType.LANGUAGE)
+			changed = true;
+	}
+
+	private void submissionChanged(IContest contest, IContestObject obj, Delta delta) {
+		String id = obj.getId();
+		Sub s = subs.get(id);
+		if (s != null && s.teamId != null) {
+			removeSub(contest, s);
+			if (s.languageId != null) {
+				languages.get(s.languageId)[0]--;
+				numLanguageSubmissions--;
+			}
+		}
+
+		if (delta == Delta.DELETE) {
+			// keep the judgements in case the submission comes back
+			if (s != null && !s.judgements.isEmpty())
+				s.teamId = null;
+			else
+				subs.remove(id);
+			return;
+		}
+
+		if (!(obj instanceof ISubmission))
+			return;
+
+		ISubmission sub = (ISubmission) obj;
+		if (s == null) {
+			s = new Sub();
+			subs.put(id, s);
+		}
+		s.teamId = sub.getTeamId();
+		s.problemId = sub.getProblemId();
+		s.languageId = sub.getLanguageId();
+		s.time = sub.getContestTime();
+		if (s.teamId == null || s.problemId == null) {
+			s.teamId = null;
+			return;
+		}
+
+		if (s.languageId != null) {
+			int[] count = languages.get(s.languageId);
+			if (count == null) {
+				count = new int[1];
+				languages.put(s.languageId, count);
+			}
+			count[0]++;
+			numLanguageSubmissions++;
+		}
+
+		Cell c = getCell(s.teamId, s.problemId);
+		int i = c.subs.size();
+		while (i > 0 && c.subs.get(i - 1).time > s.time)
+			i--;
+		c.subs.add(i, s);
+		updateCell(contest, s.teamId, s.problemId);
+	}
+
+	private void removeSub(IContest contest, Sub s) {
+		TeamStats ts = teams.get(s.teamId);
+		if (ts == null)
+			return;
+
+		Cell c = ts.cells.get(s.problemId);
+		if (c != null && c.subs.remove(s))
+			updateCell(contest, s.teamId, s.problemId);
+	}
+
+	private void judgementChanged(IContest contest, IContestObject obj, Delta delta) {
+		String id = obj.getId();
+		String subId = null;
+		if (delta != Delta.DELETE && obj instanceof IJudgement)
+			subId = ((IJudgement) obj).getSubmissionId();
+
+		// remove the judgement from the submission it was for, if that has changed
+		String oldSubId = judgementSubs.remove(id);
+		if (oldSubId != null && !oldSubId.equals(subId)) {
+			Sub s = subs.get(oldSubId);
+			if (s != null) {
+				removeJudgement(s, id);
+				if (s.teamId != null)
+					updateCell(contest, s.teamId, s.problemId);
+			}
+		}
+
+		if (subId == null)
+			return;
+
+		Sub s = subs.get(subId);
+		if (s == null) {
+			// judgement before its submission, keep it until the submission arrives
+			s = new Sub();
+			subs.put(subId, s);
+		}
+
+		// replace the judgement in place, or add it at the end
+		int ind = removeJudgement(s, id);
+		if (ind < 0)
+			s.judgements.add((IJudgement) obj);
+		else
+			s.judgements.add(ind, (IJudgement) obj);
+		judgementSubs.put(id, subId);
+		if (s.teamId != null)
+			updateCell(contest, s.teamId, s.problemId);
+	}
+
+	private static int removeJudgement(Sub s, String judgementId) {
+		for (int i = 0; i < s.judgements.size(); i++) {
+			if (s.judgements.get(i).getId().equals(judgementId)) {
+				s.judgements.remove(i);
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private Cell getCell(String teamId, String problemId) {
+		TeamStats ts = teams.get(teamId);
+		if (ts == null) {
+			ts = new TeamStats();
+			teams.put(teamId, ts);
+		}
+		Cell c = ts.cells.get(problemId);
+		if (c == null) {
+			c = new Cell();
+			ts.cells.put(problemId, c);
+		}
+		return c;
+	}
+
+	private ProblemStats getProblem(String problemId) {
+		ProblemStats ps = problems.get(problemId);
+		if (ps == null) {
+			ps = new ProblemStats();
+			problems.put(problemId, ps);
+		}
+		return ps;
+	}
+
+	/**
+	 * Recalculate the result for one team and problem and update the counters.
+	 */
+	private void updateCell(IContest contest, String teamId, String problemId) {
+		TeamStats ts = teams.get(teamId);
+		Cell c = ts.cells.get(problemId);
+		oldCell.copy(c);
+		calculate(contest, problemId, c);
+		if (c.isSame(oldCell))
+			return;
+
+		changed = true;
+		updateTeam(ts, -1);
+		update(ts, teamId, problemId, oldCell, -1);
+		update(ts, teamId, problemId, c, 1);
+		updateTeam(ts, 1);
+	}
+
+	/**
+	 * Calculate the result of one team on one problem, the same way as the contest's results.
+	 */
+	private static void calculate(IContest contest, String problemId, Cell c) {
+		c.solved = false;
+		c.time = 0;
+		c.numSubmissions = 0;
+		c.numPending = 0;
+		c.numFailed = 0;
+
+		long duration = contest.getDuration();
+		boolean scoring = contest.getScoreboardType() == ScoreboardType.SCORE;
+		double score = 0;
+		for (Sub s : c.subs) {
+			if (s.time < 0 || s.time >= duration)
+				continue;
+
+			// the submission's last judgement with a known type
+			IJudgement j = null;
+			IJudgementType jt = null;
+			for (int i = s.judgements.size() - 1; i >= 0 && jt == null; i--) {
+				j = s.judgements.get(i);
+				jt = contest.getJudgementTypeById(j.getJudgementTypeId());
+			}
+
+			if (c.solved) {
+				// pass-fail results don't change once solved. In scoring contests a higher score
+				// replaces the solution, and a pending submission reopens a problem without the max
+				// score
+				if (!scoring)
+					return;
+
+				if (jt == null) {
+					IProblem p = contest.getProblemById(problemId);
+					if (p != null && p.getMaxScore() != null && score < p.getMaxScore()) {
+						c.solved = false;
+						c.numPending++;
+						c.numSubmissions++;
+					}
+				} else if (jt.isSolved() && j.getScore() != null && j.getScore() > score) {
+					score = j.getScore();
+					c.numSubmissions++;
+					c.time = s.time;
+				}
+				continue;
+			}
+
+			if (jt == null) {
+				c.numPending++;
+				c.numSubmissions++;
+			} else if (jt.isSolved()) {
+				c.solved = true;
+				c.numSubmissions++;
+				if (j.getScore() != null)
+					score = j.getScore();
+			} else if (jt.isPenalty()) {
+				c.numFailed++;
+				c.numSubmissions++;
+			} else // compile or judgement error that doesn't count as an attempt
+				continue;
+
+			c.time = s.time;
+		}
+	}
+
+	private void update(TeamStats ts, String teamId, String problemId, Cell c, int n) {
+		totalSubmissions += c.numSubmissions * n;
+		totalPending += c.numPending * n;
+		if (c.numFailed > 0)
+			ts.rejected += n;
+
+		if (!c.solved)
+			return;
+
+		ProblemStats ps = getProblem(problemId);
+		totalSolved += n;
+		totalTime += c.time * n;
+		ts.solved += n;
+		ps.solved += n;
+
+		if (n < 0) {
+			if (c.time == ps.fastest || c.numSubmissions == mostAttempts || c.time == lastSolvedTime)
+				rescan = true;
+			return;
+		}
+
+		if (ps.fastest == -1 || c.time < ps.fastest) {
+			ps.fastest = c.time;
+			ps.fastestTeamId = teamId;
+		}
+		if (c.numSubmissions > mostAttempts) {
+			mostAttempts = c.numSubmissions;
+			mostAttemptsProblemId = problemId;
+		}
+		if (c.time > lastSolvedTime) {
+			lastSolvedTime = c.time;
+			lastSolvedProblemId = problemId;
+		}
+	}
+
+	private void updateTeam(TeamStats ts, int n) {
+		if (ts.solved == 0)
+			return;
+
+		teamsSolved += n;
+		if (ts.rejected == 0) {
+			if (ts.solved >= perfectTeams.length)
+				perfectTeams = Arrays.copyOf(perfectTeams, ts.solved * 2);
+			perfectTeams[ts.solved] += n;
+		}
+	}
+
+	/**
+	 * Find the fastest, most attempted, and last solutions again after a result they came from has
+	 * changed.
+	 */
+	private void rescan() {
+		mostAttempts = -1;
+		mostAttemptsProblemId = null;
+		lastSolvedTime = -1;
+		lastSolvedProblemId = null;
+		for (ProblemStats ps : problems.values()) {
+			ps.fastest = -1;
+			ps.fastestTeamId = null;
+		}
+
+		for (String teamId : teams.keySet()) {
+			TeamStats ts = teams.get(teamId);
+			for (String problemId : ts.cells.keySet()) {
+				Cell c = ts.cells.get(problemId);
+				if (c.solved)
+					update(ts, teamId, problemId, c, 0);
+			}
+		}
+		rescan = false;
+	}
+
+	/**
+	 * Returns the current statistics, regenerating them if the contest has changed.
+	 */
+	public synchronized Statistic[] getStatistics() {
+		if (changed) {
+			IContest contest = contestRef.get();
+			if (contest != null) {
+				try {
+					stats = generate(contest);
+				} catch (Exception e) {
+					Trace.trace(Trace.ERROR, "Error generating statistics", e);
+				}
+			}
+			changed = false;
+		}
+		return stats;
+	}
+
+	private Statistic[] generate(IContest contest) {
+		if (rescan)
+			rescan();
+
+		int numTeams = contest.getNumTeams();
+		IProblem[] problems2 = contest.getProblems();
+		int numProblems = problems2.length;
+
+		List<Statistic> list = new ArrayList<>();
+
+		// # teams that have solved a problem
+		if (teamsSolved == 0)
+			list.add(new Statistic("teamsSolved", "No teams have solved a problem"));
+		else if (teamsSolved == 1)
+			list.add(new Statistic("teamsSolved", "1 team has solved a problem!"));
+		else
+			list.add(new Statistic("teamsSolved", teamsSolved + " teams have solved a problem"));
+
+		// % of teams that have solved a problem
+		if (teamsSolved > 0 && numTeams > 0)
+			list.add(new Statistic("teamsSolved",
+					percentFormat.format((float) teamsSolved / numTeams) + " of teams have solved a problem"));
+
+		// total submissions
+		if (totalSubmissions == 1)
+			list.add(new Statistic("totalSubmissions", "There has been 1 problem submission"));
+		else
+			list.add(new Statistic("totalSubmissions", "There have been " + totalSubmissions + " problem submissions"));
+
+		// total problems solved
+		if (totalSolved == 1)
+			list.add(new Statistic("totalNumProbs", "One problem has been solved"));
+		else if (totalSolved > 1)
+			list.add(new Statistic("totalNumProbs", "A total of " + totalSolved + " problems have been solved"));
+
+		// total time
+		if (totalTime > 0)
+			list.add(new Statistic("totalTime",
+					ContestUtil.getTimeInMin(totalTime) + " minutes have been spent on solved problems"));
+
+		// average number of problems solved
+		if (totalSolved > 1 && numTeams > 0)
+			list.add(new Statistic("avgSolved", "Teams have solved an average of "
+					+ decimalFormat.format((float) totalSolved / numTeams) + " problems each"));
+
+		for (int j = 0; j < numProblems; j++) {
+			ProblemStats ps = problems.get(problems2[j].getId());
+			if (ps != null && ps.solved > 0) {
+				// teams per problem
+				if (numTeams > 0)
+					list.add(new Statistic("problemSolved" + j, percentFormat.format((float) ps.solved / numTeams)
+							+ " of teams have solved Problem " + problems2[j].getLabel()));
+
+				if (ps.solved == 1)
+					list.add(
+							new Statistic("problemSolved" + j, "Only one team has solved Problem " + problems2[j].getLabel()));
+				else
+					list.add(new Statistic("problemSolved" + j,
+							ps.solved + " teams have solved Problem " + problems2[j].getLabel()));
+			}
+		}
+
+		for (int j = 0; j < numProblems; j++) {
+			// fastest solution
+			ProblemStats ps = problems.get(problems2[j].getId());
+			if (ps != null && ps.fastest >= 0) {
+				ITeam team = contest.getTeamById(ps.fastestTeamId);
+				if (team != null)
+					list.add(new Statistic("fastest" + j,
+							team.getActualDisplayName() + " has solved Problem " + problems2[j].getLabel()
+									+ " in the fastest time of " + ContestUtil.getTimeInMin(ps.fastest) + " minutes"));
+			}
+		}
+
+		int count = 0;
+		String s = "";
+		for (int j = 0; j < numProblems; j++) {
+			ProblemStats ps = problems.get(problems2[j].getId());
+			if (ps == null || ps.solved == 0) {
+				count++;
+				if (s.length() > 0)
+					s += ", ";
+				s += problems2[j].getLabel();
+			}
+		}
+
+		if (count == numProblems)
+			list.add(new Statistic("numProblemsSolved", "No problems have been solved"));
+		else if (count == 0)
+			list.add(new Statistic("numProblemsSolved", "All problems have been solved by at least one team"));
+		else
+			list.add(new Statistic("numProblemsSolved",
+					(numProblems - count) + " out of " + numProblems + " problems have been solved by at least one team"));
+
+		if (count == 1)
+			list.add(new Statistic("noSolutions", "There has been no solution to Problem " + s));
+		else if (count > 0)
+			list.add(new Statistic("noSolutions", "There have been no solutions to Problems " + s));
+
+		IProblem p = contest.getProblemById(mostAttemptsProblemId);
+		if (mostAttempts > 1 && p != null)
+			list.add(new Statistic("mostAttempts", "The highest number of attempts before solving a problem is "
+					+ mostAttempts + " on Problem " + p.getLabel()));
+
+		p = contest.getProblemById(lastSolvedProblemId);
+		if (p != null)
+			list.add(new Statistic("lastSolved", "The most recently solved problem is Problem " + p.getLabel()));
+
+		// total pending submissions
+		list.add(new Statistic("totalPending", "There are " + totalPending + " pending submissions"));
+
+		// teams with no rejected submissions
+		int perfect = 0;
+		int mostPerfect = 0;
+		for (int i = 1; i < perfectTeams.length; i++) {
+			if (perfectTeams[i] > 0) {
+				perfect += perfectTeams[i];
+				mostPerfect = i;
+			}
+		}
+		if (perfect == 1)
+			list.add(new Statistic("perfect", "1 team has solved problems without any rejected submissions"));
+		else if (perfect > 1)
+			list.add(new Statistic("perfect", perfect + " teams have solved problems without any rejected submissions"));
+		if (mostPerfect > 1)
+			list.add(new Statistic("mostPerfect", perfectTeams[mostPerfect] + " of them solved " + mostPerfect
+					+ " problems without a rejected submission"));
+
+		// language share
+		if (numLanguageSubmissions > 0) {
+			for (ILanguage l : contest.getLanguages()) {
+				int[] langCount = languages.get(l.getId());
+				if (langCount != null && langCount[0] > 0)
+					list.add(new Statistic("language" + l.getId(),
+							percentFormat.format((float) langCount[0] / numLanguageSubmissions) + " of submissions have been in "
+									+ l.getName()));
+			}
+		}
+
+		return list.toArray(new Statistic[0]);
+	}
+
+	/**
+	 * Returns a random statistic, avoiding the ones returned recently.
+	 */
+	public synchronized String getStatistic() {
+		Statistic[] stats2 = getStatistics();
+		if (stats2.length < 1)
+			return "";
+		while (recentStack.size() > stats2.length - 5 && recentStack.size() > 0)
+			recentStack.remove();
+
+		int c = 0;
+		while (true) {
+			int n = rand.nextInt(stats2.length);
+
+			Statistic s = stats2[n];
+			if (c > 20 || !recentStack.contains(s.id)) {
+				recentStack.offer(s.id);
+				return s.text;
+			}
+			c++;
+		}
+	}
+
+	public void debug() {
+		for (Statistic st : getStatistics()) {
+			Trace.trace(Trace.USER, st.text);
+		}
+	}
+}
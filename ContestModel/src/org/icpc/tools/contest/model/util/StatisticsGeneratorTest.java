@@ -0,0 +1,248 @@
+package org.icpc.tools.contest.model.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IResult;
+import org.icpc.tools.contest.model.ITeam;
+import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Deletion;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Language;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.icpc.tools.contest.model.util.StatisticsGenerator.Statistic;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class StatisticsGeneratorTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int NUM_TEAMS = 5;
+	private static final String[] PROBLEMS = new String[] { "p0", "p1", "p2" };
+	private static final String[] LANGUAGES = new String[] { "java", "cpp" };
+	private static final String[] TYPES = new String[] { "AC", "WA", "CE" };
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	private static Contest createContest(boolean scoring) {
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00", "penalty_time", "20",
+				"scoreboard_type", scoring ? "score" : "pass-fail"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		c.add(create(new JudgementType(), "id", "CE", "name", "Compile Error", "solved", false, "penalty", false));
+		for (int i = 0; i < PROBLEMS.length; i++) {
+			Problem p = create(new Problem(), "id", PROBLEMS[i], "label", "" + (char) ('A' + i), "name",
+					"Problem " + i, "ordinal", i);
+			if (scoring)
+				p.add("max_score", "100");
+			c.add(p);
+		}
+		for (String id : LANGUAGES)
+			c.add(create(new Language(), "id", id, "name", id));
+		for (int i = 0; i < NUM_TEAMS; i++)
+			c.add(create(new Team(), "id", "" + (i + 1), "label", "" + (i + 1), "name", "Team " + i));
+		return c;
+	}
+
+	private static Submission createSubmission(String id, String teamId, String problemId, String languageId,
+			long time) {
+		return create(new Submission(), "id", id, "team_id", teamId, "problem_id", problemId, "language_id",
+				languageId, "contest_time", RelativeTime.format(time));
+	}
+
+	private static Judgement createJudgement(String id, String submissionId, String typeId, long time) {
+		Judgement j = create(new Judgement(), "id", id, "submission_id", submissionId, "start_contest_time",
+				RelativeTime.format(time), "start_time", Timestamp.format(START + time), "end_contest_time",
+				RelativeTime.format(time + 30000), "end_time", Timestamp.format(START + time + 30000));
+		if (typeId != null)
+			j.add("judgement_type_id", typeId);
+		return j;
+	}
+
+	private static List<String> describe(StatisticsGenerator sg) {
+		List<String> list = new ArrayList<>();
+		for (Statistic s : sg.getStatistics())
+			list.add(s.toString());
+		return list;
+	}
+
+	private static String getStatistic(StatisticsGenerator sg, String id) {
+		for (Statistic s : sg.getStatistics()) {
+			if (s.id.equals(id))
+				return s.text;
+		}
+		return null;
+	}
+
+	/**
+	 * Generate statistics for the current contest from scratch.
+	 */
+	private static List<String> recount(Contest contest) {
+		Contest c = new Contest(false);
+		for (IContestObject obj : contest.getObjects())
+			c.add(obj);
+
+		StatisticsGenerator sg = new StatisticsGenerator(c);
+		c.addListenerFromStart(sg);
+		return describe(sg);
+	}
+
+	@Test
+	public void testAdd() throws Exception {
+		Contest contest = createContest(false);
+		StatisticsGenerator sg = new StatisticsGenerator(contest);
+		contest.addListenerFromStart(sg);
+
+		contest.add(createSubmission("s1", "1", "p0", "java", 60000));
+		contest.add(createJudgement("j1", "s1", "WA", 70000));
+		contest.add(createSubmission("s2", "1", "p0", "java", 120000));
+		contest.add(createJudgement("j2", "s2", "AC", 130000));
+		contest.add(createSubmission("s3", "2", "p1", "cpp", 180000));
+		contest.add(createJudgement("j3", "s3", "AC", 190000));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("A total of 2 problems have been solved");
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+	}
+
+	@Test
+	public void testRejudge() throws Exception {
+		Contest contest = createContest(false);
+		StatisticsGenerator sg = new StatisticsGenerator(contest);
+		contest.addListenerFromStart(sg);
+
+		contest.add(createSubmission("s1", "1", "p0", "java", 60000));
+		contest.add(createJudgement("j1", "s1", "WA", 70000));
+		contest.add(createJudgement("j2", "s1", "AC", 80000));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("One problem has been solved");
+
+		// deleting the rejudge goes back to the earlier judgement, not to pending
+		contest.add(new Deletion("j2", ContestType.JUDGEMENT));
+		assertThat(getStatistic(sg, "totalNumProbs")).isNull();
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+
+		// as does a judgement that loses its type
+		contest.add(createJudgement("j2", "s1", "AC", 80000));
+		contest.add(createJudgement("j2", "s1", null, 80000));
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+
+		contest.add(createJudgement("j3", "s1", "AC", 90000));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("One problem has been solved");
+		contest.add(new Deletion("j1", ContestType.JUDGEMENT));
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+	}
+
+	@Test
+	public void testDeleteSubmission() throws Exception {
+		Contest contest = createContest(false);
+		StatisticsGenerator sg = new StatisticsGenerator(contest);
+		contest.addListenerFromStart(sg);
+
+		contest.add(createSubmission("s1", "1", "p0", "java", 60000));
+		contest.add(createJudgement("j1", "s1", "AC", 70000));
+		contest.add(createSubmission("s2", "2", "p0", "cpp", 120000));
+		contest.add(createJudgement("j2", "s2", "AC", 130000));
+		contest.add(new Deletion("s1", ContestType.SUBMISSION));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("One problem has been solved");
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+
+		// the judgement still counts if the submission comes back
+		contest.add(createSubmission("s1", "1", "p0", "java", 60000));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("A total of 2 problems have been solved");
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+	}
+
+	@Test
+	public void testScoring() throws Exception {
+		Contest contest = createContest(true);
+		StatisticsGenerator sg = new StatisticsGenerator(contest);
+		contest.addListenerFromStart(sg);
+
+		// a partial solution, a pending submission that reopens the problem, then a better score
+		contest.add(createSubmission("s1", "1", "p0", "java", 60000));
+		contest.add(create(createJudgement("j1", "s1", "AC", 70000), "score", "40"));
+		contest.add(createSubmission("s2", "1", "p0", "java", 120000));
+		assertThat(contest.getResult(contest.getTeamById("1"), 0).getStatus()).isEqualTo(Status.SUBMITTED);
+		assertThat(getStatistic(sg, "totalNumProbs")).isNull();
+
+		contest.add(create(createJudgement("j2", "s2", "AC", 130000), "score", "100"));
+		assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("One problem has been solved");
+		assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+	}
+
+	@Test
+	public void testIncremental() throws Exception {
+		for (boolean scoring : new boolean[] { false, true }) {
+			Random r = new Random(50);
+			Contest contest = createContest(scoring);
+			StatisticsGenerator sg = new StatisticsGenerator(contest);
+			contest.addListenerFromStart(sg);
+
+			List<String> subs = new ArrayList<>();
+			List<String> judgements = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				long time = r.nextInt(5 * 3600000);
+				int op = r.nextInt(10);
+				if (op < 4 || subs.isEmpty()) {
+					String id = "s" + i;
+					contest.add(createSubmission(id, "" + (r.nextInt(NUM_TEAMS) + 1), PROBLEMS[r.nextInt(PROBLEMS.length)],
+							LANGUAGES[r.nextInt(LANGUAGES.length)], time));
+					subs.add(id);
+				} else if (op < 7) {
+					// new judgement or rejudge, sometimes before its submission or without a type
+					String sId = r.nextInt(20) == 0 ? "s" + (i + 1) : subs.get(r.nextInt(subs.size()));
+					String id = "j" + i;
+					String type = r.nextInt(10) == 0 ? null : TYPES[r.nextInt(TYPES.length)];
+					Judgement j = createJudgement(id, sId, type, time);
+					if (scoring)
+						j.add("score", "" + (r.nextInt(5) * 25));
+					contest.add(j);
+					judgements.add(id);
+				} else if (op < 8 && !judgements.isEmpty()) {
+					// change the type of an existing judgement
+					String id = judgements.get(r.nextInt(judgements.size()));
+					Judgement j = (Judgement) contest.getJudgementById(id);
+					contest.add(createJudgement(id, j.getSubmissionId(), TYPES[r.nextInt(TYPES.length)], time));
+				} else if (op < 9 && !judgements.isEmpty()) {
+					String id = judgements.remove(r.nextInt(judgements.size()));
+					contest.add(new Deletion(id, ContestType.JUDGEMENT));
+				} else {
+					String id = subs.remove(r.nextInt(subs.size()));
+					contest.add(new Deletion(id, ContestType.SUBMISSION));
+				}
+
+				if (i % 50 == 0)
+					assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+			}
+			assertThat(describe(sg)).containsExactlyElementsIn(recount(contest)).inOrder();
+
+			// and the same number of solutions as the contest
+			int solved = 0;
+			for (ITeam t : contest.getTeams()) {
+				for (int i = 0; i < PROBLEMS.length; i++) {
+					IResult res = contest.getResult(t, i);
+					if (res.getStatus() == Status.SOLVED)
+						solved++;
+				}
+			}
+			assertThat(getStatistic(sg, "totalNumProbs")).isEqualTo("A total of " + solved + " problems have been solved");
+		}
+	}
+}
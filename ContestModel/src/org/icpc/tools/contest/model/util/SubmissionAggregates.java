@@ -0,0 +1,514 @@
+package org.icpc.tools.contest.model.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IContestListener;
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IJudgement;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.internal.Contest;
+
+/**
+ * Submission and judgement counts for a contest, split into fixed time intervals and kept up to
+ * date as the contest changes, so that charts and reports can read them without walking every
+ * submission and judgement.
+ *
+ * Counts are kept for the whole contest, each problem, and each language. A submission's status
+ * comes from its most recent judgement with a known judgement type, the same as
+ * IContest.getStatus(), and counts in the interval it was submitted in.
+ */
+public class SubmissionAggregates implements IContestListener {
+	public static final int DEFAULT_INTERVAL = 5 * 60 * 1000;
+
+	private static final List<SubmissionAggregates> instances = new ArrayList<>();
+
+	/**
+	 * Counts for one problem, one language, or the whole contest. All counts are copies, safe to
+	 * use while the contest changes.
+	 */
+	public class Counters {
+		private int[] submitted = new int[0];
+		private int[] solved = new int[0];
+		private int[] failed = new int[0];
+		private int[] judged = new int[0];
+		// change in queue depth at the start of each interval
+		private int[] queue = new int[0];
+
+		private int numSubmissions;
+		private int numSolved;
+		private int numFailed;
+		private long solvedJudgeTime;
+		private int numSolvedJudged;
+		private long failedJudgeTime;
+		private int numFailedJudged;
+		private final Map<String, Integer> judgementTypes = new HashMap<>();
+
+		protected Counters() {
+			// do not create
+		}
+
+		private void ensureSize(int bucket) {
+			if (bucket < submitted.length)
+				return;
+
+			int size = Math.max(bucket + 1, submitted.length * 3 / 2 + 8);
+			submitted = Arrays.copyOf(submitted, size);
+			solved = Arrays.copyOf(solved, size);
+			failed = Arrays.copyOf(failed, size);
+			judged = Arrays.copyOf(judged, size);
+			queue = Arrays.copyOf(queue, size);
+		}
+
+		protected void add(SubmissionState s, int n) {
+			ensureSize(Math.max(s.queueBucket, s.judgedBucket));
+			submitted[s.bucket] += n;
+			numSubmissions += n;
+
+			if (s.status == Status.SOLVED) {
+				solved[s.bucket] += n;
+				numSolved += n;
+			} else if (s.status == Status.FAILED) {
+				failed[s.bucket] += n;
+				numFailed += n;
+			}
+
+			if (s.judgementTypeId != null)
+				judgementTypes.merge(s.judgementTypeId, n, Integer::sum);
+
+			// only count the intervals that the submission was queued for all of
+			int queueStart = s.queueBucket;
+			if (s.status == Status.SUBMITTED) {
+				queue[queueStart] += n;
+			} else if (s.judgedBucket >= 0) {
+				judged[s.judgedBucket] += n;
+				if (queueStart < s.judgedBucket) {
+					queue[queueStart] += n;
+					queue[s.judgedBucket] -= n;
+				}
+			}
+
+			if (s.judgeTime >= 0) {
+				if (s.status == Status.SOLVED) {
+					solvedJudgeTime += s.judgeTime * n;
+					numSolvedJudged += n;
+				} else {
+					failedJudgeTime += s.judgeTime * n;
+					numFailedJudged += n;
+				}
+			}
+		}
+
+		private int[] copy(int[] arr, int n, boolean fold) {
+			int[] values = new int[n];
+			if (n == 0)
+				return values;
+
+			System.arraycopy(arr, 0, values, 0, Math.min(n, arr.length));
+			if (fold) {
+				for (int i = n; i < arr.length; i++)
+					values[n - 1] += arr[i];
+			}
+			return values;
+		}
+
+		/**
+		 * Returns the number of submissions in each interval.
+		 *
+		 * @param n the number of intervals to return
+		 * @param fold true to add submissions after the last interval to the last interval, false to
+		 *           ignore them
+		 */
+		public int[] getSubmissions(int n, boolean fold) {
+			synchronized (SubmissionAggregates.this) {
+				return copy(submitted, n, fold);
+			}
+		}
+
+		/**
+		 * Returns the number of solved submissions in each interval.
+		 *
+		 * @see #getSubmissions(int, boolean)
+		 */
+		public int[] getSolved(int n, boolean fold) {
+			synchronized (SubmissionAggregates.this) {
+				return copy(solved, n, fold);
+			}
+		}
+
+		/**
+		 * Returns the number of judged submissions that did not solve in each interval.
+		 *
+		 * @see #getSubmissions(int, boolean)
+		 */
+		public int[] getFailed(int n, boolean fold) {
+			synchronized (SubmissionAggregates.this) {
+				return copy(failed, n, fold);
+			}
+		}
+
+		/**
+		 * Returns the number of submissions that have not been judged in each interval.
+		 *
+		 * @see #getSubmissions(int, boolean)
+		 */
+		public int[] getPending(int n, boolean fold) {
+			synchronized (SubmissionAggregates.this) {
+				int[] values = copy(submitted, n, fold);
+				int[] s = copy(solved, n, fold);
+				int[] f = copy(failed, n, fold);
+				for (int i = 0; i < n; i++)
+					values[i] -= s[i] + f[i];
+				return values;
+			}
+		}
+
+		/**
+		 * Returns the number of submissions whose judgement finished in each interval.
+		 *
+		 * @see #getSubmissions(int, boolean)
+		 */
+		public int[] getJudged(int n, boolean fold) {
+			synchronized (SubmissionAggregates.this) {
+				return copy(judged, n, fold);
+			}
+		}
+
+		/**
+		 * Returns the number of submissions waiting for a judgement during each interval. Submissions
+		 * that haven't been judged yet are counted until the given time.
+		 *
+		 * @param n the number of intervals to return
+		 * @param contestTime the current contest time, in ms
+		 */
+		public int[] getQueueDepth(int n, long contestTime) {
+			synchronized (SubmissionAggregates.this) {
+				int[] values = new int[n];
+				int end = Math.min(n, (int) Math.floor(contestTime / (double) interval));
+				int depth = 0;
+				for (int i = 0; i < end && i < queue.length; i++) {
+					depth += queue[i];
+					values[i] = depth;
+				}
+				for (int i = queue.length; i < end; i++)
+					values[i] = depth;
+				return values;
+			}
+		}
+
+		public int getNumSubmissions() {
+			synchronized (SubmissionAggregates.this) {
+				return numSubmissions;
+			}
+		}
+
+		public int getNumSolved() {
+			synchronized (SubmissionAggregates.this) {
+				return numSolved;
+			}
+		}
+
+		public int getNumFailed() {
+			synchronized (SubmissionAggregates.this) {
+				return numFailed;
+			}
+		}
+
+		public int getNumPending() {
+			synchronized (SubmissionAggregates.this) {
+				return numSubmissions - numSolved - numFailed;
+			}
+		}
+
+		/**
+		 * Returns the number of submissions whose judgement has the given judgement type.
+		 */
+		public int getNumJudgements(String judgementTypeId) {
+			synchronized (SubmissionAggregates.this) {
+				Integer count = judgementTypes.get(judgementTypeId);
+				if (count == null)
+					return 0;
+				return count;
+			}
+		}
+
+		/**
+		 * Returns the average time to judge submissions, in ms, or 0 if none have been judged.
+		 *
+		 * @param forSolved true for solved submissions, false for submissions that did not solve
+		 */
+		public double getAverageJudgeTime(boolean forSolved) {
+			synchronized (SubmissionAggregates.this) {
+				if (forSolved)
+					return numSolvedJudged == 0 ? 0 : solvedJudgeTime / (double) numSolvedJudged;
+				return numFailedJudged == 0 ? 0 : failedJudgeTime / (double) numFailedJudged;
+			}
+		}
+	}
+
+	protected static class SubmissionState {
+		protected boolean submitted;
+		protected String problemId;
+		protected String languageId;
+		protected int bucket;
+		protected int queueBucket;
+
+		// all judgements of this submission, in contest order
+		protected final List<IJudgement> judgements = new ArrayList<>(1);
+
+		protected String judgementId;
+		protected String judgementTypeId;
+		protected Status status = Status.SUBMITTED;
+		protected int judgedBucket = -1;
+		protected long judgeTime = -1;
+	}
+
+	private final int interval;
+	private final Map<String, SubmissionState> submissions = new HashMap<>();
+	// submission id of each judgement
+	private final Map<String, String> judgementSubmissions = new HashMap<>();
+	private final Counters total = new Counters();
+	private final Map<String, Counters> problems = new HashMap<>();
+	private final Map<String, Counters> languages = new HashMap<>();
+
+	/**
+	 * Returns the shared aggregates for the given contest and interval, creating them and loading
+	 * the contest so far if necessary.
+	 *
+	 * @param contest a contest
+	 * @param interval the interval length, in ms
+	 */
+	public static SubmissionAggregates getInstance(IContest contest, int interval) {
+		SubmissionAggregates sa = null;
+		synchronized (instances) {
+			Iterator<SubmissionAggregates> iter = instances.iterator();
+			while (iter.hasNext()) {
+				SubmissionAggregates sa2 = iter.next();
+				IContest c = sa2.contestRef.get();
+				if (c == null)
+					iter.remove();
+				else if (c == contest && sa2.interval == interval)
+					return sa2;
+			}
+
+			sa = new SubmissionAggregates(interval);
+			sa.contestRef = new WeakReference<>(contest);
+			instances.add(sa);
+		}
+
+		if (contest instanceof Contest)
+			((Contest) contest).addListenerFromStart(sa);
+		else // other contests can't be replayed, so only changes from now on are counted
+			contest.addListener(sa);
+		return sa;
+	}
+
+	private WeakReference<IContest> contestRef;
+
+	/**
+	 * Create aggregates that are not shared. Add them as a listener to a contest to fill them.
+	 *
+	 * @param interval the interval length, in ms
+	 */
+	public SubmissionAggregates(int interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Invalid interval");
+		this.interval = interval;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Returns the counts for the whole contest.
+	 */
+	public Counters getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the counts for the given problem.
+	 */
+	public synchronized Counters getProblem(String problemId) {
+		return getCounters(problems, problemId);
+	}
+
+	/**
+	 * Returns the counts for the given language.
+	 */
+	public synchronized Counters getLanguage(String languageId) {
+		return getCounters(languages, languageId);
+	}
+
+	private Counters getCounters(Map<String, Counters> map, String id) {
+		Counters c = map.get(id);
+		if (c == null) {
+			c = new Counters();
+			if (id != null)
+				map.put(id, c);
+		}
+		return c;
+	}
+
+	private void add(SubmissionState s, int n) {
+		if (!s.submitted)
+			return;
+
+		total.add(s, n);
+		getCounters(problems, s.problemId).add(s, n);
+		getCounters(languages, s.languageId).add(s, n);
+	}
+
+	private int getBucket(Long time, boolean roundUp) {
+		if (time == null || time <= 0)
+			return 0;
+		if (roundUp)
+			return (int) ((time + interval - 1) / interval);
+		return (int) (time / interval);
+	}
+
+	@Override
+	public synchronized void contestChanged(IContest contest, IContestObject obj, Delta delta) {
+		ContestType type = obj.getType();
+		if (type == ContestType.SUBMISSION)
+			submissionChanged(obj, delta);
+		else if (type == ContestType.JUDGEMENT)
+			judgementChanged(contest, obj, delta);
+	}
+
+	private void submissionChanged(IContestObject obj, Delta delta) {
+		String id = obj.getId();
+		SubmissionState s = submissions.get(id);
+		if (delta == Delta.DELETE) {
+			if (s != null) {
+				add(s, -1);
+				submissions.remove(id);
+				for (IJudgement j : s.judgements)
+					judgementSubmissions.remove(j.getId());
+			}
+			return;
+		}
+
+		if (!(obj instanceof ISubmission))
+			return;
+
+		ISubmission sub = (ISubmission) obj;
+		if (s == null) {
+			s = new SubmissionState();
+			submissions.put(id, s);
+		} else
+			add(s, -1);
+
+		s.submitted = true;
+		s.problemId = sub.getProblemId();
+		s.languageId = sub.getLanguageId();
+		s.bucket = getBucket(sub.getContestTime(), false);
+		s.queueBucket = getBucket(sub.getContestTime(), true);
+		add(s, 1);
+	}
+
+	private void judgementChanged(IContest contest, IContestObject obj, Delta delta) {
+		String id = obj.getId();
+		String sId = null;
+		if (delta != Delta.DELETE && obj instanceof IJudgement)
+			sId = ((IJudgement) obj).getSubmissionId();
+
+		// remove the judgement from the submission it was for, if that has changed
+		String oldSId = judgementSubmissions.remove(id);
+		if (oldSId != null && !oldSId.equals(sId)) {
+			SubmissionState s = submissions.get(oldSId);
+			if (s != null) {
+				removeJudgement(s, id);
+				updateJudgement(contest, s);
+			}
+		}
+
+		if (sId == null)
+			return;
+
+		SubmissionState s = submissions.get(sId);
+		if (s == null) {
+			// judgement before its submission, keep it until the submission arrives
+			s = new SubmissionState();
+			submissions.put(sId, s);
+		}
+
+		// replace the judgement in place, or add it at the end
+		IJudgement j = (IJudgement) obj;
+		int ind = removeJudgement(s, id);
+		if (ind < 0)
+			s.judgements.add(j);
+		else
+			s.judgements.add(ind, j);
+		judgementSubmissions.put(id, sId);
+		updateJudgement(contest, s);
+	}
+
+	private static int removeJudgement(SubmissionState s, String judgementId) {
+		for (int i = 0; i < s.judgements.size(); i++) {
+			if (s.judgements.get(i).getId().equals(judgementId)) {
+				s.judgements.remove(i);
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Update the submission to its last judgement with a known judgement type, falling back to an
+	 * earlier judgement when the current one is deleted or loses its type.
+	 */
+	private void updateJudgement(IContest contest, SubmissionState s) {
+		IJudgement judgement = null;
+		IJudgementType type = null;
+		for (int i = s.judgements.size() - 1; i >= 0; i--) {
+			IJudgement j = s.judgements.get(i);
+			IJudgementType jt = contest.getJudgementTypeById(j.getJudgementTypeId());
+			if (jt != null) {
+				judgement = j;
+				type = jt;
+				break;
+			}
+		}
+
+		add(s, -1);
+		setJudgement(s, judgement, type);
+		add(s, 1);
+	}
+
+	private void setJudgement(SubmissionState s, IJudgement j, IJudgementType jt) {
+		if (j == null || jt == null) {
+			s.judgementId = null;
+			s.judgementTypeId = null;
+			s.status = Status.SUBMITTED;
+			s.judgedBucket = -1;
+			s.judgeTime = -1;
+			return;
+		}
+
+		s.judgementId = j.getId();
+		s.judgementTypeId = jt.getId();
+		s.status = jt.isSolved() ? Status.SOLVED : Status.FAILED;
+		Long end = j.getEndContestTime();
+		s.judgedBucket = end == null ? -1 : getBucket(end, false);
+		if (j.getStartTime() != null && j.getEndTime() != null)
+			s.judgeTime = Math.max(0, j.getEndTime() - j.getStartTime());
+		else
+			s.judgeTime = -1;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "SubmissionAggregates [" + interval + "ms, " + submissions.size() + " submissions]";
+	}
+}
@@ -0,0 +1,194 @@
+package org.icpc.tools.contest.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.icpc.tools.contest.model.IContestObject;
+import org.icpc.tools.contest.model.IContestObject.ContestType;
+import org.icpc.tools.contest.model.IJudgementType;
+import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.feed.RelativeTime;
+import org.icpc.tools.contest.model.feed.Timestamp;
+import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.ContestObject;
+import org.icpc.tools.contest.model.internal.Deletion;
+import org.icpc.tools.contest.model.internal.Info;
+import org.icpc.tools.contest.model.internal.Judgement;
+import org.icpc.tools.contest.model.internal.JudgementType;
+import org.icpc.tools.contest.model.internal.Language;
+import org.icpc.tools.contest.model.internal.Problem;
+import org.icpc.tools.contest.model.internal.Submission;
+import org.icpc.tools.contest.model.internal.Team;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class SubmissionAggregatesTest {
+	private static final long START = 1577872800000L; // 2020-01-01T10:00:00Z
+	private static final int INTERVAL = 10 * 60 * 1000;
+	private static final int NUM_INTERVALS = 32;
+	private static final String[] PROBLEMS = new String[] { "p0", "p1", "p2" };
+	private static final String[] LANGUAGES = new String[] { "java", "cpp" };
+	private static final String[] TYPES = new String[] { "AC", "WA", "CE" };
+
+	private static <T extends ContestObject> T create(T obj, Object... props) {
+		for (int i = 0; i < props.length; i += 2)
+			obj.add((String) props[i], props[i + 1]);
+		return obj;
+	}
+
+	private static Contest createContest() {
+		Contest c = new Contest(false);
+		c.add(create(new Info(), "id", "test", "name", "Test", "duration", "5:00:00", "penalty_time", "20"));
+		c.add(create(new JudgementType(), "id", "AC", "name", "Accepted", "solved", true, "penalty", false));
+		c.add(create(new JudgementType(), "id", "WA", "name", "Wrong Answer", "solved", false, "penalty", true));
+		c.add(create(new JudgementType(), "id", "CE", "name", "Compile Error", "solved", false, "penalty", false));
+		for (String id : PROBLEMS)
+			c.add(create(new Problem(), "id", id, "label", id, "name", id));
+		for (String id : LANGUAGES)
+			c.add(create(new Language(), "id", id, "name", id));
+		c.add(create(new Team(), "id", "1", "name", "Team 1"));
+		return c;
+	}
+
+	private static Submission createSubmission(String id, String problemId, String languageId, long time) {
+		return create(new Submission(), "id", id, "team_id", "1", "problem_id", problemId, "language_id", languageId,
+				"contest_time", RelativeTime.format(time));
+	}
+
+	private static Judgement createJudgement(String id, String submissionId, String typeId, long time) {
+		Judgement j = create(new Judgement(), "id", id, "submission_id", submissionId, "start_contest_time",
+				RelativeTime.format(time), "start_time", Timestamp.format(START + time), "end_contest_time",
+				RelativeTime.format(time + 30000), "end_time", Timestamp.format(START + time + 30000));
+		if (typeId != null)
+			j.add("judgement_type_id", typeId);
+		return j;
+	}
+
+	private static void describe(StringBuilder sb, String name, Counters c) {
+		sb.append(name).append(": ").append(c.getNumSubmissions()).append(" ").append(c.getNumSolved()).append(" ")
+				.append(c.getNumFailed()).append(" ").append(c.getNumPending()).append("\n");
+		sb.append(Arrays.toString(c.getSubmissions(NUM_INTERVALS, true))).append("\n");
+		sb.append(Arrays.toString(c.getSolved(NUM_INTERVALS, true))).append("\n");
+		sb.append(Arrays.toString(c.getFailed(NUM_INTERVALS, true))).append("\n");
+		sb.append(Arrays.toString(c.getPending(NUM_INTERVALS, true))).append("\n");
+		sb.append(Arrays.toString(c.getJudged(NUM_INTERVALS, true))).append("\n");
+		sb.append(Arrays.toString(c.getQueueDepth(NUM_INTERVALS, 5 * 3600000L))).append("\n");
+		for (String type : TYPES)
+			sb.append(type).append("=").append(c.getNumJudgements(type)).append(" ");
+		sb.append(c.getAverageJudgeTime(true)).append(" ").append(c.getAverageJudgeTime(false)).append("\n");
+	}
+
+	private static String describe(SubmissionAggregates sa) {
+		StringBuilder sb = new StringBuilder();
+		describe(sb, "total", sa.getTotal());
+		for (String id : PROBLEMS)
+			describe(sb, id, sa.getProblem(id));
+		for (String id : LANGUAGES)
+			describe(sb, id, sa.getLanguage(id));
+		return sb.toString();
+	}
+
+	/**
+	 * Count the current contest from scratch.
+	 */
+	private static String recount(Contest contest) {
+		Contest c = new Contest(false);
+		for (IContestObject obj : contest.getObjects())
+			c.add(obj);
+
+		SubmissionAggregates sa = new SubmissionAggregates(INTERVAL);
+		c.addListenerFromStart(sa);
+		return describe(sa);
+	}
+
+	@Test
+	public void testRejudge() throws Exception {
+		Contest contest = createContest();
+		SubmissionAggregates sa = new SubmissionAggregates(INTERVAL);
+		contest.addListenerFromStart(sa);
+
+		contest.add(createSubmission("s1", "p0", "java", 60000));
+		contest.add(createJudgement("j1", "s1", "WA", 70000));
+		contest.add(createJudgement("j2", "s1", "AC", 80000));
+		assertThat(sa.getTotal().getNumSolved()).isEqualTo(1);
+
+		// deleting the rejudge goes back to the earlier judgement, not to pending
+		contest.add(new Deletion("j2", ContestType.JUDGEMENT));
+		assertThat(sa.getTotal().getNumSolved()).isEqualTo(0);
+		assertThat(sa.getTotal().getNumFailed()).isEqualTo(1);
+		assertThat(sa.getTotal().getNumJudgements("WA")).isEqualTo(1);
+
+		// as does a judgement that loses its type
+		contest.add(createJudgement("j2", "s1", "AC", 80000));
+		contest.add(createJudgement("j2", "s1", null, 80000));
+		assertThat(sa.getTotal().getNumFailed()).isEqualTo(1);
+		assertThat(describe(sa)).isEqualTo(recount(contest));
+
+		contest.add(new Deletion("j1", ContestType.JUDGEMENT));
+		assertThat(sa.getTotal().getNumPending()).isEqualTo(1);
+		assertThat(describe(sa)).isEqualTo(recount(contest));
+	}
+
+	@Test
+	public void testIncremental() throws Exception {
+		Random r = new Random(49);
+		Contest contest = createContest();
+		SubmissionAggregates sa = new SubmissionAggregates(INTERVAL);
+		contest.addListenerFromStart(sa);
+
+		List<String> subs = new ArrayList<>();
+		List<String> judgements = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			long time = r.nextInt(5 * 3600000);
+			int op = r.nextInt(10);
+			if (op < 4 || subs.isEmpty()) {
+				String id = "s" + i;
+				contest.add(createSubmission(id, PROBLEMS[r.nextInt(PROBLEMS.length)],
+						LANGUAGES[r.nextInt(LANGUAGES.length)], time));
+				subs.add(id);
+			} else if (op < 7) {
+				// new judgement or rejudge, sometimes before its submission or without a type
+				String sId = r.nextInt(20) == 0 ? "s" + (i + 1) : subs.get(r.nextInt(subs.size()));
+				String id = "j" + i;
+				String type = r.nextInt(10) == 0 ? null : TYPES[r.nextInt(TYPES.length)];
+				contest.add(createJudgement(id, sId, type, time));
+				judgements.add(id);
+			} else if (op < 8 && !judgements.isEmpty()) {
+				// change the type of an existing judgement
+				String id = judgements.get(r.nextInt(judgements.size()));
+				Judgement j = (Judgement) contest.getJudgementById(id);
+				contest.add(createJudgement(id, j.getSubmissionId(), TYPES[r.nextInt(TYPES.length)], time));
+			} else if (op < 9 && !judgements.isEmpty()) {
+				String id = judgements.remove(r.nextInt(judgements.size()));
+				contest.add(new Deletion(id, ContestType.JUDGEMENT));
+			} else {
+				String id = subs.remove(r.nextInt(subs.size()));
+				contest.add(new Deletion(id, ContestType.SUBMISSION));
+			}
+
+			if (i % 100 == 0)
+				assertThat(describe(sa)).isEqualTo(recount(contest));
+		}
+		assertThat(describe(sa)).isEqualTo(recount(contest));
+
+		// and the same status as the contest
+		int solved = 0;
+		int failed = 0;
+		for (ISubmission s : contest.getSubmissions()) {
+			IJudgementType jt = contest.getJudgementType(s);
+			if (jt != null && jt.isSolved())
+				solved++;
+			else if (jt != null)
+				failed++;
+		}
+		assertThat(sa.getTotal().getNumSolved()).isEqualTo(solved);
+		assertThat(sa.getTotal().getNumFailed()).isEqualTo(failed);
+	}
+}
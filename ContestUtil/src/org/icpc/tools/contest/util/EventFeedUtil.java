@@ -33,6 +33,7 @@ import org.icpc.tools.contest.model.ISubmission;
 import org.icpc.tools.contest.model.ITeam;
 import org.icpc.tools.contest.model.Scoreboard;
 import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.feed.ArchivedContest;
 import org.icpc.tools.contest.model.feed.ContestSource;
 import org.icpc.tools.contest.model.feed.DiskContestSource;
 import org.icpc.tools.contest.model.feed.HTTPSSecurity;
@@ -50,13 +51,13 @@ public class EventFeedUtil {
 		System.out.println("Usage: [options]");
 		System.out.println();
 		System.out.println("  Options:");
-		System.out.println("     --summary [event-feed.json]");
+		System.out.println("     --summary [event-feed.json or contest.archive]");
 		System.out.println("         Shows information the given feed");
 		System.out.println("     --validate [event-feed.json]");
 		System.out.println("         Validate consistency of the given feed");
-		System.out.println("     --compareSummary [event-feed1.json] [event-feed2.json]");
+		System.out.println("     --compareSummary [event-feed1.json or contest1.archive] [event-feed2.json or contest2.archive]");
 		System.out.println("         Performs a quick comparison of the two feeds");
-		System.out.println("     --compare [event-feed1.json] [event-feed2.json]");
+		System.out.println("     --compare [event-feed1.json or contest1.archive] [event-feed2.json or contest2.archive]");
 		System.out.println("         Perform a deep comparison of the two feeds");
 		System.out.println("     --download [url] [user] [password]");
 		System.out.println("         Download an event feed from the given url");
@@ -70,6 +71,8 @@ public class EventFeedUtil {
 		System.out.println("         Remove all teams that had no activity from the given event feed");
 		System.out.println("     --convert [eventFeed.xml/json]");
 		System.out.println("         Convert between event feed formats");
+		System.out.println("     --archive [event-feed.json] [contest.archive]");
+		System.out.println("         Create a contest archive, which can be read without loading the whole feed");
 		System.out.println("     --help");
 		System.out.println("         Displays this information");
 		System.out.println("     --version");
@@ -154,6 +157,11 @@ public class EventFeedUtil {
 				convert(new File(argList.get(1)));
 				break;
 			}
+			case "--archive": {
+				expectArgs(argList, "--archive", "event-feed.json", "contest.archive");
+				archive(new File(argList.get(1)), new File(argList.get(2)));
+				break;
+			}
 			default: {
 				Trace.trace(Trace.ERROR, "Invalid option(s): ");
 				for (String a : args)
@@ -167,8 +175,8 @@ public class EventFeedUtil {
 	}
 
 	protected static void compare(File f1, File f2, boolean summaryOnly) {
-		Contest c1 = loadEventFeed(f1);
-		Contest c2 = loadEventFeed(f2);
+		IContest c1 = loadContest(f1);
+		IContest c2 = loadContest(f2);
 
 		outputValidationWarning(c1);
 		outputValidationWarning(c2);
@@ -230,8 +238,23 @@ public class EventFeedUtil {
 		return groupName;
 	}
 
+	protected static IContest loadContest(File file) {
+		if (!ArchivedContest.isArchive(file))
+			return loadEventFeed(file);
+
+		Trace.trace(Trace.USER, "Opening contest archive: " + file.getAbsolutePath());
+
+		try {
+			return ArchivedContest.open(file);
+		} catch (Exception e) {
+			Trace.trace(Trace.ERROR, "Could not open contest archive: " + file, e);
+			System.exit(2);
+			return null;
+		}
+	}
+
 	protected static void summary(File file) {
-		Contest contest = loadEventFeed(file);
+		IContest contest = loadContest(file);
 		outputValidationWarning(contest);
 
 		// IInfo info = contest.getInfo();
@@ -285,7 +308,7 @@ public class EventFeedUtil {
 			Trace.trace(Trace.USER, "Contest has no judged submissions after the freeze");
 
 		Trace.trace(Trace.USER, "");
-		if (!contest.isDoneUpdating()) {
+		if (contest.getState() == null || !contest.getState().isDoneUpdating()) {
 			Trace.trace(Trace.USER, "Not done updating!");
 		} else if (contest.getAwards() != null) {
 			Trace.trace(Trace.USER, "Medals - last bronze: " + AwardUtil.getLastBronze(contest));
@@ -428,7 +451,7 @@ public class EventFeedUtil {
 
 	}
 
-	protected static void outputValidationWarning(Contest contest) {
+	protected static void outputValidationWarning(IContest contest) {
 		if (contest.validate() != null)
 			Trace.trace(Trace.WARNING, "Event feed is not valid. Run \"eventFeed --validate\" for details");
 	}
@@ -455,6 +478,19 @@ public class EventFeedUtil {
 		}
 	}
 
+	protected static void archive(File file, File archiveFile) {
+		Contest contest = loadEventFeed(file);
+		outputValidationWarning(contest);
+
+		try {
+			ArchivedContest.write(contest, archiveFile);
+			Trace.trace(Trace.USER, "Contest archive written to: " + archiveFile.getAbsolutePath());
+		} catch (Exception e) {
+			Trace.trace(Trace.ERROR, "Could not write contest archive", e);
+			System.exit(2);
+		}
+	}
+
 	protected static void convert(File file) {
 		Contest contest = loadEventFeed(file);
 
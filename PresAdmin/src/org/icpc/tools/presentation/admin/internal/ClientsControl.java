@@ -52,6 +52,7 @@ import org.eclipse.swt.widgets.Text;
 import org.icpc.tools.client.core.BasicClient.Client;
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.feed.JSONParser.JsonObject;
+import org.icpc.tools.presentation.core.internal.FrameStats;
 import org.icpc.tools.presentation.core.internal.PresentationInfo;
 
 public class ClientsControl extends Canvas {
@@ -70,6 +71,9 @@ public class ClientsControl extends Canvas {
 	private static final String FPS = "fps";
 	private static final String PRESENTATION = "presentation";
 
+	// clients that are animating below this frame rate are shown as slow
+	private static final int TARGET_FPS = 30;
+
 	protected Dimension IMG_DIM = DEFAULT_IMG_DIM;
 
 	protected Client[] clients = new Client[0];
@@ -80,6 +84,8 @@ public class ClientsControl extends Canvas {
 
 	protected List<SelectionListener> listeners;
 	protected IDropListener dropListener;
+	protected IVisibleListener visibleListener;
+	protected int[] visibleClients = new int[0];
 	protected List<Integer> selection = new ArrayList<>();
 	protected int yOrigin = 0;
 	private boolean waitingForRedraw;
@@ -95,12 +101,28 @@ public class ClientsControl extends Canvas {
 		String pres;
 		Image thumbnail;
 		int[] multiscreen;
+		boolean perf;
+		double frameAvg;
+		double frameP95;
+		long gcTime;
+		long cacheMisses;
+		String slowest;
+		boolean slow;
 	}
 
 	public interface IDropListener {
 		void drop(int clientUID, PresentationInfo pres);
 	}
 
+	public interface IVisibleListener {
+		/**
+		 * Called when the set of clients that are visible (and hence need thumbnails) changes.
+		 *
+		 * @param clientUIDs the visible clients
+		 */
+		void visibleClientsChanged(int[] clientUIDs);
+	}
+
 	/**
 	 * ClientsControl constructor.
 	 *
@@ -209,6 +231,10 @@ public class ClientsControl extends Canvas {
 		dropListener = newListener;
 	}
 
+	public void setVisibleListener(IVisibleListener newListener) {
+		visibleListener = newListener;
+	}
+
 	public void addSelectionListener(SelectionListener newListener) {
 		if (listeners == null)
 			listeners = new ArrayList<>();
@@ -337,6 +363,8 @@ public class ClientsControl extends Canvas {
 					ci.fps = obj.getInt(FPS);
 				if (obj.containsKey(PRESENTATION))
 					ci.pres = obj.getString(PRESENTATION);
+				if (obj.containsKey(FrameStats.PERF))
+					handlePerformance(id, ci, obj.getJsonObject(FrameStats.PERF));
 
 				clientStates.put(id, ci);
 			}
@@ -347,6 +375,37 @@ public class ClientsControl extends Canvas {
 		doRedraw();
 	}
 
+	private static void handlePerformance(int id, ClientInfo ci, JsonObject perf) {
+		ci.perf = true;
+		ci.frameAvg = perf.containsKey(FrameStats.FRAME_AVG) ? perf.getDouble(FrameStats.FRAME_AVG) : 0;
+		ci.frameP95 = perf.containsKey(FrameStats.FRAME_P95) ? perf.getDouble(FrameStats.FRAME_P95) : 0;
+		ci.gcTime = perf.getLong(FrameStats.GC_TIME);
+		ci.cacheMisses = perf.getLong(FrameStats.CACHE_MISSES);
+
+		ci.slowest = null;
+		double max = 0;
+		Object[] pres = perf.getArray(FrameStats.PRESENTATIONS);
+		if (pres != null) {
+			for (Object o : pres) {
+				JsonObject p = (JsonObject) o;
+				double avg = p.getDouble(FrameStats.AVG);
+				if (avg > max) {
+					max = avg;
+					ci.slowest = p.getString(FrameStats.NAME);
+				}
+			}
+		}
+
+		// only judge the frame rate if the client was trying to animate most of the time
+		int frames = perf.getInt(FrameStats.FRAMES);
+		boolean animating = frames > 0 && perf.getInt(FrameStats.ANIMATING) * 2 > frames;
+		boolean slow = animating && !ci.hidden && ci.fps > 0 && ci.fps < TARGET_FPS;
+		if (slow && !ci.slow)
+			Trace.trace(Trace.WARNING, "Client " + Integer.toHexString(id) + " is below " + TARGET_FPS + "fps: " + ci.fps
+					+ "fps, " + ci.frameAvg + "ms per frame (p95 " + ci.frameP95 + "ms), slowest: " + ci.slowest);
+		ci.slow = slow;
+	}
+
 	public void setThumbnail(int id, byte[] b) {
 		ImageLoader il = new ImageLoader();
 		ImageData[] id2 = il.load(new ByteArrayInputStream(b));
@@ -546,7 +605,7 @@ public class ClientsControl extends Canvas {
 			if (filter.contains(c.type))
 				continue;
 
-			Rectangle rr = new Rectangle(i, j, IMG_DIM.width, IMG_DIM.height + fh + TEXT_GAP);
+			Rectangle rr = new Rectangle(i, j, IMG_DIM.width, IMG_DIM.height + fh * 2 + TEXT_GAP);
 
 			ClientInfo ci = clientStates.get(c.uid);
 			boolean found = false;
@@ -719,6 +778,8 @@ public class ClientsControl extends Canvas {
 		gc.setTransform(trans);
 		trans.dispose();
 
+		int[] visible = new int[clients.length];
+		int numVisible = 0;
 		synchronized (uiLock) {
 			// draw backgrounds first
 			for (Client c : clients) {
@@ -732,6 +793,8 @@ public class ClientsControl extends Canvas {
 				if (rr.y - yOrigin > rect.y + rect.height || rr.y + rr.height - yOrigin < rect.y)
 					continue;
 
+				visible[numVisible++] = uid;
+
 				if (selection.contains(uid)) {
 					gc.setBackground(getDisplay().getSystemColor(SWT.COLOR_LIST_SELECTION));
 					gc.fillRectangle(rr.x - SEL_MARGIN, rr.y - SEL_MARGIN, rr.width + SEL_MARGIN * 2 + 1,
@@ -801,26 +864,58 @@ public class ClientsControl extends Canvas {
 				}
 
 				// name & current resolution/fps
+				int ty = rr.y + rr.height - fh * 2;
 				if (dc != null && dc.id != -1)
-					gc.drawString("Multi-display", rr.x, rr.y + rr.height - fh, true);
+					gc.drawString("Multi-display", rr.x, ty, true);
 				else
-					gc.drawString(c.name, rr.x, rr.y + rr.height - fh, true);
+					gc.drawString(c.name, rr.x, ty, true);
 				if (c.contestIds != null && c.contestIds.length > 0)
-					gc.drawString(c.contestIds[0], rr.x + (rr.width - gc.textExtent(c.contestIds[0]).x) / 2,
-							rr.y + rr.height - fh, true);
+					gc.drawString(c.contestIds[0], rr.x + (rr.width - gc.textExtent(c.contestIds[0]).x) / 2, ty, true);
 
 				if (ci != null) {
+					Color fore = gc.getForeground();
+					if (ci.slow)
+						gc.setForeground(getDisplay().getSystemColor(SWT.COLOR_RED));
+
 					String ss = ci.width + "x" + ci.height + "@" + ci.fps + "fps";
 					if (dc != null && dc.id != -1)
 						ss = ci.width + "x" + ci.height;
-					gc.drawString(ss, rr.x + rr.width - gc.textExtent(ss).x, rr.y + rr.height - fh, true);
+					gc.drawString(ss, rr.x + rr.width - gc.textExtent(ss).x, ty, true);
+
+					// performance: frame time, then gc time and cache misses
+					if (ci.perf) {
+						ty += fh;
+						ss = ci.frameAvg + "ms (p95 " + ci.frameP95 + "ms)";
+						if (ci.slow && ci.slowest != null)
+							ss += " " + ci.slowest;
+						gc.drawString(ss, rr.x, ty, true);
+						ss = "GC " + ci.gcTime + "ms, " + ci.cacheMisses + " misses";
+						gc.drawString(ss, rr.x + rr.width - gc.textExtent(ss).x, ty, true);
+					}
+
+					if (ci.slow) {
+						gc.drawRectangle(rr.x - 1, rr.y - 1, IMG_DIM.width + 1, IMG_DIM.height + 1);
+						gc.setForeground(fore);
+					}
 				}
 			}
 		}
 
+		updateVisibleClients(Arrays.copyOf(visible, numVisible));
+
 		// Trace.trace(Trace.USER, "Painted: " + (System.currentTimeMillis() - time));
 	}
 
+	private void updateVisibleClients(int[] visible) {
+		Arrays.sort(visible);
+		if (Arrays.equals(visible, visibleClients))
+			return;
+
+		visibleClients = visible;
+		if (visibleListener != null)
+			visibleListener.visibleClientsChanged(visible);
+	}
+
 	protected void resize() {
 		Dimension d = resizeRects();
 		Rectangle client = getClientArea();
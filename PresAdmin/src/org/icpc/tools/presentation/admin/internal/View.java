@@ -8,6 +8,9 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.prefs.Preferences;
 
 import org.eclipse.swt.SWT;
@@ -61,6 +64,14 @@ public class View {
 
 	protected BasicClient client;
 
+	// thumbnail subscriptions are sent off the UI thread, and only the latest visible set is sent
+	private final AtomicReference<int[]> pendingSubscription = new AtomicReference<>();
+	private final ExecutorService subscriptionExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "Thumbnail subscription");
+		t.setDaemon(true);
+		return t;
+	});
+
 	protected Map<Widget, AdminAction> actions = new HashMap<>();
 
 	protected abstract class AdminAction {
@@ -135,6 +146,14 @@ public class View {
 					clientsControl.setThumbnail(sourceUID, decodeImage(obj));
 			}
 
+			@Override
+			protected void handleThumbnail(int sourceUID, byte[] image) {
+				if (clientsControl == null || clientsControl.isDisposed())
+					return;
+
+				clientsControl.setThumbnail(sourceUID, image);
+			}
+
 			@Override
 			protected void handleLogResponse(JsonObject obj) throws IOException {
 				int sourceUID = getUID(obj, "source");
@@ -297,6 +316,21 @@ public class View {
 				});
 			}
 		});
+		clientsControl.setVisibleListener(new ClientsControl.IVisibleListener() {
+			@Override
+			public void visibleClientsChanged(int[] clientUIDs) {
+				if (pendingSubscription.getAndSet(clientUIDs) != null)
+					return;
+
+				subscriptionExecutor.execute(() -> {
+					try {
+						client.sendThumbnailSubscription(pendingSubscription.getAndSet(null));
+					} catch (IOException e) {
+						Trace.trace(Trace.WARNING, "Could not update thumbnail subscription", e);
+					}
+				});
+			}
+		});
 
 		client.addListener(new IConnectionListener() {
 			@Override
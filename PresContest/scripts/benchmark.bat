@@ -0,0 +1,18 @@
+@echo off
+rem
+rem Purpose: measure presentation rendering performance without a display
+rem
+
+set LIBDIR=%~dp0\lib
+
+set params=
+
+:loop
+if %1. == . goto :continue
+set params=%params% %1
+shift
+goto :loop
+
+:continue
+
+java -Xmx4096m -Djava.awt.headless=true -cp "%LIBDIR%\*" org.icpc.tools.presentation.contest.internal.standalone.RenderBenchmark %params% 
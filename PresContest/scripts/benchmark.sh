@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+#
+# Purpose: measure presentation rendering performance without a display
+#
+
+set -e
+
+export LIBDIR=$( dirname "${BASH_SOURCE}[0]" )/lib
+
+java -Xmx4096m -Djava.awt.headless=true -cp "$LIBDIR/*" org.icpc.tools.presentation.contest.internal.standalone.RenderBenchmark "$@"
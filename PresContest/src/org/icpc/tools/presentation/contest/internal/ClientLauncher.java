@@ -37,6 +37,8 @@ public class ClientLauncher {
 		System.out.println("     --multi-display p@wxh");
 		System.out.println("         Stretch the presentation across multiple clients. Use \"2@3x2\"");
 		System.out.println("         to indicate this client is position 2 (top middle) in a 3x2 grid");
+		System.out.println("     --thumbnail_quality q");
+		System.out.println("         JPEG quality of thumbnails sent to admins, from 0.0 to 1.0");
 		System.out.println("     --light");
 		System.out.println("         Use light mode");
 		System.out.println("     --help");
@@ -53,6 +55,7 @@ public class ClientLauncher {
 		String[] displayStr = new String[2];
 		String[] displayName = new String[1];
 		boolean[] lightMode = new boolean[1];
+		float[] thumbnailQuality = new float[] { -1f };
 		ContestSource contestSource = ArgumentParser.parse(args, new OptionParser() {
 			@Override
 			public boolean setOption(String option, List<Object> options) throws IllegalArgumentException {
@@ -68,6 +71,10 @@ public class ClientLauncher {
 					ArgumentParser.expectOptions(option, options, "p@wxh:string");
 					displayStr[1] = (String) options.get(0);
 					return true;
+				} else if ("--thumbnail_quality".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "q:float");
+					thumbnailQuality[0] = (Float) options.get(0);
+					return true;
 				} else if ("--light".equals(option)) {
 					lightMode[0] = true;
 					return true;
@@ -109,6 +116,8 @@ public class ClientLauncher {
 		} else
 			client = new PresentationClient(name, "!admin", cdsSource);
 		instance = client;
+		if (thumbnailQuality[0] >= 0)
+			client.setThumbnailQuality(thumbnailQuality[0]);
 
 		// open window
 		createWindow(client, true);
@@ -1,11 +1,23 @@
 package org.icpc.tools.presentation.contest.internal;
 
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.IContest;
+import org.icpc.tools.contest.model.IOrganization;
 import org.icpc.tools.contest.model.feed.ContestSource;
 import org.icpc.tools.contest.model.internal.BufferedContest;
 import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.presentation.contest.internal.scoreboard.AbstractScoreboardPresentation;
 
 public class ContestData {
+	private static final int MAX_WARM_UP_THREADS = 4;
+
 	private static IContest contest;
 
 	public static IContest getContest() {
@@ -35,5 +47,54 @@ public class ContestData {
 			}
 		}
 		contest = tempContest;
+		warmUpLogos(contest);
+	}
+
+	/**
+	 * Render all organization logos at the sizes used by the scoreboard in the background, so that
+	 * SVG logos are in the disk cache before they are first shown.
+	 */
+	private static void warmUpLogos(IContest c) {
+		if (GraphicsEnvironment.isHeadless())
+			return;
+
+		// assume the presentation will be full screen on the default display
+		int height = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode()
+				.getHeight();
+		int[] sizes = AbstractScoreboardPresentation.getDefaultLogoSizes(height);
+
+		// a few low priority threads, so that warming up doesn't compete with the presentation or use
+		// the common pool
+		int numThreads = Math.max(1, Math.min(MAX_WARM_UP_THREADS, Runtime.getRuntime().availableProcessors() / 2));
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 10L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "Logo Warm-up Thread");
+						t.setPriority(Thread.MIN_PRIORITY + 1);
+						t.setDaemon(true);
+						return t;
+					}
+				});
+
+		long start = System.currentTimeMillis();
+		IOrganization[] orgs = c.getOrganizations();
+		AtomicInteger remaining = new AtomicInteger(orgs.length);
+		for (IOrganization org : orgs) {
+			executor.execute(() -> {
+				try {
+					for (int s : sizes) {
+						if (s > 0)
+							org.getLogoImage(s, s, true, true);
+					}
+				} catch (Exception e) {
+					Trace.trace(Trace.WARNING, "Error warming up logo for " + org.getId(), e);
+				}
+				if (remaining.decrementAndGet() == 0)
+					Trace.trace(Trace.INFO, "Warmed up " + orgs.length + " organization logos in "
+							+ (System.currentTimeMillis() - start) + "ms");
+			});
+		}
+		executor.shutdown();
 	}
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.icpc.tools.presentation.contest.internal;
 
 import java.awt.Dimension;
 import java.awt.DisplayMode;
+import java.awt.Graphics2D;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.Rectangle;
@@ -38,8 +39,11 @@ public class PresentationClient extends BasicClient {
 
 	protected long graphicsChecksum;
 	protected int[] graphicsInfo;
-	protected boolean sendingInfoUpdate;
 	protected boolean sendingInfo;
+	protected volatile boolean sendingInfoUpdate;
+
+	// copy of the last thumbnail, since the window reuses its thumbnail image
+	private BufferedImage infoImage;
 
 	protected PresentationClient(RESTContestSource source, String clientId, String role) {
 		this(source, clientId, role, "presentation");
@@ -276,6 +280,12 @@ public class PresentationClient extends BasicClient {
 		je.closeArray();
 	}
 
+	@Override
+	protected void addPerformanceInfo(JSONEncoder je) {
+		if (window instanceof PresentationWindowImpl)
+			((PresentationWindowImpl) window).getFrameStats().encode(je);
+	}
+
 	protected void sendInfoPresentation() throws IOException {
 		sendInfo(je -> {
 			Dimension d = window.getPresentationSize();
@@ -331,6 +341,10 @@ public class PresentationClient extends BasicClient {
 		}
 	}
 
+	/**
+	 * Send an info update with the given thumbnail on the executor. The image is copied first,
+	 * since the window reuses it once this method returns.
+	 */
 	public void writeInfoUpdate(final BufferedImage image) {
 		// last thread still going, try next time
 		if (sendingInfoUpdate)
@@ -338,12 +352,20 @@ public class PresentationClient extends BasicClient {
 
 		sendingInfoUpdate = true;
 
+		// only one update is in flight, so the copy can be reused
+		if (infoImage == null || infoImage.getWidth() != image.getWidth()
+				|| infoImage.getHeight() != image.getHeight())
+			infoImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = infoImage.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		final BufferedImage copy = infoImage;
+
 		execute(new Runnable() {
 			@Override
 			public void run() {
 				try {
-					PresentationClient.this.sendInfoUpdate(window.getPresentationName(), window.getFPS(),
-							imageToBytes(image));
+					PresentationClient.this.sendInfoUpdate(window.getPresentationName(), window.getFPS(), copy);
 				} catch (Exception e) {
 					Trace.trace(Trace.ERROR, "Error sending status", e);
 				}
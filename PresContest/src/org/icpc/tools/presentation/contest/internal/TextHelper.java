@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,6 +42,7 @@ import org.icpc.tools.contest.model.IProblem;
 import org.icpc.tools.contest.model.ISubmission;
 import org.icpc.tools.contest.model.ITeam;
 import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.internal.SVGRasterCache;
 import org.w3c.dom.Document;
 import org.w3c.dom.svg.SVGDocument;
 
@@ -681,19 +683,38 @@ public class TextHelper {
 	}
 
 	private void addEmoji(EmojiEntry emoji) {
+		int size = fm.getHeight() - 2;
+		BufferedImage img = emoji.images.get(size);
+		if (img == null) {
+			img = renderEmoji(emoji, size);
+			if (img == null)
+				return;
+			emoji.images.put(size, img);
+		}
+		addImage(img);
+	}
+
+	private static BufferedImage renderEmoji(EmojiEntry emoji, int size) {
+		if (emoji.hash == null)
+			emoji.hash = SVGRasterCache.hash(getEmojiStream(emoji.hex));
+
+		SVGRasterCache cache = SVGRasterCache.getInstance();
+		int width = Math.round(size * 1.5f);
+		BufferedImage img = cache.get(emoji.hash, width, size);
+		if (img != null)
+			return img;
+
 		if (emoji.svg == null)
 			emoji.svg = loadEmojiFromFile(emoji.hex);
 
 		if (emoji.svg == null)
-			return;
-
-		int size = fm.getHeight() - 2;
+			return null;
 
 		try {
 			String viewBox = emoji.svg.getDocumentElement().getAttribute("viewBox");
 			String[] viewBoxValues = viewBox.split(" ");
 			if (viewBoxValues.length < 4)
-				return;
+				return null;
 
 			float w = Float.parseFloat(viewBoxValues[2]);
 			float h = Float.parseFloat(viewBoxValues[3]);
@@ -706,10 +727,12 @@ public class TextHelper {
 			TranscoderInput input = new TranscoderInput(emoji.svg);
 			imageTranscoder.transcode(input, null);
 
-			BufferedImage img = imageTranscoder.getBufferedImage();
-			addImage(img);
+			img = imageTranscoder.getBufferedImage();
+			cache.put(emoji.hash, width, size, img);
+			return img;
 		} catch (Exception e) {
 			Trace.trace(Trace.ERROR, "Invalid emoji", e);
+			return null;
 		}
 	}
 
@@ -788,6 +811,8 @@ public class TextHelper {
 		protected final String hex;
 		protected final String raw;
 		protected Document svg;
+		protected String hash;
+		protected final Map<Integer, BufferedImage> images = new ConcurrentHashMap<>();
 
 		public EmojiEntry(String hex, String raw) {
 			this.hex = hex;
@@ -839,7 +864,7 @@ public class TextHelper {
 		}
 	}
 
-	class BufferedImageTranscoder extends ImageTranscoder {
+	static class BufferedImageTranscoder extends ImageTranscoder {
 		private BufferedImage img = null;
 
 		@Override
@@ -857,6 +882,10 @@ public class TextHelper {
 		}
 	}
 
+	private static InputStream getEmojiStream(String hex) {
+		return ICPCFont.class.getClassLoader().getResourceAsStream("font/twemoji/" + hex + ".svg");
+	}
+
 	private static SVGDocument loadEmojiFromFile(String hex) {
 		String filename = "font/twemoji/" + hex + ".svg";
 
@@ -3,16 +3,18 @@ package org.icpc.tools.presentation.contest.internal.chart;
 import java.awt.Color;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.IContest;
-import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.feed.ArchivedContest;
 import org.icpc.tools.contest.model.feed.ContestSource;
 import org.icpc.tools.contest.model.feed.NDJSONFeedParser;
 import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
 import org.icpc.tools.presentation.core.chart.AbstractChartPresentation;
@@ -35,6 +37,19 @@ public class HistoricalComparisonChart extends AbstractChartPresentation {
 		setFont(ICPCFont.getMasterFont());
 	}
 
+	/**
+	 * Load a past contest, from a contest archive if there is one and otherwise from the event feed.
+	 * Archives are much quicker to open and only read the objects that are used.
+	 */
+	private static IContest loadContest(int year) throws IOException {
+		File f = ContestSource.getInstance().getFile("/presentation/historical/contest" + year + ".archive");
+		if (f != null && f.exists() && ArchivedContest.isArchive(f))
+			return ArchivedContest.open(f);
+
+		f = ContestSource.getInstance().getFile("/presentation/historical/events" + year + ".json");
+		return loadContest(new FileInputStream(f));
+	}
+
 	private static Contest loadContest(InputStream in) {
 		Contest contest2 = new Contest();
 		try {
@@ -61,10 +76,7 @@ public class HistoricalComparisonChart extends AbstractChartPresentation {
 
 		for (int year = 2013; year < 2017; year++) {
 			try {
-				String path = "/presentation/historical/events" + year + ".json";
-
-				File f = ContestSource.getInstance().getFile(path);
-				IContest contest2 = loadContest(new FileInputStream(f));
+				IContest contest2 = loadContest(year);
 				if (contest2 != null) {
 					pastContests.add(contest2);
 					if (contest.getFreezeDuration() != null)
@@ -93,19 +105,8 @@ public class HistoricalComparisonChart extends AbstractChartPresentation {
 			series[i] = new Series(numValues, COLORS[i]);
 
 			IContest contest2 = pastContests.get(i);
-			int[] solns = new int[numValues];
-			int[] total = new int[numValues];
-			ISubmission[] submissions = contest2.getSubmissions();
-			for (ISubmission s : submissions) {
-				long time = s.getContestTime();
-				if (time <= maxTime) {
-					int rt = (int) Math.max(0, time / 1000L / 60 / MIN);
-					rt = Math.min(rt, numValues - 1);
-					if (contest2.isSolved(s))
-						solns[rt]++;
-					total[rt]++;
-				}
-			}
+			int[] solns = SubmissionAggregates.getInstance(contest2, MIN * 60000).getTotal().getSolved(numValues,
+					false);
 
 			for (int j = 1; j < numValues; j++)
 				solns[j] += solns[j - 1];
@@ -126,28 +127,15 @@ public class HistoricalComparisonChart extends AbstractChartPresentation {
 		if (contest == null)
 			return;
 
-		int[] solns = new int[numValues];
-		for (int i = 0; i < numValues; i++)
-			solns[i] = NO_DATA;
-
-		int max = 0;
-		int[] total = new int[numValues];
-		ISubmission[] submissions = contest.getSubmissions();
-		for (ISubmission s : submissions) {
-			long time = s.getContestTime();
-			if (time < maxTime) {
-				int rt = (int) Math.max(0, time / 1000L / 60 / MIN);
-				rt = Math.min(rt, numValues - 1);
-				if (contest.isSolved(s))
-					solns[rt]++;
-				total[rt]++;
-				max = Math.max(rt, max);
-			}
-		}
-
-		for (int j = 1; j < max; j++)
+		int[] solns = SubmissionAggregates.getInstance(contest, MIN * 60000).getTotal().getSolved(numValues, false);
+		int max = (int) (contest.getContestTimeOfLastEvent() / 60000 / MIN);
+		for (int j = 1; j < numValues && j <= max; j++)
 			solns[j] += solns[j - 1];
 
+		// no data yet for the rest of the contest
+		for (int j = Math.max(0, max + 1); j < numValues; j++)
+			solns[j] = NO_DATA;
+
 		getSeries()[getSeries().length - 1].setValues(solns);
 
 	}
@@ -4,8 +4,7 @@ import java.awt.BasicStroke;
 import java.awt.Paint;
 
 import org.icpc.tools.contest.model.IContest;
-import org.icpc.tools.contest.model.IJudgement;
-import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCColors;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
@@ -67,27 +66,8 @@ public class JudgeQueueDepthChart extends AbstractChartPresentation {
 		if (contest == null || getSeries() == null)
 			return;
 
+		SubmissionAggregates sa = SubmissionAggregates.getInstance(contest, INTERVAL);
 		long now = contest.getContestTimeOfLastEvent();
-		int ms2 = (int) (Math.floor(now / (double) INTERVAL));
-
-		int[] arr = new int[numPoints];
-		ISubmission[] subs = contest.getSubmissions();
-		for (ISubmission s : subs) {
-			int ms1 = (int) (Math.ceil(s.getContestTime() / (double) INTERVAL));
-			IJudgement[] js = contest.getJudgementsBySubmissionId(s.getId());
-			if (js != null && js.length > 0) {
-				IJudgement j = js[js.length - 1];
-				if (j.getEndContestTime() != null)
-					ms2 = (int) (Math.floor(j.getEndContestTime() / (double) INTERVAL));
-			}
-			if (ms1 > numPoints)
-				ms1 = numPoints - 1;
-			if (ms2 > numPoints)
-				ms2 = numPoints - 1;
-
-			for (int i = ms1; i < ms2; i++)
-				arr[i]++;
-		}
-		getSeries()[0].setValues(arr);
+		getSeries()[0].setValues(sa.getTotal().getQueueDepth(numPoints, now));
 	}
 }
\ No newline at end of file
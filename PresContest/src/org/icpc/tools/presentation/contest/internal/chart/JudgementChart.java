@@ -5,10 +5,9 @@ import java.awt.Paint;
 import java.text.NumberFormat;
 
 import org.icpc.tools.contest.model.IContest;
-import org.icpc.tools.contest.model.IJudgement;
 import org.icpc.tools.contest.model.IProblem;
-import org.icpc.tools.contest.model.ISubmission;
-import org.icpc.tools.contest.model.internal.Contest;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
 import org.icpc.tools.presentation.contest.internal.Utility;
@@ -91,32 +90,11 @@ public class JudgementChart extends AbstractChartPresentation {
 
 		double[] attemptTime = new double[numProblems];
 		double[] solvedTime = new double[numProblems];
-		int[] attemptCount = new int[numProblems];
-		int[] solvedCount = new int[numProblems];
-		IContest clone = ((Contest) contest).clone(false);
-
-		ISubmission[] submissions = clone.getSubmissions();
-		for (ISubmission s : submissions) {
-			IJudgement[] sjs = clone.getJudgementsBySubmissionId(s.getId());
-			if (sjs != null && sjs.length > 0) {
-				IJudgement sj = sjs[sjs.length - 1];
-				if (sj != null && sj.getEndTime() != null) {
-					int problemIndex = clone.getProblemIndex(s.getProblemId());
-					if (clone.isSolved(s)) {
-						solvedTime[problemIndex] += sj.getEndTime() - sj.getStartTime();
-						solvedCount[problemIndex]++;
-					} else {
-						attemptTime[problemIndex] += sj.getEndTime() - sj.getStartTime();
-						attemptCount[problemIndex]++;
-					}
-				}
-			}
-		}
+		SubmissionAggregates sa = SubmissionAggregates.getInstance(contest, SubmissionAggregates.DEFAULT_INTERVAL);
 		for (int j = 0; j < numProblems; j++) {
-			if (attemptCount[j] > 0)
-				attemptTime[j] /= attemptCount[j];
-			if (solvedCount[j] > 0)
-				solvedTime[j] /= solvedCount[j];
+			Counters c = sa.getProblem(problems[j].getId());
+			attemptTime[j] = c.getAverageJudgeTime(false);
+			solvedTime[j] = c.getAverageJudgeTime(true);
 		}
 
 		getSeries()[0].setValues(solvedTime);
@@ -4,7 +4,8 @@ import java.awt.Color;
 
 import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.ILanguage;
-import org.icpc.tools.contest.model.ISubmission;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCColors;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
@@ -62,19 +63,11 @@ public class LanguageSummaryChart extends AbstractChartPresentation {
 		int[] totalAttempts = new int[numLangs];
 		int[] totalSolved = new int[numLangs];
 
-		ISubmission[] submissions = contest.getSubmissions();
-		for (ISubmission submission : submissions) {
-			String langId = submission.getLanguageId();
-			int n = -1;
-			for (int i = 0; i < numLangs; i++)
-				if (langs[i].getId().equals(langId))
-					n = i;
-
-			if (n >= 0) {
-				totalAttempts[n]++;
-				if (contest.isSolved(submission))
-					totalSolved[n]++;
-			}
+		SubmissionAggregates sa = SubmissionAggregates.getInstance(contest, SubmissionAggregates.DEFAULT_INTERVAL);
+		for (int i = 0; i < numLangs; i++) {
+			Counters c = sa.getLanguage(langs[i].getId());
+			totalAttempts[i] = c.getNumSubmissions();
+			totalSolved[i] = c.getNumSolved();
 		}
 
 		getSeries()[0].setValues(totalAttempts);
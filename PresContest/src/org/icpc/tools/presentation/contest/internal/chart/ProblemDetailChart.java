@@ -3,8 +3,8 @@ package org.icpc.tools.presentation.contest.internal.chart;
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.IProblem;
-import org.icpc.tools.contest.model.ISubmission;
-import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCColors;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
@@ -71,27 +71,10 @@ public class ProblemDetailChart extends AbstractChartPresentation {
 
 		IProblem problem = contest.getProblems()[problemNum];
 
-		int[] fails = new int[numMin];
-		int[] solns = new int[numMin];
-		int[] pends = new int[numMin];
-		ISubmission[] submissions = contest.getSubmissions();
-		for (ISubmission s : submissions) {
-			if (problem.equals(contest.getProblemById(s.getProblemId()))) {
-				int rt = (int) Math.max(0, s.getContestTime() / 1000L / 60 / MIN);
-				rt = Math.min(rt, numMin - 1);
-				Status status = contest.getStatus(s);
-				if (status == Status.SOLVED)
-					solns[rt]++;
-				else if (status == Status.FAILED)
-					fails[rt]++;
-				else
-					pends[rt]++;
-			}
-		}
-
-		getSeries()[0].setValues(fails);
-		getSeries()[1].setValues(pends);
-		getSeries()[2].setValues(solns);
+		Counters c = SubmissionAggregates.getInstance(contest, MIN * 60000).getProblem(problem.getId());
+		getSeries()[0].setValues(c.getFailed(numMin, true));
+		getSeries()[1].setValues(c.getPending(numMin, true));
+		getSeries()[2].setValues(c.getSolved(numMin, true));
 	}
 
 	@Override
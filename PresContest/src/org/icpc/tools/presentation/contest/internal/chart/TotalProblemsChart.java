@@ -1,8 +1,8 @@
 package org.icpc.tools.presentation.contest.internal.chart;
 
 import org.icpc.tools.contest.model.IContest;
-import org.icpc.tools.contest.model.ISubmission;
-import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.util.SubmissionAggregates;
+import org.icpc.tools.contest.model.util.SubmissionAggregates.Counters;
 import org.icpc.tools.presentation.contest.internal.ContestData;
 import org.icpc.tools.presentation.contest.internal.ICPCColors;
 import org.icpc.tools.presentation.contest.internal.ICPCFont;
@@ -54,25 +54,10 @@ public class TotalProblemsChart extends AbstractChartPresentation {
 		if (contest == null)
 			return;
 
-		int[] solns = new int[numValues];
-		int[] fails = new int[numValues];
-		int[] pends = new int[numValues];
-		ISubmission[] submissions = contest.getSubmissions();
-		for (ISubmission s : submissions) {
-			int rt = (int) Math.max(0, s.getContestTime() / 1000L / 60 / MIN);
-			rt = Math.min(rt, numValues - 1);
-			Status status = contest.getStatus(s);
-			if (status == Status.SOLVED)
-				solns[rt]++;
-			else if (status == Status.FAILED)
-				fails[rt]++;
-			else
-				pends[rt]++;
-		}
-
-		getSeries()[0].setValues(fails); // NPE
-		getSeries()[1].setValues(pends);
-		getSeries()[2].setValues(solns);
+		Counters c = SubmissionAggregates.getInstance(contest, MIN * 60000).getTotal();
+		getSeries()[0].setValues(c.getFailed(numValues, true)); // NPE
+		getSeries()[1].setValues(c.getPending(numValues, true));
+		getSeries()[2].setValues(c.getSolved(numValues, true));
 
 		getSeries()[0].setTitle("# of failed submissions");
 		getSeries()[1].setTitle("# of pending submissions");
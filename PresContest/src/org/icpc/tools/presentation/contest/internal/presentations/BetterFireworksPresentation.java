@@ -1,19 +1,14 @@
 package org.icpc.tools.presentation.contest.internal.presentations;
 
-import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
 import java.awt.image.BufferedImage;
 import java.lang.reflect.Constructor;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
 
 import org.icpc.tools.presentation.core.Presentation;
+import org.icpc.tools.presentation.core.RenderPerfTimer;
 
 /**
  * A rough and incomplete Javascript to Java port of https://codepen.io/MillerTime/pen/XgpNwb by
@@ -44,272 +39,85 @@ public class BetterFireworksPresentation extends Presentation {
 		void create(double angle, double speed);
 	}
 
-	abstract class Particle {
-		public double x;
-		public double y;
-		public int lastx;
-		public int lasty;
-		public double dx;
-		public double dy;
-		public double airDrag;
-		public long life;
-		public long fullLife;
-		public Color color;
-		public boolean visible;
-		public Runnable onDeath;
-
-		public boolean move(long dt) {
-			double speed = 1; // 60; // 0.2;
-			double dtd = dt / 1000.0;
-			// double drag = 1 - (1 - airDrag) * speed * (1 - dtd);
-			double drag = 1 - (1 - airDrag) * dtd;
-			// double gAcc = dtd * GRAVITY;
-			// if (life > 2000)
-			// System.err.println("! " + this);
-			life -= dt;
-			if (life <= 0) {
-				particles.remove(this);
-				if (onDeath != null)
-					onDeath.run();
-				return false;
-			}
-			// System.out.println(dt + " " + dtd + " " + drag);
-
-			lastx = (int) x;
-			lasty = (int) y;
-			x += dx * speed * dtd;
-			y += dy * speed * dtd;
-			dx *= drag;
-			dy *= drag;
-			dy += GRAVITY * dtd;
-
-			return true;
-		}
+	private static final int MAX_PARTICLES = 30000;
 
-		public void paintBackground(Graphics2D g) {
-			//
-		}
-
-		public void paintForeground(Graphics2D g) {
-			//
-		}
-	}
+	private static final byte SPARK_PARTICLE = 1;
+	private static final byte STAR_PARTICLE = 2;
+	private static final byte SHELL_PARTICLE = 3;
+	private static final int STARS = (1 << STAR_PARTICLE) | (1 << SHELL_PARTICLE);
 
-	class Star extends Particle {
-		public double sparkFreq = 8;
-		public double sparkSpeed = 0.7;
-		public long sparkLife = 320;
-		public double sparkLifeVariation = 2;
-		public long sparkTimer;
-		public Color sparkColor = SPARK;
-		public boolean strobe;
-		public double strobeFreq;
-		public long transitionTime;
-
-		protected Star(double x, double y, Color c, double angle, double speed, long life) {
-			init(x, y, c, angle, speed, life);
-		}
-
-		private void init(double xx, double yy, Color c, double angle, double speed, long life2) {
-			x = xx;
-			y = height;
-			lastx = (int) xx;
-			lasty = height;
-			dx = Math.sin(angle) * speed;
-			dy = Math.cos(angle) * speed;
-			life = life2;
-			fullLife = life2;
-			airDrag = 0.992;
-			color = c;
-
-			sparkFreq = 8;
-			sparkSpeed = 0.7;
-			sparkLife = 320;
-			sparkLifeVariation = 2;
-			sparkTimer = 0;
-			sparkColor = SPARK;
-			strobe = false;
-			strobeFreq = 0;
-			transitionTime = 0;
-
-			visible = true;
-			onDeath = null;
-		}
-
-		@Override
-		public boolean move(long dt) {
-			if (!super.move(dt)) {
-				oldStars.add(this);
-				return false;
-			}
+	private static final Stroke STAR_STROKE = new BasicStroke(3);
+	private static final Stroke SPARK_STROKE = new BasicStroke(0.75f);
 
-			/*double speed = 0.2;
-			double dtd = dt / 1000.0;
-			double starDrag = 1 - (1 - airDrag) * speed * (1 - dtd);
-			// double starDragHeavy = 1 - (1 - airDragHeavy) * speed;
-			// double gAcc = dt / 1000.0 * GRAVITY;
-			
-			life -= dt;
-			if (life <= 0) {
-				// stars.splice(i, 1);
-				particles.remove(this);
-				if (onDeath != null)
-					onDeath.run();
-			} else {*/
-			double burnRate = Math.pow((double) life / fullLife, 0.5);
-			double burnRateInverse = 1 - burnRate;
+	private static final Color[] PALETTE = new Color[] { INVISIBLE, SPARK, Color.RED, RED, GREEN, BLUE, PURPLE, GOLD,
+			WHITE };
 
-			// star.prevX = star.x;
-			// star.prevY = star.y;
-			/*x += dx * speed * dtd;
-			y += dy * speed * dtd;
-			// Apply air drag if star isn't "heavy". The heavy property is used for the shell
-			// comets.
-			// if (!heavy) {
-			dx *= starDrag;
-			dy *= starDrag;
-			dy += GRAVITY * dtd;*/
-
-			/*if (spinRadius) {
-				star.spinAngle += star.spinSpeed * speed;
-				star.x += Math.sin(star.spinAngle) * star.spinRadius * speed;
-				star.y += Math.cos(star.spinAngle) * star.spinRadius * speed;
-			}*/
-
-			if (sparkFreq > 0) {
-				sparkTimer -= dt;
-				while (sparkTimer < 0) {
-					// System.out.println((life * 2.0 / fullLife) + " " + burnRate);
-					sparkTimer += sparkFreq * 0.75 + sparkFreq * burnRateInverse * 4;
-					Spark s = createOrReuseSpark(x, y, sparkColor, Math.random() * Math.PI * 2,
-							Math.random() * sparkSpeed * burnRate * 0.005,
-							(int) (sparkLife * 0.8 + Math.random() * sparkLifeVariation * sparkLife));
-					particles.add(s);
-				}
-			}
+	private final ParticleSystem particles = new ParticleSystem(MAX_PARTICLES, PALETTE);
 
-			// Handle star transitions
-			if (life < transitionTime) {
-				/*if (secondColor && !colorChanged) {
-					colorChanged = true;
-					color = secondColor;
-					//stars.splice(i, 1);
-					Star.active[star.secondColor].push(star);
-					if (secondColor == INVISIBLE) {
-						sparkFreq = 0;
-					}
-				}*/
-
-				if (strobe) {
-					// Strobes in the following pattern: on:off:off:on:off:off in increments of
-					// `strobeFreq` ms.
-					visible = Math.floor(life / strobeFreq) % 3 == 0;
-				}
-				// }
-			}
-			return true;
-		}
+	// additional state for stars (and shells), indexed by particle slot
+	private final float[] sparkFreq = new float[MAX_PARTICLES];
+	private final float[] sparkSpeed = new float[MAX_PARTICLES];
+	private final int[] sparkLife = new int[MAX_PARTICLES];
+	private final float[] sparkLifeVariation = new float[MAX_PARTICLES];
+	private final float[] sparkTimer = new float[MAX_PARTICLES];
+	private final byte[] sparkColor = new byte[MAX_PARTICLES];
+	private final Shell[] shells = new Shell[MAX_PARTICLES];
 
-		@Override
-		public void paintBackground(Graphics2D bg) {
-			Composite oldComp = bg.getComposite();
-			bg.setComposite(AlphaComposite.SrcOver);
-			bg.setColor(color);
-			Stroke oldStroke = bg.getStroke();
-			bg.setStroke(new BasicStroke(3));
-			bg.drawLine((int) x, (int) y, (int) (x - dx / 20), (int) (y - dy / 20));
-			bg.setStroke(oldStroke);
-			bg.setComposite(oldComp);
-		}
+	private final int sparkIndex = particles.getColorIndex(SPARK);
 
-		@Override
-		public void paintForeground(Graphics2D fg) {
-			fg.setColor(color);
-			fg.drawLine((int) x, (int) y, (int) (x - dx / 40), (int) (y - dy / 40));
-		}
+	private int createSpark(double x, double y, int c, double angle, double speed, int life) {
+		return particles.add(SPARK_PARTICLE, c, (float) x, (float) y, (float) (Math.sin(angle) * speed),
+				(float) (Math.cos(angle) * speed), 0.9f, life);
 	}
 
-	class Spark extends Particle {
-		protected Spark(double x, double y, Color c, double angle, double speed, long life) {
-			init(x, y, c, angle, speed, life);
-		}
-
-		private void init(double xx, double yy, Color c, double angle, double speed, long life2) {
-			airDrag = 0.9;
-			x = xx;
-			y = yy;
-			lastx = (int) xx;
-			lasty = (int) y;
-			color = c;
-			dx = Math.sin(angle) * speed; // * 0.001;
-			dy = Math.cos(angle) * speed; // * 0.001;
-			life = life2;
-			fullLife = life2;
-
-			visible = true;
-			onDeath = null;
-		}
-
-		/*@Override
-		public boolean move(long dt) {
-			double speed = 0.2;
-			double dtd = dt / 1000.0;
-			double sparkDrag = 1 - (1 - airDrag) * speed * (1 - dtd);
-			// System.out.println("drag: " + sparkDrag);
-			// double gAcc = dtd * GRAVITY;
-			life -= dt;
-			if (life <= 0) {
-				//particles.remove(this);
-				return false;
-			} else {
-				// prevX = x;
-				// prevY = y;
-				x += dx * speed * dtd;
-				y += dy * speed * dtd;
-				dx *= sparkDrag;
-				dy *= sparkDrag;
-				dy += GRAVITY * dtd;
-			}
-		}*/
+	private int createStar(byte kind, double x, double y, int c, double angle, double speed, int life) {
+		int i = particles.add(kind, c, (float) x, (float) y, (float) (Math.sin(angle) * speed),
+				(float) (Math.cos(angle) * speed), 0.992f, life);
+		if (i < 0)
+			return i;
 
-		@Override
-		public boolean move(long dt) {
-			if (!super.move(dt)) {
-				oldSparks.add(this);
-				return false;
-			}
-			return true;
-		}
+		sparkFreq[i] = 8;
+		sparkSpeed[i] = 0.7f;
+		sparkLife[i] = 320;
+		sparkLifeVariation[i] = 2;
+		sparkTimer[i] = 0;
+		sparkColor[i] = (byte) sparkIndex;
+		return i;
+	}
 
+	private final ParticleSystem.IParticleListener listener = new ParticleSystem.IParticleListener() {
 		@Override
-		public void paintBackground(Graphics2D bg) {
-			if (color == null)
+		public void moved(int i, long dt) {
+			if (particles.kind[i] == SPARK_PARTICLE)
 				return;
 
-			bg.setColor(color);
-			Stroke oldStroke = bg.getStroke();
-			bg.setStroke(new BasicStroke(0.75f));
-			bg.drawLine((int) x, (int) y, lastx, lasty);
-			bg.setStroke(oldStroke);
-		}
-	}
+			double burnRate = Math.pow((double) particles.life[i] / particles.fullLife[i], 0.5);
+			double burnRateInverse = 1 - burnRate;
 
-	class BurstFlash extends Particle {
-		public double radius;
+			float freq = sparkFreq[i];
+			if (freq > 0) {
+				sparkTimer[i] -= dt;
+				while (sparkTimer[i] < 0) {
+					sparkTimer[i] += freq * 0.75 + freq * burnRateInverse * 4;
+					createSpark(particles.x[i], particles.y[i], sparkColor[i], Math.random() * Math.PI * 2,
+							Math.random() * sparkSpeed[i] * burnRate * 0.005,
+							(int) (sparkLife[i] * 0.8 + Math.random() * sparkLifeVariation[i] * sparkLife[i]));
+				}
+			}
 
-		public BurstFlash(double x, double y, double radius) {
-			this.x = x;
-			this.y = y;
-			this.radius = radius;
-			particles.add(this);
+			if (shells[i] != null)
+				shells[i].move(i, dt);
 		}
 
 		@Override
-		public boolean move(long dt) {
-			// TODO Auto-generated method stub
-			return false;
+		public void died(int i) {
+			Shell s = shells[i];
+			if (s != null) {
+				shells[i] = null;
+				s.burst(i);
+			}
 		}
-	}
+	};
 
 	class CrossetteShell extends Shell {
 		public CrossetteShell(double w, double h, double size) {
@@ -486,7 +294,14 @@ public class BetterFireworksPresentation extends Presentation {
 		}
 	}
 
-	class Shell extends Star {
+	/**
+	 * The type and settings of a shell. Each shell is launched as a single particle that bursts
+	 * into stars when it dies.
+	 */
+	class Shell {
+		public double x;
+		public double h;
+		public Color color = Color.RED;
 		public double spreadSize = 400;
 		public int starCount = 35; // 75
 		public Glitter glitter;
@@ -494,138 +309,105 @@ public class BetterFireworksPresentation extends Presentation {
 		public int starLife;
 		public double starLifeVariation;
 		public double starDensity;
+		public boolean strobe;
 
 		public double spinAngle = Math.random() * Math.PI * 2;
 		public double spinSpeed = 0.8;
 		public double spinRadius = 0;
 
 		public Shell(double w, double h) {
-			// super(w, h, Color.RED, Math.PI, Math.pow(h * 200, 0.64), 2000);
-			super(w, h, Color.RED, Math.PI, Math.pow(h * 15.0, 0.67), 2000);
-			// System.out.println(dx + " " + dy);
-			airDrag = 0.98;
+			x = w;
+			this.h = h;
 			spinRadius = 0.32 + Math.random() * (0.85 - 0.32);
-			// double dy = 200; //
-			// double launchSpeed = Math.pow(h * 300, 0.64);
-			// star = new Star(w, h, Math.PI, launchSpeed, 2000, true);
+		}
 
-			if (Math.random() > 0.4) { // && !this.horsetail) {
-				// comet.secondColor = INVISIBLE;
-				// star.transitionTime = Math.pow(Math.random(), 1.5) * 700 + 500;
-			}
+		public void launch() {
+			// super(w, h, Color.RED, Math.PI, Math.pow(h * 200, 0.64), 2000);
+			int i = createStar(SHELL_PARTICLE, x, height, particles.getColorIndex(color), Math.PI,
+					Math.pow(h * 15.0, 0.67), 2000);
+			if (i < 0)
+				return;
 
-			onDeath = new Runnable() {
-				@Override
-				public void run() {
-					burst();
-				}
-				// (burst);
-			};
-			// particles.add(star);
+			particles.airDrag[i] = 0.98f;
+			shells[i] = this;
 		}
 
-		@Override
-		public boolean move(long dt) {
-			if (!super.move(dt))
-				return false;
-
+		public void move(int i, long dt) {
 			// double speed = 0.2 * dt / 1000.0;
 			double speed = 160 * dt / 1000.0;
 			spinAngle += spinSpeed * speed * 10;
-			x += Math.sin(spinAngle) * spinRadius * speed;
-			y += Math.cos(spinAngle) * spinRadius * speed;
-			return true;
+			particles.x[i] += Math.sin(spinAngle) * spinRadius * speed;
+			particles.y[i] += Math.cos(spinAngle) * spinRadius * speed;
 		}
 
-		public void burst() {
+		public void burst(int i) {
 			double speed2 = spreadSize / 96;
+			float freq = 0;
+			float speed = 0;
+			int sLife = 0;
+			float sLifeVariation = 0;
 
 			if (glitter == Glitter.LIGHT) {
-				sparkFreq = 400;
-				sparkSpeed = 0.3;
-				sparkLife = 300;
-				sparkLifeVariation = 2;
+				freq = 400;
+				speed = 0.3f;
+				sLife = 300;
+				sLifeVariation = 2;
 			} else if (glitter == Glitter.MEDIUM) {
-				sparkFreq = 200;
-				sparkSpeed = 0.44;
-				sparkLife = 700;
-				sparkLifeVariation = 2;
+				freq = 200;
+				speed = 0.44f;
+				sLife = 700;
+				sLifeVariation = 2;
 			} else if (glitter == Glitter.HEAVY) {
-				sparkFreq = 80;
-				sparkSpeed = 0.8;
-				sparkLife = 1400;
-				sparkLifeVariation = 2;
+				freq = 80;
+				speed = 0.8f;
+				sLife = 1400;
+				sLifeVariation = 2;
 			} else if (glitter == Glitter.THICK) {
-				sparkFreq = 16;
-				sparkSpeed = 1.65;
-				sparkLife = 1400;
-				sparkLifeVariation = 3;
+				freq = 16;
+				speed = 1.65f;
+				sLife = 1400;
+				sLifeVariation = 3;
 			} else if (glitter == Glitter.STREAMER) {
-				sparkFreq = 32;
-				sparkSpeed = 1.05;
-				sparkLife = 620;
-				sparkLifeVariation = 2;
+				freq = 32;
+				speed = 1.05f;
+				sLife = 620;
+				sLifeVariation = 2;
 			} else if (glitter == Glitter.WILLOW) {
-				sparkFreq = 120;
-				sparkSpeed = 0.34;
-				sparkLife = 1400;
-				sparkLifeVariation = 3.8;
+				freq = 120;
+				speed = 0.34f;
+				sLife = 1400;
+				sLifeVariation = 3.8f;
 			}
 
 			// Apply quality to spark count
-			sparkFreq /= 3;
-
-			// BurstFlash bf = new BurstFlash(star.x, star.y, spreadSize / 4);
-			// System.out.println(bf);
-			IParticleFactory pf = new IParticleFactory() {
-				@Override
-				public void create(double angle, double speedMult) {
-					Star star = createOrReuseStar(x, y, color, angle, speed2 * speedMult * 15.0,
-							life + 1000 + (int) (Math.random() * 200.0));
-					// star.speed);
-					star.y = y;
-					star.lasty = (int) y;
-					particles.add(star);
-
-					if (Shell.this.glitter != null) {
-						star.sparkFreq = sparkFreq;
-						star.sparkSpeed = sparkSpeed;
-						star.sparkLife = sparkLife;
-						star.sparkLifeVariation = sparkLifeVariation;
-						star.sparkColor = Shell.this.glitterColor;
-						star.sparkTimer = (int) (Math.random() * star.sparkFreq);
-					}
-					// System.out.println("new " + angle + " " + speed);
-
-				}
-			};
-			createBurst(starCount, pf);
+			freq /= 3;
+
+			float bx = particles.x[i];
+			float by = particles.y[i];
+			int life = particles.life[i];
+			int c = particles.getColorIndex(color);
+			int gc = particles.getColorIndex(glitterColor);
+			float sFreq = freq;
+			float sSpeed = speed;
+			int sLife2 = sLife;
+			float sLifeVariation2 = sLifeVariation;
+
+			createBurst(starCount, (angle, speedMult) -> {
+				int s = createStar(STAR_PARTICLE, bx, by, c, angle, speed2 * speedMult * 15.0,
+						life + 1000 + (int) (Math.random() * 200.0));
+				if (s < 0 || glitter == null)
+					return;
+
+				sparkFreq[s] = sFreq;
+				sparkSpeed[s] = sSpeed;
+				sparkLife[s] = sLife2;
+				sparkLifeVariation[s] = sLifeVariation2;
+				sparkColor[s] = (byte) gc;
+				sparkTimer[s] = (int) (Math.random() * sFreq);
+			});
 		}
 	}
 
-	private List<Particle> particles = new ArrayList<>();
-
-	private static Queue<Star> oldStars = new LinkedList<>();
-	private static Queue<Spark> oldSparks = new LinkedList<>();
-
-	private Star createOrReuseStar(double x, double y, Color c, double angle, double speed, long life) {
-		if (oldStars.isEmpty())
-			return new Star(x, y, c, angle, speed, life);
-
-		Star s = oldStars.poll();
-		s.init(x, y, c, angle, speed, life);
-		return s;
-	}
-
-	private Spark createOrReuseSpark(double x, double y, Color c, double angle, double speed, long life) {
-		if (oldSparks.isEmpty())
-			return new Spark(x, y, c, angle, speed, life);
-
-		Spark s = oldSparks.poll();
-		s.init(x, y, c, angle, speed, life);
-		return s;
-	}
-
 	// current: 3 - 0 to 2.9999
 	// want: -0.49 to 2.4999
 	protected static Color randomColorSimple() {
@@ -739,14 +521,13 @@ public class BetterFireworksPresentation extends Presentation {
 	private int f = 0;
 	private BufferedImage bgImg;
 	private long lastDt = 0;
+	private final Color[] fadeColors = new Color[256];
+	private Color skyColor;
 
 	@Override
 	public void incrementTimeMs(final long dt) {
-		Particle[] list = particles.toArray(new Particle[0]);
-		for (Particle p : list) {
-			if (!p.move(dt))
-				particles.remove(p);
-		}
+		RenderPerfTimer.Counter measure = RenderPerfTimer.measure(RenderPerfTimer.Category.PARTICLE_UPDATE);
+		particles.update(dt, (float) GRAVITY, listener);
 
 		if (lastStar + 300 < getTimeMs()) {
 			try {
@@ -757,14 +538,14 @@ public class BetterFireworksPresentation extends Presentation {
 				Object o = con[0].newInstance(
 						new Object[] { this, 50 + Math.random() * (width - 100), 100 + Math.random() * (height / 2), 1 });
 				Shell s = (Shell) o;
-				particles.add(s);
+				s.launch();
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 			/*Shell s = new HorsetailShell(50 + Math.random() * (width - 100), 50 + Math.random() * (height / 2), 5);
-			particles.add(s);
+			s.launch();
 			s = new CrossetteShell(50 + Math.random() * (width - 100), 50 + Math.random() * (height / 2), 5);
-			particles.add(s);*/
+			s.launch();*/
 			// Trace.trace(Trace.INFO, "Launched: " + s);
 			lastStar = getTimeMs();
 			// launch one
@@ -772,6 +553,7 @@ public class BetterFireworksPresentation extends Presentation {
 		lastDt = dt;
 
 		updateSky(dt);
+		measure.stopMeasure();
 	}
 
 	@Override
@@ -782,27 +564,34 @@ public class BetterFireworksPresentation extends Presentation {
 			// ColorModel cm = g.getDeviceConfiguration().getColorModel();
 			bgImg = new BufferedImage(width, height, BufferedImage.TYPE_INT_BGR);
 		}
+		RenderPerfTimer.Counter measure = RenderPerfTimer.measure(RenderPerfTimer.Category.PARTICLE_DRAW);
 		Graphics2D bg = bgImg.createGraphics();
 		int a = (int) (lastDt * 255 * 3 / 1000);
 		if (a < 0)
 			a = 0;
 		if (a > 255)
 			a = 255;
-		bg.setColor(new Color(0, 0, 0, a));
+		if (fadeColors[a] == null)
+			fadeColors[a] = new Color(0, 0, 0, a);
+		bg.setColor(fadeColors[a]);
 		bg.fillRect(0, 0, width, height);
-		for (Particle p : particles) {
-			p.paintBackground(bg);
-		}
+
+		bg.setStroke(SPARK_STROKE);
+		particles.draw(bg, 1 << SPARK_PARTICLE, -1);
+		bg.setStroke(STAR_STROKE);
+		particles.draw(bg, STARS, 1 / 20f);
 
 		bg.dispose();
 		g.drawImage(bgImg, 0, 0, null);
 
-		g.setColor(new Color(sky[0], sky[1], sky[2], 64));
+		if (skyColor == null || skyColor.getRed() != sky[0] || skyColor.getGreen() != sky[1]
+				|| skyColor.getBlue() != sky[2])
+			skyColor = new Color(sky[0], sky[1], sky[2], 64);
+		g.setColor(skyColor);
 		g.fillRect(0, 0, width, height);
 
-		for (Particle p : particles) {
-			p.paintForeground(g);
-		}
+		particles.draw(g, STARS, 1 / 40f);
+		measure.stopMeasure();
 	}
 
 	protected int[] sky = new int[3];
@@ -817,14 +606,16 @@ public class BetterFireworksPresentation extends Presentation {
 		int starCount = 0;
 
 		// add the colors of every star together
-		for (Particle p : particles) {
-			if (!(p instanceof Star))
+		int n = particles.getLimit();
+		for (int i = 0; i < n; i++) {
+			int k = particles.kind[i];
+			if (k != STAR_PARTICLE && k != SHELL_PARTICLE)
 				continue;
-			Star s = (Star) p;
+			Color c = particles.getColor(particles.color[i]);
 			starCount++;
-			r += s.color.getRed();
-			g += s.color.getGreen();
-			b += s.color.getBlue();
+			r += c.getRed();
+			g += c.getGreen();
+			b += c.getBlue();
 		}
 
 		// set the max intensity at 1 and map to a non-linear curve. This allows a few stars to light
@@ -856,52 +647,52 @@ public class BetterFireworksPresentation extends Presentation {
 	}
 
 	// Various star effects.
-	// These are designed to be attached to a star's `onDeath` event.
+	// These are designed to be called when a star dies.
 
 	// Crossette breaks star into four same-color pieces which branch in a cross-like shape.
-	protected void crossetteEffect(Star star) {
+	protected void crossetteEffect(int star) {
 		double startAngle = Math.random() * Math.PI / 2.0;
 		createParticleArc(startAngle, Math.PI * 2, 4, 0.5, (angle, speed) -> {
-			particles.add(createOrReuseStar(star.x, star.y, star.color, angle, Math.random() * 0.6 + 0.75, 600));
+			createStar(STAR_PARTICLE, particles.x[star], particles.y[star], particles.color[star], angle,
+					Math.random() * 0.6 + 0.75, 600);
 		});
 	}
 
 	// Flower is like a mini shell
-	protected void floralEffect(Star star) {
+	protected void floralEffect(int star) {
 		int count = 12 + 6 * 3;
 		createBurst(count, (angle, speedMult) -> {
-			particles.add(createOrReuseStar(star.x, star.y, star.color, angle, speedMult * 2.4,
-					(int) (1000 + Math.random() * 300)));
+			createStar(STAR_PARTICLE, particles.x[star], particles.y[star], particles.color[star], angle,
+					speedMult * 2.4, (int) (1000 + Math.random() * 300));
 			// , star.speedX, star.speedY);
 		});
-		// Queue burst flash render
-		particles.add(new BurstFlash(star.x, star.y, 46));
 	}
 
 	// Floral burst with willow stars
-	protected void fallingLeavesEffect(Star star) {
+	protected void fallingLeavesEffect(int star) {
 		createBurst(7, (angle, speedMult) -> {
-			Star newStar = createOrReuseStar(star.x, star.y, INVISIBLE, angle, speedMult * 2.4,
-					(int) (2400 + Math.random() * 600));
+			int newStar = createStar(STAR_PARTICLE, particles.x[star], particles.y[star],
+					particles.getColorIndex(INVISIBLE), angle, speedMult * 2.4, (int) (2400 + Math.random() * 600));
 			// , star.speedX, star.speedY);
+			if (newStar < 0)
+				return;
 
 			// newStar.sparkColor = GOLD;
-			newStar.sparkFreq = 144 / 3;
-			newStar.sparkSpeed = 0.28;
-			newStar.sparkLife = 750;
-			newStar.sparkLifeVariation = 3.2;
+			sparkFreq[newStar] = 144 / 3;
+			sparkSpeed[newStar] = 0.28f;
+			sparkLife[newStar] = 750;
+			sparkLifeVariation[newStar] = 3.2f;
 		});
-		// Queue burst flash render
-		particles.add(new BurstFlash(star.x, star.y, 46));
 	}
 
 	// Crackle pops into a small cloud of golden sparks.
-	protected void crackleEffect(Star star) {
+	protected void crackleEffect(int star) {
 		int count = 32;
+		int gold = particles.getColorIndex(GOLD);
 		createParticleArc(0, Math.PI * 2, count, 1.8, (angle, speed) -> {
-			particles.add(createOrReuseSpark(star.x, star.y, GOLD, angle,
+			createSpark(particles.x[star], particles.y[star], gold, angle,
 					// apply near cubic falloff to speed (places more particles towards outside)
-					Math.pow(Math.random(), 0.45) * 2.4, (int) (300 + Math.random() * 200)));
+					Math.pow(Math.random(), 0.45) * 2.4, (int) (300 + Math.random() * 200));
 		});
 	}
 
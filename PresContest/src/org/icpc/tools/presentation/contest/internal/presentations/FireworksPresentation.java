@@ -8,6 +8,7 @@ import java.awt.image.MemoryImageSource;
 import java.util.Random;
 
 import org.icpc.tools.presentation.core.Presentation;
+import org.icpc.tools.presentation.core.RenderPerfTimer;
 
 public class FireworksPresentation extends Presentation {
 	private static final int ru = 90;
@@ -76,6 +77,7 @@ public class FireworksPresentation extends Presentation {
 	}
 
 	protected void runImpl() {
+		RenderPerfTimer.Counter measure = RenderPerfTimer.measure(RenderPerfTimer.Category.PARTICLE_BLUR);
 		for (int j = 0; j < pixls2; j++) {
 			int k = pix0[j];
 			int l = pix0[j + 1];
@@ -117,11 +119,22 @@ public class FireworksPresentation extends Presentation {
 			// pix0[j] = 0x00000000;
 		}
 
-		rend();
+		measure.stopMeasure();
+
+		measure = RenderPerfTimer.measure(RenderPerfTimer.Category.PARTICLE_UPDATE);
+		update();
+		measure.stopMeasure();
+
+		measure = RenderPerfTimer.measure(RenderPerfTimer.Category.PARTICLE_DRAW);
+		draw();
 		offImage.newPixels(0, 0, m_nAppX, m_nAppY);
+		measure.stopMeasure();
 	}
 
-	private void rend() {
+	/**
+	 * Move the particles, and remove any that have burnt out or left the screen.
+	 */
+	private void update() {
 		for (int k = 0; k < bits; k++)
 			switch (bit_f[k]) {
 				default:
@@ -136,11 +149,6 @@ public class FireworksPresentation extends Presentation {
 							|| bit_py[k] > (m_nAppY - 3)) {
 						bit_c[k] = 0xff000000;
 						bit_f[k] = 0;
-					} else if (bit_p[k] == 0) {
-						if ((int) (rand.nextDouble() * 2D) == 0)
-							bit_set((int) bit_px[k], (int) bit_py[k], -1);
-					} else {
-						bit_set((int) bit_px[k], (int) bit_py[k], bit_c[k]);
 					}
 					break;
 
@@ -150,6 +158,29 @@ public class FireworksPresentation extends Presentation {
 					if (bit_sy[k] <= bit_py[k]) {
 						bit_f[k] = 1;
 					}
+					break;
+			}
+	}
+
+	/**
+	 * Draw the particles into the pixels.
+	 */
+	private void draw() {
+		for (int k = 0; k < bits; k++)
+			switch (bit_f[k]) {
+				default:
+					break;
+
+				case 1: // '\001'
+					if (bit_p[k] == 0) {
+						if ((int) (rand.nextDouble() * 2D) == 0)
+							bit_set((int) bit_px[k], (int) bit_py[k], -1);
+					} else {
+						bit_set((int) bit_px[k], (int) bit_py[k], bit_c[k]);
+					}
+					break;
+
+				case 2: // '\002'
 					if ((int) (rand.nextDouble() * 20D) == 0) {
 						int i = (int) (rand.nextDouble() * 2D);
 						// int j = (int) (rand.nextDouble() * 5D);
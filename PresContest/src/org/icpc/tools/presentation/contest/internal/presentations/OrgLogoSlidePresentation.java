@@ -4,17 +4,20 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.IOrganization;
 import org.icpc.tools.presentation.contest.internal.AbstractICPCPresentation;
+import org.icpc.tools.presentation.core.AssetManifest;
 
 public class OrgLogoSlidePresentation extends AbstractICPCPresentation {
 	private static final long TIME_DT = 15000;
-	private Map<String, BufferedImage> map = new HashMap<>();
+	private Map<String, BufferedImage> map = new ConcurrentHashMap<>();
 	private int size;
+	private volatile int logoSize;
+	private volatile boolean prefetched;
 
 	@Override
 	public void aboutToShow() {
@@ -28,20 +31,49 @@ public class OrgLogoSlidePresentation extends AbstractICPCPresentation {
 			return;
 		}
 
-		map.clear();
 		size = height / 4;
 
-		// rescale logo images
+		// rescale logo images, unless they were just prefetched at this size
 		int size2 = (int) (size * 0.9);
+		if (!prefetched || size2 != logoSize) {
+			map.clear();
+			logoSize = size2;
+		}
+		prefetched = false;
 		for (IOrganization org : orgs) {
-			map.put(org.getId(), org.getLogoImage(size2, size2, true, true));
+			if (!map.containsKey(org.getId()))
+				loadLogo(org, size2);
+		}
+	}
+
+	private BufferedImage loadLogo(IOrganization org, int size2) {
+		BufferedImage img = org.getLogoImage(size2, size2, true, true);
+		if (img != null && size2 == logoSize)
+			map.put(org.getId(), img);
+		return img;
+	}
+
+	@Override
+	public void getAssets(AssetManifest manifest) {
+		IContest contest = getContest();
+		if (contest == null)
+			return;
+
+		int size2 = (int) (height / 4 * 0.9);
+		if (size2 != logoSize) {
+			map.clear();
+			logoSize = size2;
 		}
+		prefetched = true;
+		for (IOrganization org : contest.getOrganizations())
+			manifest.add(() -> loadLogo(org, size2));
 	}
 
 	@Override
 	public void setSize(Dimension d) {
 		super.setSize(d);
 		map.clear();
+		logoSize = 0;
 	}
 
 	@Override
@@ -4,16 +4,19 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.IOrganization;
 import org.icpc.tools.presentation.contest.internal.AbstractICPCPresentation;
+import org.icpc.tools.presentation.core.AssetManifest;
 
 public class OrgLogoWallPresentation extends AbstractICPCPresentation {
-	private Map<String, BufferedImage> map = new HashMap<>();
+	private Map<String, BufferedImage> map = new ConcurrentHashMap<>();
 	private int size;
+	private volatile int logoSize;
+	private volatile boolean prefetched;
 
 	@Override
 	public long getRepeat() {
@@ -37,27 +40,64 @@ public class OrgLogoWallPresentation extends AbstractICPCPresentation {
 			return;
 		}
 
-		// determine size
-		map.clear();
-		size = (int) (Math.sqrt(width * height / orgs.length) * 1.0);
-
-		int num = width / size * (height / size) - ((height / size) / 2);
-		while (num < orgs.length && size > 5) {
-			size--;
-			num = (width / size) * (height / size) - ((height / size) / 2);
-		}
+		size = getSize(orgs.length);
 
-		// rescale logo images
+		// rescale logo images, unless they were just prefetched at this size
 		int size2 = (int) (size * 0.9);
+		if (!prefetched || size2 != logoSize) {
+			map.clear();
+			logoSize = size2;
+		}
+		prefetched = false;
 		for (IOrganization org : orgs) {
-			map.put(org.getId(), org.getLogoImage(size2, size2, true, true));
+			if (!map.containsKey(org.getId()))
+				loadLogo(org, size2);
+		}
+	}
+
+	private int getSize(int numOrgs) {
+		int s = (int) (Math.sqrt(width * height / numOrgs) * 1.0);
+
+		int num = width / s * (height / s) - ((height / s) / 2);
+		while (num < numOrgs && s > 5) {
+			s--;
+			num = (width / s) * (height / s) - ((height / s) / 2);
+		}
+		return s;
+	}
+
+	private BufferedImage loadLogo(IOrganization org, int size2) {
+		BufferedImage img = org.getLogoImage(size2, size2, true, true);
+		if (img != null && size2 == logoSize)
+			map.put(org.getId(), img);
+		return img;
+	}
+
+	@Override
+	public void getAssets(AssetManifest manifest) {
+		IContest contest = getContest();
+		if (contest == null)
+			return;
+
+		IOrganization[] orgs = contest.getOrganizations();
+		if (orgs.length == 0)
+			return;
+
+		int size2 = (int) (getSize(orgs.length) * 0.9);
+		if (size2 != logoSize) {
+			map.clear();
+			logoSize = size2;
 		}
+		prefetched = true;
+		for (IOrganization org : orgs)
+			manifest.add(() -> loadLogo(org, size2));
 	}
 
 	@Override
 	public void setSize(Dimension d) {
 		super.setSize(d);
 		map.clear();
+		logoSize = 0;
 	}
 
 	@Override
@@ -0,0 +1,270 @@
+package org.icpc.tools.presentation.contest.internal.presentations;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+
+import org.icpc.tools.contest.Trace;
+
+/**
+ * A fixed size pool of particles for effects like fireworks. Particle state is kept in parallel
+ * arrays of primitives instead of one object per particle, so adding and removing particles never
+ * allocates, and each particle's colour is an index into a fixed palette so that all particles of
+ * the same colour can be drawn in one call.
+ *
+ * Particles are identified by their slot, which stays the same for the life of the particle, so
+ * users can keep extra per-particle state in their own arrays of the same capacity.
+ */
+public class ParticleSystem {
+	public interface IParticleListener {
+		/**
+		 * Called for each live particle after it has moved.
+		 *
+		 * @param i the particle's slot
+		 * @param dt the elapsed time, in ms
+		 */
+		void moved(int i, long dt);
+
+		/**
+		 * Called when a particle dies, before its slot is reused.
+		 *
+		 * @param i the particle's slot
+		 */
+		void died(int i);
+	}
+
+	public static final byte NONE = 0;
+
+	private final int capacity;
+	private final Color[] palette;
+	private final Path2D.Float[] paths;
+	private final boolean[] pathUsed;
+
+	// per particle state, indexed by slot. a kind of NONE means the slot is free
+	public final byte[] kind;
+	public final byte[] color;
+	public final float[] x;
+	public final float[] y;
+	public final float[] lastX;
+	public final float[] lastY;
+	public final float[] dx;
+	public final float[] dy;
+	public final float[] airDrag;
+	public final int[] life;
+	public final int[] fullLife;
+
+	private final int[] free;
+	private int numFree;
+	private int limit;
+	private int count;
+	private long dropped;
+
+	/**
+	 * @param capacity the maximum number of live particles
+	 * @param palette the colours particles can use, at most 128
+	 */
+	public ParticleSystem(int capacity, Color[] palette) {
+		if (palette.length > Byte.MAX_VALUE + 1)
+			throw new IllegalArgumentException("Too many colours");
+
+		this.capacity = capacity;
+		this.palette = palette;
+
+		kind = new byte[capacity];
+		color = new byte[capacity];
+		x = new float[capacity];
+		y = new float[capacity];
+		lastX = new float[capacity];
+		lastY = new float[capacity];
+		dx = new float[capacity];
+		dy = new float[capacity];
+		airDrag = new float[capacity];
+		life = new int[capacity];
+		fullLife = new int[capacity];
+		free = new int[capacity];
+
+		paths = new Path2D.Float[palette.length];
+		for (int i = 0; i < palette.length; i++)
+			paths[i] = new Path2D.Float(Path2D.WIND_NON_ZERO, 256);
+		pathUsed = new boolean[palette.length];
+	}
+
+	/**
+	 * Returns the index of the given colour in the palette, or 0 if it isn't in the palette.
+	 */
+	public int getColorIndex(Color c) {
+		for (int i = 0; i < palette.length; i++) {
+			if (palette[i].equals(c))
+				return i;
+		}
+		return 0;
+	}
+
+	public Color getColor(int index) {
+		return palette[index];
+	}
+
+	/**
+	 * Add a particle.
+	 *
+	 * @return the particle's slot, or -1 if the system is full and the particle was dropped
+	 */
+	public int add(byte kind2, int color2, float x2, float y2, float dx2, float dy2, float airDrag2, int life2) {
+		int i;
+		if (numFree > 0)
+			i = free[--numFree];
+		else if (limit < capacity)
+			i = limit++;
+		else {
+			dropped++;
+			if (dropped % 1000 == 1)
+				Trace.trace(Trace.INFO, "Particle system full: " + this);
+			return -1;
+		}
+
+		count++;
+		kind[i] = kind2;
+		color[i] = (byte) color2;
+		x[i] = x2;
+		y[i] = y2;
+		lastX[i] = x2;
+		lastY[i] = y2;
+		dx[i] = dx2;
+		dy[i] = dy2;
+		airDrag[i] = airDrag2;
+		life[i] = life2;
+		fullLife[i] = life2;
+		return i;
+	}
+
+	private void remove(int i) {
+		kind[i] = NONE;
+		count--;
+		if (count == 0) {
+			// start packing from the beginning again
+			limit = 0;
+			numFree = 0;
+		} else
+			free[numFree++] = i;
+	}
+
+	/**
+	 * Move all particles forward in time and remove the ones that have died. Particles added by
+	 * the listener may or may not be moved until the next update.
+	 *
+	 * @param dt the elapsed time, in ms
+	 * @param gravity downward acceleration, in px/s
+	 * @param listener a listener to notify, or null
+	 */
+	public void update(long dt, float gravity, IParticleListener listener) {
+		float dtd = dt / 1000f;
+		float gAcc = gravity * dtd;
+		int n = limit;
+		for (int i = 0; i < n; i++) {
+			if (kind[i] == NONE)
+				continue;
+
+			life[i] -= dt;
+			if (life[i] <= 0) {
+				if (listener != null)
+					listener.died(i);
+				remove(i);
+				continue;
+			}
+
+			float drag = 1 - (1 - airDrag[i]) * dtd;
+			lastX[i] = (int) x[i];
+			lastY[i] = (int) y[i];
+			x[i] += dx[i] * dtd;
+			y[i] += dy[i] * dtd;
+			dx[i] *= drag;
+			dy[i] *= drag;
+			dy[i] += gAcc;
+
+			if (listener != null)
+				listener.moved(i, dt);
+		}
+	}
+
+	/**
+	 * Draw particles of the given kinds as lines, batched so that each colour is drawn in one call
+	 * using the current stroke. Fully transparent colours are skipped.
+	 *
+	 * @param g the graphics to draw to
+	 * @param kindMask a bit mask of the kinds to draw, (1 << kind)
+	 * @param tail if >= 0 draw a line back along the particle's velocity by this fraction,
+	 *           otherwise draw a line back to the particle's last position
+	 */
+	public void draw(Graphics2D g, int kindMask, float tail) {
+		int n = limit;
+		for (int i = 0; i < n; i++) {
+			int k = kind[i];
+			if (k == NONE || (kindMask & (1 << k)) == 0)
+				continue;
+
+			int c = color[i];
+			if (palette[c].getAlpha() == 0)
+				continue;
+
+			Path2D.Float path = paths[c];
+			if (!pathUsed[c]) {
+				path.reset();
+				pathUsed[c] = true;
+			}
+			int px = (int) x[i];
+			int py = (int) y[i];
+			path.moveTo(px, py);
+			if (tail >= 0)
+				path.lineTo((int) (x[i] - dx[i] * tail), (int) (y[i] - dy[i] * tail));
+			else
+				path.lineTo(lastX[i], lastY[i]);
+		}
+
+		for (int c = 0; c < palette.length; c++) {
+			if (!pathUsed[c])
+				continue;
+
+			g.setColor(palette[c]);
+			g.draw(paths[c]);
+			pathUsed[c] = false;
+		}
+	}
+
+	/**
+	 * Remove all particles.
+	 */
+	public void clear() {
+		for (int i = 0; i < limit; i++)
+			kind[i] = NONE;
+		limit = 0;
+		numFree = 0;
+		count = 0;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns one more than the highest slot that may be in use, i.e. the range to iterate over.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of particles that were dropped because the system was full.
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	@Override
+	public String toString() {
+		return "ParticleSystem [" + count + "/" + capacity + " particles, dropped: " + dropped + "]";
+	}
+}
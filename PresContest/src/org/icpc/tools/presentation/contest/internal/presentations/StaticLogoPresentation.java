@@ -2,12 +2,14 @@ package org.icpc.tools.presentation.contest.internal.presentations;
 
 import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 import org.icpc.tools.presentation.contest.internal.AbstractICPCPresentation;
 
 public class StaticLogoPresentation extends AbstractICPCPresentation {
 	protected BufferedImage image;
+	private BufferedImage paintedImage;
 
 	@Override
 	public long getDelayTimeMs() {
@@ -24,8 +26,17 @@ public class StaticLogoPresentation extends AbstractICPCPresentation {
 		image = getContest().getLogoImage((int) (width * 0.8), (int) (height * 0.8), true, true);
 	}
 
+	@Override
+	public Rectangle[] getDirtyRegions() {
+		if (image == paintedImage)
+			return new Rectangle[0];
+
+		return new Rectangle[] { new Rectangle(0, 0, width, height) };
+	}
+
 	@Override
 	public void paint(Graphics2D g) {
+		paintedImage = image;
 		if (image != null)
 			g.drawImage(image, (width - image.getWidth()) / 2, (height - image.getHeight()) / 2, null);
 	}
@@ -3,6 +3,7 @@ package org.icpc.tools.presentation.contest.internal.presentations.clock;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 
@@ -17,6 +18,11 @@ public class ClockPresentation extends AbstractICPCPresentation {
 	private BufferedImage image;
 	protected int verticalOffset;
 
+	// what was last painted, to find what needs repainting
+	private String paintedTime;
+	private Color paintedColor;
+	private Rectangle paintedBounds;
+
 	protected Long getClock() {
 		IContest contest = getContest();
 		if (contest == null)
@@ -59,28 +65,71 @@ public class ClockPresentation extends AbstractICPCPresentation {
 			g.drawImage(image, (width - image.getWidth()) / 2, height - image.getHeight() - 20, null);
 	}
 
-	@Override
-	public void paint(Graphics2D g) {
-		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-		paintBanner(g);
-
+	private String getTimeString() {
 		Long ms = getClock();
 		if (ms == null)
-			return;
+			return null;
 
 		String time = AbstractICPCPresentation.getTime(ms, true);
 		if (!time.startsWith("-"))
 			time = "+" + time;
+		return time;
+	}
 
+	private int getTextHeight(String time) {
 		int yh = (int) Math.min(0.225f * width, height * 0.55);
 		int w = DigitalFont.stringWidth(time, yh);
-		if (w > width) {
+		if (w > width)
 			yh = yh * width / w;
-			w = DigitalFont.stringWidth(time, yh);
-		}
-		DigitalFont.drawString(g, time, (width - w) / 2, (int) ((height + height / 2.5f) / 2f - verticalOffset), yh,
-				getTextForegroundColor(), getTextBackgroundColor());
+		return yh;
+	}
+
+	private int getBaseline() {
+		return (int) ((height + height / 2.5f) / 2f - verticalOffset);
+	}
+
+	private Rectangle getClockBounds(String time) {
+		int yh = getTextHeight(time);
+		int w = DigitalFont.stringWidth(time, yh);
+		int gap = yh / 20 + 2;
+		return new Rectangle((width - w) / 2 - gap, getBaseline() - yh - gap, w + gap * 2, yh + gap * 2);
+	}
+
+	/**
+	 * Only the clock itself changes, and only when the displayed time or color does.
+	 */
+	@Override
+	public Rectangle[] getDirtyRegions() {
+		if (paintedBounds == null)
+			return null;
+
+		String time = getTimeString();
+		if (time == null)
+			return null;
+
+		if (time.equals(paintedTime) && getTextForegroundColor().equals(paintedColor))
+			return new Rectangle[0];
+
+		return new Rectangle[] { paintedBounds, getClockBounds(time) };
+	}
+
+	@Override
+	public void paint(Graphics2D g) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+		paintBanner(g);
+
+		String time = getTimeString();
+		paintedTime = time;
+		paintedBounds = null;
+		if (time == null)
+			return;
+
+		int yh = getTextHeight(time);
+		int w = DigitalFont.stringWidth(time, yh);
+		paintedColor = getTextForegroundColor();
+		DigitalFont.drawString(g, time, (width - w) / 2, getBaseline(), yh, paintedColor, getTextBackgroundColor());
+		paintedBounds = getClockBounds(time);
 	}
 }
\ No newline at end of file
@@ -34,6 +34,12 @@ public class PolarCountdownPresentation extends CountdownPresentation {
 		return null;
 	}
 
+	@Override
+	public Rectangle[] getDirtyRegions() {
+		// paints more than the clock
+		return null;
+	}
+
 	@Override
 	public void paint(Graphics2D g) {
 		IContest contest = getContest();
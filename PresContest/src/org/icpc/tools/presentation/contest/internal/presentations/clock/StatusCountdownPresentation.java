@@ -5,6 +5,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -157,6 +158,12 @@ public class StatusCountdownPresentation extends CountdownPresentation {
 		TextHelper.drawString(g, ss.getLabel(), px + o * 5, py + (int) (fm.getAscent() / 2.2f), w);
 	}
 
+	@Override
+	public Rectangle[] getDirtyRegions() {
+		// paints more than the clock
+		return null;
+	}
+
 	@Override
 	public void paint(Graphics2D g) {
 		super.paint(g);
@@ -11,10 +11,11 @@ import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.ISubmission;
 import org.icpc.tools.contest.model.ITeam;
 import org.icpc.tools.contest.model.Status;
-import org.icpc.tools.presentation.contest.internal.StatisticsGenerator;
+import org.icpc.tools.contest.model.util.StatisticsGenerator;
+import org.icpc.tools.presentation.contest.internal.ContestData;
 
 public class ICPCStatsTickerPresentation extends AbstractTickerPresentation {
-	protected StatisticsGenerator stats = new StatisticsGenerator();
+	protected StatisticsGenerator stats;
 
 	class ImageStringTicker extends StringTicker {
 		protected Image img;
@@ -45,7 +46,7 @@ public class ICPCStatsTickerPresentation extends AbstractTickerPresentation {
 	@Override
 	public void setContest(IContest sc) {
 		// super.setContest(sc);
-		stats.generate(sc);
+		stats = StatisticsGenerator.getInstance(sc);
 	}
 
 	@Override
@@ -55,7 +56,12 @@ public class ICPCStatsTickerPresentation extends AbstractTickerPresentation {
 
 	@Override
 	protected void newContent() {
-		String s = stats.getStatistic();
+		if (stats == null && ContestData.getContest() != null)
+			stats = StatisticsGenerator.getInstance(ContestData.getContest());
+
+		String s = null;
+		if (stats != null)
+			s = stats.getStatistic();
 		if (s != null && s.length() > 0) {
 			append(new StringTicker(s));
 			// Image img = Images.getImage(Images.IBM);
@@ -15,8 +15,8 @@ import org.icpc.tools.contest.model.IContest;
 import org.icpc.tools.contest.model.ISubmission;
 import org.icpc.tools.contest.model.ITeam;
 import org.icpc.tools.contest.model.Status;
+import org.icpc.tools.contest.model.util.StatisticsGenerator;
 import org.icpc.tools.presentation.contest.internal.AbstractICPCPresentation;
-import org.icpc.tools.presentation.contest.internal.StatisticsGenerator;
 
 public class LogScreenPresentation extends AbstractICPCPresentation {
 	private static final int BOTTOM_MARGIN = 78;
@@ -35,7 +35,7 @@ public class LogScreenPresentation extends AbstractICPCPresentation {
 	private float logPos;
 	private float lastIndex = -1;
 	private StringBuffer log;
-	private final StatisticsGenerator stats = new StatisticsGenerator();
+	private StatisticsGenerator stats;
 
 	@Override
 	public void init() {
@@ -58,7 +58,7 @@ public class LogScreenPresentation extends AbstractICPCPresentation {
 	@Override
 	public void setContest(IContest sc) {
 		super.setContest(sc);
-		stats.generate(sc);
+		stats = StatisticsGenerator.getInstance(sc);
 	}
 
 	@Override
@@ -117,7 +117,10 @@ public class LogScreenPresentation extends AbstractICPCPresentation {
 		}
 
 		if (p.x >= log.length() - 2) {
-			append(stats.getStatistic());
+			if (stats == null && getContest() != null)
+				stats = StatisticsGenerator.getInstance(getContest());
+			if (stats != null)
+				append(stats.getStatistic());
 		}
 	}
 
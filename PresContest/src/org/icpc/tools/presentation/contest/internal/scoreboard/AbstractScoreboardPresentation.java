@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.icpc.tools.contest.model.ContestUtil;
 import org.icpc.tools.contest.model.IAward;
@@ -36,6 +37,7 @@ import org.icpc.tools.presentation.contest.internal.TextHelper;
 import org.icpc.tools.presentation.contest.internal.TextImage;
 import org.icpc.tools.presentation.contest.internal.nls.Messages;
 import org.icpc.tools.presentation.contest.internal.presentations.TitledPresentation;
+import org.icpc.tools.presentation.core.AssetManifest;
 
 public abstract class AbstractScoreboardPresentation extends TitledPresentation {
 	protected static final Movement ROW_MOVEMENT = new Movement(4, 7);
@@ -77,7 +79,7 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 	 */
 	private final Map<String, Animator> teamYmap = new HashMap<>();
 
-	protected final Map<String, BufferedImage> teamRowImages = new HashMap<>();
+	protected final Map<String, BufferedImage> teamRowImages = new ConcurrentHashMap<>();
 
 	@Override
 	protected void setup() {
@@ -86,13 +88,13 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 		float size = (int) (height * 72.0 * 0.028 / dpi);
 		float headerFontSize = size;
 
-		headerHeight = (int) (height / 50.0);
+		headerHeight = getHeaderHeight(height);
 
 		String s = getTitle();
 		if (s == null)
 			titleHeight = 0;
 		else
-			titleHeight = (int) (height / 30.0);
+			titleHeight = getTitleHeight(height);
 
 		float tempRowHeight = height / (float) teamsPerScreen;
 		size = tempRowHeight * 36f * 0.95f / dpi;
@@ -101,7 +103,7 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 		statusFont = ICPCFont.deriveFont(Font.BOLD, size * 0.7f);
 		problemFont = ICPCFont.deriveFont(Font.PLAIN, size * 0.5f);
 
-		rowHeight = (height - headerHeight - titleHeight) / (float) teamsPerScreen;
+		rowHeight = getRowHeight(height, headerHeight, titleHeight, teamsPerScreen);
 		cubeHeight = (int) (rowHeight / 2.5f) - CUBE_INSET;
 		int newCubeWidth = (int) (((rowHeight / 1.8f) - CUBE_INSET) * 10f);
 		IContest contest = getContest();
@@ -119,6 +121,32 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 		super.setup();
 	}
 
+	private static int getHeaderHeight(int height) {
+		return (int) (height / 50.0);
+	}
+
+	private static int getTitleHeight(int height) {
+		return (int) (height / 30.0);
+	}
+
+	private static float getRowHeight(int height, int headerHeight, int titleHeight, int teamsPerScreen) {
+		return (height - headerHeight - titleHeight) / (float) teamsPerScreen;
+	}
+
+	private static int getLogoSize(float rowHeight) {
+		return (int) rowHeight - 10;
+	}
+
+	/**
+	 * Returns the sizes of the team logos on a scoreboard of the given height with the default
+	 * number of teams per screen, without and with a title.
+	 */
+	public static int[] getDefaultLogoSizes(int height) {
+		int headerHeight = getHeaderHeight(height);
+		return new int[] { getLogoSize(getRowHeight(height, headerHeight, 0, DEFAULT_TEAMS_PER_SCREEN)),
+				getLogoSize(getRowHeight(height, headerHeight, getTitleHeight(height), DEFAULT_TEAMS_PER_SCREEN)) };
+	}
+
 	@Override
 	public void setSize(Dimension d) {
 		super.setSize(d);
@@ -376,6 +404,16 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 		g.fillRect(0, y, width, (int) rowHeight);
 	}
 
+	@Override
+	public void getAssets(AssetManifest manifest) {
+		IContest contest = getContest();
+		if (contest == null)
+			return;
+
+		for (ITeam t : contest.getOrderedTeams())
+			manifest.add(() -> getSmallTeamLogo(t, true));
+	}
+
 	protected void loadTeamLogos() {
 		execute(new Runnable() {
 			@Override
@@ -594,7 +632,8 @@ public abstract class AbstractScoreboardPresentation extends TitledPresentation
 		if (org == null)
 			return null;
 
-		smImg = org.getLogoImage((int) rowHeight - 10, (int) rowHeight - 10, true, true);
+		int logoSize = getLogoSize(rowHeight);
+		smImg = org.getLogoImage(logoSize, logoSize, true, true);
 		if (smImg != null)
 			teamRowImages.put(id, smImg);
 		return smImg;
@@ -0,0 +1,324 @@
+package org.icpc.tools.presentation.contest.internal.standalone;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.icpc.tools.contest.Trace;
+import org.icpc.tools.contest.model.feed.ContestSource;
+import org.icpc.tools.contest.model.util.ArgumentParser;
+import org.icpc.tools.contest.model.util.ArgumentParser.OptionParser;
+import org.icpc.tools.presentation.contest.internal.ContestData;
+import org.icpc.tools.presentation.core.Presentation;
+import org.icpc.tools.presentation.core.RenderPerfTimer;
+import org.icpc.tools.presentation.core.internal.PresentationInfo;
+
+/**
+ * Renders presentations offscreen against a recorded contest and reports how long each frame
+ * takes, so that presentation performance can be measured (and compared between builds) without
+ * a display.
+ *
+ * Each presentation is painted into a BufferedImage at a fixed timestep, the same way the
+ * presentation window would: setTimeMs() and setRepeatTimeMs() followed by paint(). The first
+ * frames are treated as warm-up and not measured.
+ */
+public class RenderBenchmark {
+	private static final int DEFAULT_FRAMES = 600;
+	private static final int DEFAULT_WARMUP = 60;
+	private static final int DEFAULT_STEP_MS = 16;
+
+	protected static class Result {
+		protected PresentationInfo info;
+		protected String error;
+		protected long[] frameNs;
+		protected long allocatedBytes = -1;
+		protected long cacheMisses;
+		protected long gcCount;
+		protected long gcMs;
+
+		protected long getPercentile(int p) {
+			long[] sorted = Arrays.copyOf(frameNs, frameNs.length);
+			Arrays.sort(sorted);
+			int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+		}
+
+		protected long getTotalNs() {
+			long total = 0;
+			for (long ns : frameNs)
+				total += ns;
+			return total;
+		}
+	}
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		Trace.init("ICPC Presentation Benchmark", "benchmark", args);
+
+		List<String> presList = new ArrayList<>();
+		Dimension size = new Dimension(1920, 1080);
+		int[] frames = new int[] { DEFAULT_FRAMES, DEFAULT_WARMUP, DEFAULT_STEP_MS };
+		double[] maxP99 = new double[1];
+		boolean[] lightMode = new boolean[1];
+		ContestSource source = ArgumentParser.parse(args, new OptionParser() {
+			@Override
+			public boolean setOption(String option, List<Object> options) throws IllegalArgumentException {
+				if ("-p".equals(option) || "--presentations".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "presentations:string", "*");
+					for (Object o : options)
+						presList.add((String) o);
+					return true;
+				} else if ("--size".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "wxh:string");
+					String s = (String) options.get(0);
+					int ind = s.indexOf("x");
+					if (ind < 0)
+						throw new IllegalArgumentException("Invalid size: " + s);
+					size.width = Integer.parseInt(s.substring(0, ind));
+					size.height = Integer.parseInt(s.substring(ind + 1));
+					return true;
+				} else if ("--frames".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "frames:int");
+					frames[0] = (Integer) options.get(0);
+					if (frames[0] < 1)
+						throw new IllegalArgumentException("Number of frames must be at least 1: " + frames[0]);
+					return true;
+				} else if ("--warmup".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "frames:int");
+					frames[1] = (Integer) options.get(0);
+					if (frames[1] < 0)
+						throw new IllegalArgumentException("Number of warm-up frames cannot be negative: " + frames[1]);
+					return true;
+				} else if ("--step".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "ms:int");
+					frames[2] = (Integer) options.get(0);
+					return true;
+				} else if ("--max-p99".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "ms:float");
+					maxP99[0] = ((Number) options.get(0)).doubleValue();
+					return true;
+				} else if ("--light".equals(option)) {
+					ArgumentParser.expectNoOptions(option, options);
+					lightMode[0] = true;
+					return true;
+				}
+				return false;
+			}
+
+			@Override
+			public void showHelp() {
+				RenderBenchmark.showHelp();
+			}
+		});
+
+		if (source == null) {
+			showHelp();
+			return;
+		}
+
+		List<PresentationInfo> presentations = new ArrayList<>();
+		if (presList.isEmpty()) {
+			for (PresentationInfo pi : PresentationHelper.getPresentations()) {
+				if (!pi.isTransition())
+					presentations.add(pi);
+			}
+			StandaloneLauncher.sortPresentationsByCategory(presentations);
+		} else {
+			for (String s : presList) {
+				PresentationInfo pi = StandaloneLauncher.findPresentation(PresentationHelper.getPresentations(), s);
+				if (pi == null)
+					System.exit(1);
+				presentations.add(pi);
+			}
+		}
+
+		// load the contest once up front so that it isn't part of the first presentation's time
+		Trace.trace(Trace.USER, "Loading contest: " + source);
+		ContestData.getContest();
+
+		List<Result> results = new ArrayList<>();
+		for (PresentationInfo pi : presentations) {
+			Trace.trace(Trace.INFO, "Benchmarking " + pi.getId());
+			results.add(run(pi, size, frames[0], frames[1], frames[2], lightMode[0]));
+		}
+
+		boolean ok = report(results, size, frames[0], frames[2], maxP99[0]);
+		System.exit(ok ? 0 : 1);
+	}
+
+	protected static void showHelp() {
+		System.out.println("Usage: benchmark.bat/sh contestPath [options]");
+		System.out.println();
+		System.out.println("  Options:");
+		System.out.println("     -p pres1 pres2 ...");
+		System.out.println("     --presentations pres1 pres2 ...");
+		System.out.println("         The presentation names, ids, or numbers to benchmark. Default is all");
+		System.out.println("     --size wxh");
+		System.out.println("         Render size. Default is 1920x1080");
+		System.out.println("     --frames #");
+		System.out.println("         Number of frames to measure, at least 1. Default is " + DEFAULT_FRAMES);
+		System.out.println("     --warmup #");
+		System.out.println("         Number of frames to render before measuring. Default is " + DEFAULT_WARMUP);
+		System.out.println("     --step ms");
+		System.out.println("         Presentation time between frames. Default is " + DEFAULT_STEP_MS);
+		System.out.println("     --max-p99 ms");
+		System.out.println("         Fail (exit code 1) if any presentation's 99th percentile frame time is higher");
+		System.out.println("     --light");
+		System.out.println("         Use light mode");
+		System.out.println("     --help");
+		System.out.println("         Shows this message");
+	}
+
+	private static long getAllocatedBytes(ThreadMXBean bean) {
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			try {
+				return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+			} catch (Exception e) {
+				// not supported
+			}
+		}
+		return -1;
+	}
+
+	private static long[] getGCStats() {
+		long[] stats = new long[2];
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			stats[0] += Math.max(0, gc.getCollectionCount());
+			stats[1] += Math.max(0, gc.getCollectionTime());
+		}
+		return stats;
+	}
+
+	protected static Result run(PresentationInfo info, Dimension size, int numFrames, int warmup, int stepMs,
+			boolean lightMode) {
+		Result r = new Result();
+		r.info = info;
+
+		Presentation p = null;
+		try {
+			Class<?> c = RenderBenchmark.class.getClassLoader().loadClass(info.getClassName());
+			p = (Presentation) c.getDeclaredConstructor().newInstance();
+			p.setProperty(lightMode ? "lightMode:light" : "lightMode:dark");
+			p.setSize(size);
+			p.init();
+			p.aboutToShow();
+
+			BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+			Color bg = lightMode ? Color.WHITE : Color.BLACK;
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+			r.frameNs = new long[numFrames];
+			long time = 0;
+			long alloc = 0;
+			long misses = 0;
+			long[] gc = null;
+			for (int i = -warmup; i < numFrames; i++) {
+				if (i == 0) {
+					alloc = getAllocatedBytes(bean);
+					misses = RenderPerfTimer.getCacheMisses();
+					gc = getGCStats();
+				}
+
+				Graphics2D g = image.createGraphics();
+				g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.setColor(bg);
+				g.fillRect(0, 0, size.width, size.height);
+
+				long start = System.nanoTime();
+				time += stepMs;
+				p.setTimeMs(time);
+				long repeat = p.getRepeat();
+				p.setRepeatTimeMs(repeat > 0 ? time % repeat : time);
+				p.paint(g);
+				long ns = System.nanoTime() - start;
+				g.dispose();
+
+				if (i >= 0)
+					r.frameNs[i] = ns;
+			}
+
+			if (alloc >= 0) {
+				long alloc2 = getAllocatedBytes(bean);
+				if (alloc2 >= 0)
+					r.allocatedBytes = alloc2 - alloc;
+			}
+			r.cacheMisses = RenderPerfTimer.getCacheMisses() - misses;
+			long[] gc2 = getGCStats();
+			r.gcCount = gc2[0] - gc[0];
+			r.gcMs = gc2[1] - gc[1];
+		} catch (Throwable t) {
+			Trace.trace(Trace.ERROR, "Error benchmarking " + info.getId(), t);
+			r.error = t.getClass().getSimpleName();
+			r.frameNs = null;
+		} finally {
+			if (p != null) {
+				try {
+					p.dispose();
+				} catch (Throwable t) {
+					// ignore
+				}
+			}
+		}
+		return r;
+	}
+
+	private static String pad(String s, int len) {
+		StringBuilder sb = new StringBuilder(s);
+		while (sb.length() < len)
+			sb.append(" ");
+		return sb.toString();
+	}
+
+	protected static boolean report(List<Result> results, Dimension size, int numFrames, int stepMs, double maxP99) {
+		int maxName = 12;
+		for (Result r : results)
+			maxName = Math.max(maxName, r.info.getName().length());
+
+		Trace.trace(Trace.USER, "");
+		Trace.trace(Trace.USER, "Rendered " + numFrames + " frames at " + size.width + "x" + size.height + ", "
+				+ stepMs + "ms per frame");
+		Trace.trace(Trace.USER, "");
+		Trace.trace(Trace.USER, pad("Presentation", maxName)
+				+ " |   p50 ms |   p99 ms |   max ms |  MB/frame |   MB/s | Cache misses |  GCs | GC ms");
+
+		boolean ok = true;
+		for (Result r : results) {
+			if (r.frameNs == null) {
+				Trace.trace(Trace.USER, pad(r.info.getName(), maxName) + " | Failed: " + r.error);
+				ok = false;
+				continue;
+			}
+
+			double p50 = r.getPercentile(50) / 1e6;
+			double p99 = r.getPercentile(99) / 1e6;
+			double max = r.getPercentile(100) / 1e6;
+			String alloc = "       n/a |    n/a";
+			if (r.allocatedBytes >= 0) {
+				double mbPerFrame = r.allocatedBytes / 1e6 / r.frameNs.length;
+				double mbPerSec = r.allocatedBytes / 1e6 / Math.max(1e-9, r.getTotalNs() / 1e9);
+				alloc = String.format(Locale.ENGLISH, "%10.3f | %6.0f", mbPerFrame, mbPerSec);
+			}
+			Trace.trace(Trace.USER,
+					pad(r.info.getName(), maxName) + String.format(Locale.ENGLISH, " | %8.2f | %8.2f | %8.2f | ", p50,
+							p99, max) + alloc
+							+ String.format(Locale.ENGLISH, " | %12d | %4d | %5d", r.cacheMisses, r.gcCount, r.gcMs));
+
+			if (maxP99 > 0 && p99 > maxP99) {
+				Trace.trace(Trace.ERROR, r.info.getName() + " p99 frame time " + String.format(Locale.ENGLISH, "%.2f", p99)
+						+ "ms is over the limit of " + maxP99 + "ms");
+				ok = false;
+			}
+		}
+		return ok;
+	}
+}
@@ -226,7 +226,7 @@ public class StandaloneLauncher {
 		return sb.toString();
 	}
 
-	private static void sortPresentationsByCategory(List<PresentationInfo> presentations) {
+	protected static void sortPresentationsByCategory(List<PresentationInfo> presentations) {
 		int size = presentations.size();
 		for (int i = 0; i < size - 1; i++) {
 			for (int j = i + 1; j < size; j++) {
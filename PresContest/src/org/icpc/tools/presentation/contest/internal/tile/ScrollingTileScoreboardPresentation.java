@@ -8,8 +8,9 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.Point2D;
-import java.awt.image.BufferedImage;
-import java.util.concurrent.ExecutionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import org.icpc.tools.contest.model.IContest;
@@ -143,6 +144,13 @@ public abstract class ScrollingTileScoreboardPresentation extends AbstractTileSc
 	public void aboutToShow() {
 		super.aboutToShow();
 
+		// prepare the first two screens of tiles
+		IContest contest = getContest();
+		if (contest != null && tileHelper != null) {
+			ITeam[] teams = contest.getOrderedTeams();
+			prewarm(Arrays.copyOf(teams, Math.min(teams.length, rows * columns * 2)));
+		}
+
 		if (dir == Direction.HORIZONTAL)
 			return;
 
@@ -273,6 +281,19 @@ public abstract class ScrollingTileScoreboardPresentation extends AbstractTileSc
 	}
 
 	protected RenderPool renderPool = new RenderPool();
+	private Future<?> prewarm;
+
+	/**
+	 * Prepare the given teams' tiles in the background, unless the last batch is still going.
+	 */
+	protected void prewarm(ITeam[] teams) {
+		if (teams.length == 0 || (prewarm != null && !prewarm.isDone()))
+			return;
+
+		TeamTileHelper helper = tileHelper;
+		int timeMs = (int) getRepeatTimeMs();
+		prewarm = renderPool.getExecutor().submit(() -> helper.prewarm(teams, timeMs));
+	}
 
 	protected void paintTiles(Graphics2D g, int hScroll) {
 		IContest contest = getContest();
@@ -281,6 +302,10 @@ public abstract class ScrollingTileScoreboardPresentation extends AbstractTileSc
 
 		ITeam[] teams = contest.getOrderedTeams();
 		int timeMs = (int) getRepeatTimeMs();
+		long time = getRepeatTimeMs();
+		boolean scrolling = Math.abs(Math.IEEEremainder(scroll.getScroll(time), 1)) > 1e-3;
+		boolean animating = Math.abs(Math.IEEEremainder(currentColumns, 1)) > 1e-3;
+		List<ITeam> next = new ArrayList<>();
 		for (int i = teams.length - 1; i >= 0; i--) {
 			ITeam team = teams[i];
 
@@ -292,39 +317,11 @@ public abstract class ScrollingTileScoreboardPresentation extends AbstractTileSc
 				int y = (int) ((yy - col * rows) * (tileDim.getHeight() + TILE_V_GAP));
 
 				boolean visible = (x - hScroll + tileDim.width > 0 && x - hScroll < width - margin);
-				long time = getRepeatTimeMs();
-				boolean scrolling = Math.abs(Math.IEEEremainder(scroll.getScroll(time), 1)) > 1e-3;
-				boolean animating = Math.abs(Math.IEEEremainder(currentColumns, 1)) > 1e-3;
 				if (visible) {
 					tileHelper.paintTile(g, x, y, anim.getZoom(), team, timeMs, false);
-				} else if (!scrolling && !animating) {
-					// pre-render a small section of what is visible next, when not scrolling columns,
-					// and not animating columns
-					int prerenderX1 = width - margin;
-					int prerenderX2 = prerenderX1 + tileDim.width;
-					int prerenderY = (timeMs % (MS_PER_COLUMN / 3)) * height / (MS_PER_COLUMN / 3);
-					if ((x - hScroll + tileDim.width > prerenderX1 && x - hScroll < prerenderX2)) {
-						if (y + tileDim.height > prerenderY && y < prerenderY) {
-							final boolean DEBUG_SHOW_PRERENDER = false;
-							int dx = DEBUG_SHOW_PRERENDER ? -300 : 0;
-							int preX = x, preY = y;
-							Future<?> future = renderPool.getExecutor().submit(() -> {
-								BufferedImage dummy = new BufferedImage(10, 10, BufferedImage.TYPE_4BYTE_ABGR);
-								Graphics2D gg = DEBUG_SHOW_PRERENDER ? g : dummy.createGraphics();
-								tileHelper.paintTile(gg, preX + dx, preY, anim.getZoom(), team, timeMs, true);
-								if (!DEBUG_SHOW_PRERENDER)
-									gg.dispose();
-							});
-
-							if (DEBUG_SHOW_PRERENDER) {
-								try {
-									future.get();
-								} catch (InterruptedException | ExecutionException e) {
-									e.printStackTrace();
-								}
-							}
-						}
-					}
+				} else if (x - hScroll < width - margin + tileDim.width + TILE_H_GAP) {
+					// next column to scroll into view
+					next.add(team);
 				}
 
 				// paint tiles that are half off the bottom twice (second time at the top of the next
@@ -338,6 +335,10 @@ public abstract class ScrollingTileScoreboardPresentation extends AbstractTileSc
 				}
 			}
 		}
+
+		// pre-render the next column in the background, when not scrolling or animating columns
+		if (!scrolling && !animating)
+			prewarm(next.toArray(new ITeam[0]));
 	}
 
 	protected void paintContent(Graphics2D g) {
@@ -7,7 +7,6 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.lang.ref.SoftReference;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -56,9 +55,16 @@ public class TeamTileHelper {
 	private boolean approximateRendering;
 	private boolean nameRenderingGlitchAvoidance;
 
+	// kinds of problem cells in the atlas
+	private static final int CELL_PROBLEM = 0;
+	private static final int CELL_RESULT = 1;
+	private static final int CELL_FLASH = 2;
+	private static final int CELL_RESULT_TEXT = 3;
+
 	private Map<String, BufferedImage> nameImages = Collections.synchronizedMap(new HashMap<>());
-	private Map<String, SoftReference<BufferedImage>> resultImages = Collections.synchronizedMap(new HashMap<>());
-	private Map<String, BufferedImage> problemImages = Collections.synchronizedMap(new HashMap<>());
+	private TileAtlas problemAtlas = new TileAtlas();
+	// cells at the in-between sizes of a column animation, kept apart so they don't evict the rest
+	private TileAtlas approximateAtlas = new TileAtlas();
 	private Map<String, BufferedImage> logoImages = Collections.synchronizedMap(new HashMap<>());
 
 	public TeamTileHelper(Dimension tileDim, IContest contest) {
@@ -70,19 +76,50 @@ public class TeamTileHelper {
 
 	public void joinCaches(TeamTileHelper from) {
 		nameImages = from.nameImages;
-		resultImages = from.resultImages;
-		problemImages = from.problemImages;
+		problemAtlas = from.problemAtlas;
+		approximateAtlas = from.approximateAtlas;
 		logoImages = from.logoImages;
 		nameRenderingGlitchAvoidance = true;
 	}
 
 	public void clearCaches() {
 		nameImages.clear();
-		resultImages.clear();
-		problemImages.clear();
+		problemAtlas.clear();
+		approximateAtlas.clear();
 		logoImages.clear();
 	}
 
+	/**
+	 * Returns the atlas that caches problem cells, e.g. to report occupancy and evictions.
+	 */
+	public TileAtlas getProblemAtlas() {
+		return problemAtlas;
+	}
+
+	/**
+	 * Returns the atlas that caches problem cells while rendering approximately.
+	 */
+	public TileAtlas getApproximateAtlas() {
+		return approximateAtlas;
+	}
+
+	/**
+	 * Render and cache everything needed to paint the given teams' tiles, without painting them,
+	 * so that they don't need to be rendered when they scroll into view.
+	 *
+	 * @param teams the teams to prepare
+	 * @param timeMs the current time
+	 */
+	public void prewarm(ITeam[] teams, int timeMs) {
+		BufferedImage dummy = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = dummy.createGraphics();
+		for (ITeam team : teams) {
+			if (team != null)
+				paintTile(g, 0, 0, 1.0, team, timeMs, true);
+		}
+		g.dispose();
+	}
+
 	protected void setSize(Dimension d) {
 		this.tileDim = d;
 	}
@@ -322,106 +359,86 @@ public class TeamTileHelper {
 		g.setFont(problemFont);
 		FontMetrics problemFm = g.getFontMetrics();
 
+		int cw = (int) w;
+		TileAtlas atlas = approximateRendering ? approximateAtlas : problemAtlas;
 		for (int i = 0; i < numProblems; i++) {
 			IResult r = contest.getResult(team, i);
-			if (!preRendering && !g.getClip().intersects(xx + (int) (w * i), y, w, h)) {
+			int px = xx + (int) (w * i);
+			if (!preRendering && !g.getClip().intersects(px, y, w, h)) {
 				continue;
 			}
-			String hash = r.getNumSubmissions() + "-" + ContestUtil.getTime(r.getContestTime()) + " "
-					+ r.getStatus().name() + " " + (int) w;
-			if (r.isFirstToSolve()) {
-				hash += " FIRST";
-			}
 			if (r.getNumSubmissions() == 0) {
 				inactiveProblemMeasure.startMeasure();
 				String label = problems[i].getLabel();
-				String problemOnlyHash = label + (int) w;
-				BufferedImage img = problemImages.get(problemOnlyHash);
-				if (img == null) {
-					img = new BufferedImage((int) w, h, BufferedImage.TYPE_4BYTE_ABGR);
-					Graphics2D gg = (Graphics2D) img.getGraphics();
-					gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-					gg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-					paintProblem(gg, (int) w, h, arc, problemFm, label);
-					gg.dispose();
-					problemImages.put(problemOnlyHash, img);
-					img = cacheMiss(img);
-				}
+				long key = getCellKey(CELL_PROBLEM, cw, h, null, i, 0);
+				atlas.draw(g, key, px, y, cw, h, (gg) -> {
+					paintProblem(gg, cw, h, arc, problemFm, label);
+				});
 				inactiveProblemMeasure.stopMeasure();
-				problemDrawMeasure.startMeasure();
-				g.drawImage(img, xx + (int) (w * i), y, null);
-				problemDrawMeasure.stopMeasure();
 			} else if (ContestUtil.isRecent(contest, r)) {
 				activeProblemMeasure.startMeasure();
 				int k = (int) ((timeMs * 45.0 / 1000.0) % (ICPCColors.COUNT2 * 2));
-				String backHash = r.getStatus().name() + " " + (int) w + " flash " + k;
-				BufferedImage backImg = getCacheOrRender(backHash, problemImages, (int) w, h, (gg) -> {
-					paintRecentResultBackground(gg, k, r, 0, 0, (int) w, h, arc);
+				long backKey = getCellKey(CELL_FLASH, cw, h, r, k, 0);
+				atlas.draw(g, backKey, px, y, cw, h, (gg) -> {
+					gg.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+					paintRecentResultBackground(gg, k, r, 0, 0, cw, h, arc);
 				});
 				// TODO: only cache up to the natural string width
-				String resultTextOnlyHash = hash + " TEXT";
-				BufferedImage img = getCacheOrRender(resultTextOnlyHash, problemImages, (int) w, h, (gg) -> {
+				long textKey = getCellKey(CELL_RESULT_TEXT, cw, h, r, r.getNumSubmissions(),
+						(int) ContestUtil.getTimeInMin(r.getContestTime()));
+				drawResultCell(g, atlas, textKey, r, px, y, cw, h, (gg) -> {
+					gg.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+					gg.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
 					gg.setFont(statusFont);
-					paintResultText(gg, r, 0, 0, (int) w, h, arc, statusFm);
+					paintResultText(gg, r, 0, 0, cw, h, arc, statusFm);
 				});
 				activeProblemMeasure.stopMeasure();
-				problemDrawMeasure.startMeasure();
-				g.drawImage(backImg, xx + (int) (w * i), y, null);
-				g.drawImage(img, xx + (int) (w * i), y, null);
-				problemDrawMeasure.stopMeasure();
 			} else {
 				inactive2ProblemMeasure.startMeasure();
-				SoftReference<BufferedImage> ref = resultImages.get(hash);
-				BufferedImage img = null;
-				if (ref != null) {
-					img = ref.get();
-					if (img == null) {
-						Trace.trace(Trace.INFO, "Soft image reference cleared: " + hash);
-					}
-				}
-				if (img == null) {
-					Trace.trace(Trace.INFO, "problem cache miss " + hash);
-					img = new BufferedImage((int) w, h, BufferedImage.TYPE_4BYTE_ABGR);
-					Graphics2D gg = (Graphics2D) img.getGraphics();
-					gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-					gg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				long key = getCellKey(CELL_RESULT, cw, h, r, r.getNumSubmissions(),
+						(int) ContestUtil.getTimeInMin(r.getContestTime()));
+				drawResultCell(g, atlas, key, r, px, y, cw, h, (gg) -> {
 					gg.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-					paintResult(gg, r, (int) w, h, arc, statusFm);
-					gg.dispose();
-					resultImages.put(hash, new SoftReference<BufferedImage>(img));
-					img = cacheMiss(img);
-				}
+					paintResult(gg, r, cw, h, arc, statusFm);
+				});
 				inactive2ProblemMeasure.stopMeasure();
-				problemDrawMeasure.startMeasure();
-				g.drawImage(img, xx + (int) (w * i), y, null);
-				problemDrawMeasure.stopMeasure();
 			}
 		}
 		problemMeasure.stopMeasure();
 	}
 
-	private static BufferedImage getCacheOrRender(String hash, Map<String, BufferedImage> cache, int w, int h,
+	/**
+	 * Draws a cell that shows a result. Cells that show a score aren't cached since the score isn't
+	 * part of the cell key, so they're rendered directly.
+	 */
+	private void drawResultCell(Graphics2D g, TileAtlas atlas, long key, IResult r, int x, int y, int w, int h,
 			Consumer<Graphics2D> renderer) {
-		BufferedImage img = cache.get(hash);
-		if (img == null) {
-			Trace.trace(Trace.INFO, "cache miss " + hash);
-			img = renderBufferedImage(w, h, renderer);
-			cache.put(hash, img);
-			img = cacheMiss(img);
+		if (contest.getScoreboardType() == ScoreboardType.PASS_FAIL || r.getStatus() != Status.SOLVED) {
+			atlas.draw(g, key, x, y, w, h, renderer);
+			return;
 		}
-		return img;
-	}
 
-	private static BufferedImage renderBufferedImage(int w, int h, Consumer<Graphics2D> renderer) {
-		BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_4BYTE_ABGR);
-		Graphics2D gg = (Graphics2D) img.getGraphics();
-		gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		gg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-		gg.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-		gg.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		Graphics2D gg = (Graphics2D) g.create();
+		gg.translate(x, y);
+		gg.clipRect(0, 0, w, h);
 		renderer.accept(gg);
 		gg.dispose();
-		return img;
+	}
+
+	/**
+	 * Returns a key for a problem cell in the atlas, packing everything that affects how it looks:
+	 * the kind of cell, its size, the result status, and two kind-specific values (e.g. the number
+	 * of submissions and time).
+	 */
+	private static long getCellKey(int kind, int w, int h, IResult r, int a, int b) {
+		long key = kind;
+		key = (key << 11) | (w & 0x7FF);
+		key = (key << 10) | (h & 0x3FF);
+		key = (key << 2) | (r == null ? 0 : r.getStatus().ordinal());
+		key = (key << 1) | (r != null && r.isFirstToSolve() ? 1 : 0);
+		key = (key << 16) | (a & 0xFFFF);
+		key = (key << 22) | (b & 0x3FFFFF);
+		return key;
 	}
 
 	private void paintProblem(Graphics2D g, int w, int h, int arc, FontMetrics fm, String label) {
@@ -579,6 +596,7 @@ public class TeamTileHelper {
 	}
 
 	private static BufferedImage cacheMiss(BufferedImage img) {
+		RenderPerfTimer.cacheMiss();
 		if (!PresentationWindowImpl.shouldColorCacheMisses()) {
 			return img;
 		}
@@ -0,0 +1,390 @@
+package org.icpc.tools.presentation.contest.internal.tile;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.icpc.tools.contest.Trace;
+import org.icpc.tools.presentation.core.RenderPerfTimer;
+import org.icpc.tools.presentation.core.internal.PresentationWindowImpl;
+
+/**
+ * A cache of small, same-sized images (e.g. the problem cells of team tiles) packed into a few
+ * large atlas pages instead of one image each. Images are looked up by a long key, and when all
+ * slots are in use the least recently used slot is reused.
+ *
+ * Slots are sized to fit the largest image requested so far (rounded up), so an image of any
+ * smaller size can be stored in any slot. If a larger image is requested the atlas is cleared and
+ * the slot size grows.
+ *
+ * Pages are 4MB each and only created when needed. The default limit of 8 pages can be changed
+ * with the ICPC_TILE_ATLAS_PAGES system property.
+ */
+public class TileAtlas {
+	private static final int PAGE_SIZE = 1024;
+	private static final int DEFAULT_MAX_PAGES = Math.max(1, Integer.getInteger("ICPC_TILE_ATLAS_PAGES", 8));
+	private static final int SLOT_ROUNDING = 8;
+	private static final Color CLEAR = new Color(0, 0, 0, 0);
+	private static final Color CACHE_MISS = new Color(255, 0, 0, 192);
+
+	// images are rendered here, outside the lock, before they're copied into a slot
+	private static final ThreadLocal<BufferedImage> scratch = new ThreadLocal<>();
+
+	private final int maxPages;
+
+	private int slotWidth;
+	private int slotHeight;
+	private int slotsPerRow;
+	private int slotsPerPage;
+	private int maxSlots;
+
+	private final List<BufferedImage> pages = new ArrayList<>();
+
+	// per slot: key, size of the image in it, and the previous and next slot in least recently used
+	// order, from head (most recent) to tail (least recent)
+	private long[] slotKeys = new long[0];
+	private int[] slotSizes = new int[0];
+	private int[] slotPrev = new int[0];
+	private int[] slotNext = new int[0];
+	private int head = -1;
+	private int tail = -1;
+	private int numSlots;
+
+	// open addressing map from key to slot + 1, 0 is empty
+	private long[] tableKeys = new long[0];
+	private int[] tableSlots = new int[0];
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public TileAtlas() {
+		this(DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Create an atlas.
+	 *
+	 * @param maxPages the maximum number of pages
+	 */
+	public TileAtlas(int maxPages) {
+		if (maxPages < 1)
+			throw new IllegalArgumentException("Atlas needs at least one page");
+		this.maxPages = maxPages;
+	}
+
+	/**
+	 * Draws the image with the given key, rendering it into the atlas first if it isn't there.
+	 *
+	 * @param g the graphics to draw to
+	 * @param key a key that identifies everything that affects how the image looks, including size
+	 * @param x the x location to draw at
+	 * @param y the y location to draw at
+	 * @param w the width of the image
+	 * @param h the height of the image
+	 * @param renderer renders the image, at 0, 0
+	 */
+	public void draw(Graphics2D g, long key, int x, int y, int w, int h, Consumer<Graphics2D> renderer) {
+		if (w <= 0 || h <= 0)
+			return;
+
+		// too big for a page, just render it directly
+		if (w > PAGE_SIZE || h > PAGE_SIZE) {
+			Graphics2D gg = (Graphics2D) g.create();
+			gg.translate(x, y);
+			renderer.accept(gg);
+			gg.dispose();
+			return;
+		}
+
+		synchronized (this) {
+			int slot = getSlot(key, w, h);
+			if (slot >= 0) {
+				touch(slot);
+				BufferedImage page = pages.get(slot / slotsPerPage);
+				int sx = (slot % slotsPerPage % slotsPerRow) * slotWidth;
+				int sy = (slot % slotsPerPage / slotsPerRow) * slotHeight;
+				g.drawImage(page, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+				return;
+			}
+			misses++;
+		}
+		RenderPerfTimer.cacheMiss();
+
+		// render without holding the lock so that other threads can keep drawing from the atlas
+		BufferedImage img = render(w, h, renderer);
+		g.drawImage(img, x, y, x + w, y + h, 0, 0, w, h, null);
+		publish(key, w, h, img);
+
+		if (PresentationWindowImpl.shouldColorCacheMisses()) {
+			g.setColor(CACHE_MISS);
+			g.fillRect(x, y, w, h);
+		}
+	}
+
+	private int getSlot(long key, int w, int h) {
+		if (tableKeys.length == 0)
+			return -1;
+
+		int mask = tableKeys.length - 1;
+		int i = hash(key) & mask;
+		while (tableSlots[i] != 0) {
+			if (tableKeys[i] == key) {
+				int slot = tableSlots[i] - 1;
+				if (slotSizes[slot] == ((w << 16) | h)) {
+					hits++;
+					return slot;
+				}
+				return -1;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Render an image into this thread's scratch image, at 0, 0.
+	 */
+	private static BufferedImage render(int w, int h, Consumer<Graphics2D> renderer) {
+		BufferedImage img = scratch.get();
+		if (img == null || img.getWidth() < w || img.getHeight() < h) {
+			int sw = round(Math.max(w, img == null ? 0 : img.getWidth()));
+			int sh = round(Math.max(h, img == null ? 0 : img.getHeight()));
+			img = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_ARGB_PRE);
+			scratch.set(img);
+		}
+
+		Graphics2D gg = img.createGraphics();
+		gg.setComposite(AlphaComposite.Src);
+		gg.setColor(CLEAR);
+		gg.fillRect(0, 0, w, h);
+		gg.setComposite(AlphaComposite.SrcOver);
+		gg.clipRect(0, 0, w, h);
+		gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		gg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		renderer.accept(gg);
+		gg.dispose();
+		return img;
+	}
+
+	/**
+	 * Copy a rendered image into a slot, so that it's drawn from the atlas from now on.
+	 */
+	private synchronized void publish(long key, int w, int h, BufferedImage img) {
+		if (w > slotWidth || h > slotHeight)
+			resize(w, h);
+
+		// reuse the slot if the key is already there, e.g. with a different size
+		int slot = -1;
+		int ti = find(key);
+		if (ti >= 0)
+			slot = tableSlots[ti] - 1;
+		else {
+			if (numSlots < maxSlots)
+				slot = addSlot();
+			else
+				slot = evict();
+			put(key, slot);
+		}
+		slotKeys[slot] = key;
+		slotSizes[slot] = (w << 16) | h;
+		touch(slot);
+
+		BufferedImage page = pages.get(slot / slotsPerPage);
+		int sx = (slot % slotsPerPage % slotsPerRow) * slotWidth;
+		int sy = (slot % slotsPerPage / slotsPerRow) * slotHeight;
+		Graphics2D gg = page.createGraphics();
+		gg.setComposite(AlphaComposite.Src);
+		gg.drawImage(img, sx, sy, sx + w, sy + h, 0, 0, w, h, null);
+		gg.dispose();
+	}
+
+	private void resize(int w, int h) {
+		if (numSlots > 0)
+			Trace.trace(Trace.INFO, "Tile atlas resized, dropping " + numSlots + " images: " + this);
+
+		slotWidth = Math.min(PAGE_SIZE, Math.max(slotWidth, round(w)));
+		slotHeight = Math.min(PAGE_SIZE, Math.max(slotHeight, round(h)));
+		slotsPerRow = PAGE_SIZE / slotWidth;
+		slotsPerPage = slotsPerRow * (PAGE_SIZE / slotHeight);
+		maxSlots = slotsPerPage * maxPages;
+
+		pages.clear();
+		numSlots = 0;
+		head = -1;
+		tail = -1;
+		slotKeys = new long[slotsPerPage];
+		slotSizes = new int[slotsPerPage];
+		slotPrev = new int[slotsPerPage];
+		slotNext = new int[slotsPerPage];
+
+		int n = Integer.highestOneBit(maxSlots * 2 - 1) << 1;
+		tableKeys = new long[n];
+		tableSlots = new int[n];
+	}
+
+	private static int round(int n) {
+		return (n + SLOT_ROUNDING - 1) / SLOT_ROUNDING * SLOT_ROUNDING;
+	}
+
+	private int addSlot() {
+		int slot = numSlots++;
+		if (slot / slotsPerPage >= pages.size())
+			pages.add(new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB_PRE));
+
+		if (slot >= slotKeys.length) {
+			int n = Math.min(maxSlots, slotKeys.length * 2);
+			slotKeys = Arrays.copyOf(slotKeys, n);
+			slotSizes = Arrays.copyOf(slotSizes, n);
+			slotPrev = Arrays.copyOf(slotPrev, n);
+			slotNext = Arrays.copyOf(slotNext, n);
+		}
+		linkFirst(slot);
+		return slot;
+	}
+
+	private int evict() {
+		int slot = tail;
+		remove(slotKeys[slot]);
+		evictions++;
+		if (evictions % 1000 == 0)
+			Trace.trace(Trace.INFO, "Tile atlas full: " + this);
+		return slot;
+	}
+
+	/**
+	 * Move a slot to the head of the least recently used list.
+	 */
+	private void touch(int slot) {
+		if (slot == head)
+			return;
+
+		// unlink
+		int prev = slotPrev[slot];
+		int next = slotNext[slot];
+		slotNext[prev] = next;
+		if (next >= 0)
+			slotPrev[next] = prev;
+		else
+			tail = prev;
+
+		linkFirst(slot);
+	}
+
+	private void linkFirst(int slot) {
+		slotPrev[slot] = -1;
+		slotNext[slot] = head;
+		if (head >= 0)
+			slotPrev[head] = slot;
+		else
+			tail = slot;
+		head = slot;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private int find(long key) {
+		if (tableKeys.length == 0)
+			return -1;
+
+		int mask = tableKeys.length - 1;
+		int i = hash(key) & mask;
+		while (tableSlots[i] != 0) {
+			if (tableKeys[i] == key)
+				return i;
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void put(long key, int slot) {
+		int mask = tableKeys.length - 1;
+		int i = hash(key) & mask;
+		while (tableSlots[i] != 0)
+			i = (i + 1) & mask;
+		tableKeys[i] = key;
+		tableSlots[i] = slot + 1;
+	}
+
+	private void remove(long key) {
+		int i = find(key);
+		if (i < 0)
+			return;
+
+		// shift later entries back so that lookups don't stop at the gap
+		int mask = tableKeys.length - 1;
+		int j = i;
+		while (true) {
+			tableSlots[i] = 0;
+			int home;
+			do {
+				j = (j + 1) & mask;
+				if (tableSlots[j] == 0)
+					return;
+				home = hash(tableKeys[j]) & mask;
+			} while (i <= j ? (i < home && home <= j) : (i < home || home <= j));
+			tableKeys[i] = tableKeys[j];
+			tableSlots[i] = tableSlots[j];
+			i = j;
+		}
+	}
+
+	/**
+	 * Remove all images from the atlas.
+	 */
+	public synchronized void clear() {
+		pages.clear();
+		numSlots = 0;
+		slotWidth = 0;
+		slotHeight = 0;
+		maxSlots = 0;
+		head = -1;
+		tail = -1;
+		slotKeys = new long[0];
+		slotSizes = new int[0];
+		slotPrev = new int[0];
+		slotNext = new int[0];
+		tableKeys = new long[0];
+		tableSlots = new int[0];
+	}
+
+	/**
+	 * Returns the fraction of the maximum number of slots that are in use, from 0 to 1.
+	 */
+	public synchronized float getOccupancy() {
+		if (maxSlots == 0)
+			return 0;
+		return numSlots / (float) maxSlots;
+	}
+
+	public synchronized int getNumSlots() {
+		return numSlots;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "TileAtlas [" + slotWidth + "x" + slotHeight + ", " + numSlots + "/" + maxSlots + " slots, " + pages.size()
+				+ " pages, hits: " + hits + ", misses: " + misses + ", evictions: " + evictions + "]";
+	}
+}
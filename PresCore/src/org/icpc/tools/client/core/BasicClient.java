@@ -9,6 +9,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
@@ -72,7 +73,8 @@ public class BasicClient {
 		SNAPSHOT, // request for client to send snapshot + response message
 		COMMAND, // client command to stop, restart, request a log, or request a snapshot
 		CLIENTS, // client list, sent to admins
-		PRES_LIST // list of available presentations, sent to admin clients
+		PRES_LIST, // list of available presentations, sent to admin clients
+		SUBSCRIBE // list of clients an admin wants to receive thumbnails from
 	}
 
 	protected interface AddAttrs {
@@ -100,6 +102,12 @@ public class BasicClient {
 					}
 				}
 			});
+			session.addMessageHandler(new MessageHandler.Whole<ByteBuffer>() {
+				@Override
+				public void onMessage(ByteBuffer message) {
+					BasicClient.this.onMessage(message);
+				}
+			});
 		}
 
 		protected void send(String message) throws IOException {
@@ -109,11 +117,20 @@ public class BasicClient {
 			session.getBasicRemote().sendText(message);
 		}
 
+		protected void send(ByteBuffer message) throws IOException {
+			if (session == null)
+				return;
+
+			session.getBasicRemote().sendBinary(message);
+		}
+
 		@Override
 		public void onClose(Session session2, CloseReason closeReason) {
 			Trace.trace(Trace.USER, name + " disconnected");
 			fireConnectionStateEvent(false);
 			session = null;
+			binaryThumbnails = false;
+			lastThumbnailHash = 0;
 			if (closeReason != null && closeReason.getCloseCode() != CloseCodes.NORMAL_CLOSURE) {
 				if (closeReason.getCloseCode() == CloseCodes.UNEXPECTED_CONDITION
 						&& closeReason.getReasonPhrase().startsWith("CDS: ")) {
@@ -161,6 +178,12 @@ public class BasicClient {
 	private String role;
 	protected long nanoTimeDelta = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
 
+	// thumbnails are only sent as binary frames once the CDS has indicated that it supports them
+	private volatile boolean binaryThumbnails;
+	private volatile float thumbnailQuality = Thumbnail.DEFAULT_QUALITY;
+	private volatile long lastThumbnailHash;
+	private volatile int[] thumbnailSubscription;
+
 	private List<IPropertyListener> listeners;
 	private List<IConnectionListener> listeners2;
 
@@ -244,6 +267,15 @@ public class BasicClient {
 		this.role = role;
 	}
 
+	/**
+	 * Set the JPEG quality used for thumbnails, from 0 (smallest) to 1 (best).
+	 *
+	 * @param quality
+	 */
+	public void setThumbnailQuality(float quality) {
+		thumbnailQuality = quality;
+	}
+
 	private void handleProperties(JsonObject obj) {
 		// fire control properties first
 		Properties p = new Properties();
@@ -341,6 +373,16 @@ public class BasicClient {
 		// do nothing
 	}
 
+	/**
+	 * Called when a thumbnail is received from a client. Only called on admin clients.
+	 *
+	 * @param sourceUID the client the thumbnail is from
+	 * @param image the encoded image
+	 */
+	protected void handleThumbnail(int sourceUID, byte[] image) {
+		// do nothing
+	}
+
 	private void handleClientList(JsonObject obj) {
 		Object[] children = obj.getArray("clients");
 
@@ -436,6 +478,28 @@ public class BasicClient {
 		sendCommand(clientUIDs, "snapshot");
 	}
 
+	/**
+	 * Set the clients that this admin wants to receive thumbnails from, e.g. the ones that are
+	 * currently visible. The subscription is remembered and resent on reconnect.
+	 *
+	 * @param clientUIDs
+	 * @throws IOException
+	 */
+	public void sendThumbnailSubscription(int[] clientUIDs) throws IOException {
+		thumbnailSubscription = clientUIDs;
+		if (!binaryThumbnails)
+			return;
+
+		createJSON(Type.SUBSCRIBE, je -> writeClients(je, clientUIDs));
+	}
+
+	/**
+	 * Send a full size snapshot. Unlike thumbnails these are only sent when an admin asks for one
+	 * and are routed to that admin, so they stay in a JSON message.
+	 *
+	 * @param image
+	 * @throws IOException
+	 */
 	public void sendSnapshot(BufferedImage image) throws IOException {
 		createJSON(Type.SNAPSHOT, je -> {
 			je.encode("source", Integer.toHexString(uid));
@@ -495,13 +559,53 @@ public class BasicClient {
 	}
 
 	protected void sendInfoUpdate(String presentationName, int fps, byte[] image) throws IOException {
+		if (binaryThumbnails && image != null) {
+			sendInfo(je -> {
+				je.encode(PRESENTATION, presentationName);
+				je.encode(FPS, fps);
+				addPerformanceInfo(je);
+			});
+			sendThumbnail(image);
+			return;
+		}
+
 		sendInfo(je -> {
 			je.encode(PRESENTATION, presentationName);
 			je.encode(FPS, fps);
-			encodeImage(je, image);
+			addPerformanceInfo(je);
+			if (image != null)
+				encodeImage(je, image);
 		});
 	}
 
+	/**
+	 * Send an info update with a thumbnail. The thumbnail is only encoded and sent if it looks
+	 * different from the last one that was sent.
+	 *
+	 * @param presentationName
+	 * @param fps
+	 * @param image
+	 * @throws IOException
+	 */
+	public void sendInfoUpdate(String presentationName, int fps, BufferedImage image) throws IOException {
+		byte[] b = null;
+		if (image != null) {
+			long hash = Thumbnail.hash(image);
+			if (hash != lastThumbnailHash) {
+				b = Thumbnail.encode(image, thumbnailQuality);
+				lastThumbnailHash = hash;
+			}
+		}
+		sendInfoUpdate(presentationName, fps, b);
+	}
+
+	protected void sendThumbnail(byte[] image) throws IOException {
+		if (clientEndpoint == null)
+			return;
+
+		clientEndpoint.send(Thumbnail.createFrame(uid, image));
+	}
+
 	public void sendInfoUpdate() {
 		// to override
 	}
@@ -510,6 +614,15 @@ public class BasicClient {
 		// do nothing
 	}
 
+	/**
+	 * Add performance info (e.g. frame timing) to an info update.
+	 *
+	 * @param je the encoder to write to
+	 */
+	protected void addPerformanceInfo(JSONEncoder je) {
+		// do nothing
+	}
+
 	protected byte[] imageToBytes(BufferedImage image) throws IOException {
 		ByteArrayOutputStream bout = new ByteArrayOutputStream();
 		ImageIO.write(image, "jpg", bout);
@@ -753,6 +866,11 @@ public class BasicClient {
 
 		switch (action) {
 			case PING: {
+				if (obj.containsKey("binary") && !binaryThumbnails) {
+					binaryThumbnails = true;
+					if (thumbnailSubscription != null)
+						sendThumbnailSubscription(thumbnailSubscription);
+				}
 				if (obj.containsKey("time_delta")) {
 					long timeDeltaMs = obj.getLong("time_delta");
 					nanoTimeDelta = (System.currentTimeMillis() + timeDeltaMs) * 1_000_000L - System.nanoTime();
@@ -797,6 +915,19 @@ public class BasicClient {
 		}
 	}
 
+	private void onMessage(ByteBuffer message) {
+		if (!Thumbnail.isThumbnailFrame(message)) {
+			Trace.trace(Trace.WARNING, "Unknown binary message");
+			return;
+		}
+
+		try {
+			handleThumbnail(Thumbnail.getUID(message), Thumbnail.getImage(message));
+		} catch (Exception e) {
+			Trace.trace(Trace.ERROR, "Error handling thumbnail", e);
+		}
+	}
+
 	private static void writeClients(JSONEncoder je, int[] uids) {
 		je.openChildArray("clients");
 		if (uids != null) {
@@ -0,0 +1,145 @@
+package org.icpc.tools.client.core;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Helper for sending thumbnails as binary websocket frames instead of base64 encoded text.
+ *
+ * A binary frame is one byte of frame type, four bytes of (big-endian) client uid, followed by the
+ * encoded image. The same format is used from client to CDS and from CDS to admins, the CDS just
+ * relays the frame.
+ */
+public class Thumbnail {
+	public static final byte FRAME_THUMBNAIL = 1;
+	public static final float DEFAULT_QUALITY = 0.7f;
+
+	private static final int HEADER_SIZE = 5;
+
+	// size of the grid used for the perceptual hash
+	private static final int HASH_W = 32;
+	private static final int HASH_H = 18;
+
+	private Thumbnail() {
+		// do not create
+	}
+
+	/**
+	 * Encode the image as a JPEG with the given quality (0 to 1).
+	 *
+	 * @param image
+	 * @param quality
+	 * @return the encoded bytes
+	 * @throws IOException
+	 */
+	public static byte[] encode(BufferedImage image, float quality) throws IOException {
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		Iterator<ImageWriter> iter = ImageIO.getImageWritersByFormatName("jpg");
+		if (!iter.hasNext()) {
+			ImageIO.write(image, "jpg", bout);
+			return bout.toByteArray();
+		}
+
+		ImageWriter writer = iter.next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(bout)) {
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return bout.toByteArray();
+	}
+
+	/**
+	 * Returns a perceptual hash of the image: the image is reduced to a small grid of average
+	 * luminance values, quantized to hide antialiasing and scaling noise, and then hashed. Two
+	 * images with the same hash look the same at thumbnail size.
+	 *
+	 * @param image
+	 * @return a hash of the image
+	 */
+	public static long hash(BufferedImage image) {
+		int w = image.getWidth();
+		int h = image.getHeight();
+		if (w == 0 || h == 0)
+			return 0;
+
+		int[] row = new int[w];
+		long[] sum = new long[HASH_W * HASH_H];
+		int[] count = new int[HASH_W * HASH_H];
+		for (int y = 0; y < h; y++) {
+			image.getRGB(0, y, w, 1, row, 0, w);
+			int gy = y * HASH_H / h;
+			for (int x = 0; x < w; x++) {
+				int rgb = row[x];
+				int lum = (((rgb >> 16) & 0xFF) * 3 + ((rgb >> 8) & 0xFF) * 6 + (rgb & 0xFF)) / 10;
+				int g = gy * HASH_W + x * HASH_W / w;
+				sum[g] += lum;
+				count[g]++;
+			}
+		}
+
+		// FNV-1a over the quantized cells
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < sum.length; i++) {
+			int v = count[i] == 0 ? 0 : (int) (sum[i] / count[i]) >> 3;
+			hash ^= v;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Create a binary thumbnail frame.
+	 *
+	 * @param uid the uid of the client the thumbnail is from
+	 * @param image the encoded image
+	 * @return the frame
+	 */
+	public static ByteBuffer createFrame(int uid, byte[] image) {
+		ByteBuffer bb = ByteBuffer.allocate(HEADER_SIZE + image.length);
+		bb.put(FRAME_THUMBNAIL);
+		bb.putInt(uid);
+		bb.put(image);
+		bb.flip();
+		return bb;
+	}
+
+	/**
+	 * Returns true if the buffer contains a valid thumbnail frame.
+	 */
+	public static boolean isThumbnailFrame(ByteBuffer bb) {
+		return bb.remaining() > HEADER_SIZE && bb.get(bb.position()) == FRAME_THUMBNAIL;
+	}
+
+	/**
+	 * Returns the source uid of a thumbnail frame.
+	 */
+	public static int getUID(ByteBuffer bb) {
+		return bb.getInt(bb.position() + 1);
+	}
+
+	/**
+	 * Returns the encoded image contained in a thumbnail frame.
+	 */
+	public static byte[] getImage(ByteBuffer bb) {
+		byte[] b = new byte[bb.remaining() - HEADER_SIZE];
+		ByteBuffer dup = bb.duplicate();
+		dup.position(bb.position() + HEADER_SIZE);
+		dup.get(b);
+		return b;
+	}
+}
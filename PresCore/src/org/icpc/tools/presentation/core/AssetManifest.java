@@ -0,0 +1,34 @@
+package org.icpc.tools.presentation.core;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A list of the images (e.g. logos or photos) that a presentation will need, so that they can be
+ * loaded in the background before it is shown.
+ *
+ * Each asset is a loader that loads an image at the size it will be painted, puts it in the same
+ * cache that the presentation paints from, and returns it so that its memory can be counted.
+ */
+public class AssetManifest {
+	private final List<Supplier<BufferedImage>> assets = new ArrayList<>();
+
+	/**
+	 * Add an asset.
+	 *
+	 * @param loader loads and caches the image, and returns it (or null if there is none)
+	 */
+	public void add(Supplier<BufferedImage> loader) {
+		assets.add(loader);
+	}
+
+	public List<Supplier<BufferedImage>> getAssets() {
+		return assets;
+	}
+
+	public int size() {
+		return assets.size();
+	}
+}
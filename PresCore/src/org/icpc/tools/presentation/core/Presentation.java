@@ -5,6 +5,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 
@@ -165,6 +166,23 @@ public abstract class Presentation {
 		return 0;
 	}
 
+	/**
+	 * Return the regions that have changed since this presentation was last painted, so that the
+	 * rest of the previous frame can be reused instead of painting everything again. Return null
+	 * (the default) to always repaint the whole presentation, an empty array if nothing has
+	 * changed, or the rectangles that need to be repainted.
+	 *
+	 * When regions are returned, paint() may be called with a clip covering only those regions and
+	 * the background already cleared under them, so it must paint everything that intersects the
+	 * clip. paint() may still be called to repaint everything at any time, so presentations should
+	 * remember what they last painted in paint() rather than in this method.
+	 *
+	 * @return the dirty regions, or null to repaint everything
+	 */
+	public Rectangle[] getDirtyRegions() {
+		return null;
+	}
+
 	/**
 	 * Sets the current repeat time.
 	 *
@@ -174,6 +192,18 @@ public abstract class Presentation {
 		repeatTimeMs = time;
 	}
 
+	/**
+	 * Add the images that this presentation will need (e.g. logos or photos, at the size they will
+	 * be painted) to the given manifest, so that they can be loaded before it is shown. Called on a
+	 * background thread shortly before the presentation is shown, after its size is set. The
+	 * default is to add nothing.
+	 *
+	 * @param manifest the manifest to add to
+	 */
+	public void getAssets(AssetManifest manifest) {
+		// do nothing
+	}
+
 	/**
 	 * Paints this presentation.
 	 *
@@ -2,6 +2,7 @@ package org.icpc.tools.presentation.core;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RenderPerfTimer {
     public static final int N_FRAMES = 3 * 60;
@@ -20,6 +21,10 @@ public class RenderPerfTimer {
         INACTIVE_PROBLEM3,
         ACTIVE_PROBLEM,
         FRAME,
+        THUMBNAIL,
+        PARTICLE_UPDATE,
+        PARTICLE_DRAW,
+        PARTICLE_BLUR,
     }
 
     public static class Counter implements AutoCloseable {
@@ -120,4 +125,20 @@ public class RenderPerfTimer {
     public static Counter measure(Category category) {
         return DEFAULT_INSTANCE.getCounter(category).startMeasure();
     }
+
+    private static final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Record that a presentation had to render something that it would normally have cached.
+     */
+    public static void cacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    /**
+     * Returns the total number of cache misses recorded.
+     */
+    public static long getCacheMisses() {
+        return cacheMisses.get();
+    }
 }
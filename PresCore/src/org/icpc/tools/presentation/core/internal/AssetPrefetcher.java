@@ -0,0 +1,122 @@
+package org.icpc.tools.presentation.core.internal;
+
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+import org.icpc.tools.contest.Trace;
+import org.icpc.tools.presentation.core.AssetManifest;
+import org.icpc.tools.presentation.core.Presentation;
+
+/**
+ * Loads the assets of upcoming presentations on a low priority background thread, so that their
+ * images are cached before they are shown. Only the most recently requested presentation is
+ * loaded, and each load stops once the images it has loaded reach the memory budget.
+ */
+public class AssetPrefetcher {
+	private static final long MAX_BUDGET = 256L * 1024 * 1024;
+
+	private final long budget;
+	private Presentation requested;
+	private Presentation pending;
+	private Thread thread;
+	private final Object lock = new Object();
+
+	public AssetPrefetcher() {
+		this(Math.min(MAX_BUDGET, Runtime.getRuntime().maxMemory() / 8));
+	}
+
+	/**
+	 * @param budget the maximum number of bytes of images to load for one presentation
+	 */
+	public AssetPrefetcher(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Request that the given presentation's assets are loaded. Does nothing if it was the last
+	 * presentation requested, and replaces any presentation that hasn't started loading yet.
+	 *
+	 * @param p a presentation that will be shown soon, with its size already set
+	 */
+	public void prefetch(Presentation p) {
+		synchronized (lock) {
+			if (p == null || p == requested)
+				return;
+
+			requested = p;
+			pending = p;
+			if (thread == null)
+				createThread();
+			lock.notifyAll();
+		}
+	}
+
+	private boolean isCancelled(Presentation p) {
+		synchronized (lock) {
+			return pending != null && pending != p;
+		}
+	}
+
+	private void createThread() {
+		thread = new Thread("Asset Prefetch Thread") {
+			@Override
+			public void run() {
+				while (true) {
+					Presentation p = null;
+					synchronized (lock) {
+						while (pending == null) {
+							try {
+								lock.wait();
+							} catch (InterruptedException e) {
+								// ignore
+							}
+						}
+						p = pending;
+						pending = null;
+					}
+
+					try {
+						load(p);
+					} catch (Throwable t) {
+						Trace.trace(Trace.ERROR, "Error prefetching assets for " + p, t);
+					}
+				}
+			}
+		};
+
+		thread.setPriority(Thread.MIN_PRIORITY + 1);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void load(Presentation p) {
+		long start = System.currentTimeMillis();
+		AssetManifest manifest = new AssetManifest();
+		p.getAssets(manifest);
+		if (manifest.size() == 0)
+			return;
+
+		long bytes = 0;
+		int count = 0;
+		for (Supplier<BufferedImage> asset : manifest.getAssets()) {
+			if (isCancelled(p)) {
+				Trace.trace(Trace.INFO, "Asset prefetch for " + p + " cancelled after " + count + " assets");
+				return;
+			}
+
+			BufferedImage img = asset.get();
+			count++;
+			if (img != null)
+				bytes += img.getWidth() * (long) img.getHeight() * 4;
+
+			if (bytes > budget) {
+				Trace.trace(Trace.INFO, "Asset prefetch for " + p + " stopped at memory budget after " + count + " of "
+						+ manifest.size() + " assets");
+				return;
+			}
+		}
+
+		Trace.trace(Trace.INFO, "Prefetched " + count + " assets for " + p + " (" + (bytes / 1024) + "kB) in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+}
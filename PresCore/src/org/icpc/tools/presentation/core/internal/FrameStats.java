@@ -0,0 +1,169 @@
+package org.icpc.tools.presentation.core.internal;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.icpc.tools.contest.model.feed.JSONEncoder;
+import org.icpc.tools.presentation.core.RenderPerfTimer;
+
+/**
+ * Collects frame timing for a presentation window between info updates: how long frames take to
+ * paint, how long each presentation and transition takes to paint, image cache misses, and time
+ * spent in garbage collection. Each call to encode() writes the stats since the last call.
+ */
+public class FrameStats {
+	public static final String PERF = "perf";
+	public static final String FRAMES = "frames";
+	public static final String ANIMATING = "animating";
+	public static final String TIME = "time";
+	public static final String FRAME_AVG = "frame_avg";
+	public static final String FRAME_P95 = "frame_p95";
+	public static final String FRAME_MAX = "frame_max";
+	public static final String CACHE_MISSES = "cache_misses";
+	public static final String GC_COUNT = "gc_count";
+	public static final String GC_TIME = "gc_time";
+	public static final String PRESENTATIONS = "presentations";
+	public static final String TRANSITIONS = "transitions";
+	public static final String NAME = "name";
+	public static final String AVG = "avg";
+	public static final String MAX = "max";
+
+	private static final int MAX_FRAMES = 1024;
+
+	// frame paint times, the most recent MAX_FRAMES are kept
+	private final long[] frameNs = new long[MAX_FRAMES];
+	private int frames;
+	private int animatingFrames;
+
+	// name -> count, total ns, max ns
+	private final Map<String, long[]> presentations = new LinkedHashMap<>();
+	private final Map<String, long[]> transitions = new LinkedHashMap<>();
+
+	private long startTime;
+	private long cacheMisses;
+	private long gcCount;
+	private long gcTime;
+
+	public FrameStats() {
+		reset();
+	}
+
+	/**
+	 * Record a frame.
+	 *
+	 * @param ns the time it took to paint, in ns
+	 * @param animating true if the presentation wanted to be repainted immediately, i.e. the frame
+	 *           rate is limited by painting and not by the presentation
+	 */
+	public synchronized void frame(long ns, boolean animating) {
+		frameNs[frames % MAX_FRAMES] = ns;
+		frames++;
+		if (animating)
+			animatingFrames++;
+	}
+
+	/**
+	 * Record the time it took to paint a presentation.
+	 */
+	public synchronized void presentation(String name, long ns) {
+		add(presentations, name, ns);
+	}
+
+	/**
+	 * Record the time it took to paint a transition, including the presentations it shows.
+	 */
+	public synchronized void transition(String name, long ns) {
+		add(transitions, name, ns);
+	}
+
+	private static void add(Map<String, long[]> map, String name, long ns) {
+		long[] l = map.get(name);
+		if (l == null) {
+			l = new long[3];
+			map.put(name, l);
+		}
+		l[0]++;
+		l[1] += ns;
+		l[2] = Math.max(l[2], ns);
+	}
+
+	private static long[] getGCStats() {
+		long[] stats = new long[2];
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			stats[0] += Math.max(0, gc.getCollectionCount());
+			stats[1] += Math.max(0, gc.getCollectionTime());
+		}
+		return stats;
+	}
+
+	private void reset() {
+		frames = 0;
+		animatingFrames = 0;
+		presentations.clear();
+		transitions.clear();
+		startTime = System.currentTimeMillis();
+		cacheMisses = RenderPerfTimer.getCacheMisses();
+		long[] gc = getGCStats();
+		gcCount = gc[0];
+		gcTime = gc[1];
+	}
+
+	private static double toMs(long ns) {
+		return Math.round(ns / 10_000.0) / 100.0;
+	}
+
+	private static void encode(JSONEncoder je, String name, Map<String, long[]> map) {
+		je.openChildArray(name);
+		for (String key : map.keySet()) {
+			long[] l = map.get(key);
+			je.open();
+			je.encode(NAME, key);
+			je.encode(FRAMES, l[0]);
+			je.encode(AVG, toMs(l[1] / l[0]));
+			je.encode(MAX, toMs(l[2]));
+			je.close();
+		}
+		je.closeArray();
+	}
+
+	/**
+	 * Write the stats since the last call as a child object, and start collecting again.
+	 *
+	 * @param je the encoder to write to
+	 */
+	public synchronized void encode(JSONEncoder je) {
+		long[] sorted = Arrays.copyOf(frameNs, Math.min(frames, MAX_FRAMES));
+		Arrays.sort(sorted);
+		long total = 0;
+		for (long ns : sorted)
+			total += ns;
+
+		je.openChild(PERF);
+		je.encode(FRAMES, frames);
+		je.encode(ANIMATING, animatingFrames);
+		je.encode(TIME, System.currentTimeMillis() - startTime);
+		if (sorted.length > 0) {
+			je.encode(FRAME_AVG, toMs(total / sorted.length));
+			je.encode(FRAME_P95, toMs(sorted[(int) Math.ceil(sorted.length * 0.95) - 1]));
+			je.encode(FRAME_MAX, toMs(sorted[sorted.length - 1]));
+		}
+		je.encode(CACHE_MISSES, RenderPerfTimer.getCacheMisses() - cacheMisses);
+		long[] gc = getGCStats();
+		je.encode(GC_COUNT, gc[0] - gcCount);
+		je.encode(GC_TIME, gc[1] - gcTime);
+		encode(je, PRESENTATIONS, presentations);
+		encode(je, TRANSITIONS, transitions);
+		je.close();
+
+		reset();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format(Locale.ENGLISH, "FrameStats [%d frames, %d animating]", frames, animatingFrames);
+	}
+}
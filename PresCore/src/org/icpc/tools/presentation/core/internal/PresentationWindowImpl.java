@@ -17,8 +17,11 @@ import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.Toolkit;
 import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.lang.management.GarbageCollectorMXBean;
@@ -62,6 +65,7 @@ public class PresentationWindowImpl extends PresentationWindow {
 
 	private static final int DEFAULT_THUMBNAIL_HEIGHT = 180;
 	private static final long DEFAULT_THUMBNAIL_DELAY = 2_000_000_000L;
+	private static final long PREFETCH_TIME = 5000;
 
 	static class PresentationSegment {
 		protected long startTime;
@@ -137,6 +141,24 @@ public class PresentationWindowImpl extends PresentationWindow {
 				p.dispose();
 		}
 
+		/**
+		 * Returns the presentation that will be shown after the given segment, or the first
+		 * presentation if the segment is null.
+		 */
+		protected Presentation getNextPresentation(PresentationSegment segment) {
+			if (segments.length == 0)
+				return null;
+
+			PresentationSegment next = segments[0];
+			for (int i = 0; i < segments.length; i++) {
+				if (segments[i] == segment)
+					next = segments[(i + 1) % segments.length];
+			}
+			if (next.trans == null)
+				return next.p1;
+			return next.p2;
+		}
+
 		protected void build() {
 			if (immediate && segments != null)
 				return;
@@ -262,13 +284,14 @@ public class PresentationWindowImpl extends PresentationWindow {
 	protected boolean hidden = false;
 
 	protected int fps;
+	protected final FrameStats frameStats = new FrameStats();
 	protected boolean showDebug;
 	protected boolean showTimerStats;
 	protected boolean showTimerSparklines;
 
 	private long thumbnailDelay = DEFAULT_THUMBNAIL_DELAY;
 	private int thumbnailHeight = DEFAULT_THUMBNAIL_HEIGHT;
-	private long lastThumbnailTime;
+	private volatile long lastThumbnailTime;
 	private long timeUntilPlanChange = -1;
 	private PresentationPlan nextPlan = null;
 	private long updateTime = 0;
@@ -276,10 +299,32 @@ public class PresentationWindowImpl extends PresentationWindow {
 
 	private IThumbnailListener thumbnailListener;
 
+	// thumbnails are copied from a frame as it is painted, then sent on a separate thread
+	private BufferedImage frameImage;
+	private BufferedImage thumbnailImage;
+	private BufferedImage pendingThumbnail;
+	private volatile boolean thumbnailInFlight;
+	private Thread thumbnailThread;
+	private final Object thumbnailLock = new Object();
+
+	// presentations that report dirty regions are painted into frameImage and only the dirty
+	// regions are repainted on later frames, as long as the same presentation is showing
+	private boolean retainedMode;
+	private boolean paintingFrame;
+	private Presentation retainedPresentation;
+
+	private final AssetPrefetcher assetPrefetcher = new AssetPrefetcher();
+
 	protected GraphicsDevice device;
 	protected String title;
 
 	public interface IThumbnailListener {
+		/**
+		 * Called on a low priority thumbnail thread, never on the animation thread. The image is
+		 * reused for later thumbnails, so it must not be kept after this method returns.
+		 *
+		 * @param image the thumbnail
+		 */
 		void handleThumbnail(BufferedImage image);
 	}
 
@@ -408,21 +453,19 @@ public class PresentationWindowImpl extends PresentationWindow {
 						}
 
 						long now = System.nanoTime();
+
+						// capture a thumbnail from this frame if it has been a while
+						boolean thumbnail = thumbnailListener != null && !thumbnailInFlight
+								&& (lastThumbnailTime == 0 || (now - lastThumbnailTime) > thumbnailDelay);
 						try {
 							boolean b = false;
 							while (!b)
-								b = paintImmediately();
+								b = paintImmediately(thumbnail);
 						} catch (Throwable t) {
 							Trace.trace(Trace.ERROR, "Error painting", t);
 						}
-
-						// send thumbnails or info if it has been a while
-						if (thumbnailListener != null) {
-							if (lastThumbnailTime == 0 || (now - lastThumbnailTime) > thumbnailDelay) {
-								sendThumbnail();
-								lastThumbnailTime = now;
-							}
-						}
+						if (thumbnail)
+							lastThumbnailTime = now;
 
 						long delayNs = 0;
 						// ask the current presentation when to repaint
@@ -432,6 +475,7 @@ public class PresentationWindowImpl extends PresentationWindow {
 						else if (currentPresentation != null)
 							delayNs = Math.min(timeUntilPlanChange * 1_000_000L,
 									currentPresentation.getDelayTimeMs() * 1_000_000L);
+						frameStats.frame(System.nanoTime() - now, delayNs <= 0);
 
 						// cap speed at our max frame rate
 						delayNs = Math.max(delayNs, MAX_FPS - (System.nanoTime() - now));
@@ -598,6 +642,7 @@ public class PresentationWindowImpl extends PresentationWindow {
 	@Override
 	public void setLightMode(boolean light) {
 		this.lightMode = light;
+		retainedPresentation = null;
 		if (lightMode)
 			setProperty("lightMode", "light");
 		else
@@ -815,21 +860,140 @@ public class PresentationWindowImpl extends PresentationWindow {
 	}
 
 	/**
-	 * Sends a thumbnail.
+	 * Sends a thumbnail by painting a separate, scaled frame. Only used when there is no frame to
+	 * capture one from, e.g. when idle or hidden.
 	 */
 	protected void sendThumbnail() {
-		if (thumbnailListener == null)
+		if (thumbnailListener == null || thumbnailInFlight)
 			return;
 
 		try {
 			float scale = thumbnailHeight / (float) getDisplaySize().height;
 			BufferedImage image = createImage(scale);
-			thumbnailListener.handleThumbnail(image);
+			postThumbnail(image);
 		} catch (Exception e) {
 			Trace.trace(Trace.ERROR, "Error generating thumbnail", e);
 		}
 	}
 
+	/**
+	 * Paints a frame into an offscreen image that is kept between frames, and copies it to the
+	 * given back buffer graphics. If the presentation reports dirty regions only those are
+	 * repainted.
+	 */
+	private void paintFrame(Graphics2D bg) {
+		Dimension d = getDisplaySize();
+		if (frameImage == null || frameImage.getWidth() != d.width || frameImage.getHeight() != d.height) {
+			frameImage = getGraphicsConfiguration().createCompatibleImage(d.width, d.height, Transparency.OPAQUE);
+			retainedPresentation = null;
+		}
+
+		Graphics2D g = frameImage.createGraphics();
+		paintingFrame = true;
+		try {
+			paintImpl(g, false);
+		} finally {
+			paintingFrame = false;
+			g.dispose();
+		}
+
+		bg.drawImage(frameImage, 0, 0, null);
+	}
+
+	private void fillBackground(Graphics2D g, Shape s) {
+		Graphics2D gg = (Graphics2D) g.create();
+		gg.setComposite(AlphaComposite.Src);
+		if (lightMode)
+			gg.setColor(Color.WHITE);
+		else
+			gg.setColor(Color.BLACK);
+		if (s == null) {
+			// the whole frame image, regardless of any display translation
+			Dimension d = getDisplaySize();
+			gg.setTransform(new AffineTransform());
+			gg.fillRect(0, 0, d.width, d.height);
+		} else
+			gg.fill(s);
+		gg.dispose();
+	}
+
+	/**
+	 * Posts a scaled copy of the frame image as the next thumbnail. The thumbnail image is reused,
+	 * so nothing is captured while the thumbnail thread still has the last one.
+	 */
+	private void captureThumbnail() {
+		if (thumbnailInFlight || frameImage == null)
+			return;
+
+		Dimension d = getDisplaySize();
+		RenderPerfTimer.Counter measure = RenderPerfTimer.measure(RenderPerfTimer.Category.THUMBNAIL);
+		measure.startMeasure();
+		float scale = thumbnailHeight / (float) d.height;
+		int w = Math.max(1, (int) (d.width * scale));
+		int h = Math.max(1, (int) (d.height * scale));
+		if (thumbnailImage == null || thumbnailImage.getWidth() != w || thumbnailImage.getHeight() != h)
+			thumbnailImage = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+
+		Graphics2D tg = thumbnailImage.createGraphics();
+		tg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		tg.drawImage(frameImage, 0, 0, w, h, null);
+		tg.dispose();
+		measure.stopMeasure();
+
+		postThumbnail(thumbnailImage);
+	}
+
+	/**
+	 * Hand a thumbnail to the thumbnail thread, unless it is still busy with the last one.
+	 */
+	private void postThumbnail(BufferedImage image) {
+		synchronized (thumbnailLock) {
+			if (thumbnailInFlight)
+				return;
+
+			thumbnailInFlight = true;
+			pendingThumbnail = image;
+			if (thumbnailThread == null)
+				createThumbnailThread();
+			thumbnailLock.notifyAll();
+		}
+	}
+
+	private void createThumbnailThread() {
+		thumbnailThread = new Thread("Thumbnail Thread") {
+			@Override
+			public void run() {
+				while (true) {
+					BufferedImage image = null;
+					synchronized (thumbnailLock) {
+						while (pendingThumbnail == null) {
+							try {
+								thumbnailLock.wait();
+							} catch (InterruptedException e) {
+								// ignore
+							}
+						}
+						image = pendingThumbnail;
+						pendingThumbnail = null;
+					}
+
+					try {
+						IThumbnailListener listener = thumbnailListener;
+						if (listener != null)
+							listener.handleThumbnail(image);
+					} catch (Throwable t) {
+						Trace.trace(Trace.ERROR, "Error sending thumbnail", t);
+					}
+					thumbnailInFlight = false;
+				}
+			}
+		};
+
+		thumbnailThread.setPriority(Thread.MIN_PRIORITY);
+		thumbnailThread.setDaemon(true);
+		thumbnailThread.start();
+	}
+
 	/**
 	 * Set the delay between triggering thumbnails, in ms.
 	 */
@@ -850,7 +1014,7 @@ public class PresentationWindowImpl extends PresentationWindow {
 		return p;
 	}
 
-	private void paintPresentations(Graphics2D g, PresentationPlan plan, long time, boolean hidden2) {
+	private void paintPresentations(Graphics2D g, PresentationPlan plan, long time, boolean hidden2, boolean partial) {
 		if (plan == null)
 			return;
 
@@ -886,7 +1050,7 @@ public class PresentationWindowImpl extends PresentationWindow {
 				currentPresentation = doFinalSetup(segment.p1);
 
 			if (!hidden2)
-				segment.p1.paint(g);
+				paintPresentation(g, segment.p1, partial);
 
 			if (time < plan.startTime + PLAN_FADE_TIME)
 				timeUntilPlanChange = 0;
@@ -894,6 +1058,17 @@ public class PresentationWindowImpl extends PresentationWindow {
 				timeUntilPlanChange = 0;
 			else
 				timeUntilPlanChange = segment.endTime - repeatTime - segment.startTime;
+
+			// load the next presentation's assets before it is shown
+			PresentationPlan next = nextPlan;
+			if (next != null)
+				assetPrefetcher.prefetch(next.getNextPresentation(null));
+			else if (time < plan.endTime - PLAN_FADE_TIME
+					&& segment.endTime - repeatTime - segment.startTime < PREFETCH_TIME) {
+				Presentation p = plan.getNextPresentation(segment);
+				if (p != segment.p1)
+					assetPrefetcher.prefetch(p);
+			}
 			return;
 		}
 
@@ -925,8 +1100,51 @@ public class PresentationWindowImpl extends PresentationWindow {
 		if (currentPresentation != segment.p2)
 			currentPresentation = doFinalSetup(segment.p2);
 
-		if (!hidden2)
+		if (partial)
+			fillBackground(g, null);
+		retainedMode = false;
+		retainedPresentation = null;
+		if (!hidden2) {
+			long start = System.nanoTime();
 			segment.trans.paint(g, x, segment.p1, segment.p2);
+			frameStats.transition(trans.getClass().getSimpleName(), System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Paints a single presentation. If it reports dirty regions and the frame image already holds
+	 * its last frame, only the dirty regions are repainted.
+	 */
+	private void paintPresentation(Graphics2D g, Presentation p, boolean partial) {
+		long start = System.nanoTime();
+		paintPresentationImpl(g, p, partial);
+		frameStats.presentation(p.getClass().getSimpleName(), System.nanoTime() - start);
+	}
+
+	private void paintPresentationImpl(Graphics2D g, Presentation p, boolean partial) {
+		Rectangle[] dirty = p.getDirtyRegions();
+		retainedMode = dirty != null;
+		if (partial && dirty != null && retainedPresentation == p) {
+			if (dirty.length == 0)
+				return;
+
+			Area area = new Area();
+			for (Rectangle r : dirty)
+				area.add(new Area(r));
+
+			Graphics2D gg = (Graphics2D) g.create();
+			gg.clip(area);
+			fillBackground(gg, area);
+			p.paint(gg);
+			gg.dispose();
+			return;
+		}
+
+		if (partial)
+			fillBackground(g, null);
+		p.paint(g);
+		if (paintingFrame)
+			retainedPresentation = dirty != null ? p : null;
 	}
 
 	protected void paintImpl(Graphics2D g, boolean hidden2) {
@@ -934,7 +1152,9 @@ public class PresentationWindowImpl extends PresentationWindow {
 		frameMeasure.startMeasure();
 		long time = getCurrentTimeMs();
 		Font defaultFont = g.getFont();
+		boolean fading = false;
 		if (currentPlan != null && time > currentPlan.endTime - PLAN_FADE_TIME) {
+			fading = true;
 			if (time < currentPlan.endTime)
 				g.setComposite(AlphaComposite.SrcOver.derive((currentPlan.endTime - time) / (float) PLAN_FADE_TIME));
 			else {
@@ -954,11 +1174,20 @@ public class PresentationWindowImpl extends PresentationWindow {
 
 		frameMeasure.stopMeasure();
 		PresentationPlan plan = currentPlan;
+		boolean fadingIn = plan != null && time > plan.startTime && time < plan.startTime + PLAN_FADE_TIME
+				&& !plan.immediate;
+
+		// when painting into the retained frame, only clear it here if it can't be partially repainted
+		boolean partial = paintingFrame && plan != null && !fading && !fadingIn && !showDebug;
+		if (paintingFrame && !partial) {
+			fillBackground(g, null);
+			retainedPresentation = null;
+		}
+
 		if (plan != null) {
-			long start = plan.startTime;
-			if (time > start && time < start + PLAN_FADE_TIME && !plan.immediate)
-				g.setComposite(AlphaComposite.SrcOver.derive((time - start) / (float) PLAN_FADE_TIME));
-			paintPresentations(g, plan, time, hidden2);
+			if (fadingIn)
+				g.setComposite(AlphaComposite.SrcOver.derive((time - plan.startTime) / (float) PLAN_FADE_TIME));
+			paintPresentations(g, plan, time, hidden2, partial);
 		}
 		frameMeasure.startMeasure();
 		final Color TRANSPARENT_WHITE = new Color(255, 255, 255, 196);
@@ -1083,6 +1312,13 @@ public class PresentationWindowImpl extends PresentationWindow {
 		return fps;
 	}
 
+	/**
+	 * Returns the frame timing collected since the last info update.
+	 */
+	public FrameStats getFrameStats() {
+		return frameStats;
+	}
+
 	@Override
 	public void toggleDebug() {
 		showDebug = !showDebug;
@@ -1111,9 +1347,22 @@ public class PresentationWindowImpl extends PresentationWindow {
 	}
 
 	public boolean paintImmediately() {
+		return paintImmediately(false);
+	}
+
+	/**
+	 * Paint the next frame.
+	 *
+	 * @param captureThumbnail true to also send a thumbnail of this frame, once it is shown
+	 * @return true if the frame was shown, false if it needs to be painted again
+	 */
+	public boolean paintImmediately(boolean captureThumbnail) {
 		BufferStrategy bs = getBufferStrategy();
-		if (bs == null)
+		if (bs == null) {
+			if (captureThumbnail)
+				sendThumbnail();
 			return true;
+		}
 
 		Graphics2D bg = (Graphics2D) bs.getDrawGraphics();
 		Dimension d = getSize();
@@ -1126,15 +1375,30 @@ public class PresentationWindowImpl extends PresentationWindow {
 		if (displayRect != null)
 			bg.translate(displayRect.x, displayRect.y);
 
-		paintImpl(bg, hidden);
+		if (!hidden && (retainedMode || captureThumbnail))
+			paintFrame(bg);
+		else {
+			retainedPresentation = null;
+			paintImpl(bg, hidden);
+		}
 
 		bg.dispose();
+
 		if (!bs.contentsRestored()) {
 			bs.show();
 			RenderPerfTimer.Counter syncMeasure = RenderPerfTimer.measure(RenderPerfTimer.Category.SYNC);
 			syncMeasure.startMeasure();
 			Toolkit.getDefaultToolkit().sync();
 			syncMeasure.stopMeasure();
+
+			// only capture frames that were shown. Hidden frames aren't painted, so the thumbnail
+			// needs its own
+			if (captureThumbnail) {
+				if (hidden)
+					sendThumbnail();
+				else
+					captureThumbnail();
+			}
 			return true;
 		}
 
@@ -4,6 +4,10 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -73,6 +77,7 @@ public class Resolver {
 	private String multiDisplayStr;
 	private boolean show_info;
 	private boolean judgeQueue;
+	private boolean usePlan;
 	private boolean test;
 	private boolean lightMode;
 	private String displayName;
@@ -98,6 +103,10 @@ public class Resolver {
 		System.out.println("         If multiple groups are given, each is resolved separately");
 		System.out.println("     --judgeQueue");
 		System.out.println("         Start the resolution using a judge queue. Must have at least one list award");
+		System.out.println("     --plan");
+		System.out.println("         Use the resolution plan from the CDS instead of resolving locally,");
+		System.out.println("         so that every resolver shows identical steps. The CDS resolver");
+		System.out.println("         must be initialized first");
 		System.out.println("     --test");
 		System.out.println("         Test on an unfinished contest. Ignores (removes) all unjudged runs");
 		System.out.println("     --pause #");
@@ -424,6 +433,9 @@ public class Resolver {
 		} else if ("--judgeQueue".equalsIgnoreCase(option)) {
 			ArgumentParser.expectNoOptions(option, options);
 			judgeQueue = true;
+		} else if ("--plan".equalsIgnoreCase(option)) {
+			ArgumentParser.expectNoOptions(option, options);
+			usePlan = true;
 		} else if ("--test".equalsIgnoreCase(option)) {
 			ArgumentParser.expectNoOptions(option, options);
 			test = true;
@@ -633,12 +645,47 @@ public class Resolver {
 			}
 
 			long time = System.currentTimeMillis();
-			List<ResolutionStep> subSteps = logic.resolveFrom(judgeQueue);
+			List<ResolutionStep> subSteps = null;
+			if (usePlan)
+				subSteps = loadPlan(logic, con);
+			if (subSteps == null)
+				subSteps = logic.resolveFrom(judgeQueue);
 			steps.addAll(subSteps);
 			outputStats(steps, time, con);
 		}
 	}
 
+	/**
+	 * Download the resolution plan from the CDS and load the steps from it.
+	 *
+	 * @return the resolution steps, or null if there is no plan or it can't be used
+	 */
+	private List<ResolutionStep> loadPlan(ResolverLogic logic, int con) {
+		if (!(contestSources[con] instanceof RESTContestSource) || !((RESTContestSource) contestSources[con]).isCDS()) {
+			Trace.trace(Trace.WARNING, "Resolution plans are only available from a CDS, resolving locally");
+			return null;
+		}
+
+		RESTContestSource rc = (RESTContestSource) contestSources[con];
+		try {
+			String href = "/contests/" + rc.getContestId() + "/resolver/plan";
+			File f = judgeQueue ? rc.downloadFile(href + "?judgeQueue=true", "resolver-judgeQueue.plan")
+					: rc.downloadFile(href, "resolver.plan");
+			if (f == null) {
+				Trace.trace(Trace.WARNING, "No resolution plan on CDS, resolving locally");
+				return null;
+			}
+
+			try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+				MappedByteBuffer buf = fc.map(MapMode.READ_ONLY, 0, fc.size());
+				return logic.readPlan(buf, judgeQueue);
+			}
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not use resolution plan, resolving locally: " + e.getMessage());
+			return null;
+		}
+	}
+
 	protected String getPlace(String place) {
 		try {
 			int n = Integer.parseInt(place);
@@ -1,10 +1,21 @@
 package org.icpc.tools.resolver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.icpc.tools.contest.Trace;
 import org.icpc.tools.contest.model.FreezeFilter;
+import org.icpc.tools.contest.model.IContestObject;
 import org.icpc.tools.contest.model.IJudgement;
 import org.icpc.tools.contest.model.IJudgementType;
 import org.icpc.tools.contest.model.IProblem;
@@ -48,14 +59,49 @@ public class ResolverOptimizer {
 		}
 	}
 
+	/**
+	 * A compact scoreboard state: the pending team/problem cells that have been resolved. Resolving
+	 * a cell always applies the same final judgements, so two decision points with the same cells
+	 * resolved have the same scoreboard and the same options below them.
+	 */
+	static class StateKey {
+		final long[] cells;
+		final int hash;
+
+		StateKey(BitSet bs) {
+			cells = bs.toLongArray();
+			hash = Arrays.hashCode(cells);
+		}
+
+		BitSet toBitSet() {
+			return BitSet.valueOf(cells);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof StateKey))
+				return false;
+
+			StateKey k = (StateKey) obj;
+			return hash == k.hash && Arrays.equals(cells, k.cells);
+		}
+	}
+
 	static class DecisionPoint {
 		String teamId;
-		Contest contest; // state of the contest just before the decision is made
+		StateKey state; // cells resolved just before the decision is made
 		List<Option> options = new ArrayList<>(3); // the options for next step
+		AtomicBoolean expanded = new AtomicBoolean();
 		int weight;
 
-		public DecisionPoint(String teamId) {
+		public DecisionPoint(String teamId, StateKey state) {
 			this.teamId = teamId;
+			this.state = state;
 		}
 
 		@Override
@@ -66,7 +112,7 @@ public class ResolverOptimizer {
 
 	static class Option {
 		String problemId;
-		DecisionPoint dp;
+		DecisionPoint dp; // null if the option was never explored
 		boolean end;
 		int weight;
 
@@ -91,17 +137,80 @@ public class ResolverOptimizer {
 		}
 	}
 
-	private static List<ImportantStep> importantSteps = new ArrayList<>();
-	private static List<DecisionPoint> dps = new ArrayList<>();
+	/**
+	 * Resolves one option from its decision point until the next decision point or the end of the
+	 * contest, then explores the options of the new decision point in parallel.
+	 */
+	class ResolveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final DecisionPoint dp;
+		private final Option o;
+
+		ResolveTask(DecisionPoint dp, Option o) {
+			this.dp = dp;
+			this.o = o;
+		}
 
-	private Contest contest;
-	private Contest finalContest;
+		@Override
+		protected void compute() {
+			if (deadline > 0 && System.currentTimeMillis() > deadline) {
+				timedOut = true;
+				return;
+			}
+
+			BitSet resolved = new BitSet();
+			if (dp != null)
+				resolved = dp.state.toBitSet();
+			Contest c = createContest(resolved);
+
+			// resolve the option
+			if (dp != null)
+				resolveSubmissions(c, resolved, o, new Resolve(dp.teamId, o.problemId));
+
+			// then keep going until we get to the next decision point or the end
+			Resolve resolve = getNextResolve(c, resolved, o);
+			while (resolve != null) {
+				resolveSubmissions(c, resolved, o, resolve);
+				resolve = getNextResolve(c, resolved, o);
+			}
+
+			// explore the next decision point, unless another path already reached the same state
+			DecisionPoint next = o.dp;
+			if (next == null || !next.expanded.compareAndSet(false, true))
+				return;
+
+			c = null; // don't hold on to the contest while the subtree is explored
+			List<ResolveTask> tasks = new ArrayList<>(next.options.size());
+			for (Option opt : next.options)
+				tasks.add(new ResolveTask(next, opt));
+			invokeAll(tasks);
+		}
+	}
+
+	private final List<ImportantStep> importantSteps;
+	private final Map<StateKey, DecisionPoint> dps = new ConcurrentHashMap<>();
+	private final AtomicInteger memoHits = new AtomicInteger();
+
+	private final Contest contest;
+	private final Map<String, Integer> teamIndexes = new HashMap<>();
+	private final int numProblems;
+	private final Map<Integer, List<IContestObject>> cellJudgements = new HashMap<>();
 	private Option root;
 
+	private long deadline;
+	private volatile boolean timedOut;
+
 	public static void main(String[] args) {
+		final int[] timeBudget = new int[1];
 		ContestSource[] contestSource2 = ArgumentParser.parseMulti(args, new OptionParser() {
 			@Override
 			public boolean setOption(String option, List<Object> options) throws IllegalArgumentException {
+				if ("--time".equals(option)) {
+					ArgumentParser.expectOptions(option, options, "seconds:int");
+					timeBudget[0] = (int) options.get(0);
+					return true;
+				}
 				return false;
 			}
 
@@ -109,6 +218,11 @@ public class ResolverOptimizer {
 			public void showHelp() {
 				System.out.println("Usage: optimizer.bat/sh contestURL user password [options]");
 				System.out.println("   or: optimizer.bat/sh contestPath [options]");
+				System.out.println();
+				System.out.println("  Options:");
+				System.out.println("     --time seconds");
+				System.out.println("         Stop searching after the given time and use the best");
+				System.out.println("         path found so far");
 			}
 		});
 
@@ -120,36 +234,85 @@ public class ResolverOptimizer {
 		finalContest = ResolverLogic.filter(finalContest);
 
 		// revert to start of the freeze
-		Contest contest = finalContest.clone(new FreezeFilter(finalContest));
+		Contest contest = finalContest.cloneView(new FreezeFilter(finalContest));
 
 		// clean up unjudged and non-penalty submissions in the last hour that don't matter and will
 		// mess with resolving
 		cleanOutlierSubmissions(contest, finalContest);
 
-		importantSteps.addAll(findImportantSubmissions(contest, finalContest));
+		List<ImportantStep> importantSteps = findImportantSubmissions(contest, finalContest);
 
 		Trace.trace(Trace.USER, "Resolving " + countUnjudgedSubmissions(contest) + " pending submissions out of the "
 				+ contest.getNumSubmissions() + " total submissions in the contest... ");
 
 		long time = System.currentTimeMillis();
 
-		ResolverOptimizer ro = new ResolverOptimizer(contest, finalContest);
-		ro.resolveAllOptions();
+		ResolverOptimizer ro = new ResolverOptimizer(contest, finalContest, importantSteps);
+		ro.resolveAllOptions(timeBudget[0] * 1000L);
 
 		long resolveAllTime = System.currentTimeMillis() - time;
 		Trace.trace(Trace.USER, "Resolution time: " + resolveAllTime + "ms");
-		Trace.trace(Trace.USER, "Time/option: " + resolveAllTime / (dps.size() + 1) + "ms");
+		Trace.trace(Trace.USER, "Time/option: " + resolveAllTime / (ro.dps.size() + 1) + "ms");
 
 		ro.findBestPath();
 
 		long bestPathTime = System.currentTimeMillis() - time;
 		Trace.trace(Trace.USER, "Total time: " + bestPathTime + "ms");
-		Trace.trace(Trace.USER, "Time/tree: " + bestPathTime / (dps.size() + 1) + "ms");
+		Trace.trace(Trace.USER, "Time/tree: " + bestPathTime / (ro.dps.size() + 1) + "ms");
 	}
 
-	public ResolverOptimizer(Contest contest, Contest finalContest) {
+	public ResolverOptimizer(Contest contest, Contest finalContest, List<ImportantStep> importantSteps) {
 		this.contest = contest;
-		this.finalContest = finalContest;
+		this.importantSteps = importantSteps;
+
+		ITeam[] teams = contest.getTeams();
+		for (int i = 0; i < teams.length; i++)
+			teamIndexes.put(teams[i].getId(), i);
+		numProblems = contest.getNumProblems();
+
+		// the final judgements for each pending team/problem cell, so that any state can be rebuilt
+		// from the starting contest without touching the final contest again
+		for (ISubmission submission : contest.getSubmissions()) {
+			if (contest.isJudged(submission))
+				continue;
+
+			int cell = getCell(submission.getTeamId(), submission.getProblemId());
+			IJudgement[] sjs = finalContest.getJudgementsBySubmissionId(submission.getId());
+			if (cell < 0 || sjs == null)
+				continue;
+
+			List<IContestObject> list = cellJudgements.get(cell);
+			if (list == null) {
+				list = new ArrayList<>();
+				cellJudgements.put(cell, list);
+			}
+			list.addAll(Arrays.asList(sjs));
+		}
+	}
+
+	private int getCell(String teamId, String problemId) {
+		Integer teamIndex = teamIndexes.get(teamId);
+		int problemIndex = contest.getProblemIndex(problemId);
+		if (teamIndex == null || problemIndex < 0)
+			return -1;
+
+		return teamIndex * numProblems + problemIndex;
+	}
+
+	/**
+	 * Rebuild the contest at the given state from the starting contest.
+	 */
+	private Contest createContest(BitSet resolved) {
+		Contest c = contest.clone(false);
+		List<IContestObject> list = new ArrayList<>();
+		for (int cell = resolved.nextSetBit(0); cell >= 0; cell = resolved.nextSetBit(cell + 1)) {
+			List<IContestObject> sjs = cellJudgements.get(cell);
+			if (sjs != null)
+				list.addAll(sjs);
+		}
+		if (!list.isEmpty())
+			c.addAll(list);
+		return c;
 	}
 
 	private static void cleanOutlierSubmissions(Contest contest, Contest finalContest) {
@@ -224,64 +387,64 @@ public class ResolverOptimizer {
 		return iList;
 	}
 
-	private void resolveSubmissions(Option o, Resolve resolve) {
-		ITeam team = contest.getTeamById(resolve.teamId);
-		int oldRow = contest.getOrderOf(team);
-		ISubmission[] submissions = contest.getSubmissions();
-		for (ISubmission submission : submissions) {
-			if (!contest.isJudged(submission) && submission.getTeamId().equals(resolve.teamId)
-					&& submission.getProblemId().equals(resolve.problemId)) {
-				contest.updateSubmissionTo(submission, finalContest);
-			}
+	private void resolveSubmissions(Contest c, BitSet resolved, Option o, Resolve resolve) {
+		ITeam team = c.getTeamById(resolve.teamId);
+		int oldRow = c.getOrderOf(team);
+		int cell = getCell(resolve.teamId, resolve.problemId);
+		if (cell >= 0) {
+			resolved.set(cell);
+			List<IContestObject> sjs = cellJudgements.get(cell);
+			if (sjs != null)
+				c.addAll(sjs);
 		}
 
 		// weighting - maximum
-		int newRow = contest.getOrderOf(team);
+		int newRow = c.getOrderOf(team);
 		if (oldRow != newRow && newRow == 1) {
 			o.weight += (oldRow - newRow) + 10;
 		}
 	}
 
-	protected void resolveAllOptions() {
+	/**
+	 * Explore every resolution order in parallel. Decision points that are reached through
+	 * different orders with the same scoreboard are only explored once.
+	 *
+	 * @param timeBudget the maximum search time in ms, or 0 for no limit. If the search runs out of
+	 *           time, options that have not been explored are treated as the end of their path
+	 */
+	protected void resolveAllOptions(long timeBudget) {
+		deadline = timeBudget > 0 ? System.currentTimeMillis() + timeBudget : 0;
+
 		// kick off the first resolution to get to the first decision point
 		root = new Option(null);
-		Resolve resolve = getNextResolve(null);
-		while (resolve != null) {
-			resolveSubmissions(root, resolve);
-			resolve = getNextResolve(root);
-		}
+		ForkJoinPool.commonPool().invoke(new ResolveTask(null, root));
 
-		boolean done = false;
-		while (!done) {
-			done = true;
-			DecisionPoint[] dpa = dps.toArray(new DecisionPoint[dps.size()]);
-			for (DecisionPoint dp : dpa) {
-				for (Option o : dp.options) {
-					if (o.dp == null && !o.end) {
-						done = false;
-						resolve(dp, o);
-					}
-				}
-			}
-		}
-		System.out.println("Decision points found: " + dps.size());
+		System.out.println("Decision points found: " + dps.size() + " (" + memoHits.get() + " reused)");
+		if (timedOut)
+			Trace.trace(Trace.USER, "Search time limit reached, using the best path found so far");
 	}
 
-	protected PathStep[] findBestPath(DecisionPoint dp, Option opt, boolean best) {
+	protected PathStep[] findBestPath(DecisionPoint dp, Option opt, boolean best, Map<Option, PathStep[]> paths) {
 		if (opt.end)
 			return null;
 
+		// decision points can be shared, so only find the best path from each option once
+		if (paths.containsKey(opt))
+			return paths.get(opt);
+
 		PathStep[] bestPath = null;
 		PathStep ps = new PathStep();
 		ps.dp = dp;
 		ps.o = opt;
 		ps.weight = Integer.MIN_VALUE;
-		for (Option o : opt.dp.options) {
-			PathStep[] path = findBestPath(opt.dp, o, best);
-			if (path != null) {
-				if (bestPath == null || (best && path[0].weight > ps.weight) || (!best && path[0].weight < ps.weight)) {
-					bestPath = path;
-					ps.weight = path[0].weight;
+		if (opt.dp != null) {
+			for (Option o : opt.dp.options) {
+				PathStep[] path = findBestPath(opt.dp, o, best, paths);
+				if (path != null) {
+					if (bestPath == null || (best && path[0].weight > ps.weight) || (!best && path[0].weight < ps.weight)) {
+						bestPath = path;
+						ps.weight = path[0].weight;
+					}
 				}
 			}
 		}
@@ -289,29 +452,29 @@ public class ResolverOptimizer {
 			ps.weight = 0;
 		ps.weight += opt.weight;
 
+		PathStep[] path = null;
 		if (bestPath == null) {
-			PathStep[] path = new PathStep[1];
+			path = new PathStep[1];
 			path[0] = ps;
-			return path;
+		} else if (dp == null)
+			path = bestPath;
+		else {
+			path = new PathStep[bestPath.length + 1];
+			path[0] = ps;
+			System.arraycopy(bestPath, 0, path, 1, bestPath.length);
 		}
-
-		if (dp == null)
-			return bestPath;
-
-		PathStep[] path = new PathStep[bestPath.length + 1];
-		path[0] = ps;
-		System.arraycopy(bestPath, 0, path, 1, bestPath.length);
+		paths.put(opt, path);
 		return path;
 	}
 
 	protected void findBestPath() {
-		PathStep[] best = findBestPath(null, root, true);
+		PathStep[] best = findBestPath(null, root, true, new IdentityHashMap<>());
 		Trace.trace(Trace.USER, "Best path: " + best[0].weight);
 		// for (PathStep ps : best)
 		// System.out.println(" " + ps);
 		output(best);
 
-		best = findBestPath(null, root, false);
+		best = findBestPath(null, root, false, new IdentityHashMap<>());
 		Trace.trace(Trace.USER, "Worst path: " + best[0].weight);
 		// for (PathStep ps : best)
 		// System.out.println(" " + ps);
@@ -331,24 +494,9 @@ public class ResolverOptimizer {
 		}
 	}
 
-	protected void resolve(DecisionPoint dp, Option o) {
-		contest = dp.contest.clone(false);
-
-		// resolve the option
-		Resolve resolve = new Resolve(dp.teamId, o.problemId);
-		resolveSubmissions(o, resolve);
-
-		// then keep going until we get to the next decision point or the end
-		resolve = getNextResolve(o);
-		while (resolve != null) {
-			resolveSubmissions(o, resolve);
-			resolve = getNextResolve(o);
-		}
-	}
-
-	private Resolve getNextResolve(Option opt) {
-		ITeam[] teams = contest.getOrderedTeams();
-		IProblem[] problems = contest.getProblems();
+	private Resolve getNextResolve(Contest c, BitSet resolved, Option opt) {
+		ITeam[] teams = c.getOrderedTeams();
+		IProblem[] problems = c.getProblems();
 		for (int i = teams.length - 1; i >= 0; i--) {
 			ITeam team = teams[i];
 
@@ -357,19 +505,22 @@ public class ResolverOptimizer {
 				if (is.teamId.equals(team.getId())) {
 					List<Integer> list = new ArrayList<>();
 					for (int j : is.problemIds) {
-						IResult r1 = contest.getResult(team, j);
+						IResult r1 = c.getResult(team, j);
 						if (r1.getStatus() == Status.SUBMITTED) {
 							list.add(j);
 						}
 					}
 					if (list.size() > 1) {
-						// there's a decision point here!
-						DecisionPoint dp = new DecisionPoint(team.getId());
-						dp.contest = contest;
+						// there's a decision point here! reuse it if we've been here before
+						DecisionPoint dp = new DecisionPoint(team.getId(), new StateKey(resolved));
 						for (Integer j : list)
 							dp.options.add(new Option(problems[j].getId()));
 
-						dps.add(dp);
+						DecisionPoint existing = dps.putIfAbsent(dp.state, dp);
+						if (existing != null) {
+							memoHits.incrementAndGet();
+							dp = existing;
+						}
 						opt.dp = dp;
 						return null;
 					}
@@ -378,7 +529,7 @@ public class ResolverOptimizer {
 
 			// otherwise, default to pick left
 			for (int j = 0; j < problems.length; j++) {
-				IResult r1 = contest.getResult(team, j);
+				IResult r1 = c.getResult(team, j);
 				if (r1.getStatus() == Status.SUBMITTED) {
 					return new Resolve(team.getId(), problems[j].getId());
 				}
@@ -387,4 +538,4 @@ public class ResolverOptimizer {
 		opt.end = true;
 		return null;
 	}
-}
\ No newline at end of file
+}
@@ -492,7 +492,7 @@ public class ResolverUI {
 		while (i < steps.size()) {
 			ResolutionStep step = steps.get(i);
 			if (step instanceof ContestStateStep)
-				return ((ContestStateStep) step).contest;
+				return ((ContestStateStep) step).getContest();
 			i++;
 		}
 
@@ -501,17 +501,17 @@ public class ResolverUI {
 
 	private int processStep(ResolutionStep step) {
 		if (step instanceof ContestStateStep) {
-			ContestStateStep state = (ContestStateStep) step;
-			splashPresentation.setContest(state.contest);
-			scoreboardPresentation.setContest(state.contest);
-			teamListPresentation.setContest(state.contest);
-			teamListPhotoPresentation.setContest(state.contest);
-			judgePresentation.setContest(state.contest);
-			awardPresentation.setContest(state.contest);
+			Contest contest = ((ContestStateStep) step).getContest();
+			splashPresentation.setContest(contest);
+			scoreboardPresentation.setContest(contest);
+			teamListPresentation.setContest(contest);
+			teamListPhotoPresentation.setContest(contest);
+			judgePresentation.setContest(contest);
+			awardPresentation.setContest(contest);
 			if (teamLogoPresentation != null)
-				teamLogoPresentation.setContest(state.contest);
+				teamLogoPresentation.setContest(contest);
 			if (orgPresentation != null)
-				orgPresentation.setContest(state.contest);
+				orgPresentation.setContest(contest);
 		} else if (step instanceof TeamSelectionStep) {
 			TeamSelectionStep sel = (TeamSelectionStep) step;
 			scoreboardPresentation.setSelectedTeams(sel.teams, sel.type);